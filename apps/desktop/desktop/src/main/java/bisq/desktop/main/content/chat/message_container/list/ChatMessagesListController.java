@@ -228,7 +228,8 @@ public class ChatMessagesListController implements Controller {
 
         model.getChatMessages().forEach(ChatMessageListItem::dispose);
         model.getChatMessages().clear();
-        model.getChatMessageIds().clear();
+        model.getChatMessageItemById().clear();
+        model.setHighlightedChatMessageItem(null);
     }
 
     private void selectedChannelChanged(ChatChannel<? extends ChatMessage> channel) {
@@ -243,7 +244,8 @@ public class ChatMessagesListController implements Controller {
             // Clear and call dispose on the current messages when we change the channel.
             model.getChatMessages().forEach(ChatMessageListItem::dispose);
             model.getChatMessages().clear();
-            model.getChatMessageIds().clear();
+            model.getChatMessageItemById().clear();
+            model.setHighlightedChatMessageItem(null);
             model.setAutoScrollToBottom(true);
             model.setHasExpiredMessagesIndicator(false);
 
@@ -291,15 +293,9 @@ public class ChatMessagesListController implements Controller {
             }
             highlightedMessagePin = publicChatChannel.getHighlightedMessage().addObserver(highlightedMessage -> {
                 if (highlightedMessage != null) {
-                    model.getChatMessages()
-                            .forEach(item -> {
-                                boolean shouldHighlightMessage = item.getChatMessage().getId().equals(highlightedMessage.getId());
-                                item.getShowHighlighted().set(shouldHighlightMessage);
-                                if (shouldHighlightMessage) {
-                                    // Need to delay this action otherwise the scroll to bottom functionality cancels this out
-                                    UIScheduler.run(() -> view.scrollToChatMessage(item)).after(110);
-                                }
-                            });
+                    highlightChatMessage(highlightedMessage.getId())
+                            // Need to delay this action otherwise the scroll to bottom functionality cancels this out
+                            .ifPresent(item -> UIScheduler.run(() -> view.scrollToChatMessage(item)).after(110));
                 }
             });
         }
@@ -622,15 +618,7 @@ public class ChatMessagesListController implements Controller {
     }
 
     public void onClickQuoteMessage(Optional<String> chatMessageId) {
-        chatMessageId.ifPresent(messageId -> {
-            model.getChatMessages().forEach(item -> {
-                boolean shouldHighlightMessage = item.getChatMessage().getId().equals(messageId);
-                item.getShowHighlighted().set(shouldHighlightMessage);
-                if (shouldHighlightMessage) {
-                    view.scrollToChatMessage(item);
-                }
-            });
-        });
+        chatMessageId.ifPresent(messageId -> highlightChatMessage(messageId).ifPresent(view::scrollToChatMessage));
     }
 
 
@@ -716,10 +704,8 @@ public class ChatMessagesListController implements Controller {
                         authorizedBondedRolesService))
                 .collect(Collectors.toCollection(LinkedHashSet::new)); // preserve insertion order
         model.getChatMessages().addAll(items);
-        model.getChatMessageIds().clear();
-        model.getChatMessageIds().addAll(items.stream()
-                .map(e -> e.getChatMessage().getId())
-                .collect(Collectors.toSet()));
+        model.getChatMessageItemById().clear();
+        items.forEach(item -> model.getChatMessageItemById().put(item.getChatMessage().getId(), item));
         updateHasBisqEasyOfferMessages();
 
         boolean shouldShowWarningMessageForNoneMediator = dontShowAgainService.showAgain(DONT_SHOW_CHAT_RULES_WARNING_KEY)
@@ -737,7 +723,7 @@ public class ChatMessagesListController implements Controller {
             public void onAdded(M chatMessage) {
                 UIThread.run(() -> {
                     // Avoid to add already existing items
-                    if (model.getChatMessageIds().contains(chatMessage.getId())) {
+                    if (model.getChatMessageItemById().containsKey(chatMessage.getId())) {
                         return;
                     }
                     if (chatMessage.getChatMessageType() == TAKE_BISQ_EASY_OFFER) {
@@ -759,7 +745,7 @@ public class ChatMessagesListController implements Controller {
                             resendMessageService,
                             authorizedBondedRolesService);
                     model.getChatMessages().add(item);
-                    model.getChatMessageIds().add(chatMessage.getId());
+                    model.getChatMessageItemById().put(chatMessage.getId(), item);
                     maybeScrollDownOnNewItemAdded();
                     maybeAddExpiredMessagesIndicator();
                     updateHasBisqEasyOfferMessages();
@@ -770,15 +756,11 @@ public class ChatMessagesListController implements Controller {
             public void onRemoved(Object element) {
                 UIThread.run(() -> {
                     if (element instanceof ChatMessage chatMessage) {
-                        Optional<ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>>> toRemove =
-                                model.getChatMessages().stream()
-                                        .filter(item -> item.getChatMessage().getId().equals(chatMessage.getId()))
-                                        .findAny();
-                        toRemove.ifPresent(item -> {
-                            item.dispose();
-                            model.getChatMessages().remove(item);
-                            model.getChatMessageIds().remove(item.getChatMessage().getId());
-                        });
+                        Optional.ofNullable(model.getChatMessageItemById().remove(chatMessage.getId()))
+                                .ifPresent(item -> {
+                                    item.dispose();
+                                    model.getChatMessages().remove(item);
+                                });
                         updateHasBisqEasyOfferMessages();
                     }
                 });
@@ -789,7 +771,8 @@ public class ChatMessagesListController implements Controller {
                 UIThread.run(() -> {
                     model.getChatMessages().forEach(ChatMessageListItem::dispose);
                     model.getChatMessages().clear();
-                    model.getChatMessageIds().clear();
+                    model.getChatMessageItemById().clear();
+                    model.setHighlightedChatMessageItem(null);
                     updateHasBisqEasyOfferMessages();
                 });
             }
@@ -1028,6 +1011,19 @@ public class ChatMessagesListController implements Controller {
                 });
     }
 
+    private Optional<ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>>> highlightChatMessage(String chatMessageId) {
+        ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>> previous = model.getHighlightedChatMessageItem();
+        if (previous != null) {
+            previous.getShowHighlighted().set(false);
+        }
+        ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>> item = model.getChatMessageItemById().get(chatMessageId);
+        if (item != null) {
+            item.getShowHighlighted().set(true);
+        }
+        model.setHighlightedChatMessageItem(item);
+        return Optional.ofNullable(item);
+    }
+
     private void updateHasBisqEasyOfferMessages() {
         if (model.getSelectedChannel().get() instanceof BisqEasyOfferbookChannel channel) {
             model.getHasBisqEasyOfferMessages().set(channel.getBisqEasyOffers().findAny().isPresent());
@@ -1064,7 +1060,7 @@ public class ChatMessagesListController implements Controller {
         }
 
         ChatChannel<?> channel = model.getSelectedChannel().get();
-        boolean shouldShowExpiredMessagesIndicator = !model.getChatMessageIds().isEmpty()
+        boolean shouldShowExpiredMessagesIndicator = !model.getChatMessageItemById().isEmpty()
                 && (channel instanceof CommonPublicChatChannel || channel instanceof BisqEasyOfferbookChannel);
         if (shouldShowExpiredMessagesIndicator) {
             addExpiredMessagesIndicator(channel);
@@ -36,8 +36,8 @@ import javafx.collections.transformation.SortedList;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Predicate;
 
 @Getter
@@ -47,7 +47,11 @@ public class ChatMessagesListModel implements bisq.desktop.common.view.Model {
     private final ObservableList<ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>>> chatMessages = FXCollections.observableArrayList();
     private final FilteredList<ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>>> filteredChatMessages = new FilteredList<>(chatMessages);
     private final SortedList<ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>>> sortedChatMessages = new SortedList<>(filteredChatMessages);
-    private final Set<String> chatMessageIds = new HashSet<>();
+    // The list items of the channel's chat messages by the chat message ID. Does not contain the chat rules warning and
+    // the expired messages indicator items.
+    private final Map<String, ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>>> chatMessageItemById = new HashMap<>();
+    @Setter
+    private ChatMessageListItem<? extends ChatMessage, ? extends ChatChannel<? extends ChatMessage>> highlightedChatMessageItem;
     private final BooleanProperty layoutChildrenDone = new SimpleBooleanProperty();
     private final BooleanProperty hasBisqEasyOfferMessages = new SimpleBooleanProperty(false);
 
@@ -27,6 +27,7 @@ import bisq.chat.notifications.ChatNotificationService;
 import bisq.common.application.Service;
 import bisq.common.observable.Observable;
 import bisq.common.observable.Pin;
+import bisq.common.observable.collection.CollectionObserver;
 import bisq.common.observable.collection.ObservableSet;
 import bisq.settings.CookieKey;
 import bisq.settings.SettingsService;
@@ -41,6 +42,7 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -65,6 +67,9 @@ public class BisqEasyNotificationsService implements Service {
     private final ObservableSet<ChatNotification> dismissedNotifications = new ObservableSet<>();
 
     private final Set<ChatNotification> orphanedNotifications = new CopyOnWriteArraySet<>();
+    // IDs of the offerbook channels which contain at least one offer. Used by the WITH_OFFERS markets filter.
+    private final Set<String> offerbookChannelIdsWithOffers = ConcurrentHashMap.newKeySet();
+    private final Set<Pin> offerbookMessagesPins = new HashSet<>();
 
     public BisqEasyNotificationsService(ChatNotificationService chatNotificationService,
                                         BisqEasyMediatorService bisqEasyMediatorService,
@@ -94,6 +99,30 @@ public class BisqEasyNotificationsService implements Service {
         tradesPin = bisqEasyTradeService.getTrades().addObserver(this::handleTradesOrTradeChannelsChange);
         channelsPin = bisqEasyOpenTradeChannelService.getChannels().addObserver(this::handleTradesOrTradeChannelsChange);
 
+        // The offerbook channels are a static list and do not change at runtime.
+        // We add the observers before the cookieChangedPin, which puts the initial predicate.
+        bisqEasyOfferbookChannelService.getChannels().forEach(channel ->
+                offerbookMessagesPins.add(channel.getChatMessages().addObserver(new CollectionObserver<>() {
+                    @Override
+                    public void onAdded(BisqEasyOfferbookMessage message) {
+                        if (message.hasBisqEasyOffer() && offerbookChannelIdsWithOffers.add(channel.getId())) {
+                            handleMarketsWithOffersChange();
+                        }
+                    }
+
+                    @Override
+                    public void onRemoved(Object element) {
+                        if (element instanceof BisqEasyOfferbookMessage message && message.hasBisqEasyOffer()) {
+                            updateChannelWithOffers(channel);
+                        }
+                    }
+
+                    @Override
+                    public void onCleared() {
+                        updateChannelWithOffers(channel);
+                    }
+                })));
+
         cookieChangedPin = settingsService.getCookieChanged().addObserver(cookieChanged ->
                 updateBisqEasyOfferbookPredicate());
         favouriteMarketsPin = settingsService.getFavouriteMarkets().addObserver(this::updateBisqEasyOfferbookPredicate);
@@ -124,6 +153,10 @@ public class BisqEasyNotificationsService implements Service {
             favouriteMarketsPin = null;
         }
 
+        offerbookMessagesPins.forEach(Pin::unbind);
+        offerbookMessagesPins.clear();
+        offerbookChannelIdsWithOffers.clear();
+
         return CompletableFuture.completedFuture(true);
     }
 
@@ -215,8 +248,31 @@ public class BisqEasyNotificationsService implements Service {
         isNotificationPanelVisible.set(!tradeNotifications.isEmpty());
     }
 
+    private void updateChannelWithOffers(BisqEasyOfferbookChannel channel) {
+        boolean hasOffers = channel.getChatMessages().stream().anyMatch(BisqEasyOfferbookMessage::hasBisqEasyOffer);
+        boolean changed = hasOffers
+                ? offerbookChannelIdsWithOffers.add(channel.getId())
+                : offerbookChannelIdsWithOffers.remove(channel.getId());
+        if (changed) {
+            handleMarketsWithOffersChange();
+        }
+    }
+
+    private void handleMarketsWithOffersChange() {
+        // The notification counts are only recomputed when the predicate gets put. Before initialize has completed,
+        // the cookieChangedPin is null and the initial predicate is put when it gets added.
+        if (cookieChangedPin != null && BisqEasyMarketFilter.WITH_OFFERS.name().equals(getMarketsFilterCookie())) {
+            updateBisqEasyOfferbookPredicate();
+        }
+    }
+
+    @Nullable
+    private String getMarketsFilterCookie() {
+        return settingsService.getCookie().asString(CookieKey.MARKETS_FILTER).orElse(null);
+    }
+
     private void updateBisqEasyOfferbookPredicate() {
-        String cookie = settingsService.getCookie().asString(CookieKey.MARKETS_FILTER).orElse(null);
+        String cookie = getMarketsFilterCookie();
         boolean isFavouritesOnlyFilterSet = BisqEasyMarketFilter.FAVOURITES.name().equals(cookie);
         boolean isMarketsWithOffersFilterSet = BisqEasyMarketFilter.WITH_OFFERS.name().equals(cookie);
 
@@ -234,16 +290,11 @@ public class BisqEasyNotificationsService implements Service {
                 chatNotificationService.putPredicate(ChatChannelDomain.BISQ_EASY_OFFERBOOK, favouriteMarketsPredicate);
             } else {
                 // We show markets with offers + favourites
+                // We put the predicate again when a market gets its first offer or loses its last offer.
                 Predicate<ChatNotification> predicate = notification -> favouriteMarketsPredicate.test(notification) ||
-                        getMarketsWithOffersPredicate(bisqEasyOfferbookChannelService).test(notification);
+                        offerbookChannelIdsWithOffers.contains(notification.getChatChannelId());
                 chatNotificationService.putPredicate(ChatChannelDomain.BISQ_EASY_OFFERBOOK, predicate);
             }
         }
     }
-
-    private static Predicate<ChatNotification> getMarketsWithOffersPredicate(BisqEasyOfferbookChannelService bisqEasyOfferbookChannelService) {
-        return notification -> bisqEasyOfferbookChannelService.findChannel(notification.getChatChannelId())
-                .map(channel -> channel.getChatMessages().stream().anyMatch(BisqEasyOfferbookMessage::hasBisqEasyOffer))
-                .orElse(false);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bisq_easy;
+
+import bisq.chat.ChatChannelDomain;
+import bisq.chat.bisq_easy.offerbook.BisqEasyOfferbookChannel;
+import bisq.chat.bisq_easy.offerbook.BisqEasyOfferbookChannelService;
+import bisq.chat.bisq_easy.offerbook.BisqEasyOfferbookMessage;
+import bisq.chat.bisq_easy.open_trades.BisqEasyOpenTradeChannel;
+import bisq.chat.bisq_easy.open_trades.BisqEasyOpenTradeChannelService;
+import bisq.chat.notifications.ChatNotification;
+import bisq.chat.notifications.ChatNotificationService;
+import bisq.common.market.Market;
+import bisq.common.observable.Observable;
+import bisq.common.observable.collection.ObservableSet;
+import bisq.settings.Cookie;
+import bisq.settings.CookieKey;
+import bisq.settings.SettingsService;
+import bisq.support.mediation.bisq_easy.BisqEasyMediatorService;
+import bisq.trade.bisq_easy.BisqEasyTrade;
+import bisq.trade.bisq_easy.BisqEasyTradeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BisqEasyNotificationsServiceTest {
+    private final BisqEasyOfferbookChannel channel = new BisqEasyOfferbookChannel(new Market("BTC", "EUR", "Bitcoin", "Euro"));
+    private final ChatNotificationService chatNotificationService = mock(ChatNotificationService.class);
+    private BisqEasyNotificationsService service;
+
+    @BeforeEach
+    void setUp() {
+        when(chatNotificationService.getNotConsumedNotifications()).thenAnswer(invocation -> Stream.empty());
+        when(chatNotificationService.getNotConsumedNotifications(any(ChatChannelDomain.class))).thenAnswer(invocation -> Stream.empty());
+        when(chatNotificationService.getChangedNotification()).thenReturn(new Observable<>());
+
+        BisqEasyOfferbookChannelService offerbookChannelService = mock(BisqEasyOfferbookChannelService.class);
+        ObservableSet<BisqEasyOfferbookChannel> offerbookChannels = new ObservableSet<>();
+        offerbookChannels.add(channel);
+        when(offerbookChannelService.getChannels()).thenReturn(offerbookChannels);
+        when(offerbookChannelService.findChannel(channel.getId())).thenReturn(Optional.of(channel));
+
+        Cookie cookie = mock(Cookie.class);
+        when(cookie.asString(CookieKey.MARKETS_FILTER)).thenReturn(Optional.of(BisqEasyMarketFilter.WITH_OFFERS.name()));
+        SettingsService settingsService = mock(SettingsService.class);
+        when(settingsService.getCookie()).thenReturn(cookie);
+        when(settingsService.getCookieChanged()).thenReturn(new Observable<>(false));
+        when(settingsService.getFavouriteMarkets()).thenReturn(new ObservableSet<>());
+
+        BisqEasyTradeService tradeService = mock(BisqEasyTradeService.class);
+        when(tradeService.getTrades()).thenReturn(new ObservableSet<BisqEasyTrade>());
+        BisqEasyOpenTradeChannelService openTradeChannelService = mock(BisqEasyOpenTradeChannelService.class);
+        when(openTradeChannelService.getChannels()).thenReturn(new ObservableSet<BisqEasyOpenTradeChannel>());
+
+        service = new BisqEasyNotificationsService(chatNotificationService,
+                mock(BisqEasyMediatorService.class),
+                offerbookChannelService,
+                settingsService,
+                tradeService,
+                openTradeChannelService);
+        service.initialize().join();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown().join();
+    }
+
+    @Test
+    void predicateIsPutAgainWhenMarketGetsOrLosesOffers() {
+        ChatNotification notification = mock(ChatNotification.class);
+        when(notification.getChatChannelId()).thenReturn(channel.getId());
+        assertThat(getLastPredicate().test(notification)).isFalse();
+        clearInvocations(chatNotificationService);
+
+        BisqEasyOfferbookMessage offerMessage1 = createOfferMessage();
+        BisqEasyOfferbookMessage offerMessage2 = createOfferMessage();
+        channel.getChatMessages().add(offerMessage1);
+        assertThat(getLastPredicate().test(notification)).isTrue();
+        clearInvocations(chatNotificationService);
+
+        // The market has offers already, so the counts do not need to be recomputed
+        channel.getChatMessages().add(offerMessage2);
+        channel.getChatMessages().remove(offerMessage1);
+        verify(chatNotificationService, never()).putPredicate(any(), any());
+
+        channel.getChatMessages().remove(offerMessage2);
+        assertThat(getLastPredicate().test(notification)).isFalse();
+    }
+
+    @Test
+    void messagesWithoutOfferDoNotChangePredicate() {
+        clearInvocations(chatNotificationService);
+        BisqEasyOfferbookMessage message = mock(BisqEasyOfferbookMessage.class);
+        when(message.hasBisqEasyOffer()).thenReturn(false);
+
+        channel.getChatMessages().add(message);
+        channel.getChatMessages().remove(message);
+
+        verify(chatNotificationService, never()).putPredicate(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<ChatNotification> getLastPredicate() {
+        ArgumentCaptor<Predicate<ChatNotification>> captor = ArgumentCaptor.forClass(Predicate.class);
+        verify(chatNotificationService, atLeastOnce())
+                .putPredicate(eq(ChatChannelDomain.BISQ_EASY_OFFERBOOK), captor.capture());
+        return captor.getValue();
+    }
+
+    private static BisqEasyOfferbookMessage createOfferMessage() {
+        BisqEasyOfferbookMessage message = mock(BisqEasyOfferbookMessage.class);
+        when(message.hasBisqEasyOffer()).thenReturn(true);
+        return message;
+    }
+}
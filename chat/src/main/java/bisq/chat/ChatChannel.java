@@ -35,7 +35,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @ToString
@@ -49,6 +51,10 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
     @Getter
     protected final transient ObservableSet<String> userProfileIdsOfActiveParticipants = new ObservableSet<>();
     protected final transient Map<String, AtomicInteger> numMessagesByAuthorId = new HashMap<>();
+    // Index of the chat messages by their ID for resolving reactions, citations and removals without iterating
+    // all messages. Updated together with getChatMessages() in addChatMessage and removeChatMessage.
+    @ToString.Exclude
+    protected final transient Map<String, M> chatMessageById = new ConcurrentHashMap<>();
     @Getter
     protected final transient Set<String> userProfileIdsOfSendingLeaveMessage = new HashSet<>();
 
@@ -95,6 +101,7 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
     public boolean addChatMessage(M chatMessage) {
         boolean changed = getChatMessages().add(chatMessage);
         if (changed) {
+            chatMessageById.put(chatMessage.getId(), chatMessage);
             String authorUserProfileId = chatMessage.getAuthorUserProfileId();
             numMessagesByAuthorId.putIfAbsent(authorUserProfileId, new AtomicInteger());
             numMessagesByAuthorId.get(authorUserProfileId).incrementAndGet();
@@ -105,6 +112,8 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
     public boolean removeChatMessage(M chatMessage) {
         boolean changed = getChatMessages().remove(chatMessage);
         if (changed) {
+            // Only remove the entry if it still maps to that message instance
+            chatMessageById.remove(chatMessage.getId(), chatMessage);
             String authorUserProfileId = chatMessage.getAuthorUserProfileId();
             if (numMessagesByAuthorId.containsKey(authorUserProfileId)) {
                 AtomicInteger numMessages = numMessagesByAuthorId.get(authorUserProfileId);
@@ -121,6 +130,10 @@ public abstract class ChatChannel<M extends ChatMessage> implements PersistableP
         messages.forEach(this::removeChatMessage);
     }
 
+    public Optional<M> findChatMessage(String chatMessageId) {
+        return Optional.ofNullable(chatMessageById.get(chatMessageId));
+    }
+
     public abstract String getDisplayString();
 
     public abstract ObservableSet<M> getChatMessages();
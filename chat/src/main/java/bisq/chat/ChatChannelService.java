@@ -20,6 +20,8 @@ package bisq.chat;
 import bisq.chat.notifications.ChatChannelNotificationType;
 import bisq.chat.reactions.ChatMessageReaction;
 import bisq.common.application.Service;
+import bisq.common.observable.Pin;
+import bisq.common.observable.collection.CollectionObserver;
 import bisq.common.observable.collection.ObservableSet;
 import bisq.network.NetworkService;
 import bisq.persistence.PersistableStore;
@@ -30,8 +32,10 @@ import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfileService;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,6 +46,8 @@ public abstract class ChatChannelService<M extends ChatMessage, C extends ChatCh
     protected final UserProfileService userProfileService;
     protected final ChatChannelDomain chatChannelDomain;
     protected final BannedUserService bannedUserService;
+    private final Map<String, C> channelById = new ConcurrentHashMap<>();
+    private volatile Pin channelsPin;
 
     public ChatChannelService(NetworkService networkService,
                               UserService userService,
@@ -127,9 +133,11 @@ public abstract class ChatChannelService<M extends ChatMessage, C extends ChatCh
     }
 
     public Optional<C> findChannel(String channelId) {
-        return getChannels().stream()
-                .filter(channel -> channel.getId().equals(channelId))
-                .findAny();
+        return Optional.ofNullable(getChannelById().get(channelId));
+    }
+
+    public Optional<M> findChatMessage(String channelId, String chatMessageId) {
+        return findChannel(channelId).flatMap(channel -> channel.findChatMessage(chatMessageId));
     }
 
     public Optional<C> getDefaultChannel() {
@@ -165,4 +173,39 @@ public abstract class ChatChannelService<M extends ChatMessage, C extends ChatCh
     }
 
     protected abstract void checkRateLimit(String authorUserProfileId, long messageDate);
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    // getChannels() is provided by the subclasses, and their stores are not available at construction time. Thus, we
+    // bind the index at first use. The observer adds all existing channels at registration.
+    private Map<String, C> getChannelById() {
+        if (channelsPin == null) {
+            synchronized (channelById) {
+                if (channelsPin == null) {
+                    channelsPin = getChannels().addObserver(new CollectionObserver<>() {
+                        @Override
+                        public void onAdded(C channel) {
+                            channelById.put(channel.getId(), channel);
+                        }
+
+                        @Override
+                        public void onRemoved(Object element) {
+                            if (element instanceof ChatChannel<?> channel) {
+                                channelById.remove(channel.getId(), channel);
+                            }
+                        }
+
+                        @Override
+                        public void onCleared() {
+                            channelById.clear();
+                        }
+                    });
+                }
+            }
+        }
+        return channelById;
+    }
 }
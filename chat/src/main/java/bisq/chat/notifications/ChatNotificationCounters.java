@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.chat.notifications;
+
+import bisq.chat.ChatChannelDomain;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Number of the not consumed notifications which pass the predicate of their domain, per domain and per channel.
+ * <p>
+ * The counts are updated when a notification gets added, consumed or removed. At a predicate change the counts of that
+ * domain get recomputed once. We keep the counted notifications by their ID, so that consuming or removing a
+ * notification only decrements the counts if it had been counted before, even if the predicate result would be
+ * different meanwhile.
+ */
+final class ChatNotificationCounters {
+    private final Map<String, ChatNotification> countedById = new HashMap<>();
+    private final Map<ChatChannelDomain, Integer> numByDomain = new EnumMap<>(ChatChannelDomain.class);
+    private final Map<ChatChannelDomain, Map<String, Integer>> numByChannelIdByDomain = new EnumMap<>(ChatChannelDomain.class);
+
+    synchronized void add(ChatNotification notification, Predicate<ChatNotification> predicate) {
+        if (notification.isNotConsumed() &&
+                !countedById.containsKey(notification.getId()) &&
+                predicate.test(notification)) {
+            countedById.put(notification.getId(), notification);
+            update(notification, 1);
+        }
+    }
+
+    synchronized void remove(ChatNotification notification) {
+        ChatNotification counted = countedById.remove(notification.getId());
+        if (counted != null) {
+            update(counted, -1);
+        }
+    }
+
+    synchronized void reset(ChatChannelDomain chatChannelDomain,
+                            Stream<ChatNotification> notConsumedNotifications,
+                            Predicate<ChatNotification> predicate) {
+        Iterator<ChatNotification> iterator = countedById.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getChatChannelDomain() == chatChannelDomain) {
+                iterator.remove();
+            }
+        }
+        numByDomain.remove(chatChannelDomain);
+        numByChannelIdByDomain.remove(chatChannelDomain);
+        notConsumedNotifications
+                .filter(notification -> notification.getChatChannelDomain() == chatChannelDomain)
+                .forEach(notification -> add(notification, predicate));
+    }
+
+    synchronized void clear() {
+        countedById.clear();
+        numByDomain.clear();
+        numByChannelIdByDomain.clear();
+    }
+
+    synchronized long getNumNotifications(ChatChannelDomain chatChannelDomain) {
+        return numByDomain.getOrDefault(chatChannelDomain, 0);
+    }
+
+    synchronized long getNumNotifications(ChatChannelDomain chatChannelDomain, String chatChannelId) {
+        Map<String, Integer> numByChannelId = numByChannelIdByDomain.get(chatChannelDomain);
+        return numByChannelId == null ? 0 : numByChannelId.getOrDefault(chatChannelId, 0);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void update(ChatNotification notification, int delta) {
+        ChatChannelDomain chatChannelDomain = notification.getChatChannelDomain();
+        numByDomain.merge(chatChannelDomain, delta, ChatNotificationCounters::sumOrNull);
+        numByChannelIdByDomain.computeIfAbsent(chatChannelDomain, key -> new HashMap<>())
+                .merge(notification.getChatChannelId(), delta, ChatNotificationCounters::sumOrNull);
+    }
+
+    // Returning null removes the entry, so that we do not keep entries of channels without notifications
+    private static Integer sumOrNull(Integer value, Integer delta) {
+        int sum = value + delta;
+        return sum == 0 ? null : sum;
+    }
+}
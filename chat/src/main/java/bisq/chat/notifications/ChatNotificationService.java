@@ -90,6 +90,7 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
     @Getter
     private final Observable<ChatNotification> changedNotification = new Observable<>();
     private final Map<ChatChannelDomain, Predicate<ChatNotification>> predicateByChatChannelDomain = new HashMap<>();
+    private final ChatNotificationCounters counters = new ChatNotificationCounters();
     private final Map<String, Pin> chatMessagesByChannelIdPins = new ConcurrentHashMap<>();
     private final long startUpDateTime = System.currentTimeMillis();
     @Setter
@@ -165,6 +166,13 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
         prunedAndExpiredChatMessageIds.forEach(this::removeNotification);
         prunedAndExpiredChatMessageIds.clear();
 
+        // The persisted notifications have been applied, so we initialize the counters
+        synchronized (persistableStore) {
+            for (ChatChannelDomain chatChannelDomain : ChatChannelDomain.values()) {
+                counters.reset(chatChannelDomain, persistableStore.getNotConsumedNotifications(), getPredicate(chatChannelDomain));
+            }
+        }
+
         BisqEasyOpenTradeChannelService bisqEasyOpenTradeChannelService = chatService.getBisqEasyOpenTradeChannelService();
         bisqEasyOpenTradeChannelServicePin = bisqEasyOpenTradeChannelService.getChannels().addObserver(() ->
                 onChannelsChanged(bisqEasyOpenTradeChannelService.getChannels()));
@@ -208,6 +216,7 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
         prunedAndExpiredDataRequestPins.clear();
 
         predicateByChatChannelDomain.clear();
+        counters.clear();
         prunedAndExpiredChatMessageIds.forEach(this::removeNotification);
         prunedAndExpiredChatMessageIds.clear();
 
@@ -278,11 +287,11 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
     }
 
     public long getNumNotifications(ChatChannelDomain chatChannelDomain) {
-        return getNotConsumedNotifications(chatChannelDomain).count();
+        return counters.getNumNotifications(chatChannelDomain);
     }
 
     public long getNumNotifications(ChatChannelDomain chatChannelDomain, String chatChannelId) {
-        return getNotConsumedNotifications(chatChannelDomain, chatChannelId).count();
+        return counters.getNumNotifications(chatChannelDomain, chatChannelId);
     }
 
 
@@ -290,8 +299,15 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
     // ChatChannelDomain based Predicate
     /* --------------------------------------------------------------------- */
 
+    /**
+     * The number of notifications gets recomputed with the given predicate. Clients need to put the predicate again if
+     * the state it depends on has changed.
+     */
     public void putPredicate(ChatChannelDomain chatChannelDomain, Predicate<ChatNotification> predicate) {
         predicateByChatChannelDomain.put(chatChannelDomain, predicate);
+        synchronized (persistableStore) {
+            counters.reset(chatChannelDomain, persistableStore.getNotConsumedNotifications(), predicate);
+        }
         // We use the changedNotification observable for triggering updates. We could make predicateByChatChannelDomain
         // an ObservableHashMap but then all clients need to handle both observables.
         // Seems better to use the below hack to force an update on changedNotification.
@@ -305,9 +321,7 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
     }
 
     public Boolean testChatChannelDomainPredicate(ChatNotification chatNotification) {
-        return findPredicate(chatNotification.getChatChannelDomain())
-                .map(predicate -> predicate.test(chatNotification))
-                .orElse(true);
+        return getPredicate(chatNotification.getChatChannelDomain()).test(chatNotification);
     }
 
 
@@ -322,6 +336,7 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
                 persistableStore.getNotifications().add(notification);
                 wasAdded = true;
             }
+            counters.add(notification, getPredicate(notification.getChatChannelDomain()));
             // We always set it as otherwise at restart with no new notifications we would not trigger the observers
             changedNotification.set(notification);
         }
@@ -337,6 +352,7 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
             wasRemoved = candidate.map(notification -> {
                         boolean result = persistableStore.getNotifications().remove(notification);
                         if (result) {
+                            counters.remove(notification);
                             changedNotification.set(null);
                             changedNotification.set(notification);
                         }
@@ -371,6 +387,7 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
                         .orElse(false);
             }
             if (hadChange) {
+                counters.remove(notification);
                 // If we changed the consumed state we need to trigger an update of the observable by setting it to null
                 // first as the isConsumed field is excluded from EqualsAndHashCode and thus would not trigger
                 // notifications of observers.
@@ -383,6 +400,10 @@ public class ChatNotificationService extends RateLimitedPersistenceClient<ChatNo
         }
     }
 
+    private Predicate<ChatNotification> getPredicate(ChatChannelDomain chatChannelDomain) {
+        return predicateByChatChannelDomain.getOrDefault(chatChannelDomain, notification -> true);
+    }
+
     private boolean isConsumed(ChatNotification notification) {
         synchronized (persistableStore) {
             return persistableStore.findNotification(notification).map(e -> e.getIsConsumed().get()).orElse(false);
@@ -215,18 +215,12 @@ public abstract class PublicChatChannelService<M extends PublicChatMessage, C ex
     protected abstract void maybeAddDefaultChannels();
 
     protected void processAddedReaction(R chatMessageReaction) {
-        findChannel(chatMessageReaction.getChatChannelId())
-                .flatMap(channel -> channel.getChatMessages().stream()
-                        .filter(message -> message.getId().equals(chatMessageReaction.getChatMessageId()))
-                        .findFirst())
+        findChatMessage(chatMessageReaction.getChatChannelId(), chatMessageReaction.getChatMessageId())
                 .ifPresent(message -> addMessageReaction(chatMessageReaction, message));
     }
 
     protected void processRemovedReaction(R chatMessageReaction) {
-        findChannel(chatMessageReaction.getChatChannelId())
-                .flatMap(channel -> channel.getChatMessages().stream()
-                        .filter(message -> message.getId().equals(chatMessageReaction.getChatMessageId()))
-                        .findFirst())
+        findChatMessage(chatMessageReaction.getChatChannelId(), chatMessageReaction.getChatMessageId())
                 .ifPresent(message -> removeMessageReaction(chatMessageReaction, message));
     }
 
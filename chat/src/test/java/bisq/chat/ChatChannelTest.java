@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.chat;
+
+import bisq.chat.common.CommonPublicChatChannel;
+import bisq.chat.common.CommonPublicChatMessage;
+import bisq.chat.common.SubDomain;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatChannelTest {
+    private static final String AUTHOR_ID = "0123456789abcdef0123456789abcdef01234567";
+
+    @Test
+    void findChatMessageFollowsAddAndRemove() {
+        CommonPublicChatChannel channel = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, SubDomain.DISCUSSION_BISQ);
+        CommonPublicChatMessage message = createMessage(channel, "text");
+        assertFalse(channel.findChatMessage(message.getId()).isPresent());
+
+        channel.addChatMessage(message);
+        assertEquals(Optional.of(message), channel.findChatMessage(message.getId()));
+
+        channel.removeChatMessage(message);
+        assertFalse(channel.findChatMessage(message.getId()).isPresent());
+    }
+
+    @Test
+    void removingOtherInstanceWithSameIdKeepsIndexedMessage() {
+        CommonPublicChatChannel channel = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, SubDomain.DISCUSSION_BISQ);
+        CommonPublicChatMessage message = createMessage(channel, "text");
+        CommonPublicChatMessage sameId = new CommonPublicChatMessage(message.getId(),
+                ChatChannelDomain.DISCUSSION,
+                channel.getId(),
+                AUTHOR_ID,
+                Optional.of("edited"),
+                Optional.empty(),
+                message.getDate(),
+                true,
+                ChatMessageType.TEXT);
+
+        channel.addChatMessage(message);
+        channel.addChatMessage(sameId);
+        channel.removeChatMessage(message);
+
+        assertTrue(channel.findChatMessage(message.getId()).isPresent());
+        assertEquals(sameId, channel.findChatMessage(message.getId()).orElseThrow());
+    }
+
+    private static CommonPublicChatMessage createMessage(CommonPublicChatChannel channel, String text) {
+        return new CommonPublicChatMessage(ChatChannelDomain.DISCUSSION,
+                channel.getId(),
+                AUTHOR_ID,
+                text,
+                Optional.empty(),
+                System.currentTimeMillis(),
+                false);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.chat.notifications;
+
+import bisq.chat.ChatChannelDomain;
+import bisq.chat.common.CommonPublicChatChannel;
+import bisq.chat.common.CommonPublicChatMessage;
+import bisq.chat.common.SubDomain;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ChatNotificationCountersTest {
+    private static final String AUTHOR_ID = "0123456789abcdef0123456789abcdef01234567";
+
+    @Test
+    void countsFollowAddConsumeAndRemove() {
+        CommonPublicChatChannel bisqChannel = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, SubDomain.DISCUSSION_BISQ);
+        ChatNotification first = createNotification(bisqChannel);
+        ChatNotification second = createNotification(bisqChannel);
+        ChatNotificationCounters counters = new ChatNotificationCounters();
+
+        counters.add(first, notification -> true);
+        counters.add(second, notification -> true);
+        // Adding the same notification again has no effect
+        counters.add(first, notification -> true);
+        assertEquals(2, counters.getNumNotifications(ChatChannelDomain.DISCUSSION));
+        assertEquals(2, counters.getNumNotifications(ChatChannelDomain.DISCUSSION, bisqChannel.getId()));
+        assertEquals(0, counters.getNumNotifications(ChatChannelDomain.DISCUSSION, "otherChannelId"));
+
+        first.setConsumed(true);
+        counters.remove(first);
+        assertEquals(1, counters.getNumNotifications(ChatChannelDomain.DISCUSSION, bisqChannel.getId()));
+
+        counters.remove(second);
+        // Removing a not counted notification has no effect
+        counters.remove(second);
+        assertEquals(0, counters.getNumNotifications(ChatChannelDomain.DISCUSSION));
+        assertEquals(0, counters.getNumNotifications(ChatChannelDomain.DISCUSSION, bisqChannel.getId()));
+    }
+
+    @Test
+    void resetAppliesPredicate() {
+        CommonPublicChatChannel bisqChannel = new CommonPublicChatChannel(ChatChannelDomain.DISCUSSION, SubDomain.DISCUSSION_BISQ);
+        ChatNotification first = createNotification(bisqChannel);
+        ChatNotification second = createNotification(bisqChannel);
+        ChatNotificationCounters counters = new ChatNotificationCounters();
+        counters.add(first, notification -> true);
+        counters.add(second, notification -> true);
+
+        counters.reset(ChatChannelDomain.DISCUSSION, Stream.of(first, second), notification -> notification.equals(first));
+        assertEquals(1, counters.getNumNotifications(ChatChannelDomain.DISCUSSION, bisqChannel.getId()));
+
+        // Not counted by the predicate, so removal must not decrement
+        counters.remove(second);
+        assertEquals(1, counters.getNumNotifications(ChatChannelDomain.DISCUSSION));
+
+        counters.reset(ChatChannelDomain.DISCUSSION, Stream.of(first, second), notification -> false);
+        assertEquals(0, counters.getNumNotifications(ChatChannelDomain.DISCUSSION));
+    }
+
+    private static ChatNotification createNotification(CommonPublicChatChannel channel) {
+        CommonPublicChatMessage message = new CommonPublicChatMessage(channel.getChatChannelDomain(),
+                channel.getId(),
+                AUTHOR_ID,
+                "text",
+                Optional.empty(),
+                System.currentTimeMillis(),
+                false);
+        return new ChatNotification(ChatNotification.createId(channel.getId(), message.getId()),
+                "title",
+                "message",
+                channel,
+                message,
+                Optional.empty());
+    }
+}
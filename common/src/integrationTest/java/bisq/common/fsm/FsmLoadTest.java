@@ -0,0 +1,228 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.fsm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives many Fsm instances with a trade protocol sized path of transitions, as a busy mediator or arbitrator would,
+ * and logs the number of handled events per second. Every second event is delivered before its predecessor, so that
+ * half of the events get applied from the pending event queue.
+ */
+@Slf4j
+public class FsmLoadTest {
+    private static final int NUM_FSMS = 10_000;
+    private static final EventHandlerConstructors EVENT_HANDLER_CONSTRUCTORS =
+            new EventHandlerConstructors(Object.class, FsmModel.class);
+
+    @Test
+    void handleEventsOfManyFsms() {
+        // Warm up the JIT
+        for (int i = 0; i < 20; i++) {
+            handleEvents(createFsms());
+        }
+
+        List<LoadFsm> fsms = createFsms();
+        long ts = System.nanoTime();
+        int numEvents = handleEvents(fsms);
+        long durationNanos = System.nanoTime() - ts;
+        log.info("Handled {} events of {} Fsm instances in {} ms. {} events/sec",
+                numEvents, NUM_FSMS, durationNanos / 1_000_000, numEvents * 1_000_000_000L / durationNanos);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private List<LoadFsm> createFsms() {
+        List<LoadFsm> fsms = new ArrayList<>();
+        for (int i = 0; i < NUM_FSMS; i++) {
+            fsms.add(new LoadFsm(new FsmModel(LoadState.INIT)));
+        }
+        return fsms;
+    }
+
+    private int handleEvents(List<LoadFsm> fsms) {
+        List<Event> events = List.of(new Event1(), new Event2(), new Event3(), new Event4(),
+                new Event5(), new Event6(), new Event7(), new Event8());
+        int numEvents = 0;
+        for (LoadFsm fsm : fsms) {
+            for (int i = 0; i < events.size(); i += 2) {
+                fsm.handle(events.get(i + 1));
+                fsm.handle(events.get(i));
+                numEvents += 2;
+            }
+            assertThat(fsm.getModel().getState()).isEqualTo(LoadState.COMPLETED);
+            assertThat(fsm.numHandledEvents).isEqualTo(events.size());
+            // Persisted once per external event, not for the events applied from the queue
+            assertThat(fsm.numPersisted).isEqualTo(events.size());
+        }
+        return numEvents;
+    }
+
+    private enum LoadState implements State {
+        INIT,
+        S1,
+        S2,
+        S3,
+        S4,
+        S5,
+        S6,
+        S7,
+        COMPLETED(true);
+
+        private final boolean isFinalState;
+
+        LoadState() {
+            this(false);
+        }
+
+        LoadState(boolean isFinalState) {
+            this.isFinalState = isFinalState;
+        }
+
+        @Override
+        public boolean isFinalState() {
+            return isFinalState;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return ordinal();
+        }
+    }
+
+    private record Event1() implements Event {
+    }
+
+    private record Event2() implements Event {
+    }
+
+    private record Event3() implements Event {
+    }
+
+    private record Event4() implements Event {
+    }
+
+    private record Event5() implements Event {
+    }
+
+    private record Event6() implements Event {
+    }
+
+    private record Event7() implements Event {
+    }
+
+    private record Event8() implements Event {
+    }
+
+    public static class LoadEventHandler implements EventHandler<Event> {
+        private final LoadFsm fsm;
+
+        public LoadEventHandler(Object serviceProvider, FsmModel model) {
+            fsm = (LoadFsm) serviceProvider;
+        }
+
+        @Override
+        public void handle(Event event) {
+            fsm.numHandledEvents++;
+        }
+    }
+
+    private static class LoadFsm extends Fsm<FsmModel> {
+        private int numHandledEvents;
+        private int numPersisted;
+
+        private LoadFsm(FsmModel model) {
+            super(model);
+        }
+
+        @Override
+        protected void configErrorHandling() {
+            fromAny()
+                    .on(FsmErrorEvent.class)
+                    .to(State.FsmState.ERROR);
+        }
+
+        @Override
+        protected void configTransitions() {
+            addTransition()
+                    .from(LoadState.INIT)
+                    .on(Event1.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.S1)
+                    .then()
+                    .from(LoadState.S1)
+                    .on(Event2.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.S2)
+                    .then()
+                    .from(LoadState.S2)
+                    .on(Event3.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.S3)
+                    .then()
+                    .from(LoadState.S3)
+                    .on(Event4.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.S4)
+                    .then()
+                    .from(LoadState.S4)
+                    .on(Event5.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.S5)
+                    .then()
+                    .from(LoadState.S5)
+                    .on(Event6.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.S6)
+                    .then()
+                    .from(LoadState.S6)
+                    .on(Event7.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.S7)
+                    .then()
+                    .from(LoadState.S7)
+                    .on(Event8.class)
+                    .run(LoadEventHandler.class)
+                    .to(LoadState.COMPLETED);
+        }
+
+        @Override
+        protected <E extends Event> EventHandler<E> newEventHandlerFromClass(Class<? extends EventHandler<E>> handlerClass) {
+            try {
+                // We pass the fsm as service provider to count the handled events
+                return EVENT_HANDLER_CONSTRUCTORS.newInstance(handlerClass, this, model);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        protected void persist() {
+            numPersisted++;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.fsm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates event handlers by their constructor with the given parameter types. The constructors are looked up once per
+ * handler class and kept as method handles, so that creating a handler for an event does not require reflection.
+ * Intended to be held in a static field of the Fsm implementation and used in newEventHandlerFromClass.
+ */
+public final class EventHandlerConstructors {
+    private final Class<?>[] parameterTypes;
+    private final Map<Class<?>, MethodHandle> constructorByHandlerClass = new ConcurrentHashMap<>();
+
+    public EventHandlerConstructors(Class<?>... parameterTypes) {
+        this.parameterTypes = parameterTypes;
+    }
+
+    public <E extends Event> EventHandler<E> newInstance(Class<? extends EventHandler<E>> handlerClass, Object... args)
+            throws ReflectiveOperationException {
+        MethodHandle constructor = getConstructor(handlerClass);
+        try {
+            return handlerClass.cast(constructor.invokeWithArguments(args));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private MethodHandle getConstructor(Class<?> handlerClass) throws ReflectiveOperationException {
+        MethodHandle constructor = constructorByHandlerClass.get(handlerClass);
+        if (constructor == null) {
+            // Concurrent lookups of the same constructor are harmless, thus we do not use computeIfAbsent
+            constructor = MethodHandles.lookup()
+                    .unreflectConstructor(handlerClass.getDeclaredConstructor(parameterTypes))
+                    .asType(MethodType.methodType(Object.class, parameterTypes));
+            constructorByHandlerClass.put(handlerClass, constructor);
+        }
+        return constructor;
+    }
+}
@@ -17,17 +17,15 @@
 
 package bisq.common.fsm;
 
-import bisq.common.data.Pair;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -42,12 +40,20 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <br/>
  * The Fsm does not allow cycle graphs or transitions to previous states. For determining the order of the states we
  * use getOrdinal() which returns in case of enums the ordinal.
+ * <br/>
+ * The transitions are indexed by event class and source state when they get configured, so that handling an event
+ * requires only 2 map lookups. Transitions from any state are indexed with the source state FsmState.ANY.
+ * <br/>
+ * Pending events and error events are handled by recursive calls to handle. We persist only once, when the handling
+ * of the external event including all recursive calls has completed.
  */
 @Slf4j
 public abstract class Fsm<M extends FsmModel> {
-    private final Map<Pair<State, Class<? extends Event>>, Transition> transitionMap = new HashMap<>();
+    private final Map<Class<? extends Event>, Map<State, Transition>> transitionsByEventClass = new HashMap<>();
     @Getter
     protected final M model;
+    // Depth of recursive handle calls. Only accessed inside the synchronized block.
+    private int handleDepth;
 
     protected Fsm(M model) {
         this.model = model;
@@ -62,6 +68,7 @@ public abstract class Fsm<M extends FsmModel> {
 
     public <E extends Event> void handle(E event) {
         synchronized (this) {
+            handleDepth++;
             try {
                 checkNotNull(event, "event must not be null");
                 State currentState = model.getState();
@@ -72,9 +79,9 @@ public abstract class Fsm<M extends FsmModel> {
                 }
                 log.info("Start transition from currentState {}", currentState);
                 Class<? extends Event> eventClass = event.getClass();
-                var transitionMapEntriesForEvent = findTransitionMapEntriesForEvent(eventClass);
-                checkArgument(!transitionMapEntriesForEvent.isEmpty(), "No transition found for given event " + event);
-                Optional<Transition> transition = findTransition(currentState, transitionMapEntriesForEvent);
+                Map<State, Transition> transitionsForEvent = transitionsByEventClass.get(eventClass);
+                checkArgument(transitionsForEvent != null, "No transition found for given event " + event);
+                Optional<Transition> transition = findTransition(currentState, transitionsForEvent);
                 if (transition.isPresent()) {
                     State targetState = transition.get().getTargetState();
                     checkArgument(targetState.getOrdinal() > currentState.getOrdinal(),
@@ -101,8 +108,14 @@ public abstract class Fsm<M extends FsmModel> {
                         // If an exception is thrown by the processed pending event it will get thrown to the
                         // caller. This would be a different triggering event as the event which cause
                         // the exception (the one from the queue).
-                        // Clone set to avoid ConcurrentModificationException
-                        new HashSet<>(model.getEventQueue()).forEach(this::handle);
+                        // We only apply the pending events which have a transition from the new state. The others
+                        // would stay in the queue anyway. Copy to a list to avoid ConcurrentModificationException.
+                        if (!model.eventQueue.isEmpty()) {
+                            List<Event> applicableEvents = model.eventQueue.stream()
+                                    .filter(pendingEvent -> findTransition(targetState, pendingEvent.getClass()).isPresent())
+                                    .toList();
+                            applicableEvents.forEach(this::handle);
+                        }
                     }
                 } else {
                     log.info("We did not find a transition with state {} and event {}. " +
@@ -110,10 +123,9 @@ public abstract class Fsm<M extends FsmModel> {
                             currentState, eventClass.getSimpleName());
                     // In case we get an event which does not match our current state we add the event to our
                     // event queue if the event was not already processed.
-                    transitionMap.keySet().stream()
-                            .filter(key -> key.getSecond().equals(eventClass) &&
-                                    !model.processedEvents.contains(eventClass))
-                            .forEach(e -> model.eventQueue.add(event));
+                    if (!model.processedEvents.contains(eventClass)) {
+                        model.eventQueue.add(event);
+                    }
                 }
             } catch (Exception exception) {
                 log.error("Error at handling {}.", event, exception);
@@ -122,13 +134,15 @@ public abstract class Fsm<M extends FsmModel> {
                 // We apply that only if the event which triggered the exception was not the FsmErrorEvent itself
                 // to avoid potential recursive calls if the error handling code causes a follow-up exception.
                 if (!(event instanceof FsmErrorEvent)) {
-                    persist();
                     handle(new FsmErrorEvent(fsmException));
                 }
                 // We throw the exception to allow specific error handling to the implementation class.
                 throw fsmException;
             } finally {
-                persist();
+                handleDepth--;
+                if (handleDepth == 0) {
+                    persist();
+                }
             }
         }
     }
@@ -159,28 +173,30 @@ public abstract class Fsm<M extends FsmModel> {
     abstract protected <E extends Event> EventHandler<E> newEventHandlerFromClass(Class<? extends EventHandler<E>> handlerClass)
             throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException;
 
-    private Set<Map.Entry<Pair<State, Class<? extends Event>>, Transition>> findTransitionMapEntriesForEvent(Class<? extends Event> eventClass) {
-        return transitionMap.entrySet().stream()
-                .filter(e -> e.getKey().getSecond().equals(eventClass))
-                .collect(Collectors.toSet());
+    private Optional<Transition> findTransition(State currentState, Class<? extends Event> eventClass) {
+        Map<State, Transition> transitionsForEvent = transitionsByEventClass.get(eventClass);
+        return transitionsForEvent != null ? findTransition(currentState, transitionsForEvent) : Optional.empty();
     }
 
-    private Optional<Transition> findTransition(State currentState,
-                                                Set<Map.Entry<Pair<State, Class<? extends Event>>, Transition>> transitionMapEntriesForEvent) {
-        return transitionMapEntriesForEvent.stream()
-                .filter(e -> e.getKey().getFirst().equals(currentState) || e.getKey().getFirst().isAnyState())
-                .map(Map.Entry::getValue)
-                .findAny();
+    private Optional<Transition> findTransition(State currentState, Map<State, Transition> transitionsForEvent) {
+        Transition transition = transitionsForEvent.get(currentState);
+        if (transition == null) {
+            transition = transitionsForEvent.get(State.FsmState.ANY);
+        }
+        return Optional.ofNullable(transition);
     }
 
     private void insertTransition(Transition transition) {
         try {
             checkArgument(transition.isValid(), "Invalid transition. transition=%s", transition);
+            Map<State, Transition> transitionsForEvent = transitionsByEventClass.computeIfAbsent(transition.getEventClass(),
+                    eventClass -> new HashMap<>());
             transition.getSourceStates().forEach(sourceState -> {
-                Pair<State, Class<? extends Event>> pair = new Pair<>(sourceState, transition.getEventClass());
-                checkArgument(!transitionMap.containsKey(pair),
-                        "A transition exists already with the state/event pair. pair=%s", pair);
-                transitionMap.put(pair, transition);
+                State key = sourceState.isAnyState() ? State.FsmState.ANY : sourceState;
+                checkArgument(!transitionsForEvent.containsKey(key),
+                        "A transition exists already with the state/event pair. state=%s, event=%s",
+                        key, transition.getEventClass().getSimpleName());
+                transitionsForEvent.put(key, transition);
             });
         } catch (IllegalArgumentException e) {
             throw new FsmConfigException(e);
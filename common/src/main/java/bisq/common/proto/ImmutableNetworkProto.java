@@ -0,0 +1,32 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+/**
+ * NetworkProto which does not change its state after construction. As the serialized form cannot change we compute
+ * serializeForHash at most once per instance and share the result with all callers (e.g. authorization token
+ * creation and verification, storage hashes, inventory).
+ * <p>
+ * The returned byte array is shared and must not be modified by the caller.
+ */
+public interface ImmutableNetworkProto extends NetworkProto {
+    @Override
+    default byte[] serializeForHash() {
+        return SerializedForHashCache.computeIfAbsent(this, () -> NetworkProto.super.serializeForHash());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import com.google.common.collect.MapMaker;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Holds the serializeForHash result of ImmutableNetworkProto instances. Keys are weak and compared by identity, thus
+ * an entry is removed once the instance is garbage collected and equal but distinct instances do not share an entry.
+ */
+final class SerializedForHashCache {
+    private static final Map<Proto, byte[]> CACHE = new MapMaker().weakKeys().makeMap();
+
+    private SerializedForHashCache() {
+    }
+
+    static byte[] computeIfAbsent(Proto proto, Supplier<byte[]> serializer) {
+        byte[] serialized = CACHE.get(proto);
+        if (serialized == null) {
+            // In case of concurrent calls we might serialize more than once, but all get the same result.
+            serialized = serializer.get();
+            byte[] previous = CACHE.putIfAbsent(proto, serialized);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return serialized;
+    }
+}
@@ -221,6 +221,51 @@ public class ExecutorFactory {
     }
 
 
+    /* --------------------------------------------------------------------- */
+    // Virtual threads
+    /* --------------------------------------------------------------------- */
+
+    /**
+     * Creates a {@link ThreadPoolExecutor} which uses virtual threads as workers.
+     *
+     * <p>Virtual threads do not bind a platform thread while they are blocked in socket I/O or {@code Thread.sleep},
+     * thus {@code maxPoolSize} can be much larger as with platform threads. Up to {@code maxPoolSize} workers are
+     * created before tasks get queued. If the queue is full the task is passed to the {@code handler}. Idle workers
+     * terminate after 5 seconds.</p>
+     *
+     * <p>Blocking inside a {@code synchronized} block pins the carrier thread of a virtual thread (Java 21), thus tasks
+     * should use {@link java.util.concurrent.locks.ReentrantLock} for locks held during blocking calls.</p>
+     *
+     * @param name          the name prefix used for the virtual threads created by this executor
+     * @param maxPoolSize   the maximum number of tasks executed concurrently
+     * @param queueCapacity the maximum number of tasks which can be queued once maxPoolSize tasks are running
+     * @param handler       the handler invoked when the queue is full
+     * @return a new {@link ThreadPoolExecutor} backed by virtual threads
+     */
+    public static ThreadPoolExecutor newVirtualThreadPool(String name,
+                                                          int maxPoolSize,
+                                                          int queueCapacity,
+                                                          RejectedExecutionHandler handler) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxPoolSize,
+                maxPoolSize,
+                5,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                getVirtualThreadFactoryWithCounter(name),
+                handler);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs each task on a new virtual thread. Used as the shared executor of {@link SerialExecutor}s, which provide
+     * the ordering and the bound of the queued tasks.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(getVirtualThreadFactoryWithCounter(name));
+    }
+
+
     /* --------------------------------------------------------------------- */
     // ThreadFactory
     /* --------------------------------------------------------------------- */
@@ -229,6 +274,10 @@ public class ExecutorFactory {
         return getThreadFactory(name + "-%d");
     }
 
+    public static ThreadFactory getVirtualThreadFactoryWithCounter(String name) {
+        return Thread.ofVirtual().name(name + "-", 0).factory();
+    }
+
     public static ThreadFactory getThreadFactory(String name) {
         return new ThreadFactoryBuilder()
                 .setNameFormat(name)
@@ -0,0 +1,294 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.threading;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Executes the submitted tasks on a shared executor, giving precedence to tasks of lanes with higher priority.
+ * <p>
+ * The lanes are the constants of the enum L, a lower ordinal means a higher priority. Each lane has its own bounded
+ * queue. If a lane's queue is full, its oldest task gets discarded, so that a flood of tasks in one lane never drops
+ * tasks of other lanes. At most maxParallelism workers run at the shared executor. Each worker always takes the next
+ * task from the lane with the highest priority which has queued tasks.
+ * <p>
+ * For each lane the queue size, the number of executed and discarded tasks and the time the tasks waited in the
+ * queue are recorded.
+ */
+@Slf4j
+public class PriorityLaneExecutor<L extends Enum<L>> extends AbstractExecutorService {
+    @Getter
+    @ToString
+    public static final class LaneMetrics {
+        private final int queueSize;
+        private final long numExecuted;
+        private final long numDiscarded;
+        private final long averageLatencyMs;
+        private final long maxLatencyMs;
+
+        private LaneMetrics(int queueSize, long numExecuted, long numDiscarded, long averageLatencyMs, long maxLatencyMs) {
+            this.queueSize = queueSize;
+            this.numExecuted = numExecuted;
+            this.numDiscarded = numDiscarded;
+            this.averageLatencyMs = averageLatencyMs;
+            this.maxLatencyMs = maxLatencyMs;
+        }
+    }
+
+    private static final class QueuedTask {
+        private final Runnable task;
+        private final long enqueueTimeNanos;
+
+        private QueuedTask(Runnable task) {
+            this.task = task;
+            enqueueTimeNanos = System.nanoTime();
+        }
+    }
+
+    private static final class Lane {
+        private final Queue<QueuedTask> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queueSize = new AtomicInteger();
+        private final LongAdder numExecuted = new LongAdder();
+        private final LongAdder numDiscarded = new LongAdder();
+        private final LongAdder accumulatedLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private QueuedTask poll() {
+            QueuedTask queuedTask = tasks.poll();
+            if (queuedTask != null) {
+                queueSize.decrementAndGet();
+            }
+            return queuedTask;
+        }
+    }
+
+    private final String name;
+    private final Executor executor;
+    private final Class<L> laneType;
+    private final L defaultLane;
+    private final int maxParallelism;
+    private final int queueCapacityPerLane;
+    private final Lane[] lanes;
+    private final AtomicInteger numWorkers = new AtomicInteger();
+    private final CountDownLatch terminationLatch = new CountDownLatch(1);
+    private volatile boolean isShutdown;
+
+    /**
+     * @param defaultLane The lane used for tasks submitted by the ExecutorService methods.
+     */
+    public PriorityLaneExecutor(String name,
+                                Executor executor,
+                                Class<L> laneType,
+                                L defaultLane,
+                                int maxParallelism,
+                                int queueCapacityPerLane) {
+        checkArgument(maxParallelism > 0, "maxParallelism must be > 0");
+        checkArgument(queueCapacityPerLane > 0, "queueCapacityPerLane must be > 0");
+        this.name = name;
+        this.executor = executor;
+        this.laneType = laneType;
+        this.defaultLane = defaultLane;
+        this.maxParallelism = maxParallelism;
+        this.queueCapacityPerLane = queueCapacityPerLane;
+        int numLanes = laneType.getEnumConstants().length;
+        lanes = new Lane[numLanes];
+        for (int i = 0; i < numLanes; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        execute(task, defaultLane);
+    }
+
+    public void execute(Runnable task, L lane) {
+        if (isShutdown) {
+            // Like with the DiscardOldestPolicy we do not throw, as callers iterating over listeners would break
+            log.warn("{} is shut down. We drop the task.", name);
+            return;
+        }
+        Lane queue = lanes[lane.ordinal()];
+        if (queue.queueSize.incrementAndGet() > queueCapacityPerLane) {
+            if (queue.poll() != null) {
+                queue.numDiscarded.increment();
+                log.warn("Queue of lane {} at {} with capacity {} is full. We removed the oldest task of that lane.",
+                        lane, name, queueCapacityPerLane);
+            }
+        }
+        queue.tasks.add(new QueuedTask(task));
+        maybeStartWorker();
+    }
+
+    public Future<?> submit(Runnable task, L lane) {
+        RunnableFuture<Void> future = newTaskFor(task, null);
+        execute(future, lane);
+        return future;
+    }
+
+    public LaneMetrics getLaneMetrics(L lane) {
+        Lane queue = lanes[lane.ordinal()];
+        long numExecuted = queue.numExecuted.sum();
+        long averageLatencyNanos = numExecuted > 0 ? queue.accumulatedLatencyNanos.sum() / numExecuted : 0;
+        return new LaneMetrics(Math.max(0, queue.queueSize.get()),
+                numExecuted,
+                queue.numDiscarded.sum(),
+                TimeUnit.NANOSECONDS.toMillis(averageLatencyNanos),
+                TimeUnit.NANOSECONDS.toMillis(queue.maxLatencyNanos.get()));
+    }
+
+    public String getMetrics() {
+        StringBuilder sb = new StringBuilder(name);
+        for (L lane : laneType.getEnumConstants()) {
+            sb.append("\n").append(lane).append(": ").append(getLaneMetrics(lane));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        tryTerminate();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        List<Runnable> notExecuted = new ArrayList<>();
+        for (Lane lane : lanes) {
+            QueuedTask queuedTask;
+            while ((queuedTask = lane.poll()) != null) {
+                notExecuted.add(queuedTask.task);
+            }
+        }
+        tryTerminate();
+        return notExecuted;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return isShutdown && numWorkers.get() == 0 && !hasQueuedTasks();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminationLatch.await(timeout, unit);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void maybeStartWorker() {
+        if (tryIncrementNumWorkers()) {
+            try {
+                executor.execute(this::runWorker);
+            } catch (RejectedExecutionException e) {
+                numWorkers.decrementAndGet();
+                log.error("Shared executor rejected worker of {}", name, e);
+            }
+        }
+    }
+
+    private boolean tryIncrementNumWorkers() {
+        int current;
+        do {
+            current = numWorkers.get();
+            if (current >= maxParallelism) {
+                return false;
+            }
+        } while (!numWorkers.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void runWorker() {
+        while (true) {
+            QueuedTask queuedTask = pollHighestPriorityTask();
+            if (queuedTask == null) {
+                numWorkers.decrementAndGet();
+                // A task might have been added after our poll, while all workers were still counted as running
+                if (hasQueuedTasks() && tryIncrementNumWorkers()) {
+                    continue;
+                }
+                tryTerminate();
+                return;
+            }
+            try {
+                queuedTask.task.run();
+            } catch (Throwable t) {
+                log.error("Task at {} failed", name, t);
+            }
+        }
+    }
+
+    private QueuedTask pollHighestPriorityTask() {
+        for (Lane lane : lanes) {
+            QueuedTask queuedTask = lane.poll();
+            if (queuedTask != null) {
+                long latencyNanos = System.nanoTime() - queuedTask.enqueueTimeNanos;
+                lane.numExecuted.increment();
+                lane.accumulatedLatencyNanos.add(latencyNanos);
+                lane.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+                return queuedTask;
+            }
+        }
+        return null;
+    }
+
+    // Called after each change of the shutdown flag, the workers or the queues which could lead to termination, thus
+    // at least one caller sees the terminated state.
+    private void tryTerminate() {
+        if (isTerminated()) {
+            terminationLatch.countDown();
+        }
+    }
+
+    private boolean hasQueuedTasks() {
+        for (Lane lane : lanes) {
+            if (!lane.tasks.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.threading;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executes the submitted tasks one after another in submission order on a shared executor.
+ * <p>
+ * Many SerialExecutors can share a small thread pool, while each of them behaves like a single thread executor.
+ * No thread is bound to a SerialExecutor while it has no tasks. After MAX_TASKS_PER_RUN tasks the SerialExecutor
+ * re-submits itself to the shared executor, so that other SerialExecutors get a chance to run.
+ */
+@Slf4j
+public class SerialExecutor extends AbstractExecutorService {
+    private static final int MAX_TASKS_PER_RUN = 16;
+
+    private final String name;
+    private final Executor executor;
+    private final int queueCapacity;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numQueuedTasks = new AtomicInteger();
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+    private volatile boolean isShutdown;
+    private volatile Thread runningThread;
+
+    public SerialExecutor(String name, Executor executor, int queueCapacity) {
+        this.name = name;
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (isShutdown) {
+            throw new RejectedExecutionException("Task rejected from " + name + " as it is shut down");
+        }
+        if (numQueuedTasks.incrementAndGet() > queueCapacity) {
+            numQueuedTasks.decrementAndGet();
+            log.warn("Task rejected from {} with capacity {}. We throw a RejectedExecutionException", name, queueCapacity);
+            throw new RejectedExecutionException("Task rejected from " + name + " as queue is full");
+        }
+        tasks.add(task);
+        schedule();
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        List<Runnable> notExecuted = new ArrayList<>();
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            numQueuedTasks.decrementAndGet();
+            notExecuted.add(task);
+        }
+        Thread thread = runningThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        return notExecuted;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return isShutdown && tasks.isEmpty() && !isScheduled.get();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isTerminated()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void schedule() {
+        if (isScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                isScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void run() {
+        runningThread = Thread.currentThread();
+        try {
+            Runnable task;
+            int numExecutedTasks = 0;
+            while (numExecutedTasks < MAX_TASKS_PER_RUN && (task = tasks.poll()) != null) {
+                numQueuedTasks.decrementAndGet();
+                numExecutedTasks++;
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    log.error("Task at {} failed", name, t);
+                }
+            }
+        } finally {
+            runningThread = null;
+            // Clear the interrupt flag from shutdownNow, as the thread belongs to the shared executor
+            Thread.interrupted();
+            isScheduled.set(false);
+            // A task might have been added after we have polled the last one but before we reset isScheduled
+            if (!tasks.isEmpty()) {
+                try {
+                    schedule();
+                } catch (RejectedExecutionException e) {
+                    log.error("Shared executor rejected {}. {} tasks are not executed.", name, tasks.size(), e);
+                }
+            }
+        }
+    }
+}
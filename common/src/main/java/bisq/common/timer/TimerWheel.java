@@ -0,0 +1,156 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.timer;
+
+import bisq.common.threading.ExecutorFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Hashed timer wheel for a large number of short delays.
+ * <p>
+ * Scheduling is O(1) and does not create a thread or a scheduled future per task. A single thread advances the wheel
+ * at each tick and runs the expired tasks. Tasks are executed with a precision of one tick and must not block, they
+ * are expected to hand over the work to another executor.
+ */
+@Slf4j
+public class TimerWheel {
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private final String name;
+    private final long tickDurationNanos;
+    private final Queue<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final long startTimeNanos;
+    private final ExecutorService executor;
+    private volatile boolean isStopped;
+    // Only accessed by the timer thread
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String name, long tickDurationMs, int numBuckets) {
+        checkArgument(tickDurationMs > 0, "tickDurationMs must be > 0");
+        checkArgument(numBuckets > 0 && Integer.bitCount(numBuckets) == 1, "numBuckets must be a power of 2");
+        this.name = name;
+        tickDurationNanos = TimeUnit.MILLISECONDS.toNanos(tickDurationMs);
+        buckets = new Queue[numBuckets];
+        for (int i = 0; i < numBuckets; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        mask = numBuckets - 1;
+        startTimeNanos = System.nanoTime();
+        executor = ExecutorFactory.newSingleThreadExecutor(name);
+        executor.submit(this::run);
+    }
+
+    public void schedule(Runnable task, long delayMs) {
+        if (isStopped) {
+            log.warn("{} is stopped. We do not schedule the task.", name);
+            return;
+        }
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        pendingTimeouts.add(new Timeout(task, deadlineNanos));
+    }
+
+    /**
+     * @return A future which gets completed on the timer thread after the delay. It fails if the timer is stopped.
+     */
+    public CompletableFuture<Void> delay(long delayMs) {
+        if (isStopped) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(name + " is stopped"));
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        schedule(() -> future.complete(null), delayMs);
+        return future;
+    }
+
+    public void shutdown() {
+        isStopped = true;
+        ExecutorFactory.shutdownAndAwaitTermination(executor);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void run() {
+        while (!isStopped && !Thread.currentThread().isInterrupted()) {
+            waitForNextTick();
+            transferPendingTimeouts();
+            expireTimeouts(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void waitForNextTick() {
+        long deadline = startTimeNanos + (tick + 1) * tickDurationNanos;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0 && !isStopped) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            long expiryTick = (timeout.deadlineNanos - startTimeNanos + tickDurationNanos - 1) / tickDurationNanos;
+            // Deadlines in the past get expired at the current tick
+            long targetTick = Math.max(expiryTick, tick);
+            timeout.remainingRounds = (targetTick - tick) / buckets.length;
+            buckets[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Queue<Timeout> bucket) {
+        int size = bucket.size();
+        for (int i = 0; i < size; i++) {
+            Timeout timeout = bucket.poll();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.add(timeout);
+                continue;
+            }
+            try {
+                timeout.task.run();
+            } catch (Exception e) {
+                log.error("Task at {} failed", name, e);
+            }
+        }
+    }
+}
@@ -521,6 +521,57 @@ public class FsmTest {
         });
     }
 
+    @Test
+    void testNestedEventsPersistOnce() {
+        MockModel model = new MockModel(MockState.INIT);
+        PersistCountingFsm fsm = new PersistCountingFsm(model);
+        fsm.addTransition()
+                .from(MockState.INIT)
+                .on(MockEvent1.class)
+                .run(MockEventHandler.class)
+                .to(MockState.S1);
+        fsm.addTransition()
+                .from(MockState.S1)
+                .on(MockEvent2.class)
+                .run(MockEventHandler.class)
+                .to(MockState.S2);
+        fsm.addTransition()
+                .from(MockState.S2)
+                .on(MockEvent3.class)
+                .run(MockEventHandler.class)
+                .to(MockState.S3);
+
+        // Out-of-order events get queued. Each external event persists once.
+        fsm.handle(new MockEvent3(model, "test3"));
+        fsm.handle(new MockEvent2(model, "test2"));
+        assertEquals(2, fsm.numPersistCalls);
+
+        // The queued events are handled by nested calls of handle, which must not persist
+        fsm.handle(new MockEvent1(model, "test1"));
+        assertEquals(MockState.S3, fsm.getModel().getState());
+        assertEquals("test3", fsm.getModel().data);
+        assertEquals(3, fsm.numPersistCalls);
+    }
+
+    @Test
+    void testFailingEventHandlerPersistsAndResetsDepth() {
+        MockModel model = new MockModel(MockState.INIT);
+        PersistCountingFsm fsm = new PersistCountingFsm(model);
+        fsm.addTransition()
+                .from(MockState.INIT)
+                .on(MockEvent1.class)
+                .run(FailingMockEventHandler.class)
+                .to(MockState.S1);
+
+        // The exception triggers a nested FsmErrorEvent. We persist once after the outer call has thrown.
+        fsm.handle(new MockEvent1(model, ""));
+        assertEquals(State.FsmState.ERROR, fsm.getModel().getState());
+        assertEquals(1, fsm.numPersistCalls);
+
+        // The depth got reset, so the next external event persists again
+        fsm.handle(new MockEvent2(model, ""));
+        assertEquals(2, fsm.numPersistCalls);
+    }
 
     @Getter
     public enum MockState implements State {
@@ -600,6 +651,19 @@ public class FsmTest {
         }
     }
 
+    public static class PersistCountingFsm extends SimpleFsm<MockModel> {
+        private int numPersistCalls;
+
+        public PersistCountingFsm(MockModel model) {
+            super(model);
+        }
+
+        @Override
+        protected void persist() {
+            numPersistCalls++;
+        }
+    }
+
     public static class MockModel extends FsmModel {
         public MockModel(MockState state) {
             super(state);
@@ -0,0 +1,45 @@
+package bisq.common.proto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ImmutableNetworkProtoTest {
+    private static class ImmutableChild implements ImmutableNetworkProto {
+        private final String childValue;
+        private int numGetBuilderCalls;
+
+        private ImmutableChild(String childValue) {
+            this.childValue = childValue;
+        }
+
+        @Override
+        public void verify() {
+        }
+
+        @Override
+        public bisq.common.test.protobuf.Child.Builder getBuilder(boolean serializeForHash) {
+            numGetBuilderCalls++;
+            return bisq.common.test.protobuf.Child.newBuilder()
+                    .setChildValue(childValue);
+        }
+    }
+
+    @Test
+    public void testSerializeForHashIsComputedOnce() {
+        ImmutableChild child = new ImmutableChild("childValue");
+        byte[] serializedForHash = child.serializeForHash();
+        assertSame(serializedForHash, child.serializeForHash());
+        assertEquals(1, child.numGetBuilderCalls);
+        assertArrayEquals(child.serialize(), serializedForHash);
+
+        // Equal instances do not share the cached value
+        ImmutableChild otherChild = new ImmutableChild("childValue");
+        byte[] otherSerializedForHash = otherChild.serializeForHash();
+        assertNotSame(serializedForHash, otherSerializedForHash);
+        assertArrayEquals(serializedForHash, otherSerializedForHash);
+    }
+}
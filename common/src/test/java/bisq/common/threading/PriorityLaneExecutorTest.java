@@ -0,0 +1,119 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.threading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriorityLaneExecutorTest {
+    private enum Lane {
+        HIGH,
+        LOW
+    }
+
+    @Test
+    public void testHigherPriorityLaneRunsFirstAndFullLaneDiscardsOldest() throws InterruptedException {
+        ExecutorService sharedExecutor = ExecutorFactory.newFixedThreadPool("PriorityLaneExecutorTest", 1);
+        PriorityLaneExecutor<Lane> executor = new PriorityLaneExecutor<>("PriorityLaneExecutorTest",
+                sharedExecutor,
+                Lane.class,
+                Lane.LOW,
+                1,
+                3);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        List<String> executionOrder = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(5);
+        for (int i = 0; i < 4; i++) {
+            String id = "low" + i;
+            executor.execute(() -> {
+                executionOrder.add(id);
+                latch.countDown();
+            });
+        }
+        for (int i = 0; i < 2; i++) {
+            String id = "high" + i;
+            executor.submit(() -> {
+                executionOrder.add(id);
+                latch.countDown();
+            }, Lane.HIGH);
+        }
+        assertEquals(3, executor.getLaneMetrics(Lane.LOW).getQueueSize());
+        assertEquals(1, executor.getLaneMetrics(Lane.LOW).getNumDiscarded());
+
+        blocker.countDown();
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of("high0", "high1", "low1", "low2", "low3"), executionOrder);
+        assertEquals(2, executor.getLaneMetrics(Lane.HIGH).getNumExecuted());
+        assertEquals(0, executor.getLaneMetrics(Lane.HIGH).getNumDiscarded());
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        sharedExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testAwaitTerminationWaitsForRunningAndQueuedTasks() throws InterruptedException {
+        ExecutorService sharedExecutor = ExecutorFactory.newFixedThreadPool("PriorityLaneExecutorTest", 1);
+        PriorityLaneExecutor<Lane> executor = new PriorityLaneExecutor<>("PriorityLaneExecutorTest",
+                sharedExecutor,
+                Lane.class,
+                Lane.LOW,
+                1,
+                3);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CountDownLatch queuedTaskExecuted = new CountDownLatch(1);
+        executor.execute(queuedTaskExecuted::countDown);
+
+        executor.shutdown();
+        assertFalse(executor.awaitTermination(50, TimeUnit.MILLISECONDS));
+        assertFalse(executor.isTerminated());
+
+        blocker.countDown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(0, queuedTaskExecuted.getCount());
+        sharedExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.threading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SerialExecutorTest {
+    @Test
+    public void testTasksRunSeriallyInSubmissionOrder() throws InterruptedException {
+        ExecutorService sharedExecutor = ExecutorFactory.newFixedThreadPool("SerialExecutorTest", 4);
+        int numSerialExecutors = 20;
+        int numTasks = 1000;
+        CountDownLatch latch = new CountDownLatch(numSerialExecutors * numTasks);
+        AtomicInteger numViolations = new AtomicInteger();
+        List<SerialExecutor> serialExecutors = new ArrayList<>();
+        for (int i = 0; i < numSerialExecutors; i++) {
+            SerialExecutor serialExecutor = new SerialExecutor("SerialExecutorTest-" + i, sharedExecutor, numTasks);
+            serialExecutors.add(serialExecutor);
+            AtomicInteger numRunning = new AtomicInteger();
+            int[] lastTask = {-1};
+            for (int task = 0; task < numTasks; task++) {
+                int expectedPreviousTask = task - 1;
+                int currentTask = task;
+                serialExecutor.execute(() -> {
+                    if (numRunning.incrementAndGet() != 1 || lastTask[0] != expectedPreviousTask) {
+                        numViolations.incrementAndGet();
+                    }
+                    lastTask[0] = currentTask;
+                    numRunning.decrementAndGet();
+                    latch.countDown();
+                });
+            }
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, numViolations.get());
+        serialExecutors.forEach(SerialExecutor::shutdown);
+        for (SerialExecutor serialExecutor : serialExecutors) {
+            assertTrue(serialExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+        sharedExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testRejectWhenQueueIsFullOrShutdown() throws InterruptedException {
+        ExecutorService sharedExecutor = ExecutorFactory.newFixedThreadPool("SerialExecutorTest", 1);
+        SerialExecutor serialExecutor = new SerialExecutor("SerialExecutorTest", sharedExecutor, 2);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        serialExecutor.execute(() -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        started.await();
+        serialExecutor.execute(() -> {
+        });
+        serialExecutor.execute(() -> {
+        });
+        assertThrows(RejectedExecutionException.class, () -> serialExecutor.execute(() -> {
+        }));
+
+        blocker.countDown();
+        serialExecutor.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> serialExecutor.execute(() -> {
+        }));
+        assertTrue(serialExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        sharedExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimerWheelTest {
+    @Test
+    public void testTasksRunAfterDelayInDeadlineOrder() throws InterruptedException {
+        // 8 buckets with 5 ms ticks, so delays above 40 ms need more than one round
+        TimerWheel timerWheel = new TimerWheel("TimerWheelTest", 5, 8);
+        List<Integer> executionOrder = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(4);
+        long ts = System.currentTimeMillis();
+        timerWheel.schedule(() -> {
+            executionOrder.add(3);
+            latch.countDown();
+        }, 120);
+        timerWheel.schedule(() -> {
+            executionOrder.add(1);
+            latch.countDown();
+        }, 20);
+        timerWheel.schedule(() -> {
+            executionOrder.add(2);
+            latch.countDown();
+        }, 60);
+        timerWheel.schedule(() -> {
+            executionOrder.add(0);
+            latch.countDown();
+        }, 0);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - ts >= 120);
+        assertEquals(List.of(0, 1, 2, 3), executionOrder);
+        timerWheel.shutdown();
+    }
+
+    @Test
+    public void testDelayFuture() throws Exception {
+        TimerWheel timerWheel = new TimerWheel("TimerWheelTest", 10, 64);
+        long ts = System.currentTimeMillis();
+        timerWheel.delay(50).get(2, TimeUnit.SECONDS);
+        assertTrue(System.currentTimeMillis() - ts >= 50);
+        timerWheel.shutdown();
+    }
+
+    @Test
+    public void testDelayFailsAfterShutdown() {
+        TimerWheel timerWheel = new TimerWheel("TimerWheelTest", 10, 64);
+        timerWheel.shutdown();
+        assertTrue(timerWheel.delay(50).isCompletedExceptionally());
+    }
+}
@@ -29,10 +29,13 @@ import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.authorization.AuthorizationTokenType;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
+import bisq.network.p2p.node.envelope.parser.nio.NetworkEnvelopeDeserializer;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
 import bisq.network.p2p.node.network_load.NetworkLoad;
 import bisq.security.pow.equihash.EquihashProofOfWorkService;
 import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,14 +47,20 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class NetworkEnvelopeSocketChannelTests {
 
@@ -182,6 +191,58 @@ public class NetworkEnvelopeSocketChannelTests {
         assertThat(receivedNetworkEnvelopes).containsExactly(requestNetworkEnvelope);
     }
 
+    @Test
+    void tooLargeMessageLengthIsRejected() throws IOException {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(5);
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(lengthBuffer);
+        codedOutputStream.writeUInt32NoTag(NetworkEnvelopeDeserializer.MAX_MESSAGE_LENGTH + 1);
+        codedOutputStream.flush();
+        lengthBuffer.flip();
+        serverToClientSocketChannel.write(lengthBuffer);
+
+        assertThatThrownBy(() -> networkEnvelopeSocketChannel.receiveNetworkEnvelopes())
+                .isInstanceOf(InvalidProtocolBufferException.class);
+    }
+
+    @Test
+    void invalidMessageIsRejected() throws IOException {
+        byte[] garbage = new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 0x01, 0x02, 0x03, 0x04, 0x05};
+        ByteBuffer buffer = ByteBuffer.allocate(1 + garbage.length);
+        buffer.put((byte) garbage.length).put(garbage).flip();
+        serverToClientSocketChannel.write(buffer);
+
+        assertThatThrownBy(() -> networkEnvelopeSocketChannel.receiveNetworkEnvelopes())
+                .isInstanceOf(InvalidProtocolBufferException.class);
+    }
+
+    @Test
+    void sendAllWaitsUntilNonBlockingChannelIsWritable() throws Exception {
+        // More data than the socket buffers can take, thus the sender has to wait for write readiness repeatedly
+        int numEnvelopes = 20_000;
+        NetworkEnvelope requestNetworkEnvelope = createHandshakeRequestMessage();
+        List<NetworkEnvelope> networkEnvelopes = new ArrayList<>(Collections.nCopies(numEnvelopes, requestNetworkEnvelope));
+        clientSocketChannel.configureBlocking(false);
+        CompletableFuture<Void> sendFuture = CompletableFuture.runAsync(() -> {
+            try {
+                networkEnvelopeSocketChannel.sendAll(networkEnvelopes);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        NetworkEnvelopeSocketChannel receiver = new NetworkEnvelopeSocketChannel(serverToClientSocketChannel);
+        int numReceived = 0;
+        while (numReceived < numEnvelopes) {
+            numReceived += receiver.receiveNetworkEnvelopes().size();
+        }
+        sendFuture.get(30, TimeUnit.SECONDS);
+        assertThat(numReceived).isEqualTo(numEnvelopes);
+
+        networkEnvelopeSocketChannel.close();
+        assertThatThrownBy(() -> networkEnvelopeSocketChannel.send(requestNetworkEnvelope))
+                .isInstanceOf(ClosedChannelException.class);
+    }
+
     private NetworkEnvelope createHandshakeRequestMessage() {
         List<TransportType> supportedTransportTypes = new ArrayList<>(1);
         supportedTransportTypes.add(TransportType.CLEAR);
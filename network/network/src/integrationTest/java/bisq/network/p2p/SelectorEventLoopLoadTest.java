@@ -0,0 +1,224 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.common.application.ApplicationVersion;
+import bisq.common.network.Address;
+import bisq.common.network.DefaultPeerSocket;
+import bisq.common.network.TransportType;
+import bisq.common.network.clear_net_address_types.LocalHostAddressTypeFacade;
+import bisq.common.threading.SerialExecutor;
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.Capability;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
+import bisq.network.p2p.node.event_loop.SelectorEventLoop;
+import bisq.network.p2p.node.event_loop.SelectorEventLoopGroup;
+import bisq.network.p2p.node.handshake.ConnectionHandshake;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the thread-per-connection reads with the reads multiplexed by selector event loops.
+ * Logs the number of live threads, the used heap and the throughput for both models.
+ */
+@Slf4j
+public class SelectorEventLoopLoadTest {
+    private static final int NUM_CONNECTIONS = 200;
+    private static final int NUM_MESSAGES_PER_CONNECTION = 500;
+
+    private final List<SocketChannel> senderChannels = new ArrayList<>();
+    private final List<SocketChannel> receiverChannels = new ArrayList<>();
+    private ServerSocketChannel serverSocketChannel;
+    private byte[] serializedEnvelope;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), NUM_CONNECTIONS);
+        for (int i = 0; i < NUM_CONNECTIONS; i++) {
+            senderChannels.add(SocketChannel.open(serverSocketChannel.getLocalAddress()));
+            receiverChannels.add(serverSocketChannel.accept());
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        createHandshakeRequestMessage().writeDelimitedTo(outputStream);
+        serializedEnvelope = outputStream.toByteArray();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (SocketChannel channel : senderChannels) {
+            channel.close();
+        }
+        for (SocketChannel channel : receiverChannels) {
+            channel.close();
+        }
+        serverSocketChannel.close();
+    }
+
+    @Test
+    void threadPerConnection() throws Exception {
+        CountDownLatch latch = new CountDownLatch(NUM_CONNECTIONS * NUM_MESSAGES_PER_CONNECTION);
+        ExecutorService readExecutor = Executors.newFixedThreadPool(NUM_CONNECTIONS);
+        for (SocketChannel channel : receiverChannels) {
+            NetworkEnvelopeSocket networkEnvelopeSocket = new NetworkEnvelopeSocket(new DefaultPeerSocket(channel.socket()));
+            readExecutor.submit(() -> {
+                try {
+                    for (int i = 0; i < NUM_MESSAGES_PER_CONNECTION; i++) {
+                        NetworkEnvelope.fromProto(networkEnvelopeSocket.receiveNextEnvelope());
+                        latch.countDown();
+                    }
+                } catch (IOException e) {
+                    log.error("Read failed", e);
+                }
+            });
+        }
+
+        runLoad("Thread per connection", latch);
+        readExecutor.shutdownNow();
+    }
+
+    @Test
+    void selectorEventLoops() throws Exception {
+        CountDownLatch latch = new CountDownLatch(NUM_CONNECTIONS * NUM_MESSAGES_PER_CONNECTION);
+        SelectorEventLoopGroup group = new SelectorEventLoopGroup(2, 4);
+        for (SocketChannel channel : receiverChannels) {
+            channel.configureBlocking(false);
+            NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(channel);
+            SerialExecutor readExecutor = new SerialExecutor("read", group.getWorkerExecutor(), 100);
+            SelectorEventLoop eventLoop = group.next();
+            eventLoop.register(channel, new SelectorEventLoop.Handler() {
+                @Override
+                public void onReadable() {
+                    readExecutor.execute(() -> {
+                        try {
+                            networkEnvelopeSocketChannel.receiveNetworkEnvelopes().forEach(e -> latch.countDown());
+                            eventLoop.resumeReading(channel);
+                        } catch (IOException e) {
+                            log.error("Read failed", e);
+                        }
+                    });
+                }
+
+                @Override
+                public void onIdleTimeout() {
+                }
+            }, 0).get(5, TimeUnit.SECONDS);
+        }
+
+        runLoad("Selector event loops", latch);
+        assertThat(group.getNumRegisteredChannels()).isEqualTo(NUM_CONNECTIONS);
+        group.shutdown();
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void runLoad(String model, CountDownLatch latch) throws Exception {
+        ExecutorService sendExecutor = Executors.newFixedThreadPool(8);
+        long ts = System.currentTimeMillis();
+        for (SocketChannel channel : senderChannels) {
+            sendExecutor.submit(() -> {
+                try {
+                    for (int i = 0; i < NUM_MESSAGES_PER_CONNECTION; i++) {
+                        ByteBuffer buffer = ByteBuffer.wrap(serializedEnvelope);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.error("Write failed", e);
+                }
+            });
+        }
+
+        // Measure while all readers are alive
+        int numThreads = Thread.activeCount();
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+
+        boolean allReceived = latch.await(60, TimeUnit.SECONDS);
+        long duration = Math.max(1, System.currentTimeMillis() - ts);
+        sendExecutor.shutdownNow();
+
+        long numMessages = (long) NUM_CONNECTIONS * NUM_MESSAGES_PER_CONNECTION;
+        log.info("{}: {} connections, {} live threads, {} MB used heap, {} messages in {} ms ({} messages/sec)",
+                model, NUM_CONNECTIONS, numThreads, usedHeap / 1024 / 1024,
+                numMessages, duration, numMessages * 1000 / duration);
+        assertThat(allReceived).isTrue();
+    }
+
+    private NetworkEnvelope createHandshakeRequestMessage() {
+        List<TransportType> supportedTransportTypes = new ArrayList<>(1);
+        supportedTransportTypes.add(TransportType.CLEAR);
+
+        Capability peerCapability = createCapability(LocalHostAddressTypeFacade.toLocalHostAddress(2345), supportedTransportTypes);
+        ConnectionHandshake.Request request = new ConnectionHandshake.Request(peerCapability, Optional.empty(), new NetworkLoad(), 0);
+        AuthorizationService authorizationService = createAuthorizationService();
+
+        Capability responderCapability = createCapability(LocalHostAddressTypeFacade.toLocalHostAddress(1234), supportedTransportTypes);
+
+        AuthorizationToken token = authorizationService.createToken(request,
+                new NetworkLoad(),
+                responderCapability.getAddress().getFullAddress(),
+                0, new ArrayList<>());
+        return new NetworkEnvelope(token, request);
+    }
+
+    private AuthorizationService createAuthorizationService() {
+        //noinspection deprecation
+        return new AuthorizationService(new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+    }
+
+    private static Capability createCapability(Address address, List<TransportType> supportedTransportTypes) {
+        return new Capability(Capability.VERSION, address, supportedTransportTypes, new ArrayList<>(), ApplicationVersion.getVersion().getVersionAsString());
+    }
+}
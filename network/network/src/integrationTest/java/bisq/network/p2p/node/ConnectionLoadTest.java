@@ -0,0 +1,211 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.common.application.ApplicationVersion;
+import bisq.common.network.Address;
+import bisq.common.network.TransportType;
+import bisq.common.network.clear_net_address_types.LocalHostAddressTypeFacade;
+import bisq.network.NetworkExecutors;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.network_load.ConnectionMetrics;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.services.peer_group.keep_alive.Ping;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the memory and throughput of connections using the thread-per-connection model with connections
+ * multiplexed by the selector event loops. In contrast to SelectorEventLoopLoadTest it runs the full Connection
+ * including authorization, throttling and message dispatching.
+ * Logs the number of live threads, the used heap and the throughput for both models.
+ */
+@Slf4j
+public class ConnectionLoadTest {
+    private static final int NUM_CONNECTIONS = 100;
+    private static final int NUM_MESSAGES_PER_CONNECTION = 100;
+
+    private final List<Connection> connections = new ArrayList<>();
+    private final AuthorizationService authorizationService = createAuthorizationService();
+
+    @AfterEach
+    void tearDown() {
+        connections.forEach(connection -> connection.shutdown(CloseReason.SHUTDOWN));
+        NetworkExecutors.shutdown();
+    }
+
+    @Test
+    void threadPerConnection() throws Exception {
+        NetworkExecutors.initialize(10, false, 0, 0);
+        CountDownLatch latch = new CountDownLatch(NUM_CONNECTIONS * NUM_MESSAGES_PER_CONNECTION);
+        List<OutboundConnection> outboundConnections = new ArrayList<>();
+        try (ServerSocket serverSocket = new ServerSocket(0, NUM_CONNECTIONS, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < NUM_CONNECTIONS; i++) {
+                Socket clientSocket = new Socket();
+                clientSocket.connect(serverSocket.getLocalSocketAddress());
+                outboundConnections.add(createConnectionPair(clientSocket, serverSocket.accept(), latch));
+            }
+            runLoad("Thread per connection", outboundConnections, latch);
+        }
+    }
+
+    @Test
+    void selectorEventLoops() throws Exception {
+        NetworkExecutors.initialize(10, false, 2, 4);
+        CountDownLatch latch = new CountDownLatch(NUM_CONNECTIONS * NUM_MESSAGES_PER_CONNECTION);
+        List<OutboundConnection> outboundConnections = new ArrayList<>();
+        try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+            serverSocketChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), NUM_CONNECTIONS);
+            for (int i = 0; i < NUM_CONNECTIONS; i++) {
+                Socket clientSocket = SocketChannel.open(serverSocketChannel.getLocalAddress()).socket();
+                outboundConnections.add(createConnectionPair(clientSocket, serverSocketChannel.accept().socket(), latch));
+            }
+            runLoad("Selector event loops", outboundConnections, latch);
+        }
+        assertThat(NetworkExecutors.getSelectorEventLoopGroup().orElseThrow().getNumRegisteredChannels())
+                .isEqualTo(2 * NUM_CONNECTIONS);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void runLoad(String model, List<OutboundConnection> outboundConnections, CountDownLatch latch) throws Exception {
+        // Measure while all connections are established and listening
+        System.gc();
+        int numThreads = Thread.activeCount();
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+
+        long ts = System.currentTimeMillis();
+        List<CompletableFuture<Connection>> futures = new ArrayList<>();
+        for (int i = 0; i < NUM_MESSAGES_PER_CONNECTION; i++) {
+            for (OutboundConnection outboundConnection : outboundConnections) {
+                futures.add(outboundConnection.sendAsync(new Ping(i)));
+            }
+        }
+        boolean allReceived = latch.await(120, TimeUnit.SECONDS);
+        long duration = Math.max(1, System.currentTimeMillis() - ts);
+
+        long numMessages = (long) NUM_CONNECTIONS * NUM_MESSAGES_PER_CONNECTION;
+        log.info("{}: {} connection pairs, {} live threads, {} MB used heap, {} messages in {} ms ({} messages/sec)",
+                model, NUM_CONNECTIONS, numThreads, usedHeap / 1024 / 1024,
+                numMessages, duration, numMessages * 1000 / duration);
+        assertThat(allReceived).isTrue();
+        assertThat(futures).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+    }
+
+    private OutboundConnection createConnectionPair(Socket clientSocket,
+                                                    Socket acceptedSocket,
+                                                    CountDownLatch latch) throws IOException {
+        Address inboundAddress = LocalHostAddressTypeFacade.toLocalHostAddress(acceptedSocket.getLocalPort());
+        Address outboundAddress = LocalHostAddressTypeFacade.toLocalHostAddress(clientSocket.getLocalPort());
+        String connectionId = UUID.randomUUID().toString();
+        OutboundConnection outboundConnection = new OutboundConnection(authorizationService,
+                connectionId,
+                clientSocket,
+                inboundAddress,
+                createCapability(inboundAddress),
+                new NetworkLoadSnapshot(),
+                new ConnectionMetrics(),
+                createConnectionThrottle(),
+                createHandler(new CountDownLatch(0)),
+                (connection, exception) -> log.error("Connection error", exception));
+        InboundConnection inboundConnection = new InboundConnection(authorizationService,
+                connectionId,
+                acceptedSocket,
+                createCapability(outboundAddress),
+                new NetworkLoadSnapshot(),
+                new ConnectionMetrics(),
+                createConnectionThrottle(),
+                createHandler(latch),
+                (connection, exception) -> log.error("Connection error", exception));
+        connections.add(outboundConnection);
+        connections.add(inboundConnection);
+        return outboundConnection;
+    }
+
+    private static Connection.Handler createHandler(CountDownLatch latch) {
+        return new Connection.Handler() {
+            @Override
+            public boolean isMessageAuthorized(EnvelopePayloadMessage envelopePayloadMessage,
+                                               AuthorizationToken authorizationToken,
+                                               Connection connection) {
+                return true;
+            }
+
+            @Override
+            public void handleNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
+                latch.countDown();
+            }
+
+            @Override
+            public void handleConnectionClosed(Connection connection, CloseReason closeReason) {
+            }
+        };
+    }
+
+    private static ConnectionThrottle createConnectionThrottle() {
+        ConnectionThrottle connectionThrottle = mock(ConnectionThrottle.class);
+        when(connectionThrottle.throttleSendMessage()).thenReturn(CompletableFuture.completedFuture(null));
+        when(connectionThrottle.throttleReceiveMessage()).thenReturn(CompletableFuture.completedFuture(null));
+        return connectionThrottle;
+    }
+
+    private static AuthorizationService createAuthorizationService() {
+        //noinspection deprecation
+        return new AuthorizationService(new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+    }
+
+    private static Capability createCapability(Address address) {
+        return new Capability(Capability.VERSION,
+                address,
+                List.of(TransportType.CLEAR),
+                new ArrayList<>(),
+                ApplicationVersion.getVersion().getVersionAsString());
+    }
+}
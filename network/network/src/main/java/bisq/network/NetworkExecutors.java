@@ -17,52 +17,106 @@
 
 package bisq.network;
 
-import bisq.common.threading.DiscardOldestPolicy;
 import bisq.common.threading.ExecutorFactory;
-import bisq.common.threading.MaxSizeAwareQueue;
+import bisq.common.threading.PriorityLaneExecutor;
+import bisq.common.timer.TimerWheel;
+import bisq.network.p2p.node.event_loop.SelectorEventLoopGroup;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+@Slf4j
 public class NetworkExecutors {
+    // With virtual threads blocked tasks are cheap, thus we use a much higher max pool size
+    public static final int VIRTUAL_THREADS_MAX_POOL_SIZE = 1000;
+    private static final int NOTIFY_QUEUE_CAPACITY_PER_LANE = 100000;
+
+    // Notifications of confidential messages are executed before the network events and the data notifications, so
+    // that trade messages do not wait behind a flood of data.
+    @Getter
+    private static PriorityLaneExecutor<NotifyLane> notifyExecutor;
+    private static ExecutorService notifyThreadPool;
+    // If set, the network executors use virtual threads instead of platform threads
+    @Getter
+    private static volatile boolean useVirtualThreads;
+    // Only present if virtual threads are used. Shared executor for the SerialExecutors of the connections.
+    @Getter
+    private static Optional<ExecutorService> virtualThreadExecutor = Optional.empty();
+    // Completes the delayed messages of the ConnectionThrottles of all connections
     @Getter
-    private static ThreadPoolExecutor notifyExecutor;
+    private static TimerWheel throttleTimerWheel;
+    // Only present if the selector event loops are enabled by config
+    @Getter
+    private static Optional<SelectorEventLoopGroup> selectorEventLoopGroup = Optional.empty();
     private static volatile boolean isInitialized;
 
-    public static void initialize(int notifyExecutorMaxPoolSize) {
+    public static void initialize(int notifyExecutorMaxPoolSize,
+                                  boolean useVirtualThreads,
+                                  int numSelectorEventLoops,
+                                  int selectorWorkerPoolSize) {
         checkArgument(!isInitialized, "initialize must not be called twice");
-        notifyExecutor = createNotifyExecutor(notifyExecutorMaxPoolSize);
+        NetworkExecutors.useVirtualThreads = useVirtualThreads;
+        String notifyExecutorName = "Network.notify";
+        int maxParallelism;
+        if (useVirtualThreads) {
+            maxParallelism = VIRTUAL_THREADS_MAX_POOL_SIZE;
+            notifyThreadPool = ExecutorFactory.newVirtualThreadPerTaskExecutor(notifyExecutorName);
+            virtualThreadExecutor = Optional.of(ExecutorFactory.newVirtualThreadPerTaskExecutor("Network.virtual"));
+        } else {
+            maxParallelism = notifyExecutorMaxPoolSize;
+            notifyThreadPool = createNotifyThreadPool(notifyExecutorName, maxParallelism);
+        }
+        notifyExecutor = new PriorityLaneExecutor<>(notifyExecutorName,
+                notifyThreadPool,
+                NotifyLane.class,
+                NotifyLane.NETWORK_EVENTS,
+                maxParallelism,
+                NOTIFY_QUEUE_CAPACITY_PER_LANE);
+        throttleTimerWheel = new TimerWheel("Network.throttleTimer", 10, 512);
+        if (numSelectorEventLoops > 0) {
+            selectorEventLoopGroup = Optional.of(new SelectorEventLoopGroup(numSelectorEventLoops, selectorWorkerPoolSize));
+        }
 
         isInitialized = true;
     }
 
     public static void shutdown() {
         if (isInitialized) {
+            log.info("Shutdown notify executor. {}", notifyExecutor.getMetrics());
             ExecutorFactory.shutdownAndAwaitTermination(notifyExecutor);
+            ExecutorFactory.shutdownAndAwaitTermination(notifyThreadPool);
+            throttleTimerWheel.shutdown();
+            selectorEventLoopGroup.ifPresent(SelectorEventLoopGroup::shutdown);
+            virtualThreadExecutor.ifPresent(ExecutorFactory::shutdownAndAwaitTermination);
 
             notifyExecutor = null;
+            notifyThreadPool = null;
+            throttleTimerWheel = null;
+            virtualThreadExecutor = Optional.empty();
+            useVirtualThreads = false;
+            selectorEventLoopGroup = Optional.empty();
             isInitialized = false;
         }
     }
 
-    private static ThreadPoolExecutor createNotifyExecutor(int maxPoolSize) {
-        int queueCapacity = 100000;
-        MaxSizeAwareQueue queue = new MaxSizeAwareQueue(queueCapacity);
-        String name = "Network.notify";
-        // We use DiscardOldestPolicy instead of AbortPolicyWithLogging as we do not want to handle in the notification
-        // loops the exception, which otherwise would break the loop and escalates up.
+    // The PriorityLaneExecutor queues the tasks and never submits more than maxPoolSize workers, thus the queue of
+    // the thread pool stays small.
+    private static ExecutorService createNotifyThreadPool(String name, int maxPoolSize) {
         ThreadPoolExecutor executor = new ThreadPoolExecutor(
-                1,
+                maxPoolSize,
                 maxPoolSize,
                 30,
                 TimeUnit.SECONDS,
-                queue,
-                ExecutorFactory.getThreadFactoryWithCounter(name),
-                new DiscardOldestPolicy(name, queueCapacity, maxPoolSize));
-        queue.applyExecutor(executor, maxPoolSize - 2);
+                new LinkedBlockingQueue<>(),
+                ExecutorFactory.getThreadFactoryWithCounter(name));
+        executor.allowCoreThreadTimeOut(true);
         return executor;
     }
 }
@@ -202,7 +202,10 @@ public class NetworkService extends RateLimitedPersistenceClient<NetworkServiceS
 
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
-        NetworkExecutors.initialize(config.getNotifyExecutorMaxPoolSize());
+        NetworkExecutors.initialize(config.getNotifyExecutorMaxPoolSize(),
+                config.isUseVirtualThreads(),
+                config.getNumSelectorEventLoops(),
+                config.getSelectorWorkerPoolSize());
         Connection.setExecutorMaxPoolSize(config.getConnectionExecutorMaxPoolSize());
 
         NetworkId defaultNetworkId = networkIdService.getOrCreateDefaultNetworkId();
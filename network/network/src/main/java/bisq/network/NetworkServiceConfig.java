@@ -72,6 +72,9 @@ public final class NetworkServiceConfig {
                 networkConfig.getInt("version"),
                 networkConfig.getInt("notifyExecutorMaxPoolSize"),
                 networkConfig.getInt("connectionExecutorMaxPoolSize"),
+                networkConfig.hasPath("useVirtualThreads") && networkConfig.getBoolean("useVirtualThreads"),
+                networkConfig.hasPath("numSelectorEventLoops") ? networkConfig.getInt("numSelectorEventLoops") : 0,
+                networkConfig.hasPath("selectorWorkerPoolSize") ? networkConfig.getInt("selectorWorkerPoolSize") : 16,
                 supportedTransportTypes,
                 features,
                 configByTransportType,
@@ -162,6 +165,11 @@ public final class NetworkServiceConfig {
     private final int version;
     private final int notifyExecutorMaxPoolSize;
     private final int connectionExecutorMaxPoolSize;
+    private final boolean useVirtualThreads;
+    // If 0 each connection uses its own read thread, otherwise the reads of channel backed connections are
+    // multiplexed by that number of selector event loops.
+    private final int numSelectorEventLoops;
+    private final int selectorWorkerPoolSize;
     private final Set<TransportType> supportedTransportTypes;
     private final Set<Feature> features;
     private final InventoryService.Config inventoryServiceConfig;
@@ -178,6 +186,9 @@ public final class NetworkServiceConfig {
                                 int version,
                                 int notifyExecutorMaxPoolSize,
                                 int connectionExecutorMaxPoolSize,
+                                boolean useVirtualThreads,
+                                int numSelectorEventLoops,
+                                int selectorWorkerPoolSize,
                                 Set<TransportType> supportedTransportTypes,
                                 Set<Feature> features,
                                 Map<TransportType, TransportConfig> configByTransportType,
@@ -193,6 +204,9 @@ public final class NetworkServiceConfig {
         this.version = version;
         this.notifyExecutorMaxPoolSize = notifyExecutorMaxPoolSize;
         this.connectionExecutorMaxPoolSize = connectionExecutorMaxPoolSize;
+        this.useVirtualThreads = useVirtualThreads;
+        this.numSelectorEventLoops = numSelectorEventLoops;
+        this.selectorWorkerPoolSize = selectorWorkerPoolSize;
         this.supportedTransportTypes = supportedTransportTypes;
         this.features = features;
         this.inventoryServiceConfig = inventoryServiceConfig;
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network;
+
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.services.confidential.ConfidentialMessage;
+import bisq.network.p2p.services.data.broadcast.BroadcastMessage;
+import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
+
+/**
+ * The lanes of the notify executor. A lower ordinal means a higher priority.
+ * <p>
+ * The messages of a connection are spread over all lanes, so there is no single lane for a connection. As the
+ * workers always take the oldest task of the highest priority lane which has tasks, a task in the highest priority
+ * lane starts before any task submitted after it. We use that for the notification of a new connection, so that it
+ * starts before the notifications of the messages received on that connection afterwards. With more than one worker
+ * the tasks can still run concurrently, thus listeners must not rely on onConnection being completed.
+ */
+public enum NotifyLane {
+    // Private messages like trade messages, mailbox messages which might be addressed to us, and new connections
+    CONFIDENTIAL_MESSAGES,
+    // Closed connections, state changes and the messages of the peer group and other network services
+    NETWORK_EVENTS,
+    // Broadcast and inventory data
+    DATA;
+
+    // The highest priority lane
+    public static NotifyLane forNewConnection() {
+        return CONFIDENTIAL_MESSAGES;
+    }
+
+    public static NotifyLane from(EnvelopePayloadMessage envelopePayloadMessage) {
+        if (envelopePayloadMessage instanceof ConfidentialMessage || envelopePayloadMessage instanceof AddMailboxRequest) {
+            return CONFIDENTIAL_MESSAGES;
+        } else if (envelopePayloadMessage instanceof BroadcastMessage) {
+            return DATA;
+        } else {
+            return NETWORK_EVENTS;
+        }
+    }
+}
@@ -17,7 +17,7 @@
 
 package bisq.network.p2p.message;
 
-import bisq.common.proto.NetworkProto;
+import bisq.common.proto.ImmutableNetworkProto;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
 import bisq.network.p2p.services.confidential.ConfidentialMessage;
@@ -38,7 +38,7 @@ import com.google.protobuf.Message;
 /**
  * Interface for any message sent as payload in NetworkEnvelope
  */
-public interface EnvelopePayloadMessage extends NetworkProto {
+public interface EnvelopePayloadMessage extends ImmutableNetworkProto {
     double getCostFactor();
 
     default bisq.network.protobuf.EnvelopePayloadMessage.Builder newEnvelopePayloadMessageBuilder() {
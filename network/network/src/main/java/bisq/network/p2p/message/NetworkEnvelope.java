@@ -20,12 +20,20 @@ package bisq.network.p2p.message;
 import bisq.common.proto.NetworkProto;
 import bisq.network.p2p.node.ConnectionException;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
 import static bisq.network.p2p.node.ConnectionException.Reason.INVALID_NETWORK_VERSION;
 
 /**
@@ -45,6 +53,23 @@ public final class NetworkEnvelope implements NetworkProto {
     private final AuthorizationToken authorizationToken;
     private final EnvelopePayloadMessage envelopePayloadMessage;
 
+    // Only set if the envelope was created from a SerializedEnvelopePayload. In that case we write the already
+    // serialized payload bytes instead of serializing the envelopePayloadMessage again.
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final transient ByteString serializedEnvelopePayloadMessage;
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final transient bisq.network.protobuf.AuthorizationToken authorizationTokenProto;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final transient int serializedSize;
+
     public NetworkEnvelope(AuthorizationToken authorizationToken, EnvelopePayloadMessage envelopePayloadMessage) {
         this(networkVersion, authorizationToken, envelopePayloadMessage);
     }
@@ -53,6 +78,22 @@ public final class NetworkEnvelope implements NetworkProto {
         this.version = version;
         this.authorizationToken = authorizationToken;
         this.envelopePayloadMessage = envelopePayloadMessage;
+        serializedEnvelopePayloadMessage = null;
+        authorizationTokenProto = null;
+        serializedSize = -1;
+
+        verify();
+    }
+
+    public NetworkEnvelope(AuthorizationToken authorizationToken, SerializedEnvelopePayload serializedEnvelopePayload) {
+        this.version = networkVersion;
+        this.authorizationToken = authorizationToken;
+        this.envelopePayloadMessage = serializedEnvelopePayload.getEnvelopePayloadMessage();
+        serializedEnvelopePayloadMessage = serializedEnvelopePayload.getSerializedMessage();
+        authorizationTokenProto = authorizationToken.toProto(false);
+        serializedSize = (version != 0 ? CodedOutputStream.computeSInt32Size(1, version) : 0) +
+                CodedOutputStream.computeMessageSize(2, authorizationTokenProto) +
+                CodedOutputStream.computeBytesSize(3, serializedEnvelopePayloadMessage);
 
         verify();
     }
@@ -79,6 +120,44 @@ public final class NetworkEnvelope implements NetworkProto {
                 .setNetworkMessage(envelopePayloadMessage.toProto(serializeForHash));
     }
 
+    @Override
+    public int getSerializedSize() {
+        return hasSerializedEnvelopePayloadMessage() ? serializedSize : NetworkProto.super.getSerializedSize();
+    }
+
+    @Override
+    public void writeDelimitedTo(OutputStream outputStream) throws IOException {
+        if (hasSerializedEnvelopePayloadMessage()) {
+            int bufferSize = CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize;
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream,
+                    Math.min(bufferSize, CodedOutputStream.DEFAULT_BUFFER_SIZE));
+            codedOutputStream.writeUInt32NoTag(serializedSize);
+            writeTo(codedOutputStream);
+            codedOutputStream.flush();
+        } else {
+            NetworkProto.super.writeDelimitedTo(outputStream);
+        }
+    }
+
+    public boolean hasSerializedEnvelopePayloadMessage() {
+        return serializedEnvelopePayloadMessage != null;
+    }
+
+    /**
+     * Writes the envelope with the already serialized payload. The fields are written in field number order, as
+     * protobuf does, thus the result is the same as the serialized proto.
+     * Requires that the envelope was created from a SerializedEnvelopePayload.
+     */
+    public void writeTo(CodedOutputStream codedOutputStream) throws IOException {
+        ByteString serializedMessage = Optional.ofNullable(serializedEnvelopePayloadMessage)
+                .orElseThrow(() -> new IllegalStateException("NetworkEnvelope was not created from a SerializedEnvelopePayload"));
+        if (version != 0) {
+            codedOutputStream.writeSInt32(1, version);
+        }
+        codedOutputStream.writeMessage(2, authorizationTokenProto);
+        codedOutputStream.writeBytes(3, serializedMessage);
+    }
+
     public static NetworkEnvelope fromProto(bisq.network.protobuf.NetworkEnvelope proto) {
         return new NetworkEnvelope(proto.getVersion(),
                 AuthorizationToken.fromProto(proto.getAuthorizationToken()),
@@ -0,0 +1,42 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.message;
+
+import com.google.protobuf.ByteString;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Holds the serialized form and the hash pre-image of an EnvelopePayloadMessage, so that a message sent to multiple
+ * peers (e.g. at broadcast) is serialized only once. Per connection only the AuthorizationToken and the envelope
+ * header need to be created.
+ */
+@ToString(onlyExplicitlyIncluded = true)
+@Getter
+public final class SerializedEnvelopePayload {
+    @ToString.Include
+    private final EnvelopePayloadMessage envelopePayloadMessage;
+    private final ByteString serializedMessage;
+    private final byte[] serializedForHash;
+
+    public SerializedEnvelopePayload(EnvelopePayloadMessage envelopePayloadMessage) {
+        this.envelopePayloadMessage = envelopePayloadMessage;
+        serializedMessage = envelopePayloadMessage.toProto(false).toByteString();
+        serializedForHash = envelopePayloadMessage.serializeForHash();
+    }
+}
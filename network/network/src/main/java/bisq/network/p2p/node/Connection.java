@@ -25,15 +25,22 @@ import bisq.common.threading.AbortPolicyWithLogging;
 import bisq.common.threading.ExecutorFactory;
 import bisq.common.threading.MaxSizeAwareDeque;
 import bisq.common.threading.MaxSizeAwareQueue;
+import bisq.common.threading.SerialExecutor;
 import bisq.common.util.ExceptionUtil;
 import bisq.common.util.StringUtils;
 import bisq.network.NetworkExecutors;
+import bisq.network.NotifyLane;
 import bisq.network.p2p.message.CloseConnectionMessage;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.message.SerializedEnvelopePayload;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
+import bisq.network.p2p.node.envelope.parser.nio.DeserializedNetworkEnvelope;
+import bisq.network.p2p.node.event_loop.SelectorEventLoop;
+import bisq.network.p2p.node.event_loop.SelectorEventLoopGroup;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import lombok.AccessLevel;
@@ -45,16 +52,23 @@ import javax.annotation.Nullable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SocketChannel;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 
 
@@ -64,6 +78,10 @@ import java.util.function.BiConsumer;
  * Send messages to the peer.
  * Notifies messageListeners on new received messages.
  * Notifies errorHandler on exceptions from the inputHandlerService executor.
+ * <p>
+ * If the selector event loops are enabled and the socket is backed by a SocketChannel, we do not use dedicated read
+ * and send threads. The channel gets registered at a SelectorEventLoop and the messages get read, processed and sent
+ * by SerialExecutors on the shared worker pool of the SelectorEventLoopGroup.
  */
 @Slf4j
 public abstract class Connection {
@@ -108,19 +126,26 @@ public abstract class Connection {
     private final RequestResponseManager requestResponseManager;
 
     private NetworkEnvelopeSocket networkEnvelopeSocket;
+    // Only set if we use the selector event loop
+    @Nullable
+    private NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel;
+    @Nullable
+    private SelectorEventLoop selectorEventLoop;
     private final ConnectionThrottle connectionThrottle;
     private final Handler handler;
+    private final BiConsumer<Connection, Exception> errorHandler;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
     @Nullable
     private Future<?> inputHandlerFuture;
     // We use counter value 0 in the handshake, thus we start here with 1 as it's not the first message
     @Getter(AccessLevel.PACKAGE)
     private final AtomicInteger sentMessageCounter = new AtomicInteger(1);
-    private final Object writeLock = new Object();
+    // We use a ReentrantLock as blocking inside a synchronized block would pin the carrier thread of a virtual thread
+    private final ReentrantLock writeLock = new ReentrantLock();
     private volatile boolean shutdownStarted;
     private volatile boolean listeningStopped;
-    private final ThreadPoolExecutor readExecutor;
-    private final ThreadPoolExecutor sendExecutor;
+    private final ExecutorService readExecutor;
+    private final ExecutorService sendExecutor;
 
     protected Connection(AuthorizationService authorizationService,
                          String connectionId,
@@ -137,11 +162,26 @@ public abstract class Connection {
         this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
         this.connectionThrottle = connectionThrottle;
         this.handler = handler;
+        this.errorHandler = errorHandler;
         this.connectionMetrics = connectionMetrics;
         requestResponseManager = new RequestResponseManager(connectionMetrics);
 
-        readExecutor = createReadExecutor();
-        sendExecutor = createSendExecutor();
+        Optional<SelectorEventLoopGroup> selectorEventLoopGroup = NetworkExecutors.getSelectorEventLoopGroup()
+                .filter(group -> socket.getChannel() != null);
+        if (selectorEventLoopGroup.isPresent()) {
+            ExecutorService workerExecutor = selectorEventLoopGroup.get().getWorkerExecutor();
+            readExecutor = new SerialExecutor("Connection.read-" + getThreadNameDetails(), workerExecutor, 100);
+            sendExecutor = new SerialExecutor("Connection.send-" + getThreadNameDetails(), workerExecutor, 100);
+        } else if (NetworkExecutors.isUseVirtualThreads()) {
+            readExecutor = createVirtualThreadReadExecutor();
+            // The SerialExecutor keeps the send order and limits the queued messages as the send executor does
+            sendExecutor = new SerialExecutor("Connection.send-" + getThreadNameDetails(),
+                    NetworkExecutors.getVirtualThreadExecutor().orElseThrow(),
+                    100);
+        } else {
+            readExecutor = createReadExecutor();
+            sendExecutor = createSendExecutor();
+        }
 
         try {
             PeerSocket peerSocket = new DefaultPeerSocket(socket);
@@ -152,74 +192,10 @@ public abstract class Connection {
             shutdown(CloseReason.EXCEPTION.exception(exception));
             return;
         }
-        try {
-            inputHandlerFuture = readExecutor.submit(() -> {
-                try {
-                    long readTs = 0;
-                    while (isInputStreamActive()) {
-                        if (readTs != 0) {
-                            log.debug("Processing message took {} ms. Wait for new message from {}. ", System.currentTimeMillis() - readTs, getPeerAddress());
-                        } else {
-                            log.debug("Wait for new message from {}", getPeerAddress());
-                        }
-                        var proto = networkEnvelopeSocket.receiveNextEnvelope();
-                        readTs = System.currentTimeMillis();
-                        if (proto == null) {
-                            log.info("Proto from networkEnvelopeSocket.receiveNextEnvelope() is null. " +
-                                    "This is expected if the input stream has reached EOF. We shut down the connection.");
-                            shutdown(CloseReason.EXCEPTION.exception(new EOFException("Input stream reached EOF")));
-                            return;
-                        }
-
-                        // receiveNextEnvelope might need some time wo we check again if connection is still active
-                        if (!isInputStreamActive()) {
-                            return;
-                        }
-
-                        connectionThrottle.throttleReceiveMessage();
-                        // ThrottleReceiveMessage can cause a delay by Thread.sleep
-                        if (!isInputStreamActive()) {
-                            return;
-                        }
-                        long ts = System.currentTimeMillis();
-                        NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
-                        long deserializeTime = System.currentTimeMillis() - ts;
-                        networkEnvelope.verifyVersion();
-                        connectionMetrics.onReceived(networkEnvelope, deserializeTime);
-
-                        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
-                        log.debug("Received message: {} at: {}",
-                                StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
-                        requestResponseManager.onReceived(envelopePayloadMessage);
-
-                        if (isInputStreamActive()) {
-                            boolean isMessageAuthorized = handler.isMessageAuthorized(envelopePayloadMessage,
-                                    networkEnvelope.getAuthorizationToken(),
-                                    this);
-                            if (isMessageAuthorized) {
-                                handler.handleNetworkMessage(envelopePayloadMessage, this);
-                                listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onNetworkMessage(envelopePayloadMessage)));
-                            }
-                        }
-                    }
-                } catch (Exception exception) {
-                    //todo (deferred) StreamCorruptedException from i2p at shutdown. prob it send some text data at shut down
-                    if (!shutdownStarted) {
-                        log.debug("Exception at input handler on {}", this, exception);
-                        shutdown(CloseReason.EXCEPTION.exception(exception));
-
-                        // EOFException expected if connection got closed (Socket closed message)
-                        if (!(exception instanceof EOFException)) {
-                            errorHandler.accept(this, exception);
-                        }
-                    }
-                }
-            });
-        } catch (RejectedExecutionException e) {
-            log.error("Read executor rejected task. We shut down the connection.", e);
-            errorHandler.accept(this, e);
-            inputHandlerFuture = CompletableFuture.failedFuture(e);
-            shutdown(CloseReason.EXCEPTION.exception(e));
+        if (selectorEventLoopGroup.isPresent()) {
+            registerAtSelectorEventLoop(socket, selectorEventLoopGroup.get());
+        } else {
+            startInputHandler();
         }
     }
 
@@ -271,41 +247,75 @@ public abstract class Connection {
     /* --------------------------------------------------------------------- */
 
     CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage) {
+        return sendAsync(envelopePayloadMessage, Optional.empty());
+    }
+
+    // Used if the same message is sent to multiple peers. The payload is already serialized and only the
+    // AuthorizationToken and the envelope header get created per connection.
+    CompletableFuture<Connection> sendAsync(SerializedEnvelopePayload serializedEnvelopePayload) {
+        return sendAsync(serializedEnvelopePayload.getEnvelopePayloadMessage(), Optional.of(serializedEnvelopePayload));
+    }
+
+    private CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage,
+                                                    Optional<SerializedEnvelopePayload> serializedEnvelopePayload) {
+        if (isStopped()) {
+            return CompletableFuture.failedFuture(new ConnectionClosedException(this));
+        }
+        // We do not block a thread while the message is throttled. The throttle future completes in call order.
+        CompletableFuture<Void> throttleFuture = connectionThrottle.throttleSendMessage();
+        if (throttleFuture.isDone()) {
+            return sendOnSendExecutor(envelopePayloadMessage, serializedEnvelopePayload);
+        }
+        return throttleFuture.thenCompose(nil -> sendOnSendExecutor(envelopePayloadMessage, serializedEnvelopePayload));
+    }
+
+    private CompletableFuture<Connection> sendOnSendExecutor(EnvelopePayloadMessage envelopePayloadMessage,
+                                                             Optional<SerializedEnvelopePayload> serializedEnvelopePayload) {
         try {
             return CompletableFuture.supplyAsync(() -> {
                 if (isStopped()) {
                     throw new ConnectionClosedException(this);
                 }
-
-                connectionThrottle.throttleSendMessage();
-                if (isStopped()) {
-                    throw new ConnectionClosedException(this);
-                }
                 try {
-                    long spentTime;
+                    long ts;
                     NetworkEnvelope networkEnvelope;
+                    CompletableFuture<Void> writeFuture;
                     // We want to keep the creation of the AuthorizationToken and the sending synchronized to avoid
                     // out of order issues with sentMessageCounter.
-                    synchronized (writeLock) {
-                        AuthorizationToken authorizationToken = createAuthorizationToken(envelopePayloadMessage);
-                        networkEnvelope = createNetworkEnvelope(envelopePayloadMessage, authorizationToken);
-                        long ts = System.currentTimeMillis();
-                        networkEnvelopeSocket.send(networkEnvelope);
-                        spentTime = System.currentTimeMillis() - ts;
-                    }
-                    connectionMetrics.onSent(networkEnvelope, spentTime);
-                    requestResponseManager.onSent(envelopePayloadMessage);
-                    if (envelopePayloadMessage instanceof CloseConnectionMessage) {
-                        log.info("Sent {} from {}", StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
+                    writeLock.lock();
+                    try {
+                        AuthorizationToken authorizationToken = createAuthorizationToken(envelopePayloadMessage, serializedEnvelopePayload);
+                        networkEnvelope = createNetworkEnvelope(envelopePayloadMessage, serializedEnvelopePayload, authorizationToken);
+                        ts = System.currentTimeMillis();
+                        if (networkEnvelopeSocketChannel != null) {
+                            // Does not block. If the socket does not accept all bytes, the remaining bytes get
+                            // written once the selector event loop signals that the channel is writable.
+                            writeFuture = networkEnvelopeSocketChannel.sendAllAsync(List.of(networkEnvelope));
+                        } else {
+                            networkEnvelopeSocket.send(networkEnvelope);
+                            writeFuture = CompletableFuture.completedFuture(null);
+                        }
+                    } finally {
+                        writeLock.unlock();
                     }
+                    return writeFuture.handle((nil, throwable) -> {
+                        if (throwable != null) {
+                            throw new ConnectionException(throwable);
+                        }
+                        connectionMetrics.onSent(networkEnvelope, System.currentTimeMillis() - ts);
+                        requestResponseManager.onSent(envelopePayloadMessage);
+                        if (envelopePayloadMessage instanceof CloseConnectionMessage) {
+                            log.info("Sent {} from {}", StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
+                        }
+                        return this;
+                    });
                 } catch (Exception exception) {
                     if (exception instanceof ConnectionException connectionException) {
                         throw connectionException;
                     }
                     throw new ConnectionException(exception);
                 }
-                return this;
-            }, sendExecutor);
+            }, sendExecutor).thenCompose(writeFuture -> writeFuture);
         } catch (RejectedExecutionException e) {
             log.error("Send executor rejected task", e);
             return CompletableFuture.failedFuture(new ConnectionException("Send executor rejected task"));
@@ -313,11 +323,14 @@ public abstract class Connection {
     }
 
     private NetworkEnvelope createNetworkEnvelope(EnvelopePayloadMessage envelopePayloadMessage,
+                                                  Optional<SerializedEnvelopePayload> serializedEnvelopePayload,
                                                   AuthorizationToken authorizationToken) {
         try {
             // The verify method inside NetworkEnvelope constructor could throw an exception.
             // This would be only the case if our data we want to send is invalid.
-            return new NetworkEnvelope(authorizationToken, envelopePayloadMessage);
+            return serializedEnvelopePayload
+                    .map(payload -> new NetworkEnvelope(authorizationToken, payload))
+                    .orElseGet(() -> new NetworkEnvelope(authorizationToken, envelopePayloadMessage));
         } catch (Exception exception) {
             if (isRunning()) {
                 log.warn("Cannot create NetworkEnvelope. {}", ExceptionUtil.getRootCauseMessage(exception));
@@ -328,8 +341,13 @@ public abstract class Connection {
         }
     }
 
-    private AuthorizationToken createAuthorizationToken(EnvelopePayloadMessage envelopePayloadMessage) {
+    private AuthorizationToken createAuthorizationToken(EnvelopePayloadMessage envelopePayloadMessage,
+                                                        Optional<SerializedEnvelopePayload> serializedEnvelopePayload) {
+        byte[] messageSerializedForHash = serializedEnvelopePayload
+                .map(SerializedEnvelopePayload::getSerializedForHash)
+                .orElseGet(envelopePayloadMessage::serializeForHash);
         return authorizationService.createToken(envelopePayloadMessage,
+                messageSerializedForHash,
                 peersNetworkLoadSnapshot.getCurrentNetworkLoad(),
                 getPeerAddress().getFullAddress(),
                 sentMessageCounter.getAndIncrement(),
@@ -354,10 +372,17 @@ public abstract class Connection {
         if (inputHandlerFuture != null) {
             inputHandlerFuture.cancel(true);
         }
+        if (selectorEventLoop != null && networkEnvelopeSocketChannel != null) {
+            selectorEventLoop.unregister(networkEnvelopeSocketChannel.getSocketChannel());
+        }
         try {
             if (networkEnvelopeSocket != null) {
                 networkEnvelopeSocket.close();
             }
+            if (networkEnvelopeSocketChannel != null) {
+                // Fails the pending writes
+                networkEnvelopeSocketChannel.close();
+            }
         } catch (IOException ignore) {
         }
         handler.handleConnectionClosed(this, closeReason);
@@ -384,6 +409,221 @@ public abstract class Connection {
         return !listeningStopped && isRunning();
     }
 
+    private void startInputHandler() {
+        try {
+            inputHandlerFuture = readExecutor.submit(() -> {
+                try {
+                    long readTs = 0;
+                    while (isInputStreamActive()) {
+                        if (readTs != 0) {
+                            log.debug("Processing message took {} ms. Wait for new message from {}. ", System.currentTimeMillis() - readTs, getPeerAddress());
+                        } else {
+                            log.debug("Wait for new message from {}", getPeerAddress());
+                        }
+                        var proto = networkEnvelopeSocket.receiveNextEnvelope();
+                        readTs = System.currentTimeMillis();
+                        if (proto == null) {
+                            log.info("Proto from networkEnvelopeSocket.receiveNextEnvelope() is null. " +
+                                    "This is expected if the input stream has reached EOF. We shut down the connection.");
+                            shutdown(CloseReason.EXCEPTION.exception(new EOFException("Input stream reached EOF")));
+                            return;
+                        }
+
+                        // receiveNextEnvelope might need some time wo we check again if connection is still active
+                        if (!isInputStreamActive()) {
+                            return;
+                        }
+
+                        // The read thread is dedicated to that connection, thus we wait here for the throttle. Not
+                        // reading from the socket meanwhile applies back pressure to the peer.
+                        connectionThrottle.throttleReceiveMessage().get();
+                        if (!isInputStreamActive()) {
+                            return;
+                        }
+                        long ts = System.currentTimeMillis();
+                        NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
+                        long deserializeTime = System.currentTimeMillis() - ts;
+                        networkEnvelope.verifyVersion();
+                        handleNetworkEnvelope(networkEnvelope, deserializeTime);
+                    }
+                } catch (Exception exception) {
+                    handleInputHandlerException(exception);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.error("Read executor rejected task. We shut down the connection.", e);
+            errorHandler.accept(this, e);
+            inputHandlerFuture = CompletableFuture.failedFuture(e);
+            shutdown(CloseReason.EXCEPTION.exception(e));
+        }
+    }
+
+    private void registerAtSelectorEventLoop(Socket socket, SelectorEventLoopGroup selectorEventLoopGroup) {
+        SocketChannel socketChannel = socket.getChannel();
+        try {
+            // The socket timeout does not apply to non-blocking channels, thus we use it as idle timeout
+            int idleTimeout = socket.getSoTimeout();
+            socketChannel.configureBlocking(false);
+            networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel);
+            networkEnvelopeSocketChannel.setConnectionMetrics(connectionMetrics);
+            SelectorEventLoop eventLoop = selectorEventLoopGroup.next();
+            selectorEventLoop = eventLoop;
+            networkEnvelopeSocketChannel.setWriteReadinessRequester(() -> eventLoop.requestWriting(socketChannel));
+            eventLoop.register(socketChannel, new SelectorEventLoop.Handler() {
+                        @Override
+                        public void onReadable() {
+                            try {
+                                readExecutor.execute(() -> readFromSocketChannel(socketChannel));
+                            } catch (RejectedExecutionException e) {
+                                if (!shutdownStarted) {
+                                    log.error("Read executor rejected task. We shut down the connection.", e);
+                                    errorHandler.accept(Connection.this, e);
+                                    shutdown(CloseReason.EXCEPTION.exception(e));
+                                }
+                            }
+                        }
+
+                        @Override
+                        public void onIdleTimeout() {
+                            handleInputHandlerException(new SocketTimeoutException("No data received for " + idleTimeout + " ms"));
+                        }
+
+                        @Override
+                        public void onWritable() {
+                            try {
+                                sendExecutor.execute(Connection.this::flushPendingWrites);
+                            } catch (RejectedExecutionException ignore) {
+                                // Either we are shutting down, or the queued send tasks will flush the pending writes
+                            }
+                        }
+
+                        @Override
+                        public void onWriteTimeout() {
+                            handleInputHandlerException(new SocketTimeoutException("SocketChannel did not get writable"));
+                        }
+                    }, idleTimeout)
+                    .whenComplete((result, throwable) -> {
+                        if (throwable != null) {
+                            handleInputHandlerException(throwable instanceof Exception exception ?
+                                    exception : new ConnectionException(throwable));
+                        }
+                    });
+        } catch (IOException exception) {
+            log.error("Could not register socketChannel {} at selector event loop", socketChannel, exception);
+            errorHandler.accept(this, exception);
+            shutdown(CloseReason.EXCEPTION.exception(exception));
+        }
+    }
+
+    // Runs on the sendExecutor after the selector event loop has signaled that the channel is writable
+    private void flushPendingWrites() {
+        if (isStopped() || networkEnvelopeSocketChannel == null) {
+            return;
+        }
+        try {
+            networkEnvelopeSocketChannel.flushPendingWrites();
+        } catch (IOException exception) {
+            handleInputHandlerException(exception);
+        }
+    }
+
+    // Runs on the readExecutor after the selector event loop has signaled that data is available
+    private void readFromSocketChannel(SocketChannel socketChannel) {
+        if (!isInputStreamActive() || networkEnvelopeSocketChannel == null || selectorEventLoop == null) {
+            return;
+        }
+        try {
+            List<DeserializedNetworkEnvelope> networkEnvelopes =
+                    networkEnvelopeSocketChannel.receiveDeserializedNetworkEnvelopes();
+            if (!socketChannel.isOpen()) {
+                log.info("SocketChannel has reached EOF. We shut down the connection.");
+                shutdown(CloseReason.EXCEPTION.exception(new EOFException("Input stream reached EOF")));
+                return;
+            }
+            handleNetworkEnvelopes(socketChannel, networkEnvelopes.iterator());
+        } catch (Exception exception) {
+            handleInputHandlerException(exception);
+        }
+    }
+
+    // If a message is throttled we continue with it on the readExecutor once the throttle future completes, so no
+    // worker thread is blocked.
+    private void handleNetworkEnvelopes(SocketChannel socketChannel, Iterator<DeserializedNetworkEnvelope> iterator) {
+        while (iterator.hasNext()) {
+            if (!isInputStreamActive()) {
+                return;
+            }
+            CompletableFuture<Void> throttleFuture = connectionThrottle.throttleReceiveMessage();
+            DeserializedNetworkEnvelope networkEnvelope = iterator.next();
+            if (throttleFuture.isCompletedExceptionally()) {
+                handleInputHandlerException(new ConnectionException(throttleFuture.exceptionNow()));
+                return;
+            }
+            if (!throttleFuture.isDone()) {
+                throttleFuture.whenComplete((nil, throwable) -> {
+                    if (throwable != null) {
+                        handleInputHandlerException(new ConnectionException(throwable));
+                        return;
+                    }
+                    try {
+                        readExecutor.execute(() -> {
+                            try {
+                                if (isInputStreamActive()) {
+                                    handleNetworkEnvelope(networkEnvelope.getNetworkEnvelope(),
+                                            networkEnvelope.getDeserializeTime());
+                                    handleNetworkEnvelopes(socketChannel, iterator);
+                                }
+                            } catch (Exception exception) {
+                                handleInputHandlerException(exception);
+                            }
+                        });
+                    } catch (RejectedExecutionException exception) {
+                        handleInputHandlerException(exception);
+                    }
+                });
+                return;
+            }
+            handleNetworkEnvelope(networkEnvelope.getNetworkEnvelope(), networkEnvelope.getDeserializeTime());
+        }
+        // We only read more data once we have processed the received messages
+        if (selectorEventLoop != null) {
+            selectorEventLoop.resumeReading(socketChannel);
+        }
+    }
+
+    private void handleNetworkEnvelope(NetworkEnvelope networkEnvelope, long deserializeTime) {
+        connectionMetrics.onReceived(networkEnvelope, deserializeTime);
+
+        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
+        log.debug("Received message: {} at: {}",
+                StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
+        requestResponseManager.onReceived(envelopePayloadMessage);
+
+        if (isInputStreamActive()) {
+            boolean isMessageAuthorized = handler.isMessageAuthorized(envelopePayloadMessage,
+                    networkEnvelope.getAuthorizationToken(),
+                    this);
+            if (isMessageAuthorized) {
+                handler.handleNetworkMessage(envelopePayloadMessage, this);
+                NotifyLane notifyLane = NotifyLane.from(envelopePayloadMessage);
+                listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onNetworkMessage(envelopePayloadMessage), notifyLane));
+            }
+        }
+    }
+
+    private void handleInputHandlerException(Exception exception) {
+        //todo (deferred) StreamCorruptedException from i2p at shutdown. prob it send some text data at shut down
+        if (!shutdownStarted) {
+            log.debug("Exception at input handler on {}", this, exception);
+            shutdown(CloseReason.EXCEPTION.exception(exception));
+
+            // EOFException expected if connection got closed (Socket closed message)
+            if (!(exception instanceof EOFException)) {
+                errorHandler.accept(this, exception);
+            }
+        }
+    }
+
     private ThreadPoolExecutor createReadExecutor() {
         int queueCapacity = 100;
         MaxSizeAwareDeque deque = new MaxSizeAwareDeque(queueCapacity);
@@ -400,6 +640,12 @@ public abstract class Connection {
         return executor;
     }
 
+    // The read executor only runs the input handler loop
+    private ThreadPoolExecutor createVirtualThreadReadExecutor() {
+        String name = "Connection.read-" + getThreadNameDetails();
+        return ExecutorFactory.newVirtualThreadPool(name, 1, 1, new AbortPolicyWithLogging(name, 1, 1));
+    }
+
     private ThreadPoolExecutor createSendExecutor() {
         int queueCapacity = 100;
         MaxSizeAwareQueue queue = new MaxSizeAwareQueue(queueCapacity);
@@ -86,6 +86,7 @@ public abstract class ConnectionChannel {
         this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
         this.networkEnvelopeSocketChannel = networkEnvelopeSocketChannel;
         this.connectionMetrics = connectionMetrics;
+        networkEnvelopeSocketChannel.setConnectionMetrics(connectionMetrics);
     }
 
     ConnectionChannel send(EnvelopePayloadMessage envelopePayloadMessage, AuthorizationToken authorizationToken) {
@@ -17,102 +17,134 @@
 
 package bisq.network.p2p.node;
 
+import bisq.common.timer.TimerWheel;
 import bisq.common.util.MathUtils;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Checks if time between last send/receive is larger than the throttle time adjusted with the network load.
- * If so we pause the remaining time to ensure only 1 message is sent in that time slot.
- * This should avoid that a node gets flooded (at receive using the peers network load to adjust the throttle time) or
- * flooding their peers (at send using my network load to adjust the throttle time).
+ * Ensures that the time between two sent/received messages is at least the throttle time adjusted with the network
+ * load. This should avoid that a node gets flooded (at receive using the peers network load to adjust the throttle
+ * time) or flooding their peers (at send using my network load to adjust the throttle time).
  * As larger value in the config for sendMessageTimestamp and receiveMessageTimestamp means it is more likely that
- * message send/receive get paused.
- * Messages are not dropped by we only pause the executing thread. We use lower and upper bounds for the pause, so
- * even with extreme values from the config the throttling should not have severe impacts on the
- * connection (e.g. lead to timeouts).
+ * message send/receive get delayed.
+ * <p>
+ * Each message reserves the next free time slot (a token bucket with the capacity of one message). If the slot is in
+ * the future, the returned future gets completed by a shared TimerWheel once the slot is reached, thus no thread is
+ * blocked while waiting. As slots are reserved in call order, the futures complete in call order.
+ * Messages only get delayed. We use lower and upper bounds for the gap between messages, so even with extreme values
+ * from the config the throttling should not have severe impacts on the connection (e.g. lead to timeouts).
+ * <p>
+ * The receive path waits for each message before it reserves the next slot, but senders do not wait. To avoid that
+ * a sender reserves slots far into the future, we limit the number of delayed messages per direction. If the limit
+ * is reached, the returned future fails with a ConnectionException and no slot is reserved.
  */
 @Slf4j
 public class ConnectionThrottle {
     private static final long MIN_THROTTLE_TIME = 20;
     private static final long MAX_THROTTLE_TIME = 1000;
     private static final long MAX_LOG_FREQUENCY = TimeUnit.SECONDS.toMillis(30);
+    private static final CompletableFuture<Void> NO_DELAY = CompletableFuture.completedFuture(null);
+    // Same as the queue capacity of the send executor of a connection
+    static final int MAX_NUM_DELAYED_MESSAGES = 100;
 
     // We apply the log throttle globally, so we use static fields
     private static final AtomicLong lastLoggedTs = new AtomicLong();
     private static final List<String> LAST_LOGS = new CopyOnWriteArrayList<>();
 
+    private final TimerWheel timerWheel;
     private final NetworkLoadSnapshot peersNetworkLoadSnapshot;
     private final NetworkLoadSnapshot myNetworkLoadSnapshot;
     private final long sendMessageThrottleTime;
     private final long receiveMessageThrottleTime;
-    private final AtomicLong sendMessageTimestamp = new AtomicLong();
-    private final AtomicLong receiveMessageTimestamp = new AtomicLong();
+    // Earliest time at which the next message can be sent/received
+    private final AtomicLong nextSendMessageSlot = new AtomicLong();
+    private final AtomicLong nextReceiveMessageSlot = new AtomicLong();
+    private final AtomicInteger numDelayedSendMessages = new AtomicInteger();
+    private final AtomicInteger numDelayedReceiveMessages = new AtomicInteger();
 
-    public ConnectionThrottle(NetworkLoadSnapshot peersNetworkLoadSnapshot,
+    public ConnectionThrottle(TimerWheel timerWheel,
+                              NetworkLoadSnapshot peersNetworkLoadSnapshot,
                               NetworkLoadSnapshot myNetworkLoadSnapshot,
                               Node.Config config) {
+        this.timerWheel = timerWheel;
         this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
         this.myNetworkLoadSnapshot = myNetworkLoadSnapshot;
         sendMessageThrottleTime = config.getSendMessageThrottleTime(); // default 200
         receiveMessageThrottleTime = config.getReceiveMessageThrottleTime(); // default 200
     }
 
-    void throttleSendMessage() {
-        throttle(sendMessageTimestamp, peersNetworkLoadSnapshot, sendMessageThrottleTime, "send");
+    /**
+     * @return A future which completes once the message can be sent. It is already completed if no delay is needed,
+     * otherwise it gets completed on the timer thread, thus dependent actions must not block. The future fails if
+     * too many messages are already delayed.
+     */
+    CompletableFuture<Void> throttleSendMessage() {
+        return throttle(nextSendMessageSlot, numDelayedSendMessages, peersNetworkLoadSnapshot, sendMessageThrottleTime, "send");
     }
 
-    void throttleReceiveMessage() {
-        throttle(receiveMessageTimestamp, myNetworkLoadSnapshot, receiveMessageThrottleTime, "receive");
+    /**
+     * @return A future which completes once the message can be processed. It is already completed if no delay is
+     * needed, otherwise it gets completed on the timer thread, thus dependent actions must not block.
+     */
+    CompletableFuture<Void> throttleReceiveMessage() {
+        return throttle(nextReceiveMessageSlot, numDelayedReceiveMessages, myNetworkLoadSnapshot, receiveMessageThrottleTime, "receive");
     }
 
-    private void throttle(AtomicLong timestamp,
-                          NetworkLoadSnapshot networkLoadSnapshot,
-                          long throttleTime,
-                          String direction) {
+    private CompletableFuture<Void> throttle(AtomicLong nextSlot,
+                                             AtomicInteger numDelayedMessages,
+                                             NetworkLoadSnapshot networkLoadSnapshot,
+                                             long throttleTime,
+                                             String direction) {
+        if (numDelayedMessages.incrementAndGet() > MAX_NUM_DELAYED_MESSAGES) {
+            numDelayedMessages.decrementAndGet();
+            return CompletableFuture.failedFuture(new ConnectionException("Too many delayed " + direction +
+                    " messages. MAX_NUM_DELAYED_MESSAGES=" + MAX_NUM_DELAYED_MESSAGES));
+        }
         long now = System.currentTimeMillis();
-        long passed = now - timestamp.get();
         double load = networkLoadSnapshot.getCurrentNetworkLoad().getLoad();
-        throttleTime = MIN_THROTTLE_TIME + Math.round(throttleTime * load);
-        throttleTime = MathUtils.bounded(MIN_THROTTLE_TIME, MAX_THROTTLE_TIME, throttleTime);
-        if (passed < throttleTime) {
-            try {
-                long pause = throttleTime - passed;
-                pause = MathUtils.bounded(1, MAX_THROTTLE_TIME, pause);
-                String logMessage = String.format("Pause %s message for %d ms. Network=%f", direction, pause, load);
-                long passedSinceLastLog = now - lastLoggedTs.get();
-                if (passedSinceLastLog < MAX_LOG_FREQUENCY) {
-                    LAST_LOGS.add(logMessage);
-                    if (lastLoggedTs.get() == 0) {
-                        lastLoggedTs.set(now);
-                    }
-                } else {
-                    if (LAST_LOGS.isEmpty()) {
-                        log.info(logMessage);
-                    } else {
-                        LAST_LOGS.add(logMessage);
-                        List<String> temp = new ArrayList<>(LAST_LOGS);
-                        int size = temp.size();
-                        List<String> subList = temp.subList(0, Math.min(5, size));
-                        log.info("{} accumulated log messages in the past {} sec. Log message (max 5 displayed): {}",
-                                size, passedSinceLastLog / 1000, subList);
-                        LAST_LOGS.clear();
-                    }
-                    lastLoggedTs.set(now);
-                }
-                Thread.sleep(pause);
-            } catch (InterruptedException e) {
-                log.warn("Thread got interrupted at throttle method", e);
-                Thread.currentThread().interrupt(); // Restore interrupted state
-                throw new ConnectionException(e);
+        long adjustedThrottleTime = MathUtils.bounded(MIN_THROTTLE_TIME, MAX_THROTTLE_TIME,
+                MIN_THROTTLE_TIME + Math.round(throttleTime * load));
+        long slot = nextSlot.getAndAccumulate(now, (next, ts) -> Math.max(next, ts) + adjustedThrottleTime);
+        long pause = Math.max(slot, now) - now;
+        if (pause == 0) {
+            numDelayedMessages.decrementAndGet();
+            return NO_DELAY;
+        }
+        log(String.format("Pause %s message for %d ms. Network=%f", direction, pause, load), now);
+        CompletableFuture<Void> future = timerWheel.delay(pause);
+        future.whenComplete((nil, throwable) -> numDelayedMessages.decrementAndGet());
+        return future;
+    }
+
+    private static void log(String logMessage, long now) {
+        long passedSinceLastLog = now - lastLoggedTs.get();
+        if (passedSinceLastLog < MAX_LOG_FREQUENCY) {
+            LAST_LOGS.add(logMessage);
+            if (lastLoggedTs.get() == 0) {
+                lastLoggedTs.set(now);
+            }
+        } else {
+            if (LAST_LOGS.isEmpty()) {
+                log.info(logMessage);
+            } else {
+                LAST_LOGS.add(logMessage);
+                List<String> temp = new ArrayList<>(LAST_LOGS);
+                int size = temp.size();
+                List<String> subList = temp.subList(0, Math.min(5, size));
+                log.info("{} accumulated log messages in the past {} sec. Log message (max 5 displayed): {}",
+                        size, passedSinceLastLog / 1000, subList);
+                LAST_LOGS.clear();
             }
+            lastLoggedTs.set(now);
         }
-        timestamp.set(now);
     }
 }
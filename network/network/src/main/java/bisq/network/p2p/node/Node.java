@@ -29,9 +29,11 @@ import bisq.common.util.CompletableFutureUtils;
 import bisq.common.util.ExceptionUtil;
 import bisq.common.util.StringUtils;
 import bisq.network.NetworkExecutors;
+import bisq.network.NotifyLane;
 import bisq.network.identity.NetworkId;
 import bisq.network.p2p.message.CloseConnectionMessage;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.message.SerializedEnvelopePayload;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
@@ -304,7 +306,8 @@ public class Node implements Connection.Handler {
 
                     InboundConnection connection = createInboundConnection(socket, result);
                     inboundConnectionsByAddress.put(connection.getPeerAddress(), connection);
-                    listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onConnection(connection)));
+                    listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onConnection(connection),
+                            NotifyLane.forNewConnection()));
                 } catch (Throwable throwable) {
                     try {
                         socket.close();
@@ -327,7 +330,10 @@ public class Node implements Connection.Handler {
 
     private InboundConnection createInboundConnection(Socket socket, ConnectionHandshake.Result result) {
         NetworkLoadSnapshot peersNetworkLoadSnapshot = new NetworkLoadSnapshot(result.getPeersNetworkLoad());
-        ConnectionThrottle connectionThrottle = new ConnectionThrottle(peersNetworkLoadSnapshot, networkLoadSnapshot, config);
+        ConnectionThrottle connectionThrottle = new ConnectionThrottle(NetworkExecutors.getThrottleTimerWheel(),
+                peersNetworkLoadSnapshot,
+                networkLoadSnapshot,
+                config);
         return new InboundConnection(authorizationService,
                 result.getConnectionId(),
                 socket,
@@ -356,23 +362,39 @@ public class Node implements Connection.Handler {
     public CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage,
                                                    Connection connection) {
         try {
-            return connection.sendAsync(envelopePayloadMessage)
-                    .handle((con, exception) -> {
-                        if (exception != null) {
-                            if (connection.isRunning() && !(exception.getCause() instanceof SocketException)) {
-                                handleException(connection, exception);
-                                log.debug("Send message failed", exception);
-                                closeConnection(connection, CloseReason.EXCEPTION.exception(exception));
-                            }
-                            throw new ConnectionClosedException(connection);
-                        }
-                        return con;
-                    });
+            return handleSendResult(connection.sendAsync(envelopePayloadMessage), connection);
         } catch (Exception e) {
             return CompletableFuture.failedFuture(e);
         }
     }
 
+    /**
+     * Sends a message which was serialized already. Used if the same message gets sent to multiple connections.
+     */
+    public CompletableFuture<Connection> sendAsync(SerializedEnvelopePayload serializedEnvelopePayload,
+                                                   Connection connection) {
+        try {
+            return handleSendResult(connection.sendAsync(serializedEnvelopePayload), connection);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Connection> handleSendResult(CompletableFuture<Connection> sendFuture,
+                                                           Connection connection) {
+        return sendFuture.handle((con, exception) -> {
+            if (exception != null) {
+                if (connection.isRunning() && !(exception.getCause() instanceof SocketException)) {
+                    handleException(connection, exception);
+                    log.debug("Send message failed", exception);
+                    closeConnection(connection, CloseReason.EXCEPTION.exception(exception));
+                }
+                throw new ConnectionClosedException(connection);
+            }
+            return con;
+        });
+    }
+
 
     /* --------------------------------------------------------------------- */
     // Connection
@@ -502,7 +524,10 @@ public class Node implements Connection.Handler {
         OutboundConnection connection = null;
         try {
             NetworkLoadSnapshot peersNetworkLoadSnapshot = new NetworkLoadSnapshot(result.getPeersNetworkLoad());
-            ConnectionThrottle connectionThrottle = new ConnectionThrottle(peersNetworkLoadSnapshot, networkLoadSnapshot, config);
+            ConnectionThrottle connectionThrottle = new ConnectionThrottle(NetworkExecutors.getThrottleTimerWheel(),
+                    peersNetworkLoadSnapshot,
+                    networkLoadSnapshot,
+                    config);
             connection = new OutboundConnection(authorizationService,
                     result.getConnectionId(),
                     socket,
@@ -516,7 +541,8 @@ public class Node implements Connection.Handler {
             outboundConnectionsByAddress.put(address, connection);
 
             OutboundConnection finalConnection = connection;
-            listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onConnection(finalConnection)));
+            listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onConnection(finalConnection),
+                    NotifyLane.forNewConnection()));
             return connection;
         } catch (Exception exception) {
             log.error("Creating outbound connection failed", exception);
@@ -661,13 +687,15 @@ public class Node implements Connection.Handler {
         }
 
         // Even we get a CloseConnectionMessage we notify listeners as we want to track it for instance for metrics
-        listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onMessage(envelopePayloadMessage, connection, networkId)));
+        NotifyLane notifyLane = NotifyLane.from(envelopePayloadMessage);
+        listeners.forEach(listener -> NetworkExecutors.getNotifyExecutor().submit(() -> listener.onMessage(envelopePayloadMessage, connection, networkId), notifyLane));
     }
 
     @Override
     public void handleConnectionClosed(Connection connection, CloseReason closeReason) {
         Address peerAddress = connection.getPeerAddress();
         log.debug("Got called onConnectionClosed. connection={}, peerAddress={}", connection, peerAddress);
+        authorizationService.onConnectionClosed(connection.getId());
         boolean wasRemoved = false;
         if (connection instanceof InboundConnection) {
             wasRemoved = inboundConnectionsByAddress.remove(peerAddress) != null;
@@ -923,6 +951,15 @@ public class Node implements Connection.Handler {
 
     private ThreadPoolExecutor createExecutor() {
         int queueCapacity = 100;
+        if (NetworkExecutors.isUseVirtualThreads()) {
+            // Connection setup blocks on connect and handshake, which is cheap with virtual threads
+            int maximumPoolSize = NetworkExecutors.VIRTUAL_THREADS_MAX_POOL_SIZE;
+            String name = "Node-" + printAddresses();
+            return ExecutorFactory.newVirtualThreadPool(name,
+                    maximumPoolSize,
+                    queueCapacity,
+                    new AbortPolicyWithLogging(name, queueCapacity, maximumPoolSize));
+        }
         MaxSizeAwareQueue queue = new MaxSizeAwareQueue(queueCapacity);
         // We use maxNumConnectedPeers (default 12) for the max pool size and add some extra tolerance as at startup we
         // create many connections in parallel.
@@ -84,13 +84,32 @@ public class AuthorizationService {
                                           String peerAddress,
                                           int messageCounter,
                                           Collection<Feature> peersFeatures) {
+        return createToken(message,
+                message.serializeForHash(),
+                networkLoad,
+                peerAddress,
+                messageCounter,
+                peersFeatures);
+    }
+
+    public AuthorizationToken createToken(EnvelopePayloadMessage message,
+                                          byte[] messageSerializedForHash,
+                                          NetworkLoad networkLoad,
+                                          String peerAddress,
+                                          int messageCounter,
+                                          Collection<Feature> peersFeatures) {
         AuthorizationTokenType preferredAuthorizationTokenType = selectAuthorizationTokenType(peersFeatures);
         return supportedServices.get(preferredAuthorizationTokenType).createToken(message,
+                messageSerializedForHash,
                 networkLoad,
                 peerAddress,
                 messageCounter);
     }
 
+    public void onConnectionClosed(String connectionId) {
+        supportedServices.values().forEach(service -> service.onConnectionClosed(connectionId));
+    }
+
     public boolean isAuthorized(EnvelopePayloadMessage message,
                                 AuthorizationToken authorizationToken,
                                 NetworkLoad currentNetworkLoad,
@@ -9,11 +9,29 @@ import java.util.Optional;
 @Slf4j
 public abstract class AuthorizationTokenService<T extends AuthorizationToken> {
 
+    public T createToken(EnvelopePayloadMessage message,
+                         NetworkLoad networkLoad,
+                         String peerAddress,
+                         int messageCounter) {
+        return createToken(message, message.serializeForHash(), networkLoad, peerAddress, messageCounter);
+    }
+
+    /**
+     * @param messageSerializedForHash The result of message.serializeForHash(). Allows to reuse the serialized
+     *                                 message if a token is created for multiple peers.
+     */
     abstract public T createToken(EnvelopePayloadMessage message,
+                                  byte[] messageSerializedForHash,
                                   NetworkLoad networkLoad,
                                   String peerAddress,
                                   int messageCounter);
 
+    /**
+     * Releases the data kept for verifying the messages of the given connection.
+     */
+    public void onConnectionClosed(String connectionId) {
+    }
+
     public abstract boolean isAuthorized(EnvelopePayloadMessage message,
                                          AuthorizationToken authorizationToken,
                                          NetworkLoad currentNetworkLoad,
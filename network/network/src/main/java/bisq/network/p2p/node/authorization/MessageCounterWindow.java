@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.authorization;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window over the received message counters of a connection (similar to the anti-replay window of IPsec).
+ * <p>
+ * The peer increments the message counter for each message, and messages are received in the order they were sent,
+ * so we only need to remember the counters of the last WINDOW_SIZE messages. Counters older than the window are
+ * rejected. Memory usage is fixed and a check does not allocate.
+ */
+public final class MessageCounterWindow {
+    public static final int WINDOW_SIZE = 1024;
+
+    private final long[] bitmap = new long[WINDOW_SIZE / Long.SIZE];
+    private long highestCounter = -1;
+
+    /**
+     * @return True if the messageCounter was not received before and is inside the window. The counter gets marked
+     * as received. False if it is a replay or too old.
+     */
+    public synchronized boolean tryAccept(int messageCounter) {
+        long counter = messageCounter;
+        if (counter > highestCounter) {
+            long shift = counter - highestCounter;
+            if (shift >= WINDOW_SIZE) {
+                Arrays.fill(bitmap, 0);
+            } else {
+                // Clear the bits of the counters which moved out of the window
+                for (long i = highestCounter + 1; i <= counter; i++) {
+                    clearBit(i);
+                }
+            }
+            highestCounter = counter;
+            setBit(counter);
+            return true;
+        }
+
+        if (highestCounter - counter >= WINDOW_SIZE || isBitSet(counter)) {
+            return false;
+        }
+        setBit(counter);
+        return true;
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private boolean isBitSet(long counter) {
+        int index = bitIndex(counter);
+        return (bitmap[index / Long.SIZE] & (1L << (index % Long.SIZE))) != 0;
+    }
+
+    private void setBit(long counter) {
+        int index = bitIndex(counter);
+        bitmap[index / Long.SIZE] |= 1L << (index % Long.SIZE);
+    }
+
+    private void clearBit(long counter) {
+        int index = bitIndex(counter);
+        bitmap[index / Long.SIZE] &= ~(1L << (index % Long.SIZE));
+    }
+
+    private static int bitIndex(long counter) {
+        return (int) Math.floorMod(counter, (long) WINDOW_SIZE);
+    }
+}
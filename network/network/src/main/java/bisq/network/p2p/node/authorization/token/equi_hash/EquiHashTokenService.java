@@ -20,6 +20,7 @@ public class EquiHashTokenService extends AuthorizationTokenService<EquiHashToke
 
     @Override
     public EquiHashToken createToken(EnvelopePayloadMessage message,
+                                     byte[] messageSerializedForHash,
                                      NetworkLoad networkLoad,
                                      String peerAddress,
                                      int messageCounter) {
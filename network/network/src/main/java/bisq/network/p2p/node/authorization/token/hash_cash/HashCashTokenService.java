@@ -8,6 +8,7 @@ import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.authorization.AuthorizationTokenService;
+import bisq.network.p2p.node.authorization.MessageCounterWindow;
 import bisq.network.p2p.node.network_load.NetworkLoad;
 import bisq.security.DigestUtil;
 import bisq.security.pow.ProofOfWork;
@@ -33,7 +34,7 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
 
     private final HashCashProofOfWorkService proofOfWorkService;
     // Keep track of message counter per connection to avoid reuse of pow
-    private final Map<String, Set<Integer>> receivedMessageCountersByConnectionId = new ConcurrentHashMap<>();
+    private final Map<String, MessageCounterWindow> receivedMessageCountersByConnectionId = new ConcurrentHashMap<>();
     @Getter
     private final Metrics metrics = new Metrics();
 
@@ -43,13 +44,14 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
 
     @Override
     public HashCashToken createToken(EnvelopePayloadMessage message,
+                                     byte[] messageSerializedForHash,
                                      NetworkLoad networkLoad,
                                      String peerAddress,
                                      int messageCounter) {
         long ts = System.currentTimeMillis();
         double difficulty = calculateDifficulty(message, networkLoad);
         byte[] challenge = getChallenge(peerAddress, messageCounter);
-        byte[] payload = getPayload(message);
+        byte[] payload = getPayload(messageSerializedForHash);
         ProofOfWork proofOfWork = proofOfWorkService.mint(payload, challenge, difficulty);
         long duration = System.currentTimeMillis() - ts;
         metrics.update(duration, networkLoad.getLoad());
@@ -68,6 +70,11 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
         return token;
     }
 
+    @Override
+    public void onConnectionClosed(String connectionId) {
+        receivedMessageCountersByConnectionId.remove(connectionId);
+    }
+
     @Override
     public boolean isAuthorized(EnvelopePayloadMessage message,
                                 AuthorizationToken authorizationToken,
@@ -81,18 +88,13 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
         int messageCounter = hashCashToken.getMessageCounter();
 
         // Verify that pow is not reused
-        Set<Integer> receivedMessageCounters;
-        if (receivedMessageCountersByConnectionId.containsKey(connectionId)) {
-            receivedMessageCounters = receivedMessageCountersByConnectionId.get(connectionId);
-            if (receivedMessageCounters.contains(messageCounter)) {
-                log.warn("Invalid receivedMessageCounters. We received the proofOfWork for that message already.");
-                return false;
-            }
-        } else {
-            receivedMessageCounters = new HashSet<>();
-            receivedMessageCountersByConnectionId.put(connectionId, receivedMessageCounters);
+        MessageCounterWindow receivedMessageCounters = receivedMessageCountersByConnectionId.computeIfAbsent(connectionId,
+                key -> new MessageCounterWindow());
+        if (!receivedMessageCounters.tryAccept(messageCounter)) {
+            log.warn("Invalid messageCounter. We received the proofOfWork for that message already or the " +
+                    "messageCounter is too old. messageCounter={}", messageCounter);
+            return false;
         }
-        receivedMessageCounters.add(messageCounter);
 
         // Verify payload
         byte[] payload = getPayload(message);
@@ -217,7 +219,11 @@ public class HashCashTokenService extends AuthorizationTokenService<HashCashToke
     }
 
     private byte[] getPayload(EnvelopePayloadMessage message) {
-        return message.serializeForHash();
+        return getPayload(message.serializeForHash());
+    }
+
+    private byte[] getPayload(byte[] messageSerializedForHash) {
+        return messageSerializedForHash;
     }
 
     private byte[] getChallenge(String peerAddress, int messageCounter) {
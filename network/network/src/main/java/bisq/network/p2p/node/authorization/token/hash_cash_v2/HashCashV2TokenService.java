@@ -8,6 +8,7 @@ import bisq.common.util.StringUtils;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.authorization.AuthorizationTokenService;
+import bisq.network.p2p.node.authorization.MessageCounterWindow;
 import bisq.network.p2p.node.network_load.NetworkLoad;
 import bisq.security.DigestUtil;
 import bisq.security.pow.ProofOfWork;
@@ -32,7 +33,7 @@ public class HashCashV2TokenService extends AuthorizationTokenService<HashCashV2
 
     private final HashCashProofOfWorkService proofOfWorkService;
     // Keep track of message counter per connection to avoid reuse of pow
-    private final Map<String, Set<Integer>> receivedMessageCountersByConnectionId = new ConcurrentHashMap<>();
+    private final Map<String, MessageCounterWindow> receivedMessageCountersByConnectionId = new ConcurrentHashMap<>();
     @Getter
     private final Metrics metrics = new Metrics();
 
@@ -42,13 +43,14 @@ public class HashCashV2TokenService extends AuthorizationTokenService<HashCashV2
 
     @Override
     public HashCashV2Token createToken(EnvelopePayloadMessage message,
+                                       byte[] messageSerializedForHash,
                                        NetworkLoad networkLoad,
                                        String peerAddress,
                                        int messageCounter) {
         long ts = System.currentTimeMillis();
         double difficulty = calculateDifficulty(message, networkLoad);
         byte[] challenge = getChallenge(peerAddress, messageCounter);
-        byte[] payload = getPayload(message);
+        byte[] payload = getPayload(messageSerializedForHash);
         ProofOfWork proofOfWork = proofOfWorkService.mint(payload, challenge, difficulty);
         long duration = System.currentTimeMillis() - ts;
         metrics.update(duration, networkLoad.getLoad());
@@ -67,6 +69,11 @@ public class HashCashV2TokenService extends AuthorizationTokenService<HashCashV2
         return token;
     }
 
+    @Override
+    public void onConnectionClosed(String connectionId) {
+        receivedMessageCountersByConnectionId.remove(connectionId);
+    }
+
     @Override
     public boolean isAuthorized(EnvelopePayloadMessage message,
                                 AuthorizationToken authorizationToken,
@@ -79,18 +86,13 @@ public class HashCashV2TokenService extends AuthorizationTokenService<HashCashV2
         int messageCounter = hashCashV2Token.getMessageCounter();
 
         // Verify that pow is not reused
-        Set<Integer> receivedMessageCounters;
-        if (receivedMessageCountersByConnectionId.containsKey(connectionId)) {
-            receivedMessageCounters = receivedMessageCountersByConnectionId.get(connectionId);
-            if (receivedMessageCounters.contains(messageCounter)) {
-                log.warn("Invalid receivedMessageCounters. We received the proofOfWork for that message already.");
-                return false;
-            }
-        } else {
-            receivedMessageCounters = new HashSet<>();
-            receivedMessageCountersByConnectionId.put(connectionId, receivedMessageCounters);
+        MessageCounterWindow receivedMessageCounters = receivedMessageCountersByConnectionId.computeIfAbsent(connectionId,
+                key -> new MessageCounterWindow());
+        if (!receivedMessageCounters.tryAccept(messageCounter)) {
+            log.warn("Invalid messageCounter. We received the proofOfWork for that message already or the " +
+                    "messageCounter is too old. messageCounter={}", messageCounter);
+            return false;
         }
-        receivedMessageCounters.add(messageCounter);
 
         // Verify payload
         byte[] payload = getPayload(message);
@@ -215,8 +217,12 @@ public class HashCashV2TokenService extends AuthorizationTokenService<HashCashV2
     }
 
     private byte[] getPayload(EnvelopePayloadMessage message) {
+        return getPayload(message.serializeForHash());
+    }
+
+    private byte[] getPayload(byte[] messageSerializedForHash) {
         // In contrast to HashCashTokenService we use the hash of the message to reduce size of the pow object.
-        return DigestUtil.hash(message.serializeForHash());
+        return DigestUtil.hash(messageSerializedForHash);
     }
 
     private byte[] getChallenge(String peerAddress, int messageCounter) {
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Thread-safe pool of direct ByteBuffers in power-of-two size classes.
+ * <p>
+ * Direct buffers are costly to allocate and are only released by the GC, but the channel can write them without an
+ * additional copy. Requests larger than the max. pooled capacity get a non-pooled heap buffer. The number of pooled
+ * buffers per size class is limited, so that the pool does not retain more than MAX_POOLED_BYTES_PER_SIZE_CLASS per
+ * size class.
+ */
+public class ByteBufferPool {
+    private static final int MIN_CAPACITY_EXPONENT = 10;  // 1 KB
+    private static final int MAX_CAPACITY_EXPONENT = 20;  // 1 MB
+    private static final int MAX_POOLED_BYTES_PER_SIZE_CLASS = 4 * 1024 * 1024;
+
+    private final Queue<ByteBuffer>[] pooledBySizeClass;
+    private final AtomicInteger[] numPooledBySizeClass;
+
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool() {
+        int numSizeClasses = MAX_CAPACITY_EXPONENT - MIN_CAPACITY_EXPONENT + 1;
+        pooledBySizeClass = new Queue[numSizeClasses];
+        numPooledBySizeClass = new AtomicInteger[numSizeClasses];
+        for (int i = 0; i < numSizeClasses; i++) {
+            pooledBySizeClass[i] = new ConcurrentLinkedQueue<>();
+            numPooledBySizeClass[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * @return A cleared buffer with at least the given capacity. Must be released after use.
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        checkArgument(minCapacity >= 0, "minCapacity must not be negative");
+        int sizeClass = toSizeClass(minCapacity);
+        if (sizeClass < 0) {
+            return ByteBuffer.allocate(minCapacity);
+        }
+        ByteBuffer buffer = pooledBySizeClass[sizeClass].poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(1 << (sizeClass + MIN_CAPACITY_EXPONENT));
+        }
+        numPooledBySizeClass[sizeClass].decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool. The buffer must not be used after it got released.
+     */
+    public void release(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        int sizeClass = toSizeClass(capacity);
+        if (sizeClass < 0 || capacity != 1 << (sizeClass + MIN_CAPACITY_EXPONENT)) {
+            // Not allocated by us
+            return;
+        }
+        int maxPooled = Math.max(2, MAX_POOLED_BYTES_PER_SIZE_CLASS / capacity);
+        if (numPooledBySizeClass[sizeClass].incrementAndGet() <= maxPooled) {
+            pooledBySizeClass[sizeClass].offer(buffer);
+        } else {
+            numPooledBySizeClass[sizeClass].decrementAndGet();
+        }
+    }
+
+    int getNumPooled(int capacity) {
+        int sizeClass = toSizeClass(capacity);
+        return sizeClass < 0 ? 0 : numPooledBySizeClass[sizeClass].get();
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    // Returns -1 if the capacity exceeds the max. pooled capacity
+    private static int toSizeClass(int capacity) {
+        if (capacity > 1 << MAX_CAPACITY_EXPONENT) {
+            return -1;
+        }
+        if (capacity <= 1 << MIN_CAPACITY_EXPONENT) {
+            return 0;
+        }
+        int exponent = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        return exponent - MIN_CAPACITY_EXPONENT;
+    }
+}
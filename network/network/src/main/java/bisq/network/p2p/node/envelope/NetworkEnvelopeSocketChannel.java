@@ -18,29 +18,89 @@
 package bisq.network.p2p.node.envelope;
 
 import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.envelope.parser.nio.DeserializedNetworkEnvelope;
 import bisq.network.p2p.node.envelope.parser.nio.NetworkEnvelopeDeserializer;
-import bisq.network.p2p.node.envelope.parser.nio.ProtoBufMessageLengthWriter;
+import bisq.network.p2p.node.network_load.ConnectionMetrics;
+import com.google.protobuf.CodedOutputStream;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Reads and writes NetworkEnvelopes from/to a non-blocking SocketChannel.
+ * <p>
+ * Messages which cannot be written at once are kept in a pending write queue. If a write readiness requester is set
+ * (e.g. by the Connection registered at a SelectorEventLoop) we request OP_WRITE and continue writing by calling
+ * flushPendingWrites once the channel got writable. Otherwise, the blocking send methods wait on a write selector,
+ * which is opened once per channel and closed at close or once a write readiness requester is set.
+ */
 @Slf4j
 public class NetworkEnvelopeSocketChannel implements Closeable {
+    // Initial size of the receive buffer. It grows and shrinks with the observed read sizes.
     public static final int BYTE_BUFFER_SIZE = 1024;
+    private static final int MIN_RECEIVE_BUFFER_SIZE = 1024;
+    private static final int MAX_RECEIVE_BUFFER_SIZE = 256 * 1024;
 
     private static final int END_OF_STREAM = -1;
+    private static final long WRITE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(120);
+    // Limits the memory used by a peer which does not read our messages. A single message is always accepted if the
+    // queue is empty.
+    private static final long MAX_PENDING_WRITE_BYTES = 20 * 1024 * 1024;
+    private static final ByteBufferPool BYTE_BUFFER_POOL = new ByteBufferPool();
+
+    private static final class PendingWrite {
+        private final ByteBuffer[] buffers;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWrite(ByteBuffer[] buffers) {
+            this.buffers = buffers;
+        }
+
+        private boolean hasRemaining() {
+            return buffers[buffers.length - 1].hasRemaining();
+        }
+
+        private void release() {
+            for (ByteBuffer buffer : buffers) {
+                BYTE_BUFFER_POOL.release(buffer);
+            }
+        }
+    }
 
     @Getter
     private final SocketChannel socketChannel;
-    private final ByteBuffer byteBuffer;
-    private final NetworkEnvelopeDeserializer networkEnvelopeDeserializer;
-
+    private final ReceiveBufferSizePredictor receiveBufferSizePredictor;
+    private ByteBuffer byteBuffer;
+    private final NetworkEnvelopeDeserializer networkEnvelopeDeserializer = new NetworkEnvelopeDeserializer();
+    private volatile Optional<ConnectionMetrics> connectionMetrics = Optional.empty();
+    // Guarded by this
+    private final Deque<PendingWrite> pendingWrites = new ArrayDeque<>();
+    private long numPendingWriteBytes;
+    @Nullable
+    private volatile Runnable writeReadinessRequester;
+    // Only used if no write readiness requester is set. Opened at the first wait and kept until close.
+    private final Object writeSelectorLock = new Object();
+    @Nullable
+    private volatile Selector writeSelector;
 
     public NetworkEnvelopeSocketChannel(SocketChannel socketChannel) {
         this(socketChannel, BYTE_BUFFER_SIZE);
@@ -48,45 +108,263 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
 
     public NetworkEnvelopeSocketChannel(SocketChannel socketChannel, int byteBufferSize) {
         this.socketChannel = socketChannel;
-        this.byteBuffer = ByteBuffer.allocate(byteBufferSize);
-        this.networkEnvelopeDeserializer = new NetworkEnvelopeDeserializer(byteBuffer);
+        receiveBufferSizePredictor = new ReceiveBufferSizePredictor(byteBufferSize,
+                Math.min(byteBufferSize, MIN_RECEIVE_BUFFER_SIZE),
+                Math.max(byteBufferSize, MAX_RECEIVE_BUFFER_SIZE));
+        byteBuffer = ByteBuffer.allocate(byteBufferSize);
+    }
+
+    public void setConnectionMetrics(ConnectionMetrics connectionMetrics) {
+        this.connectionMetrics = Optional.of(connectionMetrics);
+    }
+
+    /**
+     * @param writeReadinessRequester Gets called if not all pending writes could be written. It is expected to call
+     *                                flushPendingWrites once the channel is writable again.
+     */
+    public void setWriteReadinessRequester(Runnable writeReadinessRequester) {
+        this.writeReadinessRequester = writeReadinessRequester;
+        closeWriteSelector();
     }
 
     public void send(NetworkEnvelope networkEnvelope) throws IOException {
-        bisq.network.protobuf.NetworkEnvelope proto = networkEnvelope.completeProto();
-        byte[] protoInBytes = proto.toByteArray();
-        int messageLength = protoInBytes.length;
+        sendAll(List.of(networkEnvelope));
+    }
+
+    /**
+     * Blocks until all envelopes have been written.
+     */
+    public void sendAll(List<NetworkEnvelope> networkEnvelopes) throws IOException {
+        CompletableFuture<Void> future = sendAllAsync(networkEnvelopes);
+        while (!future.isDone() && writeReadinessRequester == null) {
+            awaitWritable();
+            flushPendingWrites();
+        }
+        try {
+            future.get(WRITE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for write", e);
+        } catch (TimeoutException e) {
+            throw new IOException("Writing to socketChannel did not complete within " + WRITE_TIMEOUT_MS + " ms", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ioException ? ioException : new IOException(e.getCause());
+        }
+    }
 
-        ByteBuffer byteBuffer1 = ByteBuffer.allocate(messageLength + 10);
-        ProtoBufMessageLengthWriter.writeToBuffer(messageLength, byteBuffer1);
+    /**
+     * Serializes the envelopes into pooled direct buffers, adds them to the pending writes and writes as much as the
+     * socket accepts without blocking.
+     *
+     * @return A future which completes once all bytes of the envelopes have been written.
+     */
+    public CompletableFuture<Void> sendAllAsync(List<NetworkEnvelope> networkEnvelopes) {
+        ByteBuffer[] buffers = new ByteBuffer[networkEnvelopes.size()];
+        long numBytes = 0;
+        try {
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = serialize(networkEnvelopes.get(i));
+                numBytes += buffers[i].remaining();
+            }
+        } catch (IOException | RuntimeException e) {
+            for (ByteBuffer buffer : buffers) {
+                if (buffer != null) {
+                    BYTE_BUFFER_POOL.release(buffer);
+                }
+            }
+            return CompletableFuture.failedFuture(e);
+        }
 
-        byteBuffer1.put(protoInBytes);
-        byteBuffer1.flip();
+        PendingWrite pendingWrite = new PendingWrite(buffers);
+        synchronized (this) {
+            if (!socketChannel.isOpen()) {
+                pendingWrite.release();
+                return CompletableFuture.failedFuture(new ClosedChannelException());
+            }
+            if (numPendingWriteBytes > 0 && numPendingWriteBytes + numBytes > MAX_PENDING_WRITE_BYTES) {
+                pendingWrite.release();
+                return CompletableFuture.failedFuture(new IOException("Pending write buffer is full. numPendingWriteBytes=" +
+                        numPendingWriteBytes));
+            }
+            pendingWrites.add(pendingWrite);
+            numPendingWriteBytes += numBytes;
+        }
+        try {
+            flushPendingWrites();
+        } catch (IOException e) {
+            failPendingWrites(e);
+        }
+        return pendingWrite.future;
+    }
 
-        socketChannel.write(byteBuffer1);
+    /**
+     * Writes the pending writes in order until the socket does not accept more bytes. If data remains, the write
+     * readiness requester gets called.
+     */
+    public void flushPendingWrites() throws IOException {
+        List<PendingWrite> completed = new ArrayList<>();
+        boolean hasRemaining;
+        synchronized (this) {
+            PendingWrite pendingWrite;
+            while ((pendingWrite = pendingWrites.peek()) != null) {
+                long numWrittenBytes = socketChannel.write(pendingWrite.buffers);
+                numPendingWriteBytes -= numWrittenBytes;
+                if (pendingWrite.hasRemaining()) {
+                    break;
+                }
+                pendingWrites.poll();
+                completed.add(pendingWrite);
+            }
+            hasRemaining = !pendingWrites.isEmpty();
+        }
+        // We complete the futures outside the lock as dependent actions run synchronously
+        completed.forEach(pendingWrite -> {
+            pendingWrite.release();
+            pendingWrite.future.complete(null);
+        });
+        Runnable requester = writeReadinessRequester;
+        if (hasRemaining && requester != null) {
+            requester.run();
+        }
     }
 
     public List<NetworkEnvelope> receiveNetworkEnvelopes() throws IOException {
-        byteBuffer.clear();
+        return receiveDeserializedNetworkEnvelopes().stream()
+                .map(DeserializedNetworkEnvelope::getNetworkEnvelope)
+                .toList();
+    }
 
-        int numberOfReadBytes = socketChannel.read(byteBuffer);
-        if (numberOfReadBytes == END_OF_STREAM) {
-            socketChannel.close();
-            return Collections.emptyList();
-        }
+    public List<DeserializedNetworkEnvelope> receiveDeserializedNetworkEnvelopes() throws IOException {
+        Optional<ByteBuffer> pendingMessageBuffer = networkEnvelopeDeserializer.getPendingMessageBuffer();
+        int numberOfReadBytes;
+        if (pendingMessageBuffer.isPresent()) {
+            // We read the remaining bytes of a large message directly into its buffer
+            numberOfReadBytes = socketChannel.read(pendingMessageBuffer.get());
+            if (numberOfReadBytes == END_OF_STREAM) {
+                socketChannel.close();
+                return Collections.emptyList();
+            }
+            networkEnvelopeDeserializer.onPendingMessageBufferUpdated();
+        } else {
+            if (byteBuffer.capacity() != receiveBufferSizePredictor.getSize()) {
+                byteBuffer = ByteBuffer.allocate(receiveBufferSizePredictor.getSize());
+            }
+            byteBuffer.clear();
 
-        byteBuffer.flip();
-        networkEnvelopeDeserializer.readFromByteBuffer();
+            numberOfReadBytes = socketChannel.read(byteBuffer);
+            if (numberOfReadBytes == END_OF_STREAM) {
+                socketChannel.close();
+                return Collections.emptyList();
+            }
+            receiveBufferSizePredictor.onRead(numberOfReadBytes);
 
-        List<NetworkEnvelope>
-                allNetworkEnvelopes = networkEnvelopeDeserializer.getAllNetworkEnvelopes();
-        allNetworkEnvelopes.forEach(NetworkEnvelope::verifyVersion);
+            byteBuffer.flip();
+            networkEnvelopeDeserializer.readFromByteBuffer(byteBuffer);
+        }
+        int receiveBufferSize = byteBuffer.capacity();
+        connectionMetrics.ifPresent(metrics -> metrics.onRead(numberOfReadBytes, receiveBufferSize));
 
-        return allNetworkEnvelopes;
+        // The deserializer has already verified the version of each envelope
+        return networkEnvelopeDeserializer.getAllDeserializedNetworkEnvelopes();
     }
 
     @Override
     public void close() throws IOException {
         socketChannel.close();
+        closeWriteSelector();
+        failPendingWrites(new ClosedChannelException());
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    // Writes the length delimited proto (same format as writeDelimitedTo) directly into a pooled buffer.
+    // If the payload was serialized already (e.g. at broadcast) we only write the envelope header and copy the bytes.
+    private static ByteBuffer serialize(NetworkEnvelope networkEnvelope) throws IOException {
+        boolean hasSerializedPayload = networkEnvelope.hasSerializedEnvelopePayloadMessage();
+        bisq.network.protobuf.NetworkEnvelope proto = hasSerializedPayload ? null : networkEnvelope.completeProto();
+        int messageLength = hasSerializedPayload ? networkEnvelope.getSerializedSize() : proto.getSerializedSize();
+        int totalLength = CodedOutputStream.computeUInt32SizeNoTag(messageLength) + messageLength;
+        ByteBuffer buffer = BYTE_BUFFER_POOL.acquire(totalLength);
+        try {
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(buffer);
+            codedOutputStream.writeUInt32NoTag(messageLength);
+            if (hasSerializedPayload) {
+                networkEnvelope.writeTo(codedOutputStream);
+            } else {
+                proto.writeTo(codedOutputStream);
+            }
+            codedOutputStream.flush();
+            buffer.flip();
+            return buffer;
+        } catch (IOException | RuntimeException e) {
+            BYTE_BUFFER_POOL.release(buffer);
+            throw e;
+        }
+    }
+
+    private void failPendingWrites(IOException exception) {
+        List<PendingWrite> failed;
+        synchronized (this) {
+            failed = List.copyOf(pendingWrites);
+            pendingWrites.clear();
+            numPendingWriteBytes = 0;
+        }
+        failed.forEach(pendingWrite -> {
+            pendingWrite.release();
+            pendingWrite.future.completeExceptionally(exception);
+        });
+    }
+
+    // Only used if no write readiness requester is set. We wait on the write selector of that channel instead of
+    // polling the channel. Concurrent senders wait one after the other.
+    private void awaitWritable() throws IOException {
+        synchronized (writeSelectorLock) {
+            Selector selector = writeSelector;
+            if (selector == null) {
+                selector = Selector.open();
+                try {
+                    socketChannel.register(selector, SelectionKey.OP_WRITE);
+                } catch (IOException | RuntimeException e) {
+                    selector.close();
+                    throw e;
+                }
+                writeSelector = selector;
+            }
+            int numSelectedKeys;
+            try {
+                numSelectedKeys = selector.select(WRITE_TIMEOUT_MS);
+            } catch (ClosedSelectorException e) {
+                numSelectedKeys = 0;
+            }
+            if (!socketChannel.isOpen()) {
+                throw new ClosedChannelException();
+            }
+            if (!selector.isOpen()) {
+                // A write readiness requester has been set while we were waiting. It takes over the pending writes.
+                return;
+            }
+            selector.selectedKeys().clear();
+            if (numSelectedKeys == 0) {
+                IOException exception = new IOException("SocketChannel did not get writable within " + WRITE_TIMEOUT_MS + " ms");
+                failPendingWrites(exception);
+                throw exception;
+            }
+        }
+    }
+
+    // Not guarded by writeSelectorLock, as closing the selector wakes up a sender waiting in awaitWritable
+    private void closeWriteSelector() {
+        Selector selector = writeSelector;
+        writeSelector = null;
+        if (selector != null) {
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("Closing write selector failed", e);
+            }
+        }
     }
 }
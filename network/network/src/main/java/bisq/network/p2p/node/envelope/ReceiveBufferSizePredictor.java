@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope;
+
+import lombok.Getter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Predicts the size of the receive buffer based on the observed read sizes.
+ * <p>
+ * If a read fills the whole buffer we double the size, as more data was likely waiting. After a series of reads which
+ * used less than half of the buffer we halve the size again. The size stays within the given bounds.
+ */
+class ReceiveBufferSizePredictor {
+    private static final int NUM_SMALL_READS_BEFORE_SHRINKING = 8;
+
+    private final int minSize;
+    private final int maxSize;
+    @Getter
+    private int size;
+    private int numSmallReads;
+
+    ReceiveBufferSizePredictor(int initialSize, int minSize, int maxSize) {
+        checkArgument(minSize > 0 && minSize <= initialSize && initialSize <= maxSize,
+                "Invalid sizes. initialSize=%s, minSize=%s, maxSize=%s", initialSize, minSize, maxSize);
+        this.size = initialSize;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    void onRead(int numReadBytes) {
+        if (numReadBytes >= size) {
+            size = Math.min(maxSize, size * 2);
+            numSmallReads = 0;
+        } else if (numReadBytes < size / 2) {
+            numSmallReads++;
+            if (numSmallReads >= NUM_SMALL_READS_BEFORE_SHRINKING) {
+                size = Math.max(minSize, size / 2);
+                numSmallReads = 0;
+            }
+        } else {
+            numSmallReads = 0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope.parser.nio;
+
+import bisq.network.p2p.message.NetworkEnvelope;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A NetworkEnvelope together with the time in ms it took to create it from its proto, so that the metrics of
+ * the selector based read path are the same as those of the socket based one.
+ */
+@Getter
+@ToString
+public final class DeserializedNetworkEnvelope {
+    private final NetworkEnvelope networkEnvelope;
+    private final long deserializeTime;
+
+    public DeserializedNetworkEnvelope(NetworkEnvelope networkEnvelope, long deserializeTime) {
+        this.networkEnvelope = networkEnvelope;
+        this.deserializeTime = deserializeTime;
+    }
+}
@@ -25,136 +25,140 @@ import lombok.extern.slf4j.Slf4j;
 import java.nio.ByteBuffer;
 import java.util.*;
 
+/**
+ * Parses length delimited NetworkEnvelopes from the buffers passed to readFromByteBuffer.
+ * <p>
+ * Messages which are completely contained in the buffer are parsed directly from the buffer without copying.
+ * For a message exceeding the buffer we allocate a buffer of the message size once and expose it via
+ * getPendingMessageBuffer, so that the caller can read the remaining bytes directly into it.
+ * <p>
+ * A message length above MAX_MESSAGE_LENGTH or a message which cannot be parsed is a protocol violation. We throw an
+ * InvalidProtocolBufferException in that case, so that the caller closes the connection. Continuing to read would
+ * not be safe, as we cannot know where the next message starts.
+ */
 @Slf4j
 public class NetworkEnvelopeDeserializer {
+    // Inventory responses are the largest messages and are limited to about 2 MB by default
+    public static final int MAX_MESSAGE_LENGTH = 10 * 1024 * 1024;
 
-    private final ByteBuffer byteBuffer;
     private final ProtoBufMessageLengthParser messageLengthParser;
+    // The buffer we are currently reading from
+    private ByteBuffer byteBuffer;
     private boolean parsingMessage = false;
-    private long currentMessageLength = 0;
-    private int parsedMessageLength = 0;
-    private byte[] currentProtobufMessage;
+    private int currentMessageLength = 0;
+    private ByteBuffer pendingMessageBuffer;
 
-    private final Queue<bisq.network.p2p.message.NetworkEnvelope> parsedNetworkEnvelopes = new LinkedList<>();
+    private final Queue<DeserializedNetworkEnvelope> parsedNetworkEnvelopes = new LinkedList<>();
 
-    public NetworkEnvelopeDeserializer(ByteBuffer byteBuffer) {
-        this.byteBuffer = byteBuffer;
-        var protoBufInputStream = new NioProtoBufInputStream(byteBuffer);
-        this.messageLengthParser = new ProtoBufMessageLengthParser(protoBufInputStream);
+    public NetworkEnvelopeDeserializer() {
+        this.messageLengthParser = new ProtoBufMessageLengthParser(() -> byteBuffer.get());
     }
 
-    public void readFromByteBuffer() {
+    public void readFromByteBuffer(ByteBuffer byteBuffer) throws InvalidProtocolBufferException {
+        this.byteBuffer = byteBuffer;
         while (byteBuffer.hasRemaining()) {
             if (!parsingMessage) {
                 parseMessageLength();
-
+            } else if (pendingMessageBuffer != null) {
+                copyToPendingMessageBuffer();
             } else {
-                if (inMiddleOfParsingMessage()) {
-                    parsePartialMessage();
+                parseNewIncomingMessage();
+            }
+        }
+        this.byteBuffer = null;
+    }
 
-                    if (isMessageComplete()) {
-                        tryToParseProtoBufMessage();
-                    }
+    /**
+     * @return The buffer of a partially received message. The caller can read the missing bytes directly into it
+     * and must call onPendingMessageBufferUpdated afterwards.
+     */
+    public Optional<ByteBuffer> getPendingMessageBuffer() {
+        return Optional.ofNullable(pendingMessageBuffer);
+    }
 
-                } else {
-                    parseNewIncomingMessage();
-                }
-            }
+    public void onPendingMessageBufferUpdated() throws InvalidProtocolBufferException {
+        if (pendingMessageBuffer != null && !pendingMessageBuffer.hasRemaining()) {
+            pendingMessageBuffer.flip();
+            tryToParseProtoBufMessage(pendingMessageBuffer);
+        }
+    }
+
+    public List<bisq.network.p2p.message.NetworkEnvelope> getAllNetworkEnvelopes() {
+        return getAllDeserializedNetworkEnvelopes().stream()
+                .map(DeserializedNetworkEnvelope::getNetworkEnvelope)
+                .toList();
+    }
+
+    public List<DeserializedNetworkEnvelope> getAllDeserializedNetworkEnvelopes() {
+        if (parsedNetworkEnvelopes.isEmpty()) {
+            return Collections.emptyList();
         }
+
+        List<DeserializedNetworkEnvelope> networkEnvelopes = new ArrayList<>(parsedNetworkEnvelopes.size());
+        networkEnvelopes.addAll(parsedNetworkEnvelopes);
+
+        parsedNetworkEnvelopes.clear();
+
+        return networkEnvelopes;
     }
 
-    private void parseMessageLength() {
+    private void parseMessageLength() throws InvalidProtocolBufferException {
         long messageLength = messageLengthParser.parseMessageLength();
         if (isMessageLengthParsed(messageLength)) {
-            currentMessageLength = messageLength;
-            parsedMessageLength = 0;
+            if (messageLength < 0 || messageLength > MAX_MESSAGE_LENGTH) {
+                resetState();
+                throw new InvalidProtocolBufferException("Message length exceeds max. supported size. messageLength=" +
+                        messageLength + "; MAX_MESSAGE_LENGTH=" + MAX_MESSAGE_LENGTH);
+            }
+            currentMessageLength = (int) messageLength;
             parsingMessage = true;
         }
     }
 
-    private boolean inMiddleOfParsingMessage() {
-        return currentProtobufMessage != null;
-    }
-
-    private void parsePartialMessage() {
-        long lengthOfMissingMessage = currentMessageLength - parsedMessageLength;
-
-        if (byteBuffer.remaining() >= lengthOfMissingMessage) {
-            parsePartialMessageFromByteBuffer((int) lengthOfMissingMessage);
+    private void parseNewIncomingMessage() throws InvalidProtocolBufferException {
+        if (byteBuffer.remaining() >= currentMessageLength) {
+            // We parse from a view on the buffer without copying
+            ByteBuffer messageBuffer = byteBuffer.slice(byteBuffer.position(), currentMessageLength);
+            byteBuffer.position(byteBuffer.position() + currentMessageLength);
+            tryToParseProtoBufMessage(messageBuffer);
         } else {
-            int lengthOfMessageInBuffer = byteBuffer.remaining();
-            parsePartialMessageFromByteBuffer(lengthOfMessageInBuffer);
+            pendingMessageBuffer = ByteBuffer.allocate(currentMessageLength);
+            copyToPendingMessageBuffer();
         }
     }
 
-    private boolean isMessageComplete() {
-        return parsedMessageLength == currentMessageLength;
+    private void copyToPendingMessageBuffer() throws InvalidProtocolBufferException {
+        int length = Math.min(byteBuffer.remaining(), pendingMessageBuffer.remaining());
+        pendingMessageBuffer.put(pendingMessageBuffer.position(), byteBuffer, byteBuffer.position(), length);
+        pendingMessageBuffer.position(pendingMessageBuffer.position() + length);
+        byteBuffer.position(byteBuffer.position() + length);
+        onPendingMessageBufferUpdated();
     }
 
-    private void tryToParseProtoBufMessage() {
+    private void tryToParseProtoBufMessage(ByteBuffer messageBuffer) throws InvalidProtocolBufferException {
         try {
-            NetworkEnvelope message = NetworkEnvelope.parseFrom(currentProtobufMessage);
+            NetworkEnvelope message = NetworkEnvelope.parseFrom(messageBuffer);
+            long ts = System.currentTimeMillis();
             bisq.network.p2p.message.NetworkEnvelope
                     networkEnvelope = bisq.network.p2p.message.NetworkEnvelope.fromProto(message);
+            long deserializeTime = System.currentTimeMillis() - ts;
             networkEnvelope.verifyVersion();
-            parsedNetworkEnvelopes.add(networkEnvelope);
-
+            parsedNetworkEnvelopes.add(new DeserializedNetworkEnvelope(networkEnvelope, deserializeTime));
         } catch (InvalidProtocolBufferException e) {
-            log.error("Couldn't parse protocol buffer message.", e);
+            log.warn("Couldn't parse protocol buffer message. We treat it as protocol violation. {}", e.getMessage());
+            throw e;
         } finally {
             resetState();
         }
     }
 
-    private void parseNewIncomingMessage() {
-        currentProtobufMessage = new byte[(int) currentMessageLength];
-        parsedMessageLength = 0;
-
-        if (isFullMessageInByteBuffer()) {
-            byteBuffer.get(currentProtobufMessage, parsedMessageLength, (int) currentMessageLength);
-            tryToParseProtoBufMessage();
-
-        } else {
-            int lengthOfMessageInBuffer = byteBuffer.remaining();
-            parsePartialMessageFromByteBuffer(lengthOfMessageInBuffer);
-
-            if (isMessageComplete()) {
-                tryToParseProtoBufMessage();
-            }
-        }
-    }
-
-    private void parsePartialMessageFromByteBuffer(int length) {
-        byteBuffer.get(currentProtobufMessage, parsedMessageLength, length);
-        parsedMessageLength += length;
-    }
-
     private void resetState() {
         parsingMessage = false;
         currentMessageLength = 0;
-        parsedMessageLength = 0;
-        currentProtobufMessage = null;
-    }
-
-    public List<bisq.network.p2p.message.NetworkEnvelope> getAllNetworkEnvelopes() {
-        if (parsedNetworkEnvelopes.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<bisq.network.p2p.message.NetworkEnvelope> networkEnvelopes = new ArrayList<>(parsedNetworkEnvelopes.size());
-        networkEnvelopes.addAll(parsedNetworkEnvelopes);
-
-        parsedNetworkEnvelopes.clear();
-
-        return networkEnvelopes;
+        pendingMessageBuffer = null;
     }
 
     private boolean isMessageLengthParsed(long messageLength) {
         return messageLength != ProtoBufMessageLengthParser.STILL_PARSING_MESSAGE_LENGTH;
     }
-
-    private boolean isFullMessageInByteBuffer() {
-        int messageLength = ((int) currentMessageLength) - parsedMessageLength;
-        return byteBuffer.remaining() >= messageLength;
-    }
 }
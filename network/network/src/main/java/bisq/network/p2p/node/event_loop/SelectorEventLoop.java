@@ -0,0 +1,283 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.event_loop;
+
+import bisq.common.threading.ExecutorFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Waits on a single thread for read readiness of many non-blocking SocketChannels.
+ * <p>
+ * Once a channel is readable we clear its read interest and call the handler. The handler is expected to hand over
+ * the read to another executor and to call resumeReading once it has consumed the data. Thus, the selector thread
+ * never reads or processes data itself, and a busy connection cannot get more data in flight than it can process.
+ * <p>
+ * If a write could not be completed, the writer calls requestWriting. Once the channel is writable we clear the write
+ * interest and call the handler, which is expected to continue the pending writes on another executor.
+ * <p>
+ * The handler gets notified once no data was received for longer than the idle timeout given at registration, or if
+ * a requested write readiness did not occur within the write timeout.
+ * <p>
+ * Connections keep using the blocking sockets for accept, connect and the handshake and only move the established
+ * channel to an event loop. This keeps the Tor transport, which hands us plain sockets, on the same Connection class.
+ * The ServerChannel and ConnectionChannel based classes, which do the handshake on non-blocking channels, are not
+ * used by the Node yet.
+ */
+@Slf4j
+public class SelectorEventLoop {
+    public interface Handler {
+        void onReadable();
+
+        void onIdleTimeout();
+
+        default void onWritable() {
+        }
+
+        default void onWriteTimeout() {
+        }
+    }
+
+    private static final long SELECT_TIMEOUT_MS = 1000;
+    private static final long WRITE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(120);
+
+    private static final class Registration {
+        private final Handler handler;
+        private final long idleTimeoutMs;
+        private volatile long lastReadableTs = System.currentTimeMillis();
+        private volatile boolean idleTimeoutNotified;
+        // 0 if no write readiness is requested
+        private volatile long writeRequestedTs;
+
+        private Registration(Handler handler, long idleTimeoutMs) {
+            this.handler = handler;
+            this.idleTimeoutMs = idleTimeoutMs;
+        }
+    }
+
+    private final String name;
+    private final Selector selector;
+    private final ExecutorService executor;
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numRegisteredChannels = new AtomicInteger();
+    private volatile boolean isStopped;
+
+    public SelectorEventLoop(String name) throws IOException {
+        this.name = name;
+        selector = Selector.open();
+        executor = ExecutorFactory.newSingleThreadExecutor(name);
+        executor.submit(this::run);
+    }
+
+    /**
+     * Registers the channel for read readiness. The channel must be in non-blocking mode.
+     *
+     * @param idleTimeoutMs Timeout after which the handler gets notified if no data arrived. 0 disables the timeout.
+     */
+    public CompletableFuture<Void> register(SocketChannel socketChannel, Handler handler, long idleTimeoutMs) {
+        checkArgument(!socketChannel.isBlocking(), "socketChannel must be in non-blocking mode");
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        runInEventLoop(() -> {
+            try {
+                socketChannel.register(selector, SelectionKey.OP_READ, new Registration(handler, idleTimeoutMs));
+                numRegisteredChannels.set(selector.keys().size());
+                future.complete(null);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    public void unregister(SocketChannel socketChannel) {
+        runInEventLoop(() -> {
+            SelectionKey key = socketChannel.keyFor(selector);
+            if (key != null) {
+                key.cancel();
+            }
+        });
+    }
+
+    /**
+     * Re-enables the read interest of the channel after the handler has consumed the data.
+     */
+    public void resumeReading(SocketChannel socketChannel) {
+        SelectionKey key = socketChannel.keyFor(selector);
+        if (key == null) {
+            return;
+        }
+        try {
+            key.interestOpsOr(SelectionKey.OP_READ);
+            selector.wakeup();
+        } catch (CancelledKeyException ignore) {
+        }
+    }
+
+    /**
+     * Adds the write interest to the channel. The handler gets called once the channel is writable.
+     */
+    public void requestWriting(SocketChannel socketChannel) {
+        SelectionKey key = socketChannel.keyFor(selector);
+        if (key == null) {
+            return;
+        }
+        try {
+            Registration registration = (Registration) key.attachment();
+            if (registration.writeRequestedTs == 0) {
+                registration.writeRequestedTs = System.currentTimeMillis();
+            }
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+            selector.wakeup();
+        } catch (CancelledKeyException ignore) {
+        }
+    }
+
+    public int getNumRegisteredChannels() {
+        return numRegisteredChannels.get();
+    }
+
+    public void shutdown() {
+        if (isStopped) {
+            return;
+        }
+        isStopped = true;
+        selector.wakeup();
+        ExecutorFactory.shutdownAndAwaitTermination(executor);
+        try {
+            selector.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void runInEventLoop(Runnable task) {
+        pendingTasks.add(task);
+        selector.wakeup();
+    }
+
+    private void run() {
+        long lastIdleCheckTs = System.currentTimeMillis();
+        while (!isStopped && !Thread.currentThread().isInterrupted()) {
+            try {
+                selector.select(SELECT_TIMEOUT_MS);
+                runPendingTasks();
+                processSelectedKeys();
+                // Cancelled keys (also from closed channels) got removed by the select
+                numRegisteredChannels.set(selector.keys().size());
+
+                long now = System.currentTimeMillis();
+                if (now - lastIdleCheckTs >= SELECT_TIMEOUT_MS) {
+                    lastIdleCheckTs = now;
+                    checkIdleTimeouts(now);
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Error at event loop {}", name, e);
+            }
+        }
+    }
+
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Pending task at event loop {} failed", name, e);
+            }
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            SelectionKey key = iterator.next();
+            iterator.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            Registration registration = (Registration) key.attachment();
+            try {
+                if (key.isWritable()) {
+                    registration.writeRequestedTs = 0;
+                    // The handler calls requestWriting again if not all pending data could be written
+                    key.interestOpsAnd(~SelectionKey.OP_WRITE);
+                    registration.handler.onWritable();
+                }
+                if (key.isValid() && key.isReadable()) {
+                    registration.lastReadableTs = System.currentTimeMillis();
+                    // The handler calls resumeReading once it has consumed the data
+                    key.interestOpsAnd(~SelectionKey.OP_READ);
+                    registration.handler.onReadable();
+                }
+            } catch (CancelledKeyException ignore) {
+            } catch (Exception e) {
+                log.error("Calling handler {} failed", registration.handler, e);
+            }
+        }
+    }
+
+    private void checkIdleTimeouts(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (!key.isValid()) {
+                continue;
+            }
+            Registration registration = (Registration) key.attachment();
+            long writeRequestedTs = registration.writeRequestedTs;
+            if (writeRequestedTs > 0 && now - writeRequestedTs > WRITE_TIMEOUT_MS) {
+                registration.writeRequestedTs = 0;
+                try {
+                    registration.handler.onWriteTimeout();
+                } catch (Exception e) {
+                    log.error("Calling onWriteTimeout at handler {} failed", registration.handler, e);
+                }
+            }
+            if (registration.idleTimeoutMs > 0 &&
+                    !registration.idleTimeoutNotified &&
+                    (key.interestOps() & SelectionKey.OP_READ) != 0 &&
+                    now - registration.lastReadableTs > registration.idleTimeoutMs) {
+                registration.idleTimeoutNotified = true;
+                try {
+                    registration.handler.onIdleTimeout();
+                } catch (Exception e) {
+                    log.error("Calling onIdleTimeout at handler {} failed", registration.handler, e);
+                }
+            }
+        }
+    }
+}
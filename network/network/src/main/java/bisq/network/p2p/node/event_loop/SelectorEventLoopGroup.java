@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.event_loop;
+
+import bisq.common.threading.AbortPolicyWithLogging;
+import bisq.common.threading.ExecutorFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A small number of SelectorEventLoops which multiplex the reads of all channel backed connections, together with a
+ * shared worker pool on which the connections read, process and send their messages.
+ */
+@Slf4j
+public class SelectorEventLoopGroup {
+    private static final int WORKER_QUEUE_CAPACITY = 10000;
+
+    private final List<SelectorEventLoop> eventLoops = new ArrayList<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    @Getter
+    private final ExecutorService workerExecutor;
+
+    public SelectorEventLoopGroup(int numEventLoops, int workerPoolSize) {
+        checkArgument(numEventLoops > 0, "numEventLoops must be > 0");
+        checkArgument(workerPoolSize > 0, "workerPoolSize must be > 0");
+        try {
+            for (int i = 0; i < numEventLoops; i++) {
+                eventLoops.add(new SelectorEventLoop("SelectorEventLoop-" + i));
+            }
+        } catch (IOException e) {
+            eventLoops.forEach(SelectorEventLoop::shutdown);
+            throw new UncheckedIOException(e);
+        }
+        String name = "SelectorEventLoopGroup.worker";
+        workerExecutor = ExecutorFactory.boundedCachedPool(name,
+                workerPoolSize,
+                workerPoolSize,
+                30,
+                WORKER_QUEUE_CAPACITY,
+                new AbortPolicyWithLogging(name, WORKER_QUEUE_CAPACITY, workerPoolSize));
+    }
+
+    public SelectorEventLoop next() {
+        return eventLoops.get(Math.floorMod(nextIndex.getAndIncrement(), eventLoops.size()));
+    }
+
+    public int getNumRegisteredChannels() {
+        return eventLoops.stream().mapToInt(SelectorEventLoop::getNumRegisteredChannels).sum();
+    }
+
+    public void shutdown() {
+        eventLoops.forEach(SelectorEventLoop::shutdown);
+        ExecutorFactory.shutdownAndAwaitTermination(workerExecutor);
+    }
+}
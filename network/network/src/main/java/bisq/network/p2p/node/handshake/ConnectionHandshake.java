@@ -268,6 +268,7 @@ public final class ConnectionHandshake {
                     myAddress.getFullAddress());
 
             if (!isAuthorized) {
+                authorizationService.onConnectionClosed(connectionId);
                 throw new ConnectionException(AUTHORIZATION_FAILED, "ConnectionHandshake.Response authorization failed at outbound connection attempt. AuthorizationToken=" + responseNetworkEnvelope.getAuthorizationToken());
             }
 
@@ -329,6 +330,7 @@ public final class ConnectionHandshake {
                     connectionId,
                     myAddress.getFullAddress());
             if (!isAuthorized) {
+                authorizationService.onConnectionClosed(connectionId);
                 throw new ConnectionException(AUTHORIZATION_FAILED, "Authorization of inbound connection request failed. AuthorizationToken=" + requestNetworkEnvelope.getAuthorizationToken());
             }
 
@@ -101,11 +101,14 @@ public class ConnectionHandshakeInitiator {
             throw new ConnectionException(ADDRESS_BANNED, "PeerAddress is banned. address=" + address);
         }
 
+        // The connectionId is only used for that check, so we release the data kept for it right after.
+        String connectionId = StringUtils.createUid();
         boolean isAuthorized = authorizationService.isAuthorized(response,
                 responseNetworkEnvelope.getAuthorizationToken(),
                 myNetworkLoad,
-                StringUtils.createUid(),
+                connectionId,
                 myCapability.getAddress().getFullAddress());
+        authorizationService.onConnectionClosed(connectionId);
 
         if (!isAuthorized) {
             throw new ConnectionException(AUTHORIZATION_FAILED, "ConnectionHandshake.Response authorization failed. AuthorizationToken=" + responseNetworkEnvelope.getAuthorizationToken());
@@ -99,13 +99,16 @@ public class ConnectionHandshakeResponder {
         String myAddress = myCapability.getAddress().getFullAddress();
         // As the request did not know our load at the initial request, they used the NetworkLoad.INITIAL_LOAD for the
         // AuthorizationToken.
+        // The connectionId is only used for that check, so we release the data kept for it right after.
+        String connectionId = StringUtils.createUid();
         boolean isAuthorized = authorizationService.isAuthorized(
                 request,
                 requestNetworkEnvelope.getAuthorizationToken(),
                 NetworkLoad.INITIAL_NETWORK_LOAD,
-                StringUtils.createUid(),
+                connectionId,
                 myAddress
         );
+        authorizationService.onConnectionClosed(connectionId);
 
         if (!isAuthorized) {
             throw new ConnectionException(AUTHORIZATION_FAILED, "ConnectionHandshake.Request authorization failed. AuthorizationToken=" + requestNetworkEnvelope.getAuthorizationToken());
@@ -28,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
@@ -42,6 +43,9 @@ public class ConnectionMetrics {
     private final TreeMap<Integer, AtomicLong> deserializeTimePerMinute = new TreeMap<>();
     private final TreeMap<Integer, AtomicLong> numMessagesReceivedPerMinute = new TreeMap<>();
     private final TreeMap<Integer, AtomicLong> receivedBytesPerMinute = new TreeMap<>();
+    private final TreeMap<Integer, AtomicLong> numReadsPerMinute = new TreeMap<>();
+    private final TreeMap<Integer, AtomicLong> readBytesPerMinute = new TreeMap<>();
+    private final AtomicInteger receiveBufferSize = new AtomicInteger();
     private final Map<String, AtomicLong> numSentMessagesByClassName = new ConcurrentHashMap<>();
     private final Map<String, AtomicLong> numReceivedMessagesByClassName = new ConcurrentHashMap<>();
     private final Map<String, AtomicLong> numSentDistributedDataByClassName = new ConcurrentHashMap<>();
@@ -114,6 +118,24 @@ public class ConnectionMetrics {
         }
     }
 
+    /**
+     * Called for each read from the socket channel.
+     *
+     * @param numReadBytes      Number of bytes read
+     * @param receiveBufferSize Current size of the adaptive receive buffer
+     */
+    public void onRead(int numReadBytes, int receiveBufferSize) {
+        long now = System.currentTimeMillis();
+        lastUpdate.set(now);
+
+        int ageInMinutes = getAgeInMinutes(now);
+        numReadsPerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
+                .incrementAndGet();
+        readBytesPerMinute.computeIfAbsent(ageInMinutes, key -> new AtomicLong())
+                .addAndGet(numReadBytes);
+        this.receiveBufferSize.set(receiveBufferSize);
+    }
+
     public void addRtt(long value) {
         this.rrtList.add(value);
     }
@@ -146,6 +168,19 @@ public class ConnectionMetrics {
         return sumOf(deserializeTimePerMinute);
     }
 
+    public long getNumReads() {
+        return sumOf(numReadsPerMinute);
+    }
+
+    public long getReadBytes() {
+        return sumOf(readBytesPerMinute);
+    }
+
+    public double getAverageReadSize() {
+        long numReads = getNumReads();
+        return numReads == 0 ? 0 : getReadBytes() / (double) numReads;
+    }
+
 
     public long getNumMessagesSentOfLast5Minutes() {
         return getNumMessagesSentOfLastMinutes(5);
@@ -227,6 +262,8 @@ public class ConnectionMetrics {
         deserializeTimePerMinute.clear();
         numMessagesReceivedPerMinute.clear();
         receivedBytesPerMinute.clear();
+        numReadsPerMinute.clear();
+        readBytesPerMinute.clear();
         numSentMessagesByClassName.clear();
         numReceivedMessagesByClassName.clear();
         numSentDistributedDataByClassName.clear();
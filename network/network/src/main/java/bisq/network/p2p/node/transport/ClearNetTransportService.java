@@ -11,6 +11,7 @@ import bisq.common.network.clear_net_address_types.LANAddressTypeFacade;
 import bisq.common.network.clear_net_address_types.LocalHostAddressTypeFacade;
 import bisq.common.observable.Observable;
 import bisq.common.observable.map.ObservableHashMap;
+import bisq.network.NetworkExecutors;
 import bisq.network.identity.NetworkId;
 import bisq.security.keys.KeyBundle;
 import lombok.EqualsAndHashCode;
@@ -22,6 +23,9 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -138,7 +142,16 @@ public class ClearNetTransportService implements TransportService {
         log.info("Create serverSocket at port {}", port);
 
         try {
-            ServerSocket serverSocket = new ServerSocket(port);
+            ServerSocket serverSocket;
+            if (isSelectorModeEnabled()) {
+                // We use channel backed sockets so that connections can be served by the selector event loops
+                ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+                serverSocketChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                serverSocketChannel.bind(new InetSocketAddress(port));
+                serverSocket = serverSocketChannel.socket();
+            } else {
+                serverSocket = new ServerSocket(port);
+            }
             ClearnetAddress address = getClearNetAddressTypeFacade().toMyLocalAddress(port);
             log.debug("ServerSocket created at port {}", port);
             initializedServerSocketTimestampByNetworkId.put(networkId, System.currentTimeMillis());
@@ -154,9 +167,14 @@ public class ClearNetTransportService implements TransportService {
         if (address instanceof ClearnetAddress clearnetAddress) {
             clearnetAddress = getClearNetAddressTypeFacade().toPeersLocalAddress(clearnetAddress);
             log.debug("Create new Socket to {}", clearnetAddress);
-            Socket socket = new Socket();
-            socket.setSoTimeout(socketTimeout);
-            socket.connect(new InetSocketAddress(clearnetAddress.getHost(), clearnetAddress.getPort()), connectTimeoutMs);
+            Socket socket = isSelectorModeEnabled() ? SocketChannel.open().socket() : new Socket();
+            try {
+                socket.setSoTimeout(socketTimeout);
+                socket.connect(new InetSocketAddress(clearnetAddress.getHost(), clearnetAddress.getPort()), connectTimeoutMs);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
             return socket;
         } else {
             throw new IllegalArgumentException("Address is not a ClearnetAddress");
@@ -177,4 +195,10 @@ public class ClearNetTransportService implements TransportService {
             throw new IllegalArgumentException("Address is not a ClearnetAddress");
         }
     }
+
+    // Channel backed sockets are only needed if the connections are served by the selector event loops. Otherwise,
+    // we keep the plain sockets, as they have been used before the selector mode was added.
+    private static boolean isSelectorModeEnabled() {
+        return NetworkExecutors.getSelectorEventLoopGroup().isPresent();
+    }
 }
@@ -6,6 +6,7 @@ import bisq.common.network.TransportConfig;
 import bisq.common.network.TransportType;
 import bisq.common.observable.Observable;
 import bisq.common.observable.map.ObservableHashMap;
+import bisq.network.NetworkExecutors;
 import bisq.network.identity.NetworkId;
 import bisq.network.p2p.node.ConnectionException;
 import bisq.network.tor.TorService;
@@ -78,7 +79,9 @@ public class TorTransportService implements TransportService {
             TorKeyPair torKeyPair = keyBundle.getTorKeyPair();
             String onionAddress = torKeyPair.getOnionAddress();
             TorAddress address = new TorAddress(onionAddress, port);
-            ServerSocket serverSocket = torService.publishOnionServiceAndCreateServerSocket(port, torKeyPair).get();
+            // Channel backed server sockets are only needed if inbound connections are served by the selector event loops
+            boolean useChannelBackedServerSocket = NetworkExecutors.getSelectorEventLoopGroup().isPresent();
+            ServerSocket serverSocket = torService.publishOnionServiceAndCreateServerSocket(port, torKeyPair, useChannelBackedServerSocket).get();
             initializedServerSocketTimestampByNetworkId.put(networkId, System.currentTimeMillis());
             return new ServerSocketResult(serverSocket, address);
         } catch (InterruptedException e) {
@@ -19,8 +19,11 @@ package bisq.network.p2p.services.confidential;
 
 import bisq.common.network.Address;
 import bisq.common.threading.ExecutorFactory;
+import bisq.common.threading.SerialExecutor;
 import bisq.common.util.CompletableFutureUtils;
+import bisq.common.util.StringUtils;
 import bisq.network.NetworkExecutors;
+import bisq.network.NotifyLane;
 import bisq.network.identity.NetworkId;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.message.ReceiverPublicKeyProvidingPayload;
@@ -43,19 +46,25 @@ import bisq.security.HybridEncryption;
 import bisq.security.keys.KeyBundleService;
 import bisq.security.keys.KeyGeneration;
 import bisq.security.keys.PubKey;
+import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -63,7 +72,7 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 @Slf4j
 public class ConfidentialMessageService implements Node.Listener, DataService.Listener {
-    private static final ExecutorService EXECUTOR = ExecutorFactory.newSingleThreadExecutor("ConfidentialMessageService");
+    private static final int MAX_QUEUED_MESSAGES_PER_RECEIVER_KEY = 10000;
 
     public record EnvelopePayloadMessageAndPublicKey(EnvelopePayloadMessage envelopePayloadMessage,
                                                      PublicKey senderPublicKey) {
@@ -81,13 +90,32 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
     private final Optional<DataService> dataService;
     private final Optional<MessageDeliveryStatusService> messageDeliveryStatusService;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Set<EnvelopePayloadMessageAndPublicKey> processedEnvelopePayloadMessagesAndPublicKeys = new CopyOnWriteArraySet<>();
+    private final Set<EnvelopePayloadMessageAndPublicKey> processedEnvelopePayloadMessagesAndPublicKeys = ConcurrentHashMap.newKeySet();
+    // Messages to different receiver keys are decrypted in parallel. Messages to the same receiver key are processed
+    // in the order we received them.
+    private final ExecutorService executor;
+    private final Map<String, SerialExecutor> serialExecutorByReceiverKeyId = new ConcurrentHashMap<>();
+    private final AtomicLong numRejectedMessages = new AtomicLong();
     private volatile boolean isShutdownInProgress;
 
     public ConfidentialMessageService(NodesById nodesById,
                                       KeyBundleService keyBundleService,
                                       Optional<DataService> dataService,
                                       Optional<MessageDeliveryStatusService> messageDeliveryStatusService) {
+        this(nodesById,
+                keyBundleService,
+                dataService,
+                messageDeliveryStatusService,
+                ExecutorFactory.newFixedThreadPool("ConfidentialMessageService"));
+    }
+
+    @VisibleForTesting
+    ConfidentialMessageService(NodesById nodesById,
+                               KeyBundleService keyBundleService,
+                               Optional<DataService> dataService,
+                               Optional<MessageDeliveryStatusService> messageDeliveryStatusService,
+                               ExecutorService executor) {
+        this.executor = executor;
         this.nodesById = nodesById;
         this.keyBundleService = keyBundleService;
         this.dataService = dataService;
@@ -102,7 +130,8 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
             return;
         }
 
-        ExecutorFactory.shutdownAndAwaitTermination(EXECUTOR, 100);
+        serialExecutorByReceiverKeyId.values().forEach(SerialExecutor::shutdown);
+        ExecutorFactory.shutdownAndAwaitTermination(executor, 100);
 
         isShutdownInProgress = true;
         nodesById.removeNodeListener(this);
@@ -496,11 +525,39 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
     }
 
     private CompletableFuture<Boolean> processConfidentialMessageAsync(ConfidentialMessage confidentialMessage) {
-        return keyBundleService.findKeyPair(confidentialMessage.getReceiverKeyId())
-                .map(receiversKeyPair -> supplyAsync(() -> process(confidentialMessage, receiversKeyPair), EXECUTOR))
+        // Messages for other receivers are rejected by the map lookup of the receiverKeyId without any further work.
+        String receiverKeyId = confidentialMessage.getReceiverKeyId();
+        return keyBundleService.findKeyPair(receiverKeyId)
+                .map(receiversKeyPair -> processAsync(receiverKeyId, () -> process(confidentialMessage, receiversKeyPair)))
                 .orElse(CompletableFuture.completedFuture(false)); // We don't have a key for that receiverKeyId
     }
 
+    // If the queue of the receiver key is full or we are shut down, we drop the message. A dropped mailbox message
+    // stays in the mailbox store, as we only remove it after successful processing.
+    @VisibleForTesting
+    CompletableFuture<Boolean> processAsync(String receiverKeyId, Supplier<Boolean> processor) {
+        try {
+            return supplyAsync(processor, getSerialExecutor(receiverKeyId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Processing confidentialMessage for receiverKeyId {} got rejected. We drop the message. " +
+                            "numRejectedMessages={}; reason={}",
+                    receiverKeyId, numRejectedMessages.incrementAndGet(), e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    @VisibleForTesting
+    long getNumRejectedMessages() {
+        return numRejectedMessages.get();
+    }
+
+    private SerialExecutor getSerialExecutor(String receiverKeyId) {
+        return serialExecutorByReceiverKeyId.computeIfAbsent(receiverKeyId,
+                keyId -> new SerialExecutor("ConfidentialMessageService-" + StringUtils.truncate(keyId, 8),
+                        executor,
+                        MAX_QUEUED_MESSAGES_PER_RECEIVER_KEY));
+    }
+
     private Boolean process(ConfidentialMessage confidentialMessage, KeyPair receiversKeyPair) {
         try {
             log.info("Found a matching key for processing confidentialMessage. ReceiverKeyId={}", confidentialMessage.getReceiverKeyId());
@@ -527,8 +584,10 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
             if (wasNotPresent) {
                 log.info("Decrypted confidentialMessage. decryptedEnvelopePayloadMessage={}", decryptedEnvelopePayloadMessage.getClass().getSimpleName());
                 listeners.forEach(listener -> {
-                    NetworkExecutors.getNotifyExecutor().submit(() -> listener.onMessage(decryptedEnvelopePayloadMessage));
-                    NetworkExecutors.getNotifyExecutor().submit(() -> listener.onConfidentialMessage(decryptedEnvelopePayloadMessage, senderPublicKey));
+                    NetworkExecutors.getNotifyExecutor().submit(() -> listener.onMessage(decryptedEnvelopePayloadMessage),
+                            NotifyLane.CONFIDENTIAL_MESSAGES);
+                    NetworkExecutors.getNotifyExecutor().submit(() -> listener.onConfidentialMessage(decryptedEnvelopePayloadMessage, senderPublicKey),
+                            NotifyLane.CONFIDENTIAL_MESSAGES);
                 });
             }
             return true;
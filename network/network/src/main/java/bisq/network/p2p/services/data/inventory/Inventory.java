@@ -45,18 +45,36 @@ public final class Inventory implements NetworkProto {
 
     private final List<? extends DataRequest> entries;
     private final boolean maxSizeReached;
+    // Set by the responder if it could not decode the requesters filter (e.g. MiniSketchFilter with too small capacity).
+    // The requester should repeat the request with a HashSetFilter.
+    private final boolean filterDecodingFailed;
+    // Set by the responder if it did not decode the requesters filter as the peer requested a costly decoding too often.
+    // The requester should repeat the request with a HashSetFilter but must not change the capacity of its filter.
+    private final boolean filterThrottled;
     // transient fields are excluded by default for EqualsAndHashCode
     private transient final Optional<Integer> cachedSerializedSize;
 
     public Inventory(Collection<? extends DataRequest> entries, boolean maxSizeReached) {
-        this(entries, maxSizeReached, Optional.empty());
+        this(entries, maxSizeReached, false, false, Optional.empty());
+    }
+
+    public static Inventory filterDecodingFailed() {
+        return new Inventory(new ArrayList<>(), false, true, false, Optional.empty());
+    }
+
+    public static Inventory filterThrottled() {
+        return new Inventory(new ArrayList<>(), false, false, true, Optional.empty());
     }
 
     private Inventory(Collection<? extends DataRequest> entries,
                       boolean maxSizeReached,
+                      boolean filterDecodingFailed,
+                      boolean filterThrottled,
                       Optional<Integer> cachedSerializedSize) {
         this.entries = new ArrayList<>(entries);
         this.maxSizeReached = maxSizeReached;
+        this.filterDecodingFailed = filterDecodingFailed;
+        this.filterThrottled = filterThrottled;
         this.cachedSerializedSize = cachedSerializedSize;
 
         // We need to sort deterministically as the data is used in the proof of work check
@@ -86,7 +104,9 @@ public final class Inventory implements NetworkProto {
                 .addAllEntries(entries.stream()
                         .map(e -> e.toProto(serializeForHash).getDataRequest())
                         .collect(Collectors.toList()))
-                .setMaxSizeReached(maxSizeReached);
+                .setMaxSizeReached(maxSizeReached)
+                .setFilterDecodingFailed(filterDecodingFailed)
+                .setFilterThrottled(filterThrottled);
     }
 
     public static Inventory fromProto(bisq.network.protobuf.Inventory proto) {
@@ -94,7 +114,16 @@ public final class Inventory implements NetworkProto {
         List<DataRequest> entries = entriesList.stream()
                 .map(DataRequest::fromProto)
                 .collect(Collectors.toList());
-        return new Inventory(entries, proto.getMaxSizeReached(), Optional.of(proto.getSerializedSize()));
+        return new Inventory(entries,
+                proto.getMaxSizeReached(),
+                proto.getFilterDecodingFailed(),
+                proto.getFilterThrottled(),
+                Optional.of(proto.getSerializedSize()));
+    }
+
+    // The responder did not deliver data for our filter. The request should be repeated with a HashSetFilter.
+    public boolean isFilterRejected() {
+        return filterDecodingFailed || filterThrottled;
     }
 
     // It can be a node has not sent any data but maxSizeReached is false.
@@ -25,6 +25,7 @@ import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
 import bisq.network.p2p.services.data.inventory.filter.hash_set.HashSetFilterService;
+import bisq.network.p2p.services.data.inventory.filter.mini_sketch.MiniSketchFilterService;
 import bisq.network.p2p.services.data.storage.StorageService;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,14 +34,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
 class InventoryFilterFactory {
+    private static final long MIN_MINI_SKETCH_DECODING_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
     private final Map<InventoryFilterType, FilterService<? extends InventoryFilter>> mySupportedFilterServices = new HashMap<>();
     private final InventoryService.Config config;
+    // Connection IDs of peers which could not decode our MiniSketchFilter. The next request to them uses the HashSetFilter.
+    private final Set<String> hashSetFallbackConnectionIds = new CopyOnWriteArraySet<>();
+    // Time of the last decoding of a MiniSketchFilter by connection ID. Decoding is costly, thus we limit how often a
+    // peer can request it.
+    private final Map<String, Long> lastMiniSketchDecodingTimeByConnectionId = new ConcurrentHashMap<>();
 
     InventoryFilterFactory(Set<Feature> myFeatures,
                            DataService dataService,
@@ -58,9 +70,8 @@ class InventoryFilterFactory {
                             mySupportedFilterServices.put(inventoryFilterType, new HashSetFilterService(storageService, maxSize));
                             break;
                         case MINI_SKETCH:
-                            //  map.put(inventoryFilterType, new MiniSketchFilterService(storageService, maxSize));
-                            //  break;
-                            throw new IllegalArgumentException("MINI_SKETCH not implemented yet");
+                            mySupportedFilterServices.put(inventoryFilterType, new MiniSketchFilterService(storageService, maxSize));
+                            break;
                         default:
                             throw new IllegalArgumentException("Undefined filterType " + inventoryFilterType);
 
@@ -71,20 +82,49 @@ class InventoryFilterFactory {
     InventoryFilter createInventoryFilterForRequest(Connection connection) {
         List<Feature> peersFeatures = connection.getPeersCapability().getFeatures();
         InventoryFilterType inventoryFilterType = getPreferredFilterType(peersFeatures).orElse(InventoryFilterType.HASH_SET);
+        if (hashSetFallbackConnectionIds.remove(connection.getId()) &&
+                peersFeatures.contains(Feature.INVENTORY_HASH_SET) &&
+                mySupportedFilterServices.containsKey(InventoryFilterType.HASH_SET)) {
+            inventoryFilterType = InventoryFilterType.HASH_SET;
+        }
         FilterService<? extends InventoryFilter> filterService = mySupportedFilterServices.get(inventoryFilterType);
         return filterService.getFilter();
     }
 
-    Inventory createInventoryForResponse(InventoryRequest request) {
+    Inventory createInventoryForResponse(Connection connection, InventoryRequest request) {
         InventoryFilter inventoryFilter = request.getInventoryFilter();
         InventoryFilterType inventoryFilterType = inventoryFilter.getInventoryFilterType();
         checkArgument(mySupportedFilterServices.containsKey(inventoryFilterType),
                 "We got an inventoryRequest with filterType {} which we do not support." +
                         "This should never happen if our feature entries are correct and if the peers code is executed as expected.", inventoryFilterType);
+        if (inventoryFilterType == InventoryFilterType.MINI_SKETCH && !tryStartMiniSketchDecoding(connection)) {
+            // The requester falls back to the HashSetFilter for the next request to us and keeps its capacity.
+            log.info("Peer {} requested a MiniSketchFilter decoding within {} ms after the last one. We do not decode it.",
+                    connection.getPeerAddress(), MIN_MINI_SKETCH_DECODING_INTERVAL);
+            return Inventory.filterThrottled();
+        }
         FilterService<? extends InventoryFilter> filterService = mySupportedFilterServices.get(inventoryFilterType);
         int requestersVersion = request.getVersion();
 
-        return filterService.createInventory(inventoryFilter);
+        return filterService.createInventory(inventoryFilter, request.getKeySpacePartition());
+    }
+
+    void onInventoryReceived(Connection connection,
+                             InventoryFilter inventoryFilter,
+                             KeySpacePartition keySpacePartition,
+                             Inventory inventory) {
+        FilterService<? extends InventoryFilter> filterService = mySupportedFilterServices.get(inventoryFilter.getInventoryFilterType());
+        if (filterService != null) {
+            filterService.onInventoryReceived(inventory, keySpacePartition);
+        }
+        if (inventory.isFilterRejected()) {
+            hashSetFallbackConnectionIds.add(connection.getId());
+        }
+    }
+
+    void onDisconnect(Connection connection) {
+        hashSetFallbackConnectionIds.remove(connection.getId());
+        lastMiniSketchDecodingTimeByConnectionId.remove(connection.getId());
     }
 
     // Get first match with peers feature based on order of myPreferredFilterTypes
@@ -96,6 +136,19 @@ class InventoryFilterFactory {
                 .findFirst();
     }
 
+    private boolean tryStartMiniSketchDecoding(Connection connection) {
+        long now = System.currentTimeMillis();
+        AtomicBoolean started = new AtomicBoolean();
+        lastMiniSketchDecodingTimeByConnectionId.compute(connection.getId(), (id, lastDecodingTime) -> {
+            if (lastDecodingTime == null || now - lastDecodingTime >= MIN_MINI_SKETCH_DECODING_INTERVAL) {
+                started.set(true);
+                return now;
+            }
+            return lastDecodingTime;
+        });
+        return started.get();
+    }
+
     private List<InventoryFilterType> toFilterTypes(List<Feature> features) {
         return features.stream()
                 .flatMap(feature -> InventoryFilterType.fromFeature(feature).stream())
@@ -0,0 +1,109 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Tracks which key space partitions have been completely delivered at the initial inventory requests.
+ * <p>
+ * Each initial request gets the open partition with the fewest pending requests assigned, so that parallel requests to
+ * different peers download different parts of the inventory. A partition is completed once a peer has delivered its
+ * entries without reaching the max size. Otherwise, or if the peer delivered no entries, the partition gets released
+ * and the next request continues with it. As our filter contains the data we have already received, the next request delivers only the remaining entries.
+ * Once all partitions are completed, requests use the full key space.
+ */
+@Slf4j
+class InventoryPartitions {
+    private final int numPartitions;
+    private final boolean[] completed;
+    private final int[] numPendingRequests;
+    private int numCompleted;
+
+    InventoryPartitions(int numPartitions) {
+        checkArgument(numPartitions > 0 && numPartitions <= KeySpacePartition.MAX_NUM_PARTITIONS,
+                "numPartitions must be in range 1 - " + KeySpacePartition.MAX_NUM_PARTITIONS);
+        this.numPartitions = numPartitions;
+        completed = new boolean[numPartitions];
+        numPendingRequests = new int[numPartitions];
+    }
+
+    synchronized KeySpacePartition assign() {
+        if (numPartitions == 1 || isAllCompleted()) {
+            return KeySpacePartition.FULL_KEY_SPACE;
+        }
+        int selected = -1;
+        for (int i = 0; i < numPartitions; i++) {
+            if (!completed[i] && (selected == -1 || numPendingRequests[i] < numPendingRequests[selected])) {
+                selected = i;
+            }
+        }
+        numPendingRequests[selected]++;
+        return new KeySpacePartition(selected, numPartitions);
+    }
+
+    /**
+     * @return True if the given partition was the last open partition.
+     */
+    synchronized boolean onCompleted(KeySpacePartition partition) {
+        if (!isAssigned(partition)) {
+            return false;
+        }
+        release(partition);
+        int index = partition.getIndex();
+        if (completed[index]) {
+            return false;
+        }
+        completed[index] = true;
+        numCompleted++;
+        log.info("Inventory of {} completed. {} of {} partitions completed", partition, numCompleted, numPartitions);
+        return isAllCompleted();
+    }
+
+    synchronized void release(KeySpacePartition partition) {
+        if (!isAssigned(partition)) {
+            return;
+        }
+        int index = partition.getIndex();
+        numPendingRequests[index] = Math.max(0, numPendingRequests[index] - 1);
+    }
+
+    synchronized boolean isAllCompleted() {
+        return numCompleted == numPartitions;
+    }
+
+    synchronized void reset() {
+        for (int i = 0; i < numPartitions; i++) {
+            completed[i] = false;
+            numPendingRequests[i] = 0;
+        }
+        numCompleted = 0;
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    // Requests with the full key space or from before a reset are not tracked
+    private boolean isAssigned(KeySpacePartition partition) {
+        return !partition.isFullKeySpace() && partition.getNumPartitions() == numPartitions;
+    }
+}
@@ -38,21 +38,35 @@ public final class InventoryRequest implements BroadcastMessage, Request {
     private final int version;
     private final InventoryFilter inventoryFilter;
     private final int nonce;
+    // The partition of the key space the requester wants to receive. Excluded for the hash, so that nodes which do
+    // not know the fields get the same pow payload. Those nodes deliver the entries of the full key space.
+    @ExcludeForHash
+    private final int partitionIndex;
+    @ExcludeForHash
+    private final int numPartitions;
 
     public InventoryRequest(InventoryFilter inventoryFilter, int nonce) {
-        this(VERSION, inventoryFilter, nonce);
+        this(inventoryFilter, KeySpacePartition.FULL_KEY_SPACE, nonce);
+    }
+
+    public InventoryRequest(InventoryFilter inventoryFilter, KeySpacePartition keySpacePartition, int nonce) {
+        this(VERSION, inventoryFilter, nonce, keySpacePartition.getIndex(), keySpacePartition.getNumPartitions());
     }
 
-    private InventoryRequest(int version, InventoryFilter inventoryFilter, int nonce) {
+    private InventoryRequest(int version, InventoryFilter inventoryFilter, int nonce, int partitionIndex, int numPartitions) {
         this.version = version;
         this.inventoryFilter = inventoryFilter;
         this.nonce = nonce;
+        this.partitionIndex = partitionIndex;
+        this.numPartitions = numPartitions;
 
         verify();
     }
 
     @Override
     public void verify() {
+        // Throws if the partition is invalid
+        getKeySpacePartition();
     }
 
     @Override
@@ -70,13 +84,21 @@ public final class InventoryRequest implements BroadcastMessage, Request {
         return bisq.network.protobuf.InventoryRequest.newBuilder()
                 .setVersion(version)
                 .setInventoryFilter(inventoryFilter.toProto(serializeForHash))
-                .setNonce(nonce);
+                .setNonce(nonce)
+                .setPartitionIndex(partitionIndex)
+                .setNumPartitions(numPartitions);
     }
 
     public static InventoryRequest fromProto(bisq.network.protobuf.InventoryRequest proto) {
         return new InventoryRequest(proto.getVersion(),
                 InventoryFilter.fromProto(proto.getInventoryFilter()),
-                proto.getNonce());
+                proto.getNonce(),
+                proto.getPartitionIndex(),
+                proto.getNumPartitions());
+    }
+
+    public KeySpacePartition getKeySpacePartition() {
+        return KeySpacePartition.from(partitionIndex, numPartitions);
     }
 
     @Override
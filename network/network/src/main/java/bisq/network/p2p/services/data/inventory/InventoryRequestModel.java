@@ -33,8 +33,11 @@ public class InventoryRequestModel {
     private final AtomicInteger numInventoryRequestsCompleted = new AtomicInteger(0);
     private final Map<String, Long> requestTimestampByConnectionId = new ConcurrentHashMap<>();
     private final RequestResponseHandler<InventoryRequest, InventoryResponse> requestResponseHandler;
+    private final InventoryPartitions inventoryPartitions;
 
-    public InventoryRequestModel(RequestResponseHandler<InventoryRequest, InventoryResponse> requestResponseHandler) {
+    public InventoryRequestModel(RequestResponseHandler<InventoryRequest, InventoryResponse> requestResponseHandler,
+                                 int numInitialRequestPartitions) {
         this.requestResponseHandler = requestResponseHandler;
+        inventoryPartitions = new InventoryPartitions(numInitialRequestPartitions);
     }
 }
@@ -54,6 +54,10 @@ import static bisq.network.p2p.services.data.inventory.InventoryRequestPolicy.Ne
  *   <li><b>Retry behavior:</b> After a request completes, this class decides whether to retry using the same
  *       connection, a different connection, start periodic requests, or do nothing based on success, error state,
  *       and data completeness.</li>
+ *   <li><b>Partitioned initial requests:</b> Until the initial requests are completed, each request covers only one
+ *       partition of the key space, so that parallel requests to different peers deliver different data. The
+ *       initial requests are completed once all partitions got delivered and enough further full requests
+ *       confirmed the data.</li>
  *   <li><b>Periodic request scheduling:</b> Periodic requests repeat at a configurable interval if all data
  *       has been received; otherwise, retries happen quickly (every 1 second) until completion.</li>
  *   <li><b>Request concurrency limits:</b> Ensures the number of concurrent pending requests stays below configured limits.</li>
@@ -74,7 +78,7 @@ import static bisq.network.p2p.services.data.inventory.InventoryRequestPolicy.Ne
  *   <li>{@link #shouldRequestOnNewConnection(Connection)} - Determines if a request should be initiated on a new connection.</li>
  *   <li>{@link #getCandidatesForPeriodicRequests()} - Retrieves a filtered and shuffled list of connections suitable for periodic requests.</li>
  *   <li>{@link #getFreshCandidate(Connection)} - Finds a candidate connection excluding a given connection.</li>
- *   <li>{@link #onRequestCompleted(Connection, Inventory, Throwable)} - Determines next action after a request completes based on outcome.</li>
+ *   <li>{@link #onRequestCompleted(Connection, KeySpacePartition, Inventory, Throwable)} - Determines next action after a request completes based on outcome.</li>
  *   <li>{@link #getDelayForNextPeriodicRequests(List, Throwable, List)} - Computes delay before next periodic request based on completion status.</li>
  * </ul>
  */
@@ -117,6 +121,7 @@ class InventoryRequestPolicy {
                 "We reset initialInventoryRequestsCompleted to false so that we trigger " +
                 "a new inventory request once we are reconnected.");
         inventoryRequestModel.getNumInventoryRequestsCompleted().set(0);
+        inventoryRequestModel.getInventoryPartitions().reset();
         inventoryRequestModel.getInitialInventoryRequestsCompleted().set(false);
     }
 
@@ -151,7 +156,20 @@ class InventoryRequestPolicy {
                 .findAny();
     }
 
-    NextTaskAfterRequestCompleted onRequestCompleted(Connection connection, Inventory inventory, Throwable throwable) {
+    NextTaskAfterRequestCompleted onRequestCompleted(Connection connection,
+                                                     KeySpacePartition keySpacePartition,
+                                                     Inventory inventory,
+                                                     Throwable throwable) {
+        InventoryPartitions inventoryPartitions = inventoryRequestModel.getInventoryPartitions();
+        boolean partitionCompleted = false;
+        if (throwable == null && !inventory.isFilterRejected() && inventory.finalDataDelivered()) {
+            partitionCompleted = inventoryPartitions.onCompleted(keySpacePartition);
+        } else {
+            // Another request continues with that partition. A response without entries does not complete it, as
+            // the peer might be bootstrapping. Another peer has to confirm it.
+            inventoryPartitions.release(keySpacePartition);
+        }
+
         boolean initialInventoryRequestsCompleted = inventoryRequestModel.getInitialInventoryRequestsCompleted().get();
         if (initialInventoryRequestsCompleted) {
             return DO_NOTHING;
@@ -162,7 +180,19 @@ class InventoryRequestPolicy {
             return belowMaxPendingRequests ? RETRY_REQUEST_WITH_NEW_CONNECTION : DO_NOTHING;
         }
 
-        boolean finalDataDelivered = inventory.finalDataDelivered();
+        if (inventory.isFilterRejected()) {
+            // Peer could not or did not decode our filter. The next request to that peer will use the HashSetFilter.
+            if (!belowMaxPendingRequests) {
+                return DO_NOTHING;
+            }
+            return canUseCandidate(connection) ? RETRY_REQUEST_WITH_SAME_CONNECTION : RETRY_REQUEST_WITH_NEW_CONNECTION;
+        }
+
+        // A partitioned request counts as completed request once the last open partition got delivered. Requests after
+        // that use the full key space and serve as confirmation by other peers.
+        boolean finalDataDelivered = keySpacePartition.isFullKeySpace()
+                ? inventory.finalDataDelivered()
+                : partitionCompleted;
         if (finalDataDelivered) {
             int numInventoryRequestsCompleted = inventoryRequestModel.getNumInventoryRequestsCompleted().incrementAndGet();
             inventoryRequestModel.getNumInventoryRequestsCompletedObservable().set(numInventoryRequestsCompleted);
@@ -181,6 +211,18 @@ class InventoryRequestPolicy {
             return DO_NOTHING;
         }
 
+        if (!keySpacePartition.isFullKeySpace()) {
+            if (inventory.getEntries().isEmpty()) {
+                // We do not ask that peer again, as it would deliver no entries for the released partition again
+                ignoredAddresses.add(connection.getPeerAddress());
+            }
+            // The peer might deliver more data or other partitions. After the last partition we ask a new peer for
+            // confirmation.
+            return canUseCandidate(connection) && !inventoryPartitions.isAllCompleted()
+                    ? RETRY_REQUEST_WITH_SAME_CONNECTION
+                    : RETRY_REQUEST_WITH_NEW_CONNECTION;
+        }
+
         if (inventory.getEntries().isEmpty() || !inventory.isMaxSizeReached()) {
             // Peers which deliver no entries might be bootstrapping, or the peer has no data which we have already.
             // Peers which have isMaxSizeReached=false have sent all data.
@@ -23,6 +23,8 @@ import bisq.common.timer.Scheduler;
 import bisq.common.util.CompletableFutureUtils;
 import bisq.common.util.ExceptionUtil;
 import bisq.common.util.StringUtils;
+import bisq.network.NetworkExecutors;
+import bisq.network.NotifyLane;
 import bisq.network.p2p.common.RequestResponseHandler;
 import bisq.network.p2p.node.CloseReason;
 import bisq.network.p2p.node.Connection;
@@ -53,6 +55,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * <p>
  * <p>
  * We request at startup from all new connections up to maxPendingRequests (5 by default).
+ * The initial requests are split into numInitialRequestPartitions parts of the key space, so that the pending requests
+ * to different peers deliver different parts of the inventory in parallel.
  */
 @Slf4j
 public class InventoryService extends RequestResponseHandler<InventoryRequest, InventoryResponse> {
@@ -69,6 +73,7 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
         private final int maxPendingRequestsAtPeriodicRequests; // Default 2
         private final int minCompletedRequests; // Default 2
         private final List<InventoryFilterType> myPreferredFilterTypes; // Lower list index means higher preference
+        private final int numInitialRequestPartitions; // Default 4
 
         public static Config from(com.typesafe.config.Config config) {
             return new Config(config.getInt("maxSizeInKb"),
@@ -78,7 +83,8 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
                     config.getInt("maxPendingRequests"),
                     config.getInt("maxPendingRequestsAtPeriodicRequests"),
                     config.getInt("minCompletedRequests"),
-                    new ArrayList<>(config.getEnumList(InventoryFilterType.class, "myPreferredFilterTypes")));
+                    new ArrayList<>(config.getEnumList(InventoryFilterType.class, "myPreferredFilterTypes")),
+                    config.getInt("numInitialRequestPartitions"));
         }
 
         public Config(int maxSizeInKb,
@@ -88,7 +94,8 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
                       int maxPendingRequests,
                       int maxPendingRequestsAtPeriodicRequests,
                       int minCompletedRequests,
-                      List<InventoryFilterType> myPreferredFilterTypes) {
+                      List<InventoryFilterType> myPreferredFilterTypes,
+                      int numInitialRequestPartitions) {
             this.maxSizeInKb = maxSizeInKb;
             this.repeatRequestInterval = repeatRequestInterval;
             this.maxSeedsForRequest = maxSeedsForRequest;
@@ -97,6 +104,7 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
             this.maxPendingRequestsAtPeriodicRequests = maxPendingRequestsAtPeriodicRequests;
             this.minCompletedRequests = minCompletedRequests;
             this.myPreferredFilterTypes = myPreferredFilterTypes;
+            this.numInitialRequestPartitions = numInitialRequestPartitions;
         }
     }
 
@@ -121,7 +129,7 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
         this.config = config;
 
         inventoryFilterFactory = new InventoryFilterFactory(myFeatures, dataService, config);
-        model = new InventoryRequestModel(this);
+        model = new InventoryRequestModel(this, config.getNumInitialRequestPartitions());
         policy = new InventoryRequestPolicy(config, model, inventoryFilterFactory, node, peerGroupManager.getPeerGroupService());
         initialize();
     }
@@ -151,6 +159,7 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
 
     @Override
     public void onDisconnect(Connection connection, CloseReason closeReason) {
+        inventoryFilterFactory.onDisconnect(connection);
         if (node.getNumConnections() == 0) {
             policy.onAllConnectionsLost();
         }
@@ -175,7 +184,7 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
 
     @Override
     protected InventoryResponse createResponse(Connection connection, InventoryRequest request) {
-        Inventory inventory = inventoryFilterFactory.createInventoryForResponse(request);
+        Inventory inventory = inventoryFilterFactory.createInventoryForResponse(connection, request);
         return new InventoryResponse(request.getVersion(), inventory, request.getNonce());
     }
 
@@ -231,7 +240,10 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
     /* --------------------------------------------------------------------- */
 
     private void requestWithRetry(Connection connection) {
-        request(connection)
+        KeySpacePartition keySpacePartition = model.getInitialInventoryRequestsCompleted().get()
+                ? KeySpacePartition.FULL_KEY_SPACE
+                : model.getInventoryPartitions().assign();
+        request(connection, keySpacePartition)
                 .whenComplete((inventory, throwable) -> {
                     if (shutdownInProgress) {
                         return;
@@ -241,7 +253,7 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
                                 connection.getPeerAddress(), ExceptionUtil.getRootCauseMessage(throwable));
                     }
 
-                    InventoryRequestPolicy.NextTaskAfterRequestCompleted nextTask = policy.onRequestCompleted(connection, inventory, throwable);
+                    InventoryRequestPolicy.NextTaskAfterRequestCompleted nextTask = policy.onRequestCompleted(connection, keySpacePartition, inventory, throwable);
                     switch (nextTask) {
                         case START_PERIODIC_REQUESTS -> startPeriodicRequests(config.getRepeatRequestInterval());
                         case RETRY_REQUEST_WITH_SAME_CONNECTION -> requestWithRetry(connection);
@@ -253,9 +265,9 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
                 });
     }
 
-    private CompletableFuture<Inventory> request(Connection connection) {
+    private CompletableFuture<Inventory> request(Connection connection, KeySpacePartition keySpacePartition) {
         InventoryFilter inventoryFilter = inventoryFilterFactory.createInventoryFilterForRequest(connection);
-        InventoryRequest request = new InventoryRequest(inventoryFilter, createNonce());
+        InventoryRequest request = new InventoryRequest(inventoryFilter, keySpacePartition, createNonce());
         model.getRequestTimestampByConnectionId().put(connection.getId(), System.currentTimeMillis());
         CompletableFuture<InventoryResponse> requestFuture = request(connection, request);
         updateNumPendingRequests();
@@ -267,16 +279,28 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
                         model.getRequestTimestampByConnectionId().remove(connection.getId());
                     }
                 })
-                .thenApply(response -> {
+                .thenCompose(response -> {
                     Inventory inventory = response.getInventory();
-                    inventory.getEntries().forEach(dataRequest -> {
-                        if (dataRequest instanceof AddDataRequest) {
-                            dataService.processAddDataRequest((AddDataRequest) dataRequest, false);
-                        } else if (dataRequest instanceof RemoveDataRequest) {
-                            dataService.processRemoveDataRequest((RemoveDataRequest) dataRequest, false);
-                        }
-                    });
-                    return inventory;
+                    inventoryFilterFactory.onInventoryReceived(connection, inventoryFilter, keySpacePartition, inventory);
+                    // We verify the signatures in parallel batches before we apply the entries to the stores, so the
+                    // stores only need a cache lookup. The entries get applied on the notify executor the response
+                    // was delivered on, not on the threads of the verification pool.
+                    NotifyLane notifyLane = NotifyLane.from(response);
+                    return dataService.getStorageService().getSignatureVerificationService()
+                            .verifyAll(inventory.getEntries())
+                            .handleAsync((nil, throwable) -> {
+                                if (throwable != null) {
+                                    log.warn("Batch signature verification failed. Signatures get verified at the stores.", throwable);
+                                }
+                                inventory.getEntries().forEach(dataRequest -> {
+                                    if (dataRequest instanceof AddDataRequest) {
+                                        dataService.processAddDataRequest((AddDataRequest) dataRequest, false);
+                                    } else if (dataRequest instanceof RemoveDataRequest) {
+                                        dataService.processRemoveDataRequest((RemoveDataRequest) dataRequest, false);
+                                    }
+                                });
+                                return inventory;
+                            }, runnable -> NetworkExecutors.getNotifyExecutor().submit(runnable, notifyLane));
                 });
     }
 
@@ -293,7 +317,8 @@ public class InventoryService extends RequestResponseHandler<InventoryRequest, I
 
     private void periodicRequest() {
         List<Connection> candidates = policy.getCandidatesForPeriodicRequests();
-        Stream<CompletableFuture<Inventory>> futures = candidates.stream().map(this::request);
+        Stream<CompletableFuture<Inventory>> futures = candidates.stream()
+                .map(connection -> request(connection, KeySpacePartition.FULL_KEY_SPACE));
         CompletableFutureUtils.allOf(futures)
                 .whenComplete((results, throwable) -> {
                     if (shutdownInProgress) {
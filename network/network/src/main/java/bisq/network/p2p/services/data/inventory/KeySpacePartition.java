@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory;
+
+import bisq.common.data.ByteArray;
+import com.google.common.primitives.Ints;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * One of numPartitions parts of the key space of the storage maps. The keys are hashes, thus the entries are evenly
+ * distributed over the partitions. Used for requesting the inventory from multiple peers in parallel, each peer
+ * delivering only the entries of one partition.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class KeySpacePartition {
+    public static final int MAX_NUM_PARTITIONS = 64;
+    public static final KeySpacePartition FULL_KEY_SPACE = new KeySpacePartition(0, 1);
+
+    private final int index;
+    private final int numPartitions;
+
+    public KeySpacePartition(int index, int numPartitions) {
+        checkArgument(numPartitions > 0 && numPartitions <= MAX_NUM_PARTITIONS,
+                "numPartitions must be in range 1 - " + MAX_NUM_PARTITIONS + ". numPartitions=" + numPartitions);
+        checkArgument(index >= 0 && index < numPartitions,
+                "index must be >= 0 and < numPartitions. index=" + index + "; numPartitions=" + numPartitions);
+        this.index = index;
+        this.numPartitions = numPartitions;
+    }
+
+    // Requests from nodes not supporting partitions have numPartitions 0
+    static KeySpacePartition from(int index, int numPartitions) {
+        return numPartitions <= 1 ? FULL_KEY_SPACE : new KeySpacePartition(index, numPartitions);
+    }
+
+    public boolean isFullKeySpace() {
+        return numPartitions == 1;
+    }
+
+    public boolean contains(ByteArray key) {
+        if (isFullKeySpace()) {
+            return true;
+        }
+        byte[] bytes = key.getBytes();
+        int value = bytes.length >= Ints.BYTES ? Ints.fromByteArray(bytes) : Arrays.hashCode(bytes);
+        return Math.floorMod(value, numPartitions) == index;
+    }
+}
@@ -17,166 +17,120 @@
 
 package bisq.network.p2p.services.data.inventory.filter;
 
-import bisq.common.data.ByteArray;
 import bisq.common.data.ByteUnit;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.inventory.Inventory;
-import bisq.network.p2p.services.data.storage.DistributedData;
+import bisq.network.p2p.services.data.inventory.KeySpacePartition;
 import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
-import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
-import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 @Slf4j
 public abstract class FilterService<T extends InventoryFilter> {
     protected final StorageService storageService;
+    protected final InventoryFilterIndex inventoryFilterIndex;
     protected final int maxSize;
 
     public FilterService(StorageService storageService, int maxSize) {
         this.storageService = storageService;
         this.maxSize = maxSize;
+        inventoryFilterIndex = storageService.getInventoryFilterIndex();
     }
 
     abstract public T getFilter();
 
-    abstract protected boolean isAuthenticatedDataRequestMissing(T filter,
-                                                                 Map.Entry<ByteArray, AuthenticatedDataRequest> mapEntry);
+    /**
+     * @return The entries of our index which are missing at the peer who sent the filter.
+     */
+    abstract protected List<InventoryFilterIndex.Entry> getMissingEntries(T filter);
 
-    abstract protected boolean isMailboxRequestMissing(T filter, Map.Entry<ByteArray, MailboxRequest> mapEntry);
-
-    abstract protected boolean isAddAppendOnlyDataRequestMissing(T filter,
-                                                                 Map.Entry<ByteArray, AddAppendOnlyDataRequest> entry);
-
-    public Inventory createInventory(InventoryFilter inventoryFilter) {
+    /**
+     * @param keySpacePartition Only entries with a key inside the partition are delivered.
+     */
+    public Inventory createInventory(InventoryFilter inventoryFilter, KeySpacePartition keySpacePartition) {
         final AtomicInteger accumulatedSize = new AtomicInteger();
         final AtomicBoolean maxSizeReached = new AtomicBoolean();
         // The type is not defined at compile time, thus we do a safe cast
         T filter = safeCast(inventoryFilter);
-        List<DataRequest> dataRequests = getAuthenticatedDataRequests(filter, accumulatedSize, maxSizeReached);
 
-        if (!maxSizeReached.get()) {
-            dataRequests.addAll(getMailboxRequests(filter, accumulatedSize, maxSizeReached));
-        }
-
-        if (!maxSizeReached.get()) {
-            dataRequests.addAll(getAppendOnlyDataRequests(filter, accumulatedSize, maxSizeReached));
-        }
+        List<AddAuthenticatedDataRequest> addAuthenticatedDataRequests = new ArrayList<>();
+        List<RemoveAuthenticatedDataRequest> removeAuthenticatedDataRequests = new ArrayList<>();
+        List<AddMailboxRequest> addMailboxRequests = new ArrayList<>();
+        List<RemoveMailboxRequest> removeMailboxRequests = new ArrayList<>();
+        List<AddAppendOnlyDataRequest> addAppendOnlyDataRequests = new ArrayList<>();
+        getMissingEntries(filter).stream()
+                .filter(entry -> keySpacePartition.contains(entry.getKey()))
+                .forEach(entry -> {
+                    DataRequest dataRequest = entry.getDataRequest();
+                    if (dataRequest instanceof AddAuthenticatedDataRequest addAuthenticatedDataRequest) {
+                        addAuthenticatedDataRequests.add(addAuthenticatedDataRequest);
+                    } else if (dataRequest instanceof RemoveAuthenticatedDataRequest removeAuthenticatedDataRequest) {
+                        removeAuthenticatedDataRequests.add(removeAuthenticatedDataRequest);
+                    } else if (dataRequest instanceof AddMailboxRequest addMailboxRequest) {
+                        addMailboxRequests.add(addMailboxRequest);
+                    } else if (dataRequest instanceof RemoveMailboxRequest removeMailboxRequest) {
+                        removeMailboxRequests.add(removeMailboxRequest);
+                    } else if (dataRequest instanceof AddAppendOnlyDataRequest addAppendOnlyDataRequest) {
+                        addAppendOnlyDataRequests.add(addAppendOnlyDataRequest);
+                    }
+                    // Refresh is ignored
+                });
 
-        log.info("Inventory with {} items and accumulatedSize of {} kb. maxSizeReached={}",
-                dataRequests.size(), ByteUnit.BYTE.toKB(accumulatedSize.get()), maxSizeReached.get());
+        List<DataRequest> dataRequests = new ArrayList<>(sortAndLimitToMaxSize(addAuthenticatedDataRequests,
+                request -> request.getDistributedData().getMetaData().getPriority(),
+                accumulatedSize,
+                maxSizeReached));
+        dataRequests.addAll(sortAndLimitToMaxSize(removeAuthenticatedDataRequests,
+                request -> request.getMetaData().getPriority(),
+                accumulatedSize,
+                maxSizeReached));
+        dataRequests.addAll(sortAndLimitToMaxSize(addMailboxRequests,
+                request -> request.getMailboxSequentialData().getMailboxData().getMetaData().getPriority(),
+                accumulatedSize,
+                maxSizeReached));
+        dataRequests.addAll(sortAndLimitToMaxSize(removeMailboxRequests,
+                request -> request.getMetaData().getPriority(),
+                accumulatedSize,
+                maxSizeReached));
+        dataRequests.addAll(sortAndLimitToMaxSize(addAppendOnlyDataRequests,
+                request -> request.getAppendOnlyData().getMetaData().getPriority(),
+                accumulatedSize,
+                maxSizeReached));
+
+        log.info("Inventory with {} items and accumulatedSize of {} kb. maxSizeReached={}; keySpacePartition={}",
+                dataRequests.size(), ByteUnit.BYTE.toKB(accumulatedSize.get()), maxSizeReached.get(), keySpacePartition);
         return new Inventory(dataRequests, maxSizeReached.get());
     }
 
     abstract protected T safeCast(InventoryFilter inventoryFilter);
 
-    private List<DataRequest> getAuthenticatedDataRequests(T filter,
-                                                           AtomicInteger accumulatedSize,
-                                                           AtomicBoolean maxSizeReached) {
-        List<AddAuthenticatedDataRequest> addRequests = new ArrayList<>();
-        List<RemoveAuthenticatedDataRequest> removeRequests = new ArrayList<>();
-        storageService.getAuthenticatedDataStoreMaps().flatMap(map -> map.entrySet().stream())
-                .forEach(mapEntry -> {
-                    if (isAuthenticatedDataRequestMissing(filter, mapEntry)) {
-                        AuthenticatedDataRequest dataRequest = mapEntry.getValue();
-                        if (dataRequest instanceof AddAuthenticatedDataRequest addAuthenticatedDataRequest) {
-                            DistributedData distributedData = addAuthenticatedDataRequest.getDistributedData();
-                            addRequests.add(addAuthenticatedDataRequest);
-                        } else if (dataRequest instanceof RemoveAuthenticatedDataRequest removeAuthenticatedDataRequest) {
-                            removeRequests.add(removeAuthenticatedDataRequest);
-                        }
-                        // Refresh is ignored
-                    }
-                });
-
-        List<DataRequest> sortedAndFilteredRequests = addRequests.stream()
-                .sorted((o1, o2) -> Integer.compare(o2.getDistributedData().getMetaData().getPriority(),
-                        o1.getDistributedData().getMetaData().getPriority()))
-                .filter(request -> {
-                    if (!maxSizeReached.get()) {
-                        maxSizeReached.set(accumulatedSize.addAndGet(request.getSerializedSize()) > maxSize);
-                    }
-                    return !maxSizeReached.get();
-                })
-                .collect(Collectors.toList());
-
-
-        if (!maxSizeReached.get()) {
-            sortedAndFilteredRequests.addAll(removeRequests.stream()
-                    .sorted((o1, o2) -> Integer.compare(o2.getMetaData().getPriority(), o1.getMetaData().getPriority()))
-                    .filter(request -> {
-                        if (!maxSizeReached.get()) {
-                            maxSizeReached.set(accumulatedSize.addAndGet(request.getSerializedSize()) > maxSize);
-                        }
-                        return !maxSizeReached.get();
-                    })
-                    .toList());
-        }
-        return sortedAndFilteredRequests;
+    /**
+     * Called at the requester when the response to a request with our filter type has been received.
+     */
+    public void onInventoryReceived(Inventory inventory, KeySpacePartition keySpacePartition) {
     }
 
-
-    private List<DataRequest> getMailboxRequests(T filter,
-                                                 AtomicInteger accumulatedSize,
-                                                 AtomicBoolean maxSizeReached) {
-        List<AddMailboxRequest> addRequests = new ArrayList<>();
-        List<RemoveMailboxRequest> removeRequests = new ArrayList<>();
-        storageService.getMailboxStoreMaps().flatMap(map -> map.entrySet().stream())
-                .forEach(mapEntry -> {
-                    if (isMailboxRequestMissing(filter, mapEntry)) {
-                        MailboxRequest dataRequest = mapEntry.getValue();
-                        if (dataRequest instanceof AddMailboxRequest addMailboxRequest) {
-                            addRequests.add(addMailboxRequest);
-                        } else if (dataRequest instanceof RemoveMailboxRequest removeMailboxRequest) {
-                            removeRequests.add(removeMailboxRequest);
-                        }
-                    }
-                });
-        List<DataRequest> sortedAndFilteredRequests = addRequests.stream()
-                .sorted((o1, o2) -> Integer.compare(o2.getMailboxSequentialData().getMailboxData().getMetaData().getPriority(),
-                        o1.getMailboxSequentialData().getMailboxData().getMetaData().getPriority()))
-                .filter(request -> {
-                    if (!maxSizeReached.get()) {
-                        maxSizeReached.set(accumulatedSize.addAndGet(request.getSerializedSize()) > maxSize);
-                    }
-                    return !maxSizeReached.get();
-                })
-                .collect(Collectors.toList());
-
-        if (!maxSizeReached.get()) {
-            sortedAndFilteredRequests.addAll(removeRequests.stream()
-                    .sorted((o1, o2) -> Integer.compare(o2.getMetaData().getPriority(), o1.getMetaData().getPriority()))
-                    .filter(request -> {
-                        if (!maxSizeReached.get()) {
-                            maxSizeReached.set(accumulatedSize.addAndGet(request.getSerializedSize()) > maxSize);
-                        }
-                        return !maxSizeReached.get();
-                    })
-                    .toList());
+    // Sorts by priority (highest first) and adds requests until the maxSize is reached
+    private <R extends DataRequest> List<R> sortAndLimitToMaxSize(List<R> requests,
+                                                                  ToIntFunction<R> priorityFunction,
+                                                                  AtomicInteger accumulatedSize,
+                                                                  AtomicBoolean maxSizeReached) {
+        if (maxSizeReached.get()) {
+            return List.of();
         }
-        return sortedAndFilteredRequests;
-    }
-
-    private List<DataRequest> getAppendOnlyDataRequests(T filter,
-                                                        AtomicInteger accumulatedSize,
-                                                        AtomicBoolean maxSizeReached) {
-        return storageService.getAddAppendOnlyDataStoreMaps().flatMap(map -> map.entrySet().stream())
-                .filter(entry -> isAddAppendOnlyDataRequestMissing(filter, entry))
-                //hashSetFilter.getFilterEntries().contains(toFilterEntry(mapEntry)))
-                .map(Map.Entry::getValue)
-                .sorted((o1, o2) -> Integer.compare(o2.getAppendOnlyData().getMetaData().getPriority(),
-                        o1.getAppendOnlyData().getMetaData().getPriority()))
+        return requests.stream()
+                .sorted((o1, o2) -> Integer.compare(priorityFunction.applyAsInt(o2), priorityFunction.applyAsInt(o1)))
                 .filter(request -> {
                     if (!maxSizeReached.get()) {
                         maxSizeReached.set(accumulatedSize.addAndGet(request.getSerializedSize()) > maxSize);
@@ -0,0 +1,225 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.inventory.filter.hash_set.HashSetFilterEntry;
+import bisq.network.p2p.services.data.inventory.filter.mini_sketch.MiniSketchFilter;
+import bisq.network.p2p.services.data.inventory.filter.mini_sketch.PinSketch;
+import bisq.network.p2p.services.data.storage.DataStorageService;
+import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.RefreshAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
+import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of all map entries of the data stores for creating inventory filters and inventories.
+ * It is owned by the StorageService and kept in sync via the MapChangeListener of each DataStorageService, so that
+ * filter entries and the MiniSketch of our data are pre-computed and do not require a scan over all stores at each
+ * inventory request.
+ */
+@Slf4j
+public class InventoryFilterIndex {
+    private static final int MAX_PENDING_MINI_SKETCH_ELEMENTS = 10_000;
+
+    @Getter
+    public static final class Entry {
+        private final ByteArray key;
+        private final DataRequest dataRequest;
+        private final HashSetFilterEntry hashSetFilterEntry;
+        private final long miniSketchElement;
+
+        private Entry(ByteArray key, DataRequest dataRequest) {
+            this.key = key;
+            this.dataRequest = dataRequest;
+            int sequenceNumber = getSequenceNumber(dataRequest);
+            this.hashSetFilterEntry = new HashSetFilterEntry(key.getBytes(), sequenceNumber);
+            this.miniSketchElement = toMiniSketchElement(key, sequenceNumber);
+        }
+    }
+
+    private final Map<ByteArray, Entry> entryByKey = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entryByMiniSketchElement = new ConcurrentHashMap<>();
+    // Writers only queue the elements to be toggled in the sketch. The queue is applied when the sketch is requested, so
+    // that the store's writers do not contend on a lock for updating the sketch. If the sketch is not requested (e.g. no
+    // peer supports MiniSketch), the writer exceeding MAX_PENDING_MINI_SKETCH_ELEMENTS applies the queue.
+    private final Queue<Long> pendingMiniSketchElements = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numPendingMiniSketchElements = new AtomicInteger();
+    private final PinSketch pinSketch = new PinSketch(MiniSketchFilter.MAX_CAPACITY);
+    // Incremented after each change. Used for invalidating cached filters.
+    private final AtomicLong version = new AtomicLong();
+
+    public DataStorageService.MapChangeListener createMapChangeListener() {
+        return new DataStorageService.MapChangeListener() {
+            // Keys of the store the listener is registered at. Used at onMapReset to remove the previous entries.
+            private final Set<ByteArray> keysOfStore = ConcurrentHashMap.newKeySet();
+
+            @Override
+            public void onPut(ByteArray key, DataRequest dataRequest) {
+                put(key, dataRequest);
+                keysOfStore.add(key);
+            }
+
+            @Override
+            public void onRemoved(ByteArray key) {
+                remove(key);
+                keysOfStore.remove(key);
+            }
+
+            @Override
+            public void onMapReset(Map<ByteArray, ? extends DataRequest> map) {
+                keysOfStore.forEach(InventoryFilterIndex.this::remove);
+                keysOfStore.clear();
+                map.forEach((key, dataRequest) -> {
+                    put(key, dataRequest);
+                    keysOfStore.add(key);
+                });
+            }
+        };
+    }
+
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entryByKey.values());
+    }
+
+    public int size() {
+        return entryByKey.size();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public Optional<Entry> findEntryByMiniSketchElement(long element) {
+        return Optional.ofNullable(entryByMiniSketchElement.get(element));
+    }
+
+    /**
+     * @return The sketch of all entries truncated to the given capacity.
+     */
+    public PinSketch getPinSketch(int capacity) {
+        synchronized (pinSketch) {
+            applyPendingMiniSketchElements();
+            return pinSketch.truncate(capacity);
+        }
+    }
+
+    public static int getSequenceNumber(DataRequest dataRequest) {
+        if (dataRequest instanceof AddAuthenticatedDataRequest addAuthenticatedDataRequest) {
+            return addAuthenticatedDataRequest.getAuthenticatedSequentialData().getSequenceNumber();
+        } else if (dataRequest instanceof RemoveAuthenticatedDataRequest removeAuthenticatedDataRequest) {
+            return removeAuthenticatedDataRequest.getSequenceNumber();
+        } else if (dataRequest instanceof RefreshAuthenticatedDataRequest refreshAuthenticatedDataRequest) {
+            return refreshAuthenticatedDataRequest.getSequenceNumber();
+        } else if (dataRequest instanceof AddMailboxRequest addMailboxRequest) {
+            return addMailboxRequest.getSequenceNumber();
+        } else if (dataRequest instanceof RemoveMailboxRequest removeMailboxRequest) {
+            return removeMailboxRequest.getSequenceNumber();
+        } else {
+            // AddAppendOnlyDataRequest does not use a seq nr.
+            return 0;
+        }
+    }
+
+    /**
+     * Maps the hash and sequence number to a non-zero 64 bit element. We use the first 8 bytes of the hash and mix in
+     * the sequence number with the SplitMix64 finalizer.
+     */
+    public static long toMiniSketchElement(ByteArray key, int sequenceNumber) {
+        byte[] hash = key.getBytes();
+        long element = 0;
+        for (int i = 0; i < Math.min(8, hash.length); i++) {
+            element = (element << 8) | (hash[i] & 0xFF);
+        }
+        element += 0x9E3779B97F4A7C15L * (sequenceNumber + 1L);
+        element = (element ^ (element >>> 30)) * 0xBF58476D1CE4E5B9L;
+        element = (element ^ (element >>> 27)) * 0x94D049BB133111EBL;
+        element = element ^ (element >>> 31);
+        return element == 0 ? 1 : element;
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    // Changes of the same key are atomic by the compute call on the ConcurrentHashMap
+    private void put(ByteArray key, DataRequest dataRequest) {
+        entryByKey.compute(key, (k, previous) -> {
+            if (previous != null) {
+                removeMiniSketchElement(previous);
+            }
+            Entry entry = new Entry(key, dataRequest);
+            if (entryByMiniSketchElement.putIfAbsent(entry.getMiniSketchElement(), entry) == null) {
+                addPendingMiniSketchElement(entry.getMiniSketchElement());
+            } else {
+                log.warn("Collision of MiniSketch element for key {}. The entry is not added to the sketch.", key);
+            }
+            return entry;
+        });
+        version.incrementAndGet();
+    }
+
+    private void remove(ByteArray key) {
+        Entry entry = entryByKey.remove(key);
+        if (entry != null) {
+            removeMiniSketchElement(entry);
+            version.incrementAndGet();
+        }
+    }
+
+    private void removeMiniSketchElement(Entry entry) {
+        if (entryByMiniSketchElement.remove(entry.getMiniSketchElement(), entry)) {
+            addPendingMiniSketchElement(entry.getMiniSketchElement());
+        }
+    }
+
+    private void addPendingMiniSketchElement(long element) {
+        pendingMiniSketchElements.add(element);
+        if (numPendingMiniSketchElements.incrementAndGet() > MAX_PENDING_MINI_SKETCH_ELEMENTS) {
+            synchronized (pinSketch) {
+                applyPendingMiniSketchElements();
+            }
+        }
+    }
+
+    // Must be called inside the pinSketch lock
+    private void applyPendingMiniSketchElements() {
+        Long element;
+        while ((element = pendingMiniSketchElements.poll()) != null) {
+            numPendingMiniSketchElements.decrementAndGet();
+            // Adding an element which is already in the sketch removes it
+            pinSketch.add(element);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+/**
+ * Arithmetic in GF(2^64) using the irreducible polynomial x^64 + x^4 + x^3 + x + 1.
+ * Addition is XOR, elements are represented as the bits of a long.
+ */
+final class GaloisField64 {
+    // Low bits of the reduction polynomial (x^4 + x^3 + x + 1)
+    private static final long REDUCTION = 0x1BL;
+
+    private GaloisField64() {
+    }
+
+    static long mul(long a, long b) {
+        long result = 0;
+        while (b != 0) {
+            result ^= a & -(b & 1);
+            b >>>= 1;
+            a = (a << 1) ^ ((a >> 63) & REDUCTION);
+        }
+        return result;
+    }
+
+    static long square(long a) {
+        return mul(a, a);
+    }
+
+    /**
+     * Inverse by exponentiation: a^(2^64 - 2).
+     */
+    static long inverse(long a) {
+        if (a == 0) {
+            throw new ArithmeticException("Zero has no multiplicative inverse");
+        }
+        // 2^64 - 2 = 0b111...110: square-and-multiply over 63 one bits followed by a final squaring
+        long result = a;
+        for (int i = 1; i < 63; i++) {
+            result = mul(square(result), a);
+        }
+        return square(result);
+    }
+
+    /**
+     * Creates a lookup table for fast repeated multiplication with the constant factor.
+     * The table holds factor * (nibble << 4k) for all 16 nibble positions k.
+     */
+    static long[] createMultiplicationTable(long factor) {
+        long[] table = new long[256];
+        long shifted = factor;
+        for (int k = 0; k < 16; k++) {
+            int base = k << 4;
+            long x1 = shifted;
+            long x2 = mulByX(x1);
+            long x4 = mulByX(x2);
+            long x8 = mulByX(x4);
+            for (int nibble = 1; nibble < 16; nibble++) {
+                long value = 0;
+                if ((nibble & 1) != 0) value ^= x1;
+                if ((nibble & 2) != 0) value ^= x2;
+                if ((nibble & 4) != 0) value ^= x4;
+                if ((nibble & 8) != 0) value ^= x8;
+                table[base + nibble] = value;
+            }
+            shifted = mulByX(x8);
+        }
+        return table;
+    }
+
+    static long mul(long[] multiplicationTable, long a) {
+        long result = 0;
+        for (int k = 0; k < 16; k++) {
+            result ^= multiplicationTable[(k << 4) + (int) ((a >>> (k << 2)) & 0xF)];
+        }
+        return result;
+    }
+
+    private static long mulByX(long a) {
+        return (a << 1) ^ ((a >> 63) & REDUCTION);
+    }
+}
@@ -18,37 +18,61 @@
 package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
 
 
+import bisq.common.data.ByteUnit;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
- * Skeleton for planned MiniSketch implementation based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>
+ * Inventory filter based on a PinSketch (see <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>)
+ * of the requester's data. The responder merges it with the sketch of its own data and decodes the symmetric
+ * difference. The size of the filter depends only on the capacity (max. size of the difference) and not on the number
+ * of entries in the requester's storage.
  */
 @Slf4j
-@Getter
-@ToString
 @EqualsAndHashCode(callSuper = true)
 public final class MiniSketchFilter extends InventoryFilter {
+    public final static int MIN_CAPACITY = 16;
+    // The responder decodes the sketch at the capacity chosen by the requester. Decoding a full sketch of capacity 128
+    // takes about 0.2 sec, with capacity 256 it would be about 0.4 sec. If the difference is larger, the requester falls
+    // back to the HashSetFilter.
+    public final static int MAX_CAPACITY = 128;
+
+    @Getter
+    private final int numEntries;
+    private final long[] syndromes;
 
-    public MiniSketchFilter() {
-        this(InventoryFilterType.MINI_SKETCH);
+    // Set by the responder after decoding the difference. Contains the elements of the difference.
+    // transient fields are excluded by default for EqualsAndHashCode
+    private transient Set<Long> difference;
+
+    public MiniSketchFilter(int numEntries, PinSketch pinSketch) {
+        this(InventoryFilterType.MINI_SKETCH, numEntries, pinSketch.getSyndromes());
     }
 
-    private MiniSketchFilter(InventoryFilterType inventoryFilterType) {
+    private MiniSketchFilter(InventoryFilterType inventoryFilterType, int numEntries, long[] syndromes) {
         super(inventoryFilterType);
 
+        this.numEntries = numEntries;
+        this.syndromes = syndromes;
+
         verify();
     }
 
     @Override
     public void verify() {
         checkArgument(inventoryFilterType == InventoryFilterType.MINI_SKETCH);
+        checkArgument(numEntries >= 0);
+        checkArgument(syndromes.length >= MIN_CAPACITY && syndromes.length <= MAX_CAPACITY,
+                "Invalid capacity " + syndromes.length);
     }
 
     @Override
@@ -59,15 +83,47 @@ public final class MiniSketchFilter extends InventoryFilter {
     @Override
     public bisq.network.protobuf.InventoryFilter.Builder getBuilder(boolean serializeForHash) {
         return getInventoryFilterBuilder().setMiniSketchFilter(
-                bisq.network.protobuf.MiniSketchFilter.newBuilder());
+                bisq.network.protobuf.MiniSketchFilter.newBuilder()
+                        .setNumEntries(numEntries)
+                        .addAllSyndromes(Arrays.stream(syndromes).boxed().toList()));
     }
 
     public static MiniSketchFilter fromProto(bisq.network.protobuf.InventoryFilter proto) {
-        return new MiniSketchFilter(InventoryFilterType.fromProto(proto.getInventoryFilterType()));
+        bisq.network.protobuf.MiniSketchFilter miniSketchFilter = proto.getMiniSketchFilter();
+        List<Long> syndromesList = miniSketchFilter.getSyndromesList();
+        return new MiniSketchFilter(InventoryFilterType.fromProto(proto.getInventoryFilterType()),
+                miniSketchFilter.getNumEntries(),
+                syndromesList.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    public int getCapacity() {
+        return syndromes.length;
+    }
+
+    public PinSketch getPinSketch() {
+        return new PinSketch(syndromes);
+    }
+
+    Set<Long> getDifference() {
+        checkArgument(difference != null, "Difference has not been decoded yet");
+        return difference;
+    }
+
+    void setDifference(Set<Long> difference) {
+        this.difference = difference;
     }
 
     @Override
     public String getDetails() {
-        return "MiniSketchFilter";
+        return "MiniSketchFilter with capacity " + syndromes.length + " for " + numEntries + " entries and size of " +
+                ByteUnit.BYTE.toKB(getSerializedSize()) + " KB";
+    }
+
+    @Override
+    public String toString() {
+        return "MiniSketchFilter{" +
+                "numEntries=" + numEntries +
+                ", capacity=" + syndromes.length +
+                '}';
     }
-}
\ No newline at end of file
+}
@@ -17,44 +17,82 @@
 
 package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
 
-import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.inventory.Inventory;
+import bisq.network.p2p.services.data.inventory.KeySpacePartition;
 import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
+import bisq.network.p2p.services.data.inventory.filter.InventoryFilterIndex;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
 import bisq.network.p2p.services.data.storage.StorageService;
-import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
-import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
-import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
- * Skeleton for planned MiniSketch implementation based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>
+ * Set reconciliation based on PinSketch (<a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>).
+ * <p>
+ * Each map entry is mapped to a 64 bit element derived from its hash and sequence number. The requester sends the
+ * sketch of all its elements. The responder merges it with the sketch of its own elements, decodes the symmetric
+ * difference and delivers the entries whose element is part of the difference.
+ * <p>
+ * The capacity is chosen by the requester. If the responder cannot decode the difference it responds with an
+ * inventory flagged as filterDecodingFailed. The requester then doubles the capacity for the next requests and falls
+ * back to the HashSetFilter for the repeated request to that peer. After successful requests the capacity shrinks
+ * again towards the observed size of the difference. If the responder did not decode our filter as we requested it
+ * too often, it responds with an inventory flagged as filterThrottled, which does not change the capacity.
  */
 @Slf4j
 public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final AtomicInteger capacity = new AtomicInteger(DEFAULT_CAPACITY);
+
     public MiniSketchFilterService(StorageService storageService, int maxSize) {
         super(storageService, maxSize);
     }
 
     public MiniSketchFilter getFilter() {
-        return new MiniSketchFilter();
+        return new MiniSketchFilter(inventoryFilterIndex.size(), inventoryFilterIndex.getPinSketch(capacity.get()));
     }
 
     @Override
-    protected boolean isAuthenticatedDataRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, AuthenticatedDataRequest> mapEntry) {
-        return true;
+    public Inventory createInventory(InventoryFilter inventoryFilter, KeySpacePartition keySpacePartition) {
+        MiniSketchFilter filter = safeCast(inventoryFilter);
+        Optional<Set<Long>> difference = decodeDifference(filter);
+        if (difference.isEmpty()) {
+            log.info("We could not decode the difference of the MiniSketchFilter. {}", filter.getDetails());
+            return Inventory.filterDecodingFailed();
+        }
+        filter.setDifference(difference.get());
+        return super.createInventory(filter, keySpacePartition);
     }
 
     @Override
-    protected boolean isMailboxRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, MailboxRequest> mapEntry) {
-        return true;
+    public void onInventoryReceived(Inventory inventory, KeySpacePartition keySpacePartition) {
+        if (inventory.isFilterDecodingFailed()) {
+            int newCapacity = capacity.updateAndGet(value -> Math.min(MiniSketchFilter.MAX_CAPACITY, value * 2));
+            log.info("Peer could not decode our MiniSketchFilter. We increase capacity to {}", newCapacity);
+        } else if (!inventory.isFilterThrottled() && !inventory.isMaxSizeReached() && keySpacePartition.isFullKeySpace()) {
+            // A response for a partition contains only a part of the difference, thus we do not use it for sizing.
+            // The received entries are our part of the difference. We keep twice that size as capacity but reduce
+            // at most by half per request to not fail on fluctuations.
+            int required = 2 * inventory.getEntries().size();
+            capacity.updateAndGet(value -> clampCapacity(Math.max(required, value / 2)));
+        }
     }
 
     @Override
-    protected boolean isAddAppendOnlyDataRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, AddAppendOnlyDataRequest> mapEntry) {
-        return true;
+    protected List<InventoryFilterIndex.Entry> getMissingEntries(MiniSketchFilter filter) {
+        // The difference contains also the elements only the requester has. Those are not found in our index.
+        return filter.getDifference().stream()
+                .map(inventoryFilterIndex::findEntryByMiniSketchElement)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -65,4 +103,19 @@ public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
         }
         throw new IllegalArgumentException("InventoryFilter not of expected type. inventoryFilter=" + inventoryFilter);
     }
+
+    private Optional<Set<Long>> decodeDifference(MiniSketchFilter filter) {
+        int capacity = filter.getCapacity();
+        int numEntries = inventoryFilterIndex.size();
+        if (Math.abs(numEntries - filter.getNumEntries()) > capacity) {
+            // The difference is at least the difference of the number of entries. No need to try decoding.
+            return Optional.empty();
+        }
+        return inventoryFilterIndex.getPinSketch(capacity).merge(filter.getPinSketch()).decode()
+                .map(elements -> Arrays.stream(elements).boxed().collect(Collectors.toSet()));
+    }
+
+    private static int clampCapacity(int capacity) {
+        return Math.max(MiniSketchFilter.MIN_CAPACITY, Math.min(MiniSketchFilter.MAX_CAPACITY, capacity));
+    }
 }
@@ -0,0 +1,366 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Pure Java PinSketch over GF(2^64) as used by <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>.
+ * <p>
+ * A sketch with capacity c stores the odd power sums x^1, x^3, ... x^(2c-1) of all added elements. As addition in
+ * GF(2^64) is XOR, merging two sketches results in the sketch of the symmetric difference of both sets. If that
+ * difference has at most c elements, it can be recovered with Berlekamp-Massey and root finding by the Berlekamp trace
+ * algorithm. Elements must not be 0 and every element must be added only once.
+ */
+public final class PinSketch {
+    private final long[] syndromes;
+
+    public PinSketch(int capacity) {
+        checkArgument(capacity > 0, "Capacity must be positive");
+        this.syndromes = new long[capacity];
+    }
+
+    public PinSketch(long[] syndromes) {
+        checkArgument(syndromes.length > 0, "Capacity must be positive");
+        this.syndromes = syndromes.clone();
+    }
+
+    public int getCapacity() {
+        return syndromes.length;
+    }
+
+    public long[] getSyndromes() {
+        return syndromes.clone();
+    }
+
+    /**
+     * As addition is XOR, adding an element a second time removes it again.
+     */
+    public void add(long element) {
+        checkArgument(element != 0, "Element must not be 0");
+        long[] squareTable = GaloisField64.createMultiplicationTable(GaloisField64.square(element));
+        long power = element;
+        for (int i = 0; i < syndromes.length; i++) {
+            syndromes[i] ^= power;
+            power = GaloisField64.mul(squareTable, power);
+        }
+    }
+
+    /**
+     * @return A sketch with the given capacity. As the syndromes of a smaller capacity are a prefix of those of a larger
+     * capacity, this is the same as the sketch we would get by adding all elements to a sketch with that capacity.
+     */
+    public PinSketch truncate(int capacity) {
+        checkArgument(capacity <= syndromes.length, "Capacity must not be larger than our capacity");
+        return new PinSketch(Arrays.copyOf(syndromes, capacity));
+    }
+
+    /**
+     * @return The XOR of both sketches, which is the sketch of the symmetric difference. If capacities differ, the
+     * result has the smaller capacity.
+     */
+    public PinSketch merge(PinSketch other) {
+        int capacity = Math.min(syndromes.length, other.syndromes.length);
+        long[] merged = Arrays.copyOf(syndromes, capacity);
+        for (int i = 0; i < capacity; i++) {
+            merged[i] ^= other.syndromes[i];
+        }
+        return new PinSketch(merged);
+    }
+
+    public boolean isEmpty() {
+        for (long syndrome : syndromes) {
+            if (syndrome != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The elements of the sketched set, or empty if the set is larger than the capacity and cannot be decoded.
+     */
+    public Optional<long[]> decode() {
+        if (isEmpty()) {
+            return Optional.of(new long[0]);
+        }
+
+        int capacity = syndromes.length;
+        long[] allSyndromes = new long[2 * capacity];
+        for (int i = 0; i < capacity; i++) {
+            allSyndromes[2 * i] = syndromes[i];
+        }
+        // Even power sums are the squares of the half power sums: S(2i) = S(i)^2
+        for (int i = 2; i <= 2 * capacity; i += 2) {
+            allSyndromes[i - 1] = GaloisField64.square(allSyndromes[i / 2 - 1]);
+        }
+
+        long[] locator = berlekampMassey(allSyndromes);
+        int numElements = locator.length - 1;
+        if (numElements == 0 || numElements > capacity) {
+            return Optional.empty();
+        }
+
+        // The locator polynomial has the inverses of the elements as roots. Reversing the coefficients gives a
+        // polynomial with the elements as roots.
+        long[] reversed = new long[numElements + 1];
+        for (int i = 0; i <= numElements; i++) {
+            reversed[i] = locator[numElements - i];
+        }
+        if (reversed[0] == 0) {
+            // 0 would be a root, which is not a valid element
+            return Optional.empty();
+        }
+
+        long[] monic = makeMonic(reversed);
+        if (!hasOnlyDistinctRootsInField(monic)) {
+            return Optional.empty();
+        }
+
+        List<Long> roots = new ArrayList<>(numElements);
+        findRoots(monic, roots, 0);
+        if (roots.size() != numElements) {
+            return Optional.empty();
+        }
+
+        long[] elements = roots.stream().mapToLong(Long::longValue).toArray();
+        // Final consistency check to rule out any decoding artifacts
+        PinSketch check = new PinSketch(capacity);
+        for (long element : elements) {
+            check.add(element);
+        }
+        if (!Arrays.equals(check.syndromes, syndromes)) {
+            return Optional.empty();
+        }
+        return Optional.of(elements);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private static long[] berlekampMassey(long[] syndromes) {
+        int n = syndromes.length;
+        long[] current = new long[n + 1];
+        long[] previous = new long[n + 1];
+        current[0] = 1;
+        previous[0] = 1;
+        int length = 0;
+        int shift = 1;
+        long previousDiscrepancy = 1;
+        for (int i = 0; i < n; i++) {
+            long discrepancy = syndromes[i];
+            for (int j = 1; j <= length; j++) {
+                discrepancy ^= GaloisField64.mul(current[j], syndromes[i - j]);
+            }
+            if (discrepancy == 0) {
+                shift++;
+                continue;
+            }
+            long factor = GaloisField64.mul(discrepancy, GaloisField64.inverse(previousDiscrepancy));
+            if (2 * length <= i) {
+                long[] temp = current.clone();
+                for (int j = 0; j + shift <= n; j++) {
+                    current[j + shift] ^= GaloisField64.mul(factor, previous[j]);
+                }
+                length = i + 1 - length;
+                previous = temp;
+                previousDiscrepancy = discrepancy;
+                shift = 1;
+            } else {
+                for (int j = 0; j + shift <= n; j++) {
+                    current[j + shift] ^= GaloisField64.mul(factor, previous[j]);
+                }
+                shift++;
+            }
+        }
+        if (degree(current) > length) {
+            return new long[]{0};
+        }
+        return Arrays.copyOf(current, length + 1);
+    }
+
+    /**
+     * A polynomial splits into distinct linear factors over GF(2^64) exactly if it divides x^(2^64) - x.
+     */
+    private static boolean hasOnlyDistinctRootsInField(long[] poly) {
+        int degree = degree(poly);
+        if (degree <= 1) {
+            return true;
+        }
+        long[][] tables = createMultiplicationTables(poly);
+        long[] x = new long[]{0, 1};
+        long[] power = x;
+        for (int i = 0; i < 64; i++) {
+            power = squareMod(power, poly, tables);
+        }
+        return Arrays.equals(trim(add(power, x)), new long[0]);
+    }
+
+    private static void findRoots(long[] poly, List<Long> roots, int firstBasisIndex) {
+        int degree = degree(poly);
+        if (degree == 0) {
+            return;
+        }
+        if (degree == 1) {
+            // Monic x + a has root a
+            roots.add(poly[0]);
+            return;
+        }
+        long[][] tables = createMultiplicationTables(poly);
+        for (int k = firstBasisIndex; k < 64; k++) {
+            long[] trace = traceMod(1L << k, poly, tables);
+            long[] factor = makeMonic(gcd(poly, trace));
+            int factorDegree = degree(factor);
+            if (factorDegree > 0 && factorDegree < degree) {
+                findRoots(factor, roots, k + 1);
+                findRoots(makeMonic(divide(poly, factor)), roots, k + 1);
+                return;
+            }
+        }
+    }
+
+    // Tr(beta * x) = sum_{i=0}^{63} (beta * x)^(2^i) mod poly
+    private static long[] traceMod(long beta, long[] poly, long[][] tables) {
+        long[] term = reduce(new long[]{0, beta}, poly, tables);
+        long[] sum = term;
+        for (int i = 1; i < 64; i++) {
+            term = squareMod(term, poly, tables);
+            sum = add(sum, term);
+        }
+        return trim(sum);
+    }
+
+    private static long[] squareMod(long[] a, long[] modulus, long[][] modulusTables) {
+        int degree = degree(a);
+        if (degree < 0) {
+            return new long[0];
+        }
+        long[] result = new long[2 * degree + 1];
+        for (int i = 0; i <= degree; i++) {
+            result[2 * i] = GaloisField64.square(a[i]);
+        }
+        return reduce(result, modulus, modulusTables);
+    }
+
+    // The trace and splitting computations reduce many times by the same modulus, so we precompute multiplication
+    // tables for its coefficients.
+    private static long[][] createMultiplicationTables(long[] modulus) {
+        long[][] tables = new long[modulus.length][];
+        for (int j = 0; j < modulus.length; j++) {
+            tables[j] = GaloisField64.createMultiplicationTable(modulus[j]);
+        }
+        return tables;
+    }
+
+    private static long[] reduce(long[] a, long[] modulus) {
+        return reduce(a, modulus, null);
+    }
+
+    // Modulus must be monic. modulusTables are optional.
+    private static long[] reduce(long[] a, long[] modulus, long[][] modulusTables) {
+        int modulusDegree = degree(modulus);
+        long[] result = a.clone();
+        for (int i = degree(result); i >= modulusDegree; i--) {
+            long coefficient = result[i];
+            if (coefficient != 0) {
+                int offset = i - modulusDegree;
+                if (modulusTables != null) {
+                    for (int j = 0; j <= modulusDegree; j++) {
+                        result[offset + j] ^= GaloisField64.mul(modulusTables[j], coefficient);
+                    }
+                } else {
+                    for (int j = 0; j <= modulusDegree; j++) {
+                        result[offset + j] ^= GaloisField64.mul(coefficient, modulus[j]);
+                    }
+                }
+            }
+        }
+        return trim(Arrays.copyOf(result, Math.min(result.length, modulusDegree)));
+    }
+
+    private static long[] divide(long[] dividend, long[] monicDivisor) {
+        int divisorDegree = degree(monicDivisor);
+        long[] remainder = dividend.clone();
+        int quotientDegree = degree(dividend) - divisorDegree;
+        long[] quotient = new long[quotientDegree + 1];
+        for (int i = quotientDegree; i >= 0; i--) {
+            long coefficient = remainder[i + divisorDegree];
+            quotient[i] = coefficient;
+            if (coefficient != 0) {
+                for (int j = 0; j <= divisorDegree; j++) {
+                    remainder[i + j] ^= GaloisField64.mul(coefficient, monicDivisor[j]);
+                }
+            }
+        }
+        return trim(quotient);
+    }
+
+    private static long[] gcd(long[] a, long[] b) {
+        long[] x = trim(a);
+        long[] y = trim(b);
+        while (degree(y) >= 0) {
+            long[] remainder = reduce(x, makeMonic(y));
+            x = y;
+            y = remainder;
+        }
+        return x;
+    }
+
+    private static long[] makeMonic(long[] poly) {
+        long[] trimmed = trim(poly);
+        int degree = degree(trimmed);
+        if (degree < 0 || trimmed[degree] == 1) {
+            return trimmed;
+        }
+        long inverse = GaloisField64.inverse(trimmed[degree]);
+        long[] result = new long[degree + 1];
+        for (int i = 0; i <= degree; i++) {
+            result[i] = GaloisField64.mul(trimmed[i], inverse);
+        }
+        return result;
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            result[i] ^= b[i];
+        }
+        return result;
+    }
+
+    private static long[] trim(long[] poly) {
+        return Arrays.copyOf(poly, degree(poly) + 1);
+    }
+
+    // Returns -1 for the zero polynomial
+    private static int degree(long[] poly) {
+        for (int i = poly.length - 1; i >= 0; i--) {
+            if (poly[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -27,24 +27,46 @@ import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataReques
 import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
 import bisq.persistence.DbSubDirectory;
-import bisq.persistence.Persistence;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.PersistenceClient;
 import bisq.persistence.PersistenceService;
-import bisq.persistence.RateLimitedPersistenceClient;
 import bisq.persistence.backup.MaxBackupSize;
+import bisq.persistence.log.LogRecord;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
+/**
+ * Changes of the map are appended to the log of a LogStructuredPersistence, thus we do not need to rate limit writes.
+ * The full store is only written as snapshot when the log requires compaction.
+ */
 @Slf4j
-public abstract class DataStorageService<T extends DataRequest> extends RateLimitedPersistenceClient<DataStore<T>> {
+public abstract class DataStorageService<T extends DataRequest> implements PersistenceClient<DataStore<T>> {
     public static final String STORE_POST_FIX = "Store";
 
+    /**
+     * Gets notified about all mutations of the map of our persistableStore. Used for indexes derived from the map.
+     */
+    public interface MapChangeListener {
+        void onPut(ByteArray key, DataRequest dataRequest);
+
+        void onRemoved(ByteArray key);
+
+        void onMapReset(Map<ByteArray, ? extends DataRequest> map);
+    }
+
     @Getter
-    protected final Persistence<DataStore<T>> persistence;
+    protected final LogStructuredPersistence<DataStore<T>> persistence;
     @Getter
     protected final DataStore<T> persistableStore = new DataStore<>();
     @Getter
@@ -54,15 +76,14 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
     @Getter
     protected final ObservableSet<DataRequest> prunedAndExpiredDataRequests = new ObservableSet<>();
     protected Optional<Integer> maxMapSize = Optional.empty();
+    private final Set<MapChangeListener> mapChangeListeners = new CopyOnWriteArraySet<>();
 
     public DataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
-        super();
-
         this.storeKey = storeKey;
         String storageFileName = storeKey + STORE_POST_FIX;
         DbSubDirectory dbSubDirectory = DbSubDirectory.NETWORK_DB;
         subDirPath = dbSubDirectory.getDbPath().resolve(storeName);
-        persistence = persistenceService.getOrCreatePersistence(this,
+        persistence = persistenceService.getOrCreateLogStructuredPersistence(this,
                 subDirPath,
                 storageFileName,
                 persistableStore,
@@ -72,6 +93,128 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
     public void shutdown() {
         prunedAndExpiredDataRequests.clear();
         maxMapSize = Optional.empty();
+        mapChangeListeners.clear();
+        persistence.shutdown();
+    }
+
+    @Override
+    public Optional<DataStore<T>> readPersisted() {
+        Optional<DataStore<T>> snapshot = persistence.read();
+        List<LogRecord> records = persistence.readLog();
+        if (snapshot.isEmpty() && records.isEmpty()) {
+            return Optional.empty();
+        }
+
+        DataStore<T> persisted = snapshot.orElseGet(DataStore::new);
+        applyLogRecords(persisted.getMap(), records);
+        persisted = preProcessPersisted(persisted);
+        persisted = prunePersisted(persisted);
+        persistableStore.applyPersisted(persisted);
+        onPersistedApplied(persisted);
+        notifyMapReset();
+        return Optional.of(persisted);
+    }
+
+    @Override
+    public boolean isConcurrentReadSupported() {
+        // Data stores are independent of each other and of other persisted data
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> persist() {
+        if (persistence.isCompactionRequired()) {
+            return persistence.compactAsync(persistableStore::getClone);
+        }
+        // All changes have been appended already at putToMap and removeFromMap.
+        return persistence.flushAsync().thenApply(nil -> true);
+    }
+
+    public void addMapChangeListener(MapChangeListener listener) {
+        mapChangeListeners.add(listener);
+        listener.onMapReset(persistableStore.getMap());
+    }
+
+    public void removeMapChangeListener(MapChangeListener listener) {
+        mapChangeListeners.remove(listener);
+    }
+
+    /**
+     * Replaces the content of the map. Used for cleanup of polluted maps.
+     */
+    public void resetMap(Map<ByteArray, T> entries) {
+        Map<ByteArray, T> map = persistableStore.getMap();
+        Map<ByteArray, T> previous = new HashMap<>(map);
+        map.clear();
+        map.putAll(entries);
+
+        Set<ByteArray> removedKeys = new HashSet<>(previous.keySet());
+        removedKeys.removeAll(entries.keySet());
+        removedKeys.forEach(key -> persistence.appendAsync(LogRecord.remove(key.getBytes())));
+        entries.forEach((key, dataRequest) -> {
+            if (!dataRequest.equals(previous.get(key))) {
+                persistence.appendAsync(toPutRecord(key, dataRequest));
+            }
+        });
+        notifyMapReset();
+    }
+
+    // All mutations of the map must be done via putToMap and removeFromMap to keep the mapChangeListeners in sync.
+    protected void putToMap(ByteArray key, T dataRequest) {
+        persistableStore.getMap().put(key, dataRequest);
+        persistence.appendAsync(toPutRecord(key, dataRequest));
+        mapChangeListeners.forEach(listener -> {
+            try {
+                listener.onPut(key, dataRequest);
+            } catch (Exception e) {
+                log.error("Calling onPut at listener {} failed", listener, e);
+            }
+        });
+    }
+
+    protected void removeFromMap(ByteArray key) {
+        if (persistableStore.getMap().remove(key) != null) {
+            persistence.appendAsync(LogRecord.remove(key.getBytes()));
+            mapChangeListeners.forEach(listener -> {
+                try {
+                    listener.onRemoved(key);
+                } catch (Exception e) {
+                    log.error("Calling onRemoved at listener {} failed", listener, e);
+                }
+            });
+        }
+    }
+
+    private static LogRecord toPutRecord(ByteArray key, DataRequest dataRequest) {
+        return LogRecord.put(key.getBytes(), dataRequest.toDataRequestProto(false).toByteArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyLogRecords(Map<ByteArray, T> map, List<LogRecord> records) {
+        records.forEach(record -> {
+            ByteArray key = new ByteArray(record.getKey());
+            switch (record.getType()) {
+                case PUT -> {
+                    try {
+                        DataRequest dataRequest = DataRequest.fromProto(bisq.network.protobuf.DataRequest.parseFrom(record.getValue()));
+                        map.put(key, (T) dataRequest);
+                    } catch (Exception e) {
+                        log.warn("Could not apply log record for key {}", key, e);
+                    }
+                }
+                case REMOVE -> map.remove(key);
+            }
+        });
+    }
+
+    private void notifyMapReset() {
+        mapChangeListeners.forEach(listener -> {
+            try {
+                listener.onMapReset(persistableStore.getMap());
+            } catch (Exception e) {
+                log.error("Calling onMapReset at listener {} failed", listener, e);
+            }
+        });
     }
 
     @Override
@@ -35,11 +35,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 @Slf4j
 @ToString
 public final class DataStore<T extends DataRequest> implements PersistableStore<DataStore<T>> {
+    private static final int PARALLEL_DECODING_THRESHOLD = 1000;
+
     @Getter(AccessLevel.PUBLIC)
     private final Map<ByteArray, T> map = new ConcurrentHashMap<>();
 
@@ -65,7 +68,12 @@ public final class DataStore<T extends DataRequest> implements PersistableStore<
     }
 
     public static PersistableStore<?> fromProto(bisq.network.protobuf.DataStore proto) {
-        return new DataStore<>(proto.getMapEntriesList().stream()
+        List<bisq.network.protobuf.DataStore.MapEntry> mapEntries = proto.getMapEntriesList();
+        // Decoding large stores (e.g. user profiles) is the main cost at startup, thus we decode them in parallel
+        Stream<bisq.network.protobuf.DataStore.MapEntry> stream = mapEntries.size() > PARALLEL_DECODING_THRESHOLD
+                ? mapEntries.parallelStream()
+                : mapEntries.stream();
+        return new DataStore<>(stream
                 .map(e -> {
                     try {
                         return Map.entry(ByteArray.fromProto(e.getKey()), DataRequest.fromProto(e.getValue()));
@@ -17,12 +17,12 @@
 
 package bisq.network.p2p.services.data.storage;
 
-import bisq.common.proto.NetworkProto;
+import bisq.common.proto.ImmutableNetworkProto;
 import com.google.protobuf.Any;
 
 // Interface for any data which gets distributed to the P2P network. Usually data from outside the network module 
 // like Offer, ChatMessage,...
-public interface DistributedData extends NetworkProto {
+public interface DistributedData extends ImmutableNetworkProto {
     static DistributedData fromAny(Any any) {
         return DistributedDataResolver.fromAny(any);
     }
@@ -17,10 +17,10 @@
 
 package bisq.network.p2p.services.data.storage;
 
-import bisq.common.proto.NetworkProto;
+import bisq.common.proto.ImmutableNetworkProto;
 
 // Interface covering data for storage. Implemented by AppendOnlyData, AuthenticatedData
-public interface StorageData extends NetworkProto {
+public interface StorageData extends ImmutableNetworkProto {
     MetaData getMetaData();
 
     boolean isDataInvalid(byte[] ownerPubKeyHash);
@@ -24,6 +24,7 @@ import bisq.common.util.StringUtils;
 import bisq.network.p2p.services.data.AddDataRequest;
 import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.RemoveDataRequest;
+import bisq.network.p2p.services.data.inventory.filter.InventoryFilterIndex;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.append.AppendOnlyData;
 import bisq.network.p2p.services.data.storage.append.AppendOnlyDataStorageService;
@@ -32,6 +33,7 @@ import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataStorageService;
 import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
+import bisq.network.p2p.services.data.storage.auth.SignatureVerificationService;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
@@ -40,9 +42,11 @@ import bisq.network.p2p.services.data.storage.mailbox.MailboxDataStorageService;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
 import bisq.persistence.DbSubDirectory;
+import bisq.persistence.LogStructuredPersistence;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceService;
 import com.google.common.collect.Maps;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.file.Files;
@@ -89,6 +93,10 @@ public class StorageService {
     private final PersistenceService persistenceService;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
     private final PruneExpiredEntriesService pruneExpiredEntriesService = new PruneExpiredEntriesService();
+    @Getter
+    private final InventoryFilterIndex inventoryFilterIndex = new InventoryFilterIndex();
+    @Getter
+    private final SignatureVerificationService signatureVerificationService = new SignatureVerificationService();
 
     public StorageService(PersistenceService persistenceService) {
         this.persistenceService = persistenceService;
@@ -104,7 +112,7 @@ public class StorageService {
             if (Files.exists(dirPath)) {
                 getExistingStoreKeys(dirPath)
                         .forEach(storeKey -> {
-                            AuthenticatedDataStorageService dataStore = new AuthenticatedDataStorageService(persistenceService, pruneExpiredEntriesService, authStoreName, storeKey);
+                            AuthenticatedDataStorageService dataStore = new AuthenticatedDataStorageService(persistenceService, pruneExpiredEntriesService, signatureVerificationService, authStoreName, storeKey);
                             AuthenticatedDataStorageService.Listener listener = new AuthenticatedDataStorageService.Listener() {
                                 @Override
                                 public void onAdded(AuthenticatedData authenticatedData) {
@@ -140,6 +148,7 @@ public class StorageService {
                                 }
                             };
                             dataStore.addListener(listener);
+                            dataStore.addMapChangeListener(inventoryFilterIndex.createMapChangeListener());
                             authenticatedDataStoresListeners.put(storeKey, listener);
                             authenticatedDataStores.put(storeKey, dataStore);
                         });
@@ -174,6 +183,7 @@ public class StorageService {
                                 }
                             };
                             dataStore.addListener(listener);
+                            dataStore.addMapChangeListener(inventoryFilterIndex.createMapChangeListener());
                             mailboxStoresListeners.put(storeKey, listener);
                             mailboxStores.put(storeKey, dataStore);
                         });
@@ -193,6 +203,7 @@ public class StorageService {
                                 }
                             });
                             dataStore.addListener(listener);
+                            dataStore.addMapChangeListener(inventoryFilterIndex.createMapChangeListener());
                             appendOnlyDataStoresListeners.put(storeKey, listener);
                             appendOnlyDataStores.put(storeKey, dataStore);
                         });
@@ -229,6 +240,7 @@ public class StorageService {
 
         appendOnlyDataStores.values().forEach(DataStorageService::shutdown);
         appendOnlyDataStores.clear();
+        signatureVerificationService.shutdown();
         listeners.clear();
     }
 
@@ -420,6 +432,7 @@ public class StorageService {
         if (!authenticatedDataStores.containsKey(storeKey)) {
             AuthenticatedDataStorageService storageService = new AuthenticatedDataStorageService(persistenceService,
                     pruneExpiredEntriesService,
+                    signatureVerificationService,
                     AUTHENTICATED_DATA_STORE.getStoreName(),
                     storeKey);
 
@@ -448,6 +461,7 @@ public class StorageService {
             };
 
             storageService.addListener(listener);
+            storageService.addMapChangeListener(inventoryFilterIndex.createMapChangeListener());
             authenticatedDataStoresListeners.put(storeKey, listener);
             authenticatedDataStores.put(storeKey, storageService);
             storageService.readPersisted();
@@ -492,6 +506,7 @@ public class StorageService {
             };
 
             storageService.addListener(listener);
+            storageService.addMapChangeListener(inventoryFilterIndex.createMapChangeListener());
             mailboxStoresListeners.put(storeKey, listener);
             mailboxStores.put(storeKey, storageService);
             storageService.readPersisted();
@@ -521,6 +536,7 @@ public class StorageService {
             });
 
             storageService.addListener(listener);
+            storageService.addMapChangeListener(inventoryFilterIndex.createMapChangeListener());
             appendOnlyDataStoresListeners.put(storeKey, listener);
             appendOnlyDataStores.put(storeKey, storageService);
             storageService.readPersisted();
@@ -587,8 +603,7 @@ public class StorageService {
                                 }
                             }));
             log.info("cleanupMap for {}: size of cleaned map {}; size of original map={}", storeKey, cleaned.size(), map.size());
-            map.clear();
-            map.putAll(cleaned);
+            authenticatedDataStorageService.resetMap(cleaned);
             authenticatedDataStorageService.persist();
         } catch (Exception e) {
             e.printStackTrace();
@@ -630,7 +645,9 @@ public class StorageService {
         return NetworkStorageWhiteList.getClassNames().stream()
                 .filter(className -> {
                     String storageFileName = StringUtils.camelCaseToSnakeCase(className + DataStorageService.STORE_POST_FIX) + Persistence.EXTENSION;
-                    return Files.exists(dirPath.resolve(storageFileName));
+                    Path storePath = dirPath.resolve(storageFileName);
+                    // If no snapshot has been written yet, we might have only the log
+                    return Files.exists(storePath) || Files.exists(LogStructuredPersistence.getLogDirPath(storePath));
                 })
                 .collect(Collectors.toSet());
     }
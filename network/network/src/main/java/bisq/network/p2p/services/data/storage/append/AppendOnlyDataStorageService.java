@@ -54,12 +54,6 @@ public class AppendOnlyDataStorageService extends DataStorageService<AddAppendOn
         return persisted;
     }
 
-    @SuppressWarnings("RedundantMethodOverride")
-    @Override
-    protected long getMaxWriteRateInMs() {
-        return 1000;
-    }
-
     public DataStorageResult add(AddAppendOnlyDataRequest addAppendOnlyDataRequest) {
         AppendOnlyData appendOnlyData = addAppendOnlyDataRequest.getAppendOnlyData();
         Map<ByteArray, AddAppendOnlyDataRequest> map = persistableStore.getMap();
@@ -74,7 +68,7 @@ public class AppendOnlyDataStorageService extends DataStorageService<AddAppendOn
                 return new DataStorageResult(false).payloadAlreadyStored();
             }
 
-            map.put(byteArray, addAppendOnlyDataRequest);
+            putToMap(byteArray, addAppendOnlyDataRequest);
         }
         persist();
         listeners.forEach(listener -> {
@@ -34,6 +34,8 @@ import bisq.security.DigestUtil;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
@@ -41,12 +43,18 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
 public class AuthenticatedDataStorageService extends DataStorageService<AuthenticatedDataRequest> {
+    // Requests for different keys do not depend on each other, so we only need to serialize the checks and updates
+    // of the same key. The keys are partitioned by their hash into lock stripes.
+    @VisibleForTesting
+    static final int NUM_MAP_ACCESS_LOCKS = 64;
+
     // TODO rename with Handler as only used by StorageService (see https://github.com/bisq-network/bisq2/issues/3691)
     public interface Listener {
         void onAdded(AuthenticatedData authenticatedData);
@@ -59,13 +67,19 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
 
     // TODO Use a field for a single handler as only one listener is used by StorageService
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Object mapAccessLock = new Object();
+    private final Object[] mapAccessLocks = new Object[NUM_MAP_ACCESS_LOCKS];
+    private final SignatureVerificationService signatureVerificationService;
 
     public AuthenticatedDataStorageService(PersistenceService persistenceService,
                                            PruneExpiredEntriesService pruneExpiredEntriesService,
+                                           SignatureVerificationService signatureVerificationService,
                                            String storeName,
                                            String storeKey) {
         super(persistenceService, storeName, storeKey);
+        this.signatureVerificationService = signatureVerificationService;
+        for (int i = 0; i < NUM_MAP_ACCESS_LOCKS; i++) {
+            mapAccessLocks[i] = new Object();
+        }
         pruneExpiredEntriesService.addTask(this::pruneExpired);
     }
 
@@ -83,6 +97,14 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         listeners.clear();
     }
 
+    /**
+     * Holds all map access locks while replacing the map, so that no add, remove or refresh interleaves with it.
+     */
+    @Override
+    public void resetMap(Map<ByteArray, AuthenticatedDataRequest> entries) {
+        resetMapWithLocks(entries, 0);
+    }
+
     public DataStorageResult add(AddAuthenticatedDataRequest request) {
         maybeLogMapState("add", persistableStore);
         AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
@@ -90,58 +112,60 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         DistributedData distributedData = authenticatedData.distributedData;
         byte[] hash = DigestUtil.hash(authenticatedData.serializeForHash());
         ByteArray byteArray = new ByteArray(hash);
-        AuthenticatedDataRequest requestFromMap;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (isExceedingMapSize()) {
-                return new DataStorageResult(false).maxMapSizeReached();
-            }
 
-            requestFromMap = map.get(byteArray);
-            if (request.equals(requestFromMap)) {
-                return new DataStorageResult(false).requestAlreadyReceived();
-            }
+        // We run the cheap checks before the expensive signature verification, so that invalid, stale or expired
+        // requests do not cost us an ECDSA verification. The checks depending on the map state are repeated inside
+        // the critical section, as the map might have changed in the meantime.
+        Optional<DataStorageResult> mapStateCheckFailure = checkAddRequestAgainstMap(request, map.get(byteArray));
+        if (mapStateCheckFailure.isPresent()) {
+            return mapStateCheckFailure.get();
+        }
 
-            if (requestFromMap != null && authenticatedSequentialData.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
-                return new DataStorageResult(false).sequenceNrInvalid();
-            }
+        if (authenticatedSequentialData.isExpired()) {
+            log.debug("AddAuthenticatedDataRequest with {} is expired on {}",
+                    distributedData.getClass().getSimpleName(),
+                    new Date(authenticatedSequentialData.getCreated() + distributedData.getMetaData().getTtl())
+            );
+            log.debug("Data is expired at add. request={}", request);
+            return new DataStorageResult(false).expired();
+        }
 
-            if (authenticatedSequentialData.isExpired()) {
-                log.debug("AddAuthenticatedDataRequest with {} is expired on {}",
-                        distributedData.getClass().getSimpleName(),
-                        new Date(authenticatedSequentialData.getCreated() + distributedData.getMetaData().getTtl())
-                );
-                log.debug("Data is expired at add. request={}", request);
-                return new DataStorageResult(false).expired();
-            }
+        if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
+            log.warn("AuthenticatedData is invalid at add. request={}", request);
+            return new DataStorageResult(false).dataInvalid();
+        }
 
-            if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
-                log.warn("AuthenticatedData is invalid at add. request={}", request);
-                return new DataStorageResult(false).dataInvalid();
+        if (authenticatedData instanceof AuthorizedData authorizedData) {
+            if (authorizedData.isNotAuthorized()) {
+                log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 1500));
+                return new DataStorageResult(false).isNotAuthorized();
             }
+        }
 
-            if (authenticatedData instanceof AuthorizedData authorizedData) {
-                if (authorizedData.isNotAuthorized()) {
-                    log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 1500));
-                    return new DataStorageResult(false).isNotAuthorized();
-                }
-            }
+        if (request.isPublicKeyInvalid()) {
+            log.warn("PublicKey is invalid at add. request={}", request);
+            return new DataStorageResult(false).publicKeyHashInvalid();
+        }
 
-            if (request.isPublicKeyInvalid()) {
-                log.warn("PublicKey is invalid at add. request={}", request);
-                return new DataStorageResult(false).publicKeyHashInvalid();
-            }
+        // Signature verification is expensive, thus we do it before entering the critical section.
+        // If the request was verified already (e.g. by a batch verification of an inventory) we get it from the cache.
+        if (!signatureVerificationService.isSignatureValid(request)) {
+            log.warn("Signature is invalid at add. request={}", request);
+            return new DataStorageResult(false).signatureInvalid();
+        }
 
-            if (request.isSignatureInvalid()) {
-                log.warn("Signature is invalid at add. request={}", request);
-                return new DataStorageResult(false).signatureInvalid();
+        synchronized (getMapAccessLock(byteArray)) {
+            mapStateCheckFailure = checkAddRequestAgainstMap(request, map.get(byteArray));
+            if (mapStateCheckFailure.isPresent()) {
+                return mapStateCheckFailure.get();
             }
 
             if (distributedData instanceof PublishDateAware publishDateAware) {
                 publishDateAware.setPublishDate(authenticatedSequentialData.getCreated());
             }
 
-            map.put(byteArray, request);
+            putToMap(byteArray, request);
 
             // In case we only updated the seq number we still want to broadcast and update the listeners.
             // It is a valid use case that we have both an add and remove data request, and we get repeated sequences
@@ -167,13 +191,18 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         ByteArray byteArray = new ByteArray(request.getHash());
         AuthenticatedData authenticatedDataFromMap;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
+        // The signature is only checked if we have an AddAuthenticatedDataRequest in the map. In that case we verify
+        // it before entering the critical section, unless the cheap checks would reject the request anyway.
+        Optional<Boolean> preVerifiedSignature = preVerifySignatureIfAddRequestInMap(map, byteArray, request,
+                dataFromMap -> request.isSequenceNrInvalid(dataFromMap.getSequenceNumber()) ||
+                        request.isPublicKeyHashInvalid(dataFromMap));
+        synchronized (getMapAccessLock(byteArray)) {
             AuthenticatedDataRequest requestFromMap = map.get(byteArray);
             if (requestFromMap == null) {
                 log.debug("No entry at remove. hash={}", byteArray);
                 // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
                 // track of the sequence number
-                map.put(byteArray, request);
+                putToMap(byteArray, request);
                 persist();
                 return new DataStorageResult(true).noEntry();
             }
@@ -183,7 +212,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 // We have had the entry already removed.
                 if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                     // We update the map with the new request with the fresh sequence number.
-                    map.put(byteArray, request);
+                    putToMap(byteArray, request);
                     persist();
                 }
                 return new DataStorageResult(true).alreadyRemoved();
@@ -207,7 +236,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 return new DataStorageResult(false).publicKeyHashInvalid();
             }
 
-            if (request.isSignatureInvalid()) {
+            if (!preVerifiedSignature.orElseGet(() -> signatureVerificationService.isSignatureValid(request))) {
                 log.warn("Signature is invalid at remove. request={}", request);
                 return new DataStorageResult(false).signatureInvalid();
             }
@@ -226,7 +255,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                         metaDataFromDistributedData);
             }
 
-            map.put(byteArray, request);
+            putToMap(byteArray, request);
         }
 
         persist();
@@ -247,7 +276,10 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         ByteArray byteArray = new ByteArray(request.getHash());
         AddAuthenticatedDataRequest updatedRequest;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
+        Optional<Boolean> preVerifiedSignature = preVerifySignatureIfAddRequestInMap(map, byteArray, request,
+                dataFromMap -> request.isSequenceNrInvalid(dataFromMap.getSequenceNumber()) ||
+                        request.isPublicKeyInvalid(dataFromMap));
+        synchronized (getMapAccessLock(byteArray)) {
             AuthenticatedDataRequest requestFromMap = map.get(byteArray);
 
             if (requestFromMap == null) {
@@ -276,7 +308,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 return new DataStorageResult(false).publicKeyHashInvalid();
             }
 
-            if (request.isSignatureInvalid()) {
+            if (!preVerifiedSignature.orElseGet(() -> signatureVerificationService.isSignatureValid(request))) {
                 log.warn("Signature is invalid at refresh. request={}", request);
                 return new DataStorageResult(false).signatureInvalid();
             }
@@ -290,7 +322,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                     addRequestFromMap.getSignature(),
                     addRequestFromMap.getOwnerPublicKey());
 
-            map.put(byteArray, updatedRequest);
+            putToMap(byteArray, updatedRequest);
         }
 
         persist();
@@ -315,15 +347,54 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
 
     @VisibleForTesting
     public int getSequenceNumber(byte[] hash) {
-        ByteArray byteArray = new ByteArray(hash);
-        int sequenceNumber = 0;
-        Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (map.containsKey(byteArray)) {
-                sequenceNumber = map.get(byteArray).getSequenceNumber();
-            }
+        // The map is a ConcurrentHashMap, so we do not need a lock for a single read
+        AuthenticatedDataRequest requestFromMap = persistableStore.getMap().get(new ByteArray(hash));
+        return requestFromMap != null ? requestFromMap.getSequenceNumber() : 0;
+    }
+
+    private Optional<DataStorageResult> checkAddRequestAgainstMap(AddAuthenticatedDataRequest request,
+                                                                  @Nullable AuthenticatedDataRequest requestFromMap) {
+        if (isExceedingMapSize()) {
+            return Optional.of(new DataStorageResult(false).maxMapSizeReached());
+        }
+
+        if (request.equals(requestFromMap)) {
+            return Optional.of(new DataStorageResult(false).requestAlreadyReceived());
+        }
+
+        if (requestFromMap != null && request.getAuthenticatedSequentialData().isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
+            return Optional.of(new DataStorageResult(false).sequenceNrInvalid());
+        }
+        return Optional.empty();
+    }
+
+    private void resetMapWithLocks(Map<ByteArray, AuthenticatedDataRequest> entries, int lockIndex) {
+        if (lockIndex == NUM_MAP_ACCESS_LOCKS) {
+            super.resetMap(entries);
+            return;
+        }
+        // Locks are always taken in the same order, thus we cannot deadlock with another resetMap call
+        synchronized (mapAccessLocks[lockIndex]) {
+            resetMapWithLocks(entries, lockIndex + 1);
         }
-        return sequenceNumber;
+    }
+
+    private Object getMapAccessLock(ByteArray key) {
+        return mapAccessLocks[Math.floorMod(key.hashCode(), NUM_MAP_ACCESS_LOCKS)];
+    }
+
+    // If the map changes until we enter the critical section, or if the request would be rejected by the cheap checks,
+    // the caller falls back to verification inside the critical section. As the cheap checks come first there, an
+    // invalid request does not cost us a signature verification.
+    private Optional<Boolean> preVerifySignatureIfAddRequestInMap(Map<ByteArray, AuthenticatedDataRequest> map,
+                                                                  ByteArray byteArray,
+                                                                  AuthenticatedDataRequest request,
+                                                                  Predicate<AuthenticatedSequentialData> isRejectedByCheapChecks) {
+        if (map.get(byteArray) instanceof AddAuthenticatedDataRequest addRequestFromMap &&
+                !isRejectedByCheapChecks.test(addRequestFromMap.getAuthenticatedSequentialData())) {
+            return Optional.of(signatureVerificationService.isSignatureValid(request));
+        }
+        return Optional.empty();
     }
 
     private void pruneExpired() {
@@ -340,7 +411,14 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         if (!expiredEntries.isEmpty()) {
             log.info("We remove {} expired entries from our {} map", expiredEntries.size(), getStoreKey());
             expiredEntries.forEach(entry -> {
-                persistableStore.getMap().remove(entry.getKey());
+                ByteArray key = entry.getKey();
+                synchronized (getMapAccessLock(key)) {
+                    // The entry might have been replaced (e.g. by a refresh) since we collected the expired entries
+                    if (persistableStore.getMap().get(key) != entry.getValue()) {
+                        return;
+                    }
+                    removeFromMap(key);
+                }
                 if (entry.getValue() instanceof AddAuthenticatedDataRequest) {
                     AuthenticatedData data = ((AddAuthenticatedDataRequest) entry.getValue()).getAuthenticatedSequentialData().getAuthenticatedData();
                     listeners.forEach(listener -> {
@@ -372,7 +450,9 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
             invalidAuthorizedData.forEach((key, value) -> {
                 log.warn("We prune the AddAuthenticatedDataRequest with an invalid AuthorizedData. {}",
                         StringUtils.truncate(value.toString(), 3000));
-                persistableStore.getMap().remove(key);
+                synchronized (getMapAccessLock(key)) {
+                    removeFromMap(key);
+                }
             });
             persist();
         }
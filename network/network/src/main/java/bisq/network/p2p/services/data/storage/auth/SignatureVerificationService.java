@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.common.data.ByteArray;
+import bisq.common.platform.PlatformUtils;
+import bisq.common.threading.ExecutorFactory;
+import bisq.common.util.CompletableFutureUtils;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.security.DigestUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Verifies the signatures of AuthenticatedDataRequests and memoizes the successful verifications.
+ * <p>
+ * Batches of requests (e.g. from an inventory response) get verified in parallel before they are applied to the
+ * stores, so that the stores only need a cache lookup inside their critical section.
+ * <p>
+ * The cache key is the hash of the signed message together with the signature and the public key, thus a cache hit
+ * implies that exactly the same signature was verified before for that message and key. For add requests the signed
+ * message contains the data hash and the sequence number. Invalid signatures are not cached.
+ */
+@Slf4j
+public class SignatureVerificationService {
+    private static final int BATCH_SIZE = 64;
+    private static final int MAX_CACHE_SIZE = 100_000;
+
+    private final Cache<ByteArray, Boolean> verifiedCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .build();
+    private final ExecutorService executor;
+
+    public SignatureVerificationService() {
+        int numThreads = Math.max(1, PlatformUtils.availableProcessors() - 1);
+        executor = ExecutorFactory.newFixedThreadPool("SignatureVerificationService", numThreads);
+    }
+
+    public void shutdown() {
+        ExecutorFactory.shutdownAndAwaitTermination(executor, 100);
+        verifiedCache.invalidateAll();
+    }
+
+    /**
+     * Verifies the signatures of all AuthenticatedDataRequests which are not verified yet in parallel batches.
+     * Other requests are ignored. The returned future completes once all batches are verified.
+     */
+    public CompletableFuture<Void> verifyAll(Collection<? extends DataRequest> requests) {
+        List<AuthenticatedDataRequest> unverified = requests.stream()
+                .filter(AuthenticatedDataRequest.class::isInstance)
+                .map(AuthenticatedDataRequest.class::cast)
+                .filter(request -> toCacheKey(request)
+                        .map(cacheKey -> verifiedCache.getIfPresent(cacheKey) == null)
+                        .orElse(false))
+                .toList();
+        if (unverified.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<Void>> futures = Lists.partition(unverified, BATCH_SIZE).stream()
+                .map(batch -> CompletableFuture.runAsync(() -> batch.forEach(this::isSignatureValid), executor))
+                .toList();
+        return CompletableFutureUtils.allOf(futures).thenApply(list -> null);
+    }
+
+    public boolean isSignatureValid(AuthenticatedDataRequest request) {
+        Optional<ByteArray> cacheKey = toCacheKey(request);
+        if (cacheKey.isEmpty()) {
+            return false;
+        }
+        if (verifiedCache.getIfPresent(cacheKey.get()) != null) {
+            return true;
+        }
+        boolean isValid = !isSignatureInvalid(request);
+        if (isValid) {
+            verifiedCache.put(cacheKey.get(), true);
+        }
+        return isValid;
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private static boolean isSignatureInvalid(AuthenticatedDataRequest request) {
+        if (request instanceof AddAuthenticatedDataRequest addRequest) {
+            return addRequest.isSignatureInvalid();
+        } else if (request instanceof RemoveAuthenticatedDataRequest removeRequest) {
+            return removeRequest.isSignatureInvalid();
+        } else if (request instanceof RefreshAuthenticatedDataRequest refreshRequest) {
+            return refreshRequest.isSignatureInvalid();
+        } else {
+            return true;
+        }
+    }
+
+    private static Optional<ByteArray> toCacheKey(AuthenticatedDataRequest request) {
+        try {
+            if (request instanceof AddAuthenticatedDataRequest addRequest) {
+                byte[] messageHash = DigestUtil.hash(addRequest.getAuthenticatedSequentialData().serializeForHash());
+                return Optional.of(toCacheKey(messageHash, addRequest.getSignature(), addRequest.getOwnerPublicKeyBytes()));
+            } else if (request instanceof RemoveAuthenticatedDataRequest removeRequest) {
+                return Optional.of(toCacheKey(removeRequest.getHash(), removeRequest.getSignature(), removeRequest.getOwnerPublicKeyBytes()));
+            } else if (request instanceof RefreshAuthenticatedDataRequest refreshRequest) {
+                return Optional.of(toCacheKey(refreshRequest.getHash(), refreshRequest.getSignature(), refreshRequest.getOwnerPublicKeyBytes()));
+            }
+        } catch (Exception e) {
+            log.warn("Could not create cache key for {}", request.getClass().getSimpleName(), e);
+        }
+        return Optional.empty();
+    }
+
+    private static ByteArray toCacheKey(byte[] messageHash, byte[] signature, byte[] publicKeyBytes) {
+        // Length prefixes make the concatenation unambiguous
+        byte[] preImage = org.bouncycastle.util.Arrays.concatenate(
+                org.bouncycastle.util.Arrays.concatenate(Ints.toByteArray(messageHash.length), messageHash),
+                org.bouncycastle.util.Arrays.concatenate(Ints.toByteArray(signature.length), signature),
+                publicKeyBytes);
+        return new ByteArray(DigestUtil.hash(preImage));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network;
+
+import bisq.common.threading.ExecutorFactory;
+import bisq.common.threading.PriorityLaneExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NotifyLaneTest {
+    @Test
+    void newConnectionIsNotifiedBeforeLaterMessagesOfAllLanes() throws InterruptedException {
+        ExecutorService sharedExecutor = ExecutorFactory.newFixedThreadPool("NotifyLaneTest", 1);
+        PriorityLaneExecutor<NotifyLane> executor = new PriorityLaneExecutor<>("NotifyLaneTest",
+                sharedExecutor,
+                NotifyLane.class,
+                NotifyLane.NETWORK_EVENTS,
+                1,
+                100);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        List<String> executionOrder = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1 + NotifyLane.values().length);
+        executor.submit(() -> {
+            executionOrder.add("onConnection");
+            latch.countDown();
+        }, NotifyLane.forNewConnection());
+        // Messages received on the new connection, in the lanes in reverse order of priority
+        for (int i = NotifyLane.values().length - 1; i >= 0; i--) {
+            NotifyLane lane = NotifyLane.values()[i];
+            executor.submit(() -> {
+                executionOrder.add(lane.name());
+                latch.countDown();
+            }, lane);
+        }
+
+        blocker.countDown();
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executionOrder).first().isEqualTo("onConnection");
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        sharedExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.common.application.ApplicationVersion;
+import bisq.common.network.Address;
+import bisq.common.network.TransportType;
+import bisq.common.network.clear_net_address_types.LocalHostAddressTypeFacade;
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.message.SerializedEnvelopePayload;
+import bisq.network.p2p.node.Capability;
+import bisq.network.p2p.node.Feature;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.handshake.ConnectionHandshake;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SerializedEnvelopePayloadTest {
+    private final int networkVersion = NetworkEnvelope.networkVersion;
+
+    @AfterEach
+    void tearDown() {
+        NetworkEnvelope.setNetworkVersion(networkVersion);
+    }
+
+    @Test
+    void envelopeWithSerializedPayloadIsSerializedLikeProto() throws IOException {
+        for (int version : new int[]{0, 1}) {
+            NetworkEnvelope.setNetworkVersion(version);
+            ConnectionHandshake.Request request = createRequest();
+            SerializedEnvelopePayload serializedEnvelopePayload = new SerializedEnvelopePayload(request);
+            assertThat(serializedEnvelopePayload.getSerializedForHash()).isEqualTo(request.serializeForHash());
+
+            AuthorizationToken token = createAuthorizationService().createToken(request,
+                    serializedEnvelopePayload.getSerializedForHash(),
+                    new NetworkLoad(),
+                    LocalHostAddressTypeFacade.toLocalHostAddress(1234).getFullAddress(),
+                    0,
+                    new ArrayList<>());
+            NetworkEnvelope networkEnvelope = new NetworkEnvelope(token, request);
+            NetworkEnvelope networkEnvelopeWithSerializedPayload = new NetworkEnvelope(token, serializedEnvelopePayload);
+
+            assertThat(networkEnvelopeWithSerializedPayload).isEqualTo(networkEnvelope);
+            assertThat(networkEnvelopeWithSerializedPayload.getSerializedSize()).isEqualTo(networkEnvelope.getSerializedSize());
+            assertThat(writeDelimited(networkEnvelopeWithSerializedPayload)).isEqualTo(writeDelimited(networkEnvelope));
+        }
+    }
+
+    private static byte[] writeDelimited(NetworkEnvelope networkEnvelope) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        networkEnvelope.writeDelimitedTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static ConnectionHandshake.Request createRequest() {
+        List<TransportType> supportedTransportTypes = List.of(TransportType.CLEAR);
+        Address address = LocalHostAddressTypeFacade.toLocalHostAddress(2345);
+        Capability capability = new Capability(Capability.VERSION, address, supportedTransportTypes, new ArrayList<>(), ApplicationVersion.getVersion().getVersionAsString());
+        return new ConnectionHandshake.Request(capability, Optional.empty(), new NetworkLoad(), 0);
+    }
+
+    private static AuthorizationService createAuthorizationService() {
+        //noinspection deprecation
+        return new AuthorizationService(new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+    }
+}
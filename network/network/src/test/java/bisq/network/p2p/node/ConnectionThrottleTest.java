@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.common.network.TransportType;
+import bisq.common.timer.TimerWheel;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConnectionThrottleTest {
+    private TimerWheel timerWheel;
+
+    @BeforeEach
+    void setUp() {
+        timerWheel = new TimerWheel("ConnectionThrottleTest", 10, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timerWheel.shutdown();
+    }
+
+    @Test
+    void messagesAreDelayedInCallOrder() throws Exception {
+        // Gap between messages is 20 ms + 200 ms * 0.5 = 120 ms
+        ConnectionThrottle connectionThrottle = createConnectionThrottle(200, 0.5);
+        List<Integer> completionOrder = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            futures.add(connectionThrottle.throttleSendMessage().thenRun(() -> completionOrder.add(index)));
+        }
+
+        assertThat(futures.get(0)).isDone();
+        assertThat(futures.get(1)).isNotDone();
+        futures.get(2).get(5, TimeUnit.SECONDS);
+        assertThat(System.currentTimeMillis() - ts).isGreaterThanOrEqualTo(240);
+        assertThat(completionOrder).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void sendAndReceiveAreThrottledIndependently() {
+        ConnectionThrottle connectionThrottle = createConnectionThrottle(200, 0.5);
+
+        assertThat(connectionThrottle.throttleSendMessage()).isDone();
+        assertThat(connectionThrottle.throttleReceiveMessage()).isDone();
+        assertThat(connectionThrottle.throttleSendMessage()).isNotDone();
+        assertThat(connectionThrottle.throttleReceiveMessage()).isNotDone();
+    }
+
+    @Test
+    void excessDelayedMessagesAreRejected() throws Exception {
+        // Gap between messages is the minimum of 20 ms
+        ConnectionThrottle connectionThrottle = createConnectionThrottle(0, 0);
+        assertThat(connectionThrottle.throttleSendMessage()).isDone();
+        List<CompletableFuture<Void>> delayed = new ArrayList<>();
+        for (int i = 0; i < ConnectionThrottle.MAX_NUM_DELAYED_MESSAGES; i++) {
+            delayed.add(connectionThrottle.throttleSendMessage());
+        }
+        assertThat(delayed).allMatch(future -> !future.isDone());
+
+        CompletableFuture<Void> rejected = connectionThrottle.throttleSendMessage();
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ConnectionException.class);
+        // The receive direction is not affected
+        assertThat(connectionThrottle.throttleReceiveMessage()).isDone();
+
+        // Once the delayed messages are completed we accept new messages again
+        delayed.get(delayed.size() - 1).get(10, TimeUnit.SECONDS);
+        connectionThrottle.throttleSendMessage().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void delayedMessagesFailIfTimerIsStopped() {
+        ConnectionThrottle connectionThrottle = createConnectionThrottle(200, 0.5);
+        assertThat(connectionThrottle.throttleSendMessage()).isDone();
+        timerWheel.shutdown();
+
+        assertThat(connectionThrottle.throttleSendMessage()).isCompletedExceptionally();
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private ConnectionThrottle createConnectionThrottle(int throttleTime, double load) {
+        Node.Config config = new Node.Config(TransportType.CLEAR,
+                Set.of(TransportType.CLEAR),
+                Set.of(),
+                null,
+                120_000,
+                throttleTime,
+                throttleTime,
+                12);
+        NetworkLoadSnapshot networkLoadSnapshot = new NetworkLoadSnapshot(new NetworkLoad(load, 1));
+        return new ConnectionThrottle(timerWheel, networkLoadSnapshot, networkLoadSnapshot, config);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.common.application.ApplicationVersion;
+import bisq.common.network.Address;
+import bisq.common.network.TransportType;
+import bisq.common.network.clear_net_address_types.LocalHostAddressTypeFacade;
+import bisq.network.NetworkExecutors;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.network_load.ConnectionMetrics;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.services.peer_group.keep_alive.Ping;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConnectionVirtualThreadsTest {
+    private static final int NUM_MESSAGES = 100;
+    private static final int NUM_SENDER_THREADS = 8;
+
+    private final List<Integer> receivedByInbound = new CopyOnWriteArrayList<>();
+    private final List<Integer> receivedByOutbound = new CopyOnWriteArrayList<>();
+    private final List<Boolean> receivedOnVirtualThread = new CopyOnWriteArrayList<>();
+    private final List<Exception> errors = new CopyOnWriteArrayList<>();
+    private ServerSocket serverSocket;
+    private OutboundConnection outboundConnection;
+    private InboundConnection inboundConnection;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        NetworkExecutors.initialize(1, true, 0, 0);
+
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Socket clientSocket = new Socket();
+        clientSocket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()));
+        Socket acceptedSocket = serverSocket.accept();
+
+        Address inboundAddress = LocalHostAddressTypeFacade.toLocalHostAddress(serverSocket.getLocalPort());
+        Address outboundAddress = LocalHostAddressTypeFacade.toLocalHostAddress(clientSocket.getLocalPort());
+        String connectionId = UUID.randomUUID().toString();
+        outboundConnection = new OutboundConnection(createAuthorizationService(),
+                connectionId,
+                clientSocket,
+                inboundAddress,
+                createCapability(inboundAddress),
+                new NetworkLoadSnapshot(),
+                new ConnectionMetrics(),
+                createConnectionThrottle(),
+                createHandler(receivedByOutbound),
+                (connection, exception) -> errors.add(exception));
+        inboundConnection = new InboundConnection(createAuthorizationService(),
+                connectionId,
+                acceptedSocket,
+                createCapability(outboundAddress),
+                new NetworkLoadSnapshot(),
+                new ConnectionMetrics(),
+                createConnectionThrottle(),
+                createHandler(receivedByInbound),
+                (connection, exception) -> errors.add(exception));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        outboundConnection.shutdown(CloseReason.SHUTDOWN);
+        inboundConnection.shutdown(CloseReason.SHUTDOWN);
+        serverSocket.close();
+        NetworkExecutors.shutdown();
+    }
+
+    @Test
+    void messagesAreSentInOrderAndReceivedOnVirtualThreads() throws Exception {
+        List<CompletableFuture<Connection>> futures = new ArrayList<>();
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            futures.add(outboundConnection.sendAsync(new Ping(i)));
+            futures.add(inboundConnection.sendAsync(new Ping(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        awaitReceived(2 * NUM_MESSAGES);
+        List<Integer> expected = IntStream.range(0, NUM_MESSAGES).boxed().toList();
+        assertThat(receivedByInbound).containsExactlyElementsOf(expected);
+        assertThat(receivedByOutbound).containsExactlyElementsOf(expected);
+        assertThat(receivedOnVirtualThread).containsOnly(true);
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void concurrentSendsAreAllDelivered() throws Exception {
+        // Many senders contend for the write lock of the same connection
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<CompletableFuture<Connection>> futures = new CopyOnWriteArrayList<>();
+        List<Thread> senders = new ArrayList<>();
+        for (int t = 0; t < NUM_SENDER_THREADS; t++) {
+            int offset = t * NUM_MESSAGES;
+            senders.add(Thread.ofVirtual().start(() -> {
+                try {
+                    startLatch.await();
+                    for (int i = 0; i < NUM_MESSAGES; i++) {
+                        futures.add(outboundConnection.sendAsync(new Ping(offset + i)));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        startLatch.countDown();
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        awaitReceived(NUM_SENDER_THREADS * NUM_MESSAGES);
+        assertThat(receivedByInbound)
+                .hasSize(NUM_SENDER_THREADS * NUM_MESSAGES)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, NUM_SENDER_THREADS * NUM_MESSAGES).boxed().toList());
+        // The authorization tokens are created under the write lock, thus the counter matches the sent messages
+        assertThat(outboundConnection.getSentMessageCounter().get()).isEqualTo(NUM_SENDER_THREADS * NUM_MESSAGES + 1);
+        assertThat(errors).isEmpty();
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void awaitReceived(int numMessages) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (receivedByInbound.size() + receivedByOutbound.size() < numMessages &&
+                System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private Connection.Handler createHandler(List<Integer> receivedNonces) {
+        return new Connection.Handler() {
+            @Override
+            public boolean isMessageAuthorized(EnvelopePayloadMessage envelopePayloadMessage,
+                                               AuthorizationToken authorizationToken,
+                                               Connection connection) {
+                return true;
+            }
+
+            @Override
+            public void handleNetworkMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
+                receivedOnVirtualThread.add(Thread.currentThread().isVirtual());
+                receivedNonces.add(((Ping) envelopePayloadMessage).getNonce());
+            }
+
+            @Override
+            public void handleConnectionClosed(Connection connection, CloseReason closeReason) {
+            }
+        };
+    }
+
+    private static ConnectionThrottle createConnectionThrottle() {
+        ConnectionThrottle connectionThrottle = mock(ConnectionThrottle.class);
+        when(connectionThrottle.throttleSendMessage()).thenReturn(CompletableFuture.completedFuture(null));
+        when(connectionThrottle.throttleReceiveMessage()).thenReturn(CompletableFuture.completedFuture(null));
+        return connectionThrottle;
+    }
+
+    private static AuthorizationService createAuthorizationService() {
+        //noinspection deprecation
+        return new AuthorizationService(new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+    }
+
+    private static Capability createCapability(Address address) {
+        return new Capability(Capability.VERSION,
+                address,
+                List.of(TransportType.CLEAR),
+                new ArrayList<>(),
+                ApplicationVersion.getVersion().getVersionAsString());
+    }
+}
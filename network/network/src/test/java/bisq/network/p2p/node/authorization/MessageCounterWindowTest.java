@@ -0,0 +1,60 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.authorization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MessageCounterWindowTest {
+    @Test
+    public void testRejectReplays() {
+        MessageCounterWindow window = new MessageCounterWindow();
+        for (int counter = 0; counter < 10_000; counter++) {
+            assertTrue(window.tryAccept(counter));
+            assertFalse(window.tryAccept(counter));
+        }
+        // Recent counters are still known
+        assertFalse(window.tryAccept(9_999 - MessageCounterWindow.WINDOW_SIZE + 1));
+        // Counters older than the window are rejected
+        assertFalse(window.tryAccept(9_999 - MessageCounterWindow.WINDOW_SIZE));
+        assertFalse(window.tryAccept(0));
+    }
+
+    @Test
+    public void testAcceptOutOfOrderInsideWindow() {
+        MessageCounterWindow window = new MessageCounterWindow();
+        assertTrue(window.tryAccept(0));
+        assertTrue(window.tryAccept(5));
+        assertTrue(window.tryAccept(3));
+        assertTrue(window.tryAccept(1));
+        assertFalse(window.tryAccept(3));
+        assertTrue(window.tryAccept(2));
+        assertTrue(window.tryAccept(4));
+        assertFalse(window.tryAccept(5));
+
+        // A jump larger than the window clears all previous counters
+        int counter = 5 + MessageCounterWindow.WINDOW_SIZE * 3;
+        assertTrue(window.tryAccept(counter));
+        assertFalse(window.tryAccept(counter));
+        assertTrue(window.tryAccept(counter - 1));
+        assertTrue(window.tryAccept(counter - MessageCounterWindow.WINDOW_SIZE + 1));
+        assertFalse(window.tryAccept(counter - MessageCounterWindow.WINDOW_SIZE));
+    }
+}
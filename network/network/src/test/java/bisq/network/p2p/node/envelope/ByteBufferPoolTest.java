@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ByteBufferPoolTest {
+    @Test
+    void acquireUsesPowerOfTwoSizeClasses() {
+        ByteBufferPool pool = new ByteBufferPool();
+        assertThat(pool.acquire(0).capacity()).isEqualTo(1024);
+        assertThat(pool.acquire(1024).capacity()).isEqualTo(1024);
+        assertThat(pool.acquire(1025).capacity()).isEqualTo(2048);
+        assertThat(pool.acquire(1024 * 1024).capacity()).isEqualTo(1024 * 1024);
+        assertThat(pool.acquire(1024 * 1024).isDirect()).isTrue();
+
+        ByteBuffer large = pool.acquire(1024 * 1024 + 1);
+        assertThat(large.isDirect()).isFalse();
+        assertThat(large.capacity()).isEqualTo(1024 * 1024 + 1);
+    }
+
+    @Test
+    void releasedBufferGetsReused() {
+        ByteBufferPool pool = new ByteBufferPool();
+        ByteBuffer buffer = pool.acquire(3000);
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        assertThat(pool.getNumPooled(4096)).isEqualTo(1);
+
+        ByteBuffer reused = pool.acquire(4000);
+        assertThat(reused).isSameAs(buffer);
+        assertThat(reused.position()).isZero();
+        assertThat(reused.limit()).isEqualTo(4096);
+        assertThat(pool.getNumPooled(4096)).isZero();
+    }
+
+    @Test
+    void numPooledBuffersIsLimited() {
+        ByteBufferPool pool = new ByteBufferPool();
+        int capacity = 1024 * 1024;
+        for (int i = 0; i < 10; i++) {
+            pool.release(ByteBuffer.allocateDirect(capacity));
+        }
+        assertThat(pool.getNumPooled(capacity)).isEqualTo(4);
+
+        // Buffers not matching a size class are not pooled
+        pool.release(ByteBuffer.allocateDirect(3000));
+        assertThat(pool.getNumPooled(4096)).isZero();
+    }
+}
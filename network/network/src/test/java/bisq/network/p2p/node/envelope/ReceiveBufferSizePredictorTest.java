@@ -0,0 +1,59 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReceiveBufferSizePredictorTest {
+    @Test
+    void growsOnFullReadsUpToMaxSize() {
+        ReceiveBufferSizePredictor predictor = new ReceiveBufferSizePredictor(1024, 1024, 4096);
+        predictor.onRead(1024);
+        assertThat(predictor.getSize()).isEqualTo(2048);
+        predictor.onRead(2048);
+        assertThat(predictor.getSize()).isEqualTo(4096);
+        predictor.onRead(4096);
+        assertThat(predictor.getSize()).isEqualTo(4096);
+    }
+
+    @Test
+    void shrinksAfterSeriesOfSmallReads() {
+        ReceiveBufferSizePredictor predictor = new ReceiveBufferSizePredictor(4096, 1024, 4096);
+        for (int i = 0; i < 7; i++) {
+            predictor.onRead(100);
+        }
+        assertThat(predictor.getSize()).isEqualTo(4096);
+
+        // A read using more than half of the buffer resets the series
+        predictor.onRead(3000);
+        for (int i = 0; i < 7; i++) {
+            predictor.onRead(100);
+        }
+        assertThat(predictor.getSize()).isEqualTo(4096);
+
+        predictor.onRead(100);
+        assertThat(predictor.getSize()).isEqualTo(2048);
+
+        for (int i = 0; i < 100; i++) {
+            predictor.onRead(1);
+        }
+        assertThat(predictor.getSize()).isEqualTo(1024);
+    }
+}
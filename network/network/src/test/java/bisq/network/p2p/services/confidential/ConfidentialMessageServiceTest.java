@@ -19,15 +19,30 @@ package bisq.network.p2p.services.confidential;
 
 import bisq.network.p2p.message.ReceiverPublicKeyProvidingPayload;
 import bisq.network.p2p.message.SenderPublicKeyProvidingPayload;
+import bisq.network.p2p.node.NodesById;
+import bisq.security.keys.KeyBundleService;
 import bisq.security.keys.KeyGeneration;
 import org.junit.jupiter.api.Test;
 
 import java.security.KeyPair;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 class ConfidentialMessageServiceTest {
     @Test
@@ -86,6 +101,74 @@ class ConfidentialMessageServiceTest {
                 receiverKeyPair.getPublic()));
     }
 
+    @Test
+    void messagesForSameReceiverKeyAreProcessedInOrder() throws Exception {
+        ConfidentialMessageService service = createService();
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        AtomicInteger numConcurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            futures.add(service.processAsync("receiverKeyId", () -> {
+                maxConcurrent.accumulateAndGet(numConcurrent.incrementAndGet(), Math::max);
+                processed.add(index);
+                numConcurrent.decrementAndGet();
+                return true;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 100).boxed().toList(), processed);
+        assertEquals(1, maxConcurrent.get());
+        service.shutdown();
+    }
+
+    @Test
+    void messagesForDifferentReceiverKeysAreProcessedInParallel() throws Exception {
+        ConfidentialMessageService service = createService();
+        CountDownLatch otherKeyStarted = new CountDownLatch(1);
+        // The first message only completes once the message for the other key runs at the same time
+        CompletableFuture<Boolean> first = service.processAsync("receiverKeyId1",
+                () -> awaitLatch(otherKeyStarted));
+        CompletableFuture<Boolean> second = service.processAsync("receiverKeyId2", () -> {
+            otherKeyStarted.countDown();
+            return true;
+        });
+
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+        service.shutdown();
+    }
+
+    @Test
+    void rejectedMessagesAreDropped() throws Exception {
+        ConfidentialMessageService service = createService();
+        service.shutdown();
+
+        // Must not throw, as the caller is a network listener
+        CompletableFuture<Boolean> future = service.processAsync("receiverKeyId", () -> true);
+        assertFalse(future.get(1, TimeUnit.SECONDS));
+        assertEquals(1, service.getNumRejectedMessages());
+    }
+
+    private static ConfidentialMessageService createService() {
+        return new ConfidentialMessageService(mock(NodesById.class),
+                mock(KeyBundleService.class),
+                Optional.empty(),
+                Optional.empty(),
+                Executors.newFixedThreadPool(4));
+    }
+
+    private static boolean awaitLatch(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     private record SenderPublicKeyPayload(PublicKey senderPublicKey) implements SenderPublicKeyProvidingPayload {
         @Override
         public PublicKey getSenderPublicKey() {
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory;
+
+import bisq.common.data.ByteArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InventoryPartitionsTest {
+    @Test
+    void eachKeyIsInExactlyOnePartition() {
+        Random random = new Random(42);
+        int numPartitions = 4;
+        for (int i = 0; i < 100; i++) {
+            byte[] bytes = new byte[20];
+            random.nextBytes(bytes);
+            ByteArray key = new ByteArray(bytes);
+            int numContaining = 0;
+            for (int index = 0; index < numPartitions; index++) {
+                if (new KeySpacePartition(index, numPartitions).contains(key)) {
+                    numContaining++;
+                }
+            }
+            assertThat(numContaining).isEqualTo(1);
+            assertThat(KeySpacePartition.FULL_KEY_SPACE.contains(key)).isTrue();
+        }
+    }
+
+    @Test
+    void assignOpenPartitionsUntilAllCompleted() {
+        InventoryPartitions partitions = new InventoryPartitions(3);
+        Set<KeySpacePartition> assigned = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            assigned.add(partitions.assign());
+        }
+        // Parallel requests get different partitions
+        assertThat(assigned).hasSize(3);
+
+        KeySpacePartition failed = new KeySpacePartition(1, 3);
+        partitions.release(failed);
+        assertThat(partitions.assign()).isEqualTo(failed);
+
+        assertThat(partitions.onCompleted(new KeySpacePartition(0, 3))).isFalse();
+        assertThat(partitions.onCompleted(new KeySpacePartition(1, 3))).isFalse();
+        // A second delivery of a completed partition has no effect
+        assertThat(partitions.onCompleted(new KeySpacePartition(1, 3))).isFalse();
+        assertThat(partitions.isAllCompleted()).isFalse();
+        assertThat(partitions.onCompleted(new KeySpacePartition(2, 3))).isTrue();
+        assertThat(partitions.assign()).isEqualTo(KeySpacePartition.FULL_KEY_SPACE);
+
+        partitions.reset();
+        assertThat(partitions.isAllCompleted()).isFalse();
+        assertThat(partitions.assign().isFullKeySpace()).isFalse();
+    }
+}
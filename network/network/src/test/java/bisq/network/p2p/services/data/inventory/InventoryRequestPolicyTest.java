@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory;
+
+import bisq.common.network.clear_net_address_types.LocalHostAddressTypeFacade;
+import bisq.network.p2p.common.RequestResponseHandler;
+import bisq.network.p2p.node.Capability;
+import bisq.network.p2p.node.Connection;
+import bisq.network.p2p.node.Node;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
+import bisq.network.p2p.services.peer_group.PeerGroupService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static bisq.network.p2p.services.data.inventory.InventoryRequestPolicy.NextTaskAfterRequestCompleted.RETRY_REQUEST_WITH_NEW_CONNECTION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InventoryRequestPolicyTest {
+    private static final int NUM_PARTITIONS = 2;
+
+    @SuppressWarnings("unchecked")
+    private final InventoryRequestModel model = new InventoryRequestModel(mock(RequestResponseHandler.class), NUM_PARTITIONS);
+    private final InventoryRequestPolicy policy = createPolicy(model);
+
+    @Test
+    void emptyResponseDoesNotCompletePartition() {
+        KeySpacePartition partition = model.getInventoryPartitions().assign();
+        Connection bootstrappingPeer = createConnection(1000);
+
+        assertThat(policy.onRequestCompleted(bootstrappingPeer, partition, new Inventory(List.of(), false), null))
+                .isEqualTo(RETRY_REQUEST_WITH_NEW_CONNECTION);
+        // The partition got released and is assigned to the next request
+        assertThat(model.getInventoryPartitions().assign()).isEqualTo(partition);
+        assertThat(policy.shouldRequestOnNewConnection(bootstrappingPeer)).isFalse();
+
+        Connection peer = createConnection(1001);
+        policy.onRequestCompleted(peer, partition, new Inventory(List.of(createDataRequest()), false), null);
+        KeySpacePartition otherPartition = model.getInventoryPartitions().assign();
+        assertThat(otherPartition).isNotEqualTo(partition);
+
+        policy.onRequestCompleted(peer, otherPartition, new Inventory(List.of(createDataRequest()), false), null);
+        assertThat(model.getInventoryPartitions().isAllCompleted()).isTrue();
+        assertThat(model.getNumInventoryRequestsCompleted().get()).isEqualTo(1);
+    }
+
+    @Test
+    void responseWithMaxSizeReachedDoesNotCompletePartition() {
+        KeySpacePartition partition = model.getInventoryPartitions().assign();
+
+        policy.onRequestCompleted(createConnection(1000), partition, new Inventory(List.of(createDataRequest()), true), null);
+
+        assertThat(model.getInventoryPartitions().assign()).isEqualTo(partition);
+        assertThat(model.getNumInventoryRequestsCompleted().get()).isZero();
+    }
+
+    private static InventoryRequestPolicy createPolicy(InventoryRequestModel model) {
+        InventoryService.Config config = new InventoryService.Config(2000,
+                600_000,
+                2,
+                4,
+                5,
+                2,
+                2,
+                List.of(InventoryFilterType.HASH_SET),
+                NUM_PARTITIONS);
+        InventoryFilterFactory inventoryFilterFactory = mock(InventoryFilterFactory.class);
+        when(inventoryFilterFactory.getPreferredFilterType(any())).thenReturn(Optional.of(InventoryFilterType.HASH_SET));
+        return new InventoryRequestPolicy(config, model, inventoryFilterFactory, mock(Node.class), mock(PeerGroupService.class));
+    }
+
+    private static Connection createConnection(int port) {
+        Connection connection = mock(Connection.class);
+        when(connection.getId()).thenReturn(String.valueOf(port));
+        when(connection.getPeerAddress()).thenReturn(LocalHostAddressTypeFacade.toLocalHostAddress(port));
+        when(connection.getPeersCapability()).thenReturn(mock(Capability.class));
+        return connection;
+    }
+
+    private static DataRequest createDataRequest() {
+        DataRequest dataRequest = mock(DataRequest.class);
+        when(dataRequest.serializeForHash()).thenReturn(new byte[]{1});
+        return dataRequest;
+    }
+}
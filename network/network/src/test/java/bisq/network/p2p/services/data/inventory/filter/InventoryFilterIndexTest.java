@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.inventory.filter.mini_sketch.MiniSketchFilter;
+import bisq.network.p2p.services.data.inventory.filter.mini_sketch.PinSketch;
+import bisq.network.p2p.services.data.storage.DataStorageService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class InventoryFilterIndexTest {
+    @Test
+    void concurrentChangesOfMultipleStoresKeepSketchConsistent() throws Exception {
+        InventoryFilterIndex index = new InventoryFilterIndex();
+        DataRequest dataRequest = mock(DataRequest.class);
+        int numStores = 4;
+        int numKeysPerStore = 2000;
+        List<List<ByteArray>> keysByStore = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < numStores; i++) {
+            List<ByteArray> keys = new ArrayList<>();
+            for (int j = 0; j < numKeysPerStore; j++) {
+                byte[] bytes = new byte[20];
+                random.nextBytes(bytes);
+                keys.add(new ByteArray(bytes));
+            }
+            keysByStore.add(keys);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numStores);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<ByteArray> keys : keysByStore) {
+                DataStorageService.MapChangeListener listener = index.createMapChangeListener();
+                futures.add(executor.submit(() -> {
+                    keys.forEach(key -> listener.onPut(key, dataRequest));
+                    // Put again and remove every second key
+                    for (int i = 0; i < keys.size(); i += 2) {
+                        listener.onPut(keys.get(i), dataRequest);
+                        listener.onRemoved(keys.get(i));
+                    }
+                }));
+            }
+            // Reading the sketch while writers are running
+            for (int i = 0; i < 10; i++) {
+                index.getPinSketch(MiniSketchFilter.MIN_CAPACITY);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PinSketch expected = new PinSketch(MiniSketchFilter.MAX_CAPACITY);
+        keysByStore.forEach(keys -> {
+            for (int i = 1; i < keys.size(); i += 2) {
+                expected.add(InventoryFilterIndex.toMiniSketchElement(keys.get(i), 0));
+            }
+        });
+        assertThat(index.size()).isEqualTo(numStores * numKeysPerStore / 2);
+        assertThat(index.getPinSketch(MiniSketchFilter.MAX_CAPACITY).merge(expected).isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import bisq.network.p2p.services.data.inventory.Inventory;
+import bisq.network.p2p.services.data.inventory.KeySpacePartition;
+import bisq.network.p2p.services.data.inventory.filter.InventoryFilterIndex;
+import bisq.network.p2p.services.data.storage.StorageService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MiniSketchFilterServiceTest {
+    private final MiniSketchFilterService miniSketchFilterService = createMiniSketchFilterService();
+
+    @Test
+    void failedDecodingDoublesCapacity() {
+        int capacity = miniSketchFilterService.getFilter().getCapacity();
+        miniSketchFilterService.onInventoryReceived(Inventory.filterDecodingFailed(), KeySpacePartition.FULL_KEY_SPACE);
+
+        assertThat(miniSketchFilterService.getFilter().getCapacity()).isEqualTo(2 * capacity);
+    }
+
+    @Test
+    void throttledDecodingKeepsCapacity() {
+        miniSketchFilterService.onInventoryReceived(Inventory.filterDecodingFailed(), KeySpacePartition.FULL_KEY_SPACE);
+        int capacity = miniSketchFilterService.getFilter().getCapacity();
+
+        miniSketchFilterService.onInventoryReceived(Inventory.filterThrottled(), KeySpacePartition.FULL_KEY_SPACE);
+        miniSketchFilterService.onInventoryReceived(Inventory.filterThrottled(), KeySpacePartition.FULL_KEY_SPACE);
+
+        assertThat(miniSketchFilterService.getFilter().getCapacity()).isEqualTo(capacity);
+    }
+
+    private static MiniSketchFilterService createMiniSketchFilterService() {
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.getInventoryFilterIndex()).thenReturn(new InventoryFilterIndex());
+        return new MiniSketchFilterService(storageService, 1000);
+    }
+}
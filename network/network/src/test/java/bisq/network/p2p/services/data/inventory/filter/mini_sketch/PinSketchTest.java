@@ -0,0 +1,108 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PinSketchTest {
+    private final Random random = new Random(42);
+
+    @Test
+    void fieldInverse() {
+        for (int i = 0; i < 100; i++) {
+            long value = random.nextLong();
+            if (value != 0) {
+                assertThat(GaloisField64.mul(value, GaloisField64.inverse(value))).isEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    void multiplicationTable() {
+        long factor = random.nextLong();
+        long[] table = GaloisField64.createMultiplicationTable(factor);
+        for (int i = 0; i < 100; i++) {
+            long value = random.nextLong();
+            assertThat(GaloisField64.mul(table, value)).isEqualTo(GaloisField64.mul(factor, value));
+        }
+    }
+
+    @Test
+    void emptyDifference() {
+        PinSketch sketch = new PinSketch(16);
+        sketch.add(123);
+        sketch.add(456);
+        Optional<long[]> decoded = sketch.merge(sketch).decode();
+        assertThat(decoded).isPresent();
+        assertThat(decoded.get()).isEmpty();
+    }
+
+    @Test
+    void decodeDifferenceUpToCapacity() {
+        int capacity = 32;
+        for (int numDifferences : new int[]{1, 2, 10, capacity}) {
+            PinSketch sketchA = new PinSketch(capacity);
+            PinSketch sketchB = new PinSketch(capacity);
+            for (int i = 0; i < 1000; i++) {
+                long element = randomElement();
+                sketchA.add(element);
+                sketchB.add(element);
+            }
+            Set<Long> difference = new HashSet<>();
+            for (int i = 0; i < numDifferences; i++) {
+                long element = randomElement();
+                difference.add(element);
+                if (i % 2 == 0) {
+                    sketchA.add(element);
+                } else {
+                    sketchB.add(element);
+                }
+            }
+
+            Optional<long[]> decoded = sketchA.merge(sketchB).decode();
+            assertThat(decoded).isPresent();
+            Set<Long> decodedSet = Arrays.stream(decoded.get()).boxed().collect(Collectors.toSet());
+            assertThat(decodedSet).isEqualTo(difference);
+        }
+    }
+
+    @Test
+    void decodeFailsIfDifferenceExceedsCapacity() {
+        int capacity = 16;
+        PinSketch sketchA = new PinSketch(capacity);
+        PinSketch sketchB = new PinSketch(capacity);
+        for (int i = 0; i < 3 * capacity; i++) {
+            sketchA.add(randomElement());
+        }
+        assertThat(sketchA.merge(sketchB).decode()).isEmpty();
+    }
+
+    private long randomElement() {
+        long element = random.nextLong();
+        return element == 0 ? 1 : element;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.auth;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.storage.DataStorageService;
+import bisq.network.p2p.services.data.storage.DistributedData;
+import bisq.network.p2p.services.data.storage.MetaData;
+import bisq.network.p2p.services.data.storage.PruneExpiredEntriesService;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AuthenticatedDataStorageServiceTest {
+    private static final MetaData META_DATA = new MetaData(MetaData.TTL_10_DAYS, "TestData");
+    private static final int NUM_KEYS_PER_GROUP = 4;
+    private static final int NUM_SEQUENCE_NUMBERS = 20;
+
+    @Test
+    void concurrentAddAndRemoveOnCollidingAndNonCollidingKeys() throws Exception {
+        List<AuthenticatedData> collidingData = new ArrayList<>();
+        List<AuthenticatedData> nonCollidingData = new ArrayList<>();
+        Set<Integer> usedStripes = new HashSet<>();
+        int collidingStripe = getStripe(toAuthenticatedData(0));
+        for (int i = 0; collidingData.size() < NUM_KEYS_PER_GROUP || nonCollidingData.size() < NUM_KEYS_PER_GROUP; i++) {
+            AuthenticatedData authenticatedData = toAuthenticatedData(i);
+            int stripe = getStripe(authenticatedData);
+            if (stripe == collidingStripe) {
+                if (collidingData.size() < NUM_KEYS_PER_GROUP) {
+                    collidingData.add(authenticatedData);
+                }
+            } else if (nonCollidingData.size() < NUM_KEYS_PER_GROUP && usedStripes.add(stripe)) {
+                nonCollidingData.add(authenticatedData);
+            }
+        }
+        List<AuthenticatedData> allData = new ArrayList<>(collidingData);
+        allData.addAll(nonCollidingData);
+
+        // Requests with odd sequence numbers are adds, with even ones removes. Thus, for each key the remove with the
+        // highest sequence number has to win, independent of the order in which the requests are processed.
+        List<AuthenticatedDataRequest> requests = new ArrayList<>();
+        for (AuthenticatedData authenticatedData : allData) {
+            KeyPair keyPair = KeyGeneration.generateDefaultEcKeyPair();
+            for (int sequenceNumber = 1; sequenceNumber <= NUM_SEQUENCE_NUMBERS; sequenceNumber++) {
+                requests.add(createRequest(authenticatedData, keyPair, sequenceNumber));
+            }
+        }
+
+        for (int run = 0; run < 5; run++) {
+            Collections.shuffle(requests, new Random(run));
+            AuthenticatedDataStorageService service = createService();
+            Map<ByteArray, DataRequest> mirroredMap = new ConcurrentHashMap<>();
+            service.addMapChangeListener(new DataStorageService.MapChangeListener() {
+                @Override
+                public void onPut(ByteArray key, DataRequest dataRequest) {
+                    mirroredMap.put(key, dataRequest);
+                }
+
+                @Override
+                public void onRemoved(ByteArray key) {
+                    mirroredMap.remove(key);
+                }
+
+                @Override
+                public void onMapReset(Map<ByteArray, ? extends DataRequest> map) {
+                    mirroredMap.clear();
+                    mirroredMap.putAll(map);
+                }
+            });
+
+            processConcurrently(service, requests);
+
+            Map<ByteArray, AuthenticatedDataRequest> map = service.getPersistableStore().getMap();
+            assertThat(map).hasSize(allData.size());
+            for (AuthenticatedData authenticatedData : allData) {
+                AuthenticatedDataRequest requestFromMap = map.get(toKey(authenticatedData));
+                assertThat(requestFromMap).isInstanceOf(RemoveAuthenticatedDataRequest.class);
+                assertThat(requestFromMap.getSequenceNumber()).isEqualTo(NUM_SEQUENCE_NUMBERS);
+            }
+            assertThat(mirroredMap).isEqualTo(new HashMap<>(map));
+        }
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private static void processConcurrently(AuthenticatedDataStorageService service,
+                                            List<AuthenticatedDataRequest> requests) throws Exception {
+        int numThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < numThreads; i++) {
+                int threadIndex = i;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = threadIndex; j < requests.size(); j += numThreads) {
+                        AuthenticatedDataRequest request = requests.get(j);
+                        if (request instanceof AddAuthenticatedDataRequest addRequest) {
+                            service.add(addRequest);
+                        } else {
+                            service.remove((RemoveAuthenticatedDataRequest) request);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static AuthenticatedDataStorageService createService() {
+        LogStructuredPersistence persistence = mock(LogStructuredPersistence.class);
+        when(persistence.flushAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        PersistenceService persistenceService = mock(PersistenceService.class);
+        when(persistenceService.getOrCreateLogStructuredPersistence(any(), any(Path.class), anyString(), any(), any()))
+                .thenReturn(persistence);
+        SignatureVerificationService signatureVerificationService = mock(SignatureVerificationService.class);
+        when(signatureVerificationService.isSignatureValid(any())).thenReturn(true);
+        return new AuthenticatedDataStorageService(persistenceService,
+                mock(PruneExpiredEntriesService.class),
+                signatureVerificationService,
+                "test",
+                "TestData");
+    }
+
+    private static AuthenticatedDataRequest createRequest(AuthenticatedData authenticatedData,
+                                                          KeyPair keyPair,
+                                                          int sequenceNumber) throws GeneralSecurityException {
+        // The factory methods derive the sequence number from the store
+        AuthenticatedDataStorageService sequenceNumberSource = mock(AuthenticatedDataStorageService.class);
+        when(sequenceNumberSource.getSequenceNumber(any())).thenReturn(sequenceNumber - 1);
+        return sequenceNumber % 2 == 1
+                ? AddAuthenticatedDataRequest.from(sequenceNumberSource, authenticatedData, keyPair)
+                : RemoveAuthenticatedDataRequest.from(sequenceNumberSource, authenticatedData, keyPair);
+    }
+
+    private static AuthenticatedData toAuthenticatedData(int index) {
+        return new DefaultAuthenticatedData(new TestData("data-" + index));
+    }
+
+    private static ByteArray toKey(AuthenticatedData authenticatedData) {
+        return new ByteArray(DigestUtil.hash(authenticatedData.serializeForHash()));
+    }
+
+    private static int getStripe(AuthenticatedData authenticatedData) {
+        return Math.floorMod(toKey(authenticatedData).hashCode(), AuthenticatedDataStorageService.NUM_MAP_ACCESS_LOCKS);
+    }
+
+    private record TestData(String text) implements DistributedData {
+        @Override
+        public bisq.common.protobuf.StringLongPair.Builder getBuilder(boolean serializeForHash) {
+            return bisq.common.protobuf.StringLongPair.newBuilder().setKey(text);
+        }
+
+        @Override
+        public void verify() {
+        }
+
+        @Override
+        public MetaData getMetaData() {
+            return META_DATA;
+        }
+
+        @Override
+        public boolean isDataInvalid(byte[] pubKeyHash) {
+            return false;
+        }
+
+        @Override
+        public double getCostFactor() {
+            return 0;
+        }
+    }
+}
@@ -46,6 +46,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -250,11 +251,28 @@ public class TorService implements Service {
     }
 
     public CompletableFuture<ServerSocket> publishOnionServiceAndCreateServerSocket(int port, TorKeyPair torKeyPair) {
+        return publishOnionServiceAndCreateServerSocket(port, torKeyPair, false);
+    }
+
+    /**
+     * @param useChannelBackedServerSocket If true, the server socket is created from a ServerSocketChannel, so that
+     *                                     inbound connections can be served by selector event loops.
+     */
+    public CompletableFuture<ServerSocket> publishOnionServiceAndCreateServerSocket(int port,
+                                                                                    TorKeyPair torKeyPair,
+                                                                                    boolean useChannelBackedServerSocket) {
         long ts = System.currentTimeMillis();
         try {
             InetAddress bindAddress = !LinuxDistribution.isWhonix() ? Inet4Address.getLoopbackAddress()
                     : Inet4Address.getByName("0.0.0.0");
-            var localServerSocket = new ServerSocket(RANDOM_PORT, 50, bindAddress);
+            ServerSocket localServerSocket;
+            if (useChannelBackedServerSocket) {
+                ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+                serverSocketChannel.bind(new InetSocketAddress(bindAddress, RANDOM_PORT), 50);
+                localServerSocket = serverSocketChannel.socket();
+            } else {
+                localServerSocket = new ServerSocket(RANDOM_PORT, 50, bindAddress);
+            }
 
             String onionAddress = torKeyPair.getOnionAddress();
             log.info("Publish onion service for onion address {}:{}", onionAddress, port);
@@ -0,0 +1,149 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import bisq.common.threading.ExecutorFactory;
+import bisq.persistence.backup.MaxBackupSize;
+import bisq.persistence.backup.RestoreService;
+import bisq.persistence.log.LogRecord;
+import bisq.persistence.log.SegmentLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Persistence for map based stores which appends each change as LogRecord to a SegmentLog instead of rewriting the
+ * whole store. The store file written by the base class is used as snapshot. Once the log grows larger than the
+ * snapshot we compact by writing a new snapshot and deleting the segments covered by it.
+ * <p>
+ * At reading, the client applies the records of the log on top of the snapshot. Records are idempotent (PUT/REMOVE of
+ * a key), thus it does not harm if a record is already contained in the snapshot.
+ * <p>
+ * Appending and compaction run on the same single threaded executor, so the order of records is preserved and a
+ * snapshot taken by a compaction contains all records of the segments it deletes. Snapshots written via persistAsync
+ * do not delete any segments, as the snapshot might have been taken before the last records have been appended.
+ */
+@Slf4j
+public class LogStructuredPersistence<T extends PersistableStore<T>> extends Persistence<T> {
+    public static final String LOG_DIR_POSTFIX = "_log";
+    private static final long MIN_LOG_SIZE_FOR_COMPACTION = 1024 * 1024;
+    private static final ExecutorService EXECUTOR = ExecutorFactory.newSingleThreadExecutor("LogStructuredPersistence");
+
+    private final SegmentLog segmentLog;
+    private final AtomicBoolean compactionInProgress = new AtomicBoolean();
+
+    public LogStructuredPersistence(Path directoryPath,
+                                    String fileName,
+                                    MaxBackupSize maxBackupSize,
+                                    RestoreService restoreService) {
+        super(directoryPath, fileName, maxBackupSize, restoreService);
+
+        segmentLog = new SegmentLog(getLogDirPath(getStorePath()));
+    }
+
+    public static Path getLogDirPath(Path storePath) {
+        String storeFileName = storePath.getFileName().toString();
+        String baseName = storeFileName.endsWith(EXTENSION)
+                ? storeFileName.substring(0, storeFileName.length() - EXTENSION.length())
+                : storeFileName;
+        return storePath.resolveSibling(baseName + LOG_DIR_POSTFIX);
+    }
+
+    public List<LogRecord> readLog() {
+        return segmentLog.readAll();
+    }
+
+    public CompletableFuture<Void> appendAsync(LogRecord record) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                segmentLog.append(record);
+            } catch (IOException e) {
+                log.error("Could not append record to log at {}", segmentLog.getDirPath(), e);
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * @return A future which completes once all previously appended records have been written.
+     */
+    public CompletableFuture<Void> flushAsync() {
+        return CompletableFuture.runAsync(() -> {
+        }, EXECUTOR);
+    }
+
+    public boolean isCompactionRequired() {
+        if (compactionInProgress.get()) {
+            return false;
+        }
+        long logSize = segmentLog.getSize();
+        return logSize > MIN_LOG_SIZE_FOR_COMPACTION && logSize > getSnapshotSize();
+    }
+
+    /**
+     * @param snapshotSupplier Supplies the snapshot. It is called on the executor thread after all previously appended
+     *                         records have been written.
+     */
+    public CompletableFuture<Boolean> compactAsync(Supplier<T> snapshotSupplier) {
+        if (!compactionInProgress.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return CompletableFuture.supplyAsync(() -> compact(snapshotSupplier.get()), EXECUTOR)
+                .whenComplete((result, throwable) -> compactionInProgress.set(false));
+    }
+
+    /**
+     * Closes the file channel of the current segment once all previously appended records have been written.
+     * A later append would open a new channel.
+     */
+    public CompletableFuture<Void> shutdown() {
+        return CompletableFuture.runAsync(segmentLog::close, EXECUTOR);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private boolean compact(T snapshot) {
+        // Rolling closes the channel of the current segment, thus all segments covered by the snapshot are closed
+        // before we delete them.
+        long firstSegmentIndexAfterSnapshot = segmentLog.roll();
+        boolean success = persistableStoreReaderWriter.write(snapshot);
+        if (success) {
+            segmentLog.deleteSegmentsBefore(firstSegmentIndexAfterSnapshot);
+        } else {
+            log.warn("Writing snapshot failed. We keep the log segments at {}", segmentLog.getDirPath());
+        }
+        return success;
+    }
+
+    private long getSnapshotSize() {
+        try {
+            return Files.exists(getStorePath()) ? Files.size(getStorePath()) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
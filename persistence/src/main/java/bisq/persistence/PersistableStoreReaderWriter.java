@@ -21,17 +21,17 @@ import bisq.common.file.FileMutatorUtils;
 import bisq.persistence.backup.BackupFileInfo;
 import bisq.persistence.backup.RestoreService;
 import com.google.protobuf.Any;
+import com.google.protobuf.CodedInputStream;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
-import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
 public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
@@ -61,7 +61,10 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
         return readStoreFromFileOrRestoreFromBackup();
     }
 
-    public synchronized void write(T persistableStore) {
+    /**
+     * @return True if the store has been written successfully.
+     */
+    public synchronized boolean write(T persistableStore) {
         storeFileManager.createParentDirectoriesIfNotExisting();
         try {
             writeStoreToTempFilePath(persistableStore);
@@ -70,11 +73,13 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
                 Files.deleteIfExists(storeFilePath);
             }
             storeFileManager.renameTempFileToCurrentFile();
+            return true;
         } catch (CouldNotSerializePersistableStore e) {
             log.error("Couldn't serialize {}", persistableStore, e);
         } catch (Exception e) {
             log.error("Couldn't write persistable store to disk.", e);
         }
+        return false;
     }
 
     public void pruneBackups() {
@@ -115,11 +120,19 @@ public class PersistableStoreReaderWriter<T extends PersistableStore<T>> {
     }
 
     private PersistableStore<?> readStoreFromFile(Path path) throws IOException {
-        try (InputStream fileInputStream = Files.newInputStream(path)) {
-            Any any = Any.parseDelimitedFrom(fileInputStream);
-            checkNotNull(any, "Any.parseDelimitedFrom for " + path + " resulted in a null value.");
-            return PersistableStore.fromAny(any);
-        }
+        // We read the file with a single bulk read and parse from the byte array, which is the fastest parsing mode
+        // of protobuf. Parsing from an InputStream copies the data in small chunks via an internal buffer.
+        // We do not memory-map the file as on Windows a mapped file cannot be replaced until the mapping got
+        // garbage collected, which would break our write path.
+        byte[] bytes = Files.readAllBytes(path);
+        checkArgument(bytes.length > 0, "Store file at " + path + " is empty.");
+        CodedInputStream codedInputStream = CodedInputStream.newInstance(bytes);
+        int length = codedInputStream.readRawVarint32();
+        int oldLimit = codedInputStream.pushLimit(length);
+        Any any = Any.parseFrom(codedInputStream);
+        codedInputStream.checkLastTagWas(0);
+        codedInputStream.popLimit(oldLimit);
+        return PersistableStore.fromAny(any);
     }
 
     private void tryToBackupCorruptedStoreFile(Path pathToBackup) {
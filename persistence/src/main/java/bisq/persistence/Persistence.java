@@ -41,7 +41,7 @@ public class Persistence<T extends PersistableStore<T>> {
     @Getter
     private final String fileName;
 
-    private final PersistableStoreReaderWriter<T> persistableStoreReaderWriter;
+    protected final PersistableStoreReaderWriter<T> persistableStoreReaderWriter;
 
     public Persistence(Path directoryPath, String fileName, MaxBackupSize maxBackupSize, RestoreService restoreService) {
         this.fileName = fileName;
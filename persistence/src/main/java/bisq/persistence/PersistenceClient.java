@@ -44,6 +44,13 @@ public interface PersistenceClient<T extends PersistableStore<T>> {
     default void onPersistedApplied(T persisted) {
     }
 
+    /**
+     * Clients whose readPersisted does not depend on data of other clients can be read concurrently at startup.
+     */
+    default boolean isConcurrentReadSupported() {
+        return false;
+    }
+
     Persistence<T> getPersistence();
 
     PersistableStore<T> getPersistableStore();
@@ -19,6 +19,7 @@ package bisq.persistence;
 
 import bisq.common.proto.PersistableProto;
 import bisq.common.threading.ExecutorFactory;
+import bisq.common.platform.PlatformUtils;
 import bisq.common.util.CompletableFutureUtils;
 import bisq.persistence.backup.BackupFileInfo;
 import bisq.persistence.backup.MaxBackupSize;
@@ -28,17 +29,18 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class PersistenceService {
     private static final ExecutorService EXECUTOR = ExecutorFactory.newSingleThreadExecutor("PersistenceService");
+    private static final int MAX_CONCURRENT_READ_THREADS = 4;
 
     @Getter
     private final Path appDataDirPath;
@@ -100,13 +102,33 @@ public class PersistenceService {
                                                                                  String fileName,
                                                                                  PersistableStore<T> persistableStore,
                                                                                  MaxBackupSize maxBackupSize) {
-        PersistableStoreResolver.addResolver(persistableStore.getResolver());
-        clients.add(client);
-        Path normalizedPath = subDirPath.normalize();
-        if (normalizedPath.isAbsolute()) {
-            throw new IllegalArgumentException("subDir must be relative to appDataDirPath");
-        }
-        Persistence<T> persistence = new Persistence<>(appDataDirPath.resolve(normalizedPath), fileName, maxBackupSize, restoreService);
+        Path directoryPath = registerClient(client, subDirPath, persistableStore);
+        Persistence<T> persistence = new Persistence<>(directoryPath, fileName, maxBackupSize, restoreService);
+        persistenceInstances.add(persistence);
+        return persistence;
+    }
+
+    public <T extends PersistableStore<T>> LogStructuredPersistence<T> getOrCreateLogStructuredPersistence(PersistenceClient<T> client,
+                                                                                                         DbSubDirectory dbSubDirectory,
+                                                                                                         PersistableStore<T> persistableStore) {
+        return getOrCreateLogStructuredPersistence(client,
+                dbSubDirectory.getDbPath(),
+                persistableStore.getClass().getSimpleName(),
+                persistableStore,
+                MaxBackupSize.from(dbSubDirectory));
+    }
+
+    /**
+     * Creates a persistence which appends the changes of a map based store to a log and writes the full store only
+     * as snapshot at compaction (see LogStructuredPersistence).
+     */
+    public <T extends PersistableStore<T>> LogStructuredPersistence<T> getOrCreateLogStructuredPersistence(PersistenceClient<T> client,
+                                                                                                         Path subDirPath,
+                                                                                                         String fileName,
+                                                                                                         PersistableStore<T> persistableStore,
+                                                                                                         MaxBackupSize maxBackupSize) {
+        Path directoryPath = registerClient(client, subDirPath, persistableStore);
+        LogStructuredPersistence<T> persistence = new LogStructuredPersistence<>(directoryPath, fileName, maxBackupSize, restoreService);
         persistenceInstances.add(persistence);
         return persistence;
     }
@@ -135,28 +157,38 @@ public class PersistenceService {
                     .collect(Collectors.toList());
             log.debug("Read persisted data from:\n{}", Joiner.on("\n").join(storagePaths));
         }
-        return CompletableFuture.supplyAsync(() -> {
-            // We read sequentially as we need to ensure that low level data is present before higher level data
-            // potentially access it.
-            long ts = System.currentTimeMillis();
-            AtomicBoolean result = new AtomicBoolean(true);
-            clients.forEach(client -> {
-                String storagePath = client.getPersistence().getStorePath().toAbsolutePath().toString();
-                try {
-                    Optional<? extends PersistableProto> optionalResult = client.readPersisted();
-                    if (optionalResult.isPresent()) {
-                        log.debug("Read persisted data from {}", storagePath);
-                    } else {
-                        log.debug("No persisted data at {} found", storagePath);
-                    }
-                } catch (Exception e) {
-                    log.error("Error at read persisted data from: {}", storagePath, e);
-                    result.set(false);
-                }
-            });
-            log.info("Reading all persisted data took {} ms", System.currentTimeMillis() - ts);
-            return result.get();
-        }, EXECUTOR);
+        long ts = System.currentTimeMillis();
+        List<PersistenceClient<? extends PersistableProto>> concurrentClients = clients.stream()
+                .filter(PersistenceClient::isConcurrentReadSupported)
+                .toList();
+        List<PersistenceClient<? extends PersistableProto>> sequentialClients = clients.stream()
+                .filter(client -> !client.isConcurrentReadSupported())
+                .toList();
+
+        // We read sequentially as we need to ensure that low level data is present before higher level data
+        // potentially access it.
+        CompletableFuture<Boolean> sequentialFuture = CompletableFuture.supplyAsync(() ->
+                        sequentialClients.stream()
+                                .map(this::readPersisted)
+                                .reduce(true, Boolean::logicalAnd),
+                EXECUTOR);
+
+        // Clients which do not depend on other data (e.g. the network data stores) are read concurrently on a
+        // bounded pool.
+        int numThreads = Math.max(1, Math.min(MAX_CONCURRENT_READ_THREADS, PlatformUtils.availableProcessors() - 1));
+        ExecutorService concurrentReadExecutor = ExecutorFactory.newFixedThreadPool("PersistenceService.read", numThreads);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(concurrentClients.stream()
+                .map(client -> CompletableFuture.supplyAsync(() -> readPersisted(client), concurrentReadExecutor))
+                .toList());
+        futures.add(sequentialFuture);
+
+        return CompletableFutureUtils.allOf(futures)
+                .thenApply(results -> results.stream().reduce(true, Boolean::logicalAnd))
+                .whenComplete((result, throwable) -> {
+                    concurrentReadExecutor.shutdown();
+                    log.info("Reading all persisted data took {} ms. {} stores have been read concurrently.",
+                            System.currentTimeMillis() - ts, concurrentClients.size());
+                });
     }
 
     public CompletableFuture<Boolean> persistAllClients() {
@@ -171,4 +203,32 @@ public class PersistenceService {
                                 })))
                 .thenApply(list -> true);
     }
-}
\ No newline at end of file
+
+    private boolean readPersisted(PersistenceClient<? extends PersistableProto> client) {
+        String storagePath = client.getPersistence().getStorePath().toAbsolutePath().toString();
+        try {
+            Optional<? extends PersistableProto> optionalResult = client.readPersisted();
+            if (optionalResult.isPresent()) {
+                log.debug("Read persisted data from {}", storagePath);
+            } else {
+                log.debug("No persisted data at {} found", storagePath);
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("Error at read persisted data from: {}", storagePath, e);
+            return false;
+        }
+    }
+
+    private <T extends PersistableStore<T>> Path registerClient(PersistenceClient<T> client,
+                                                                Path subDirPath,
+                                                                PersistableStore<T> persistableStore) {
+        PersistableStoreResolver.addResolver(persistableStore.getResolver());
+        clients.add(client);
+        Path normalizedPath = subDirPath.normalize();
+        if (normalizedPath.isAbsolute()) {
+            throw new IllegalArgumentException("subDir must be relative to appDataDirPath");
+        }
+        return appDataDirPath.resolve(normalizedPath);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence.log;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A change of a map based store. Updates (e.g. refresh of a data request) are represented by a PUT of the new value.
+ * <p>
+ * Serialized format: [int payloadLength][int crc32 of payload][payload], with the payload being
+ * [byte type][int keyLength][key][value].
+ */
+@Getter
+public final class LogRecord {
+    public enum Type {
+        PUT,
+        REMOVE
+    }
+
+    static final int HEADER_SIZE = 8;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Type type;
+    private final byte[] key;
+    private final byte[] value;
+
+    public static LogRecord put(byte[] key, byte[] value) {
+        return new LogRecord(Type.PUT, key, value);
+    }
+
+    public static LogRecord remove(byte[] key) {
+        return new LogRecord(Type.REMOVE, key, EMPTY);
+    }
+
+    private LogRecord(Type type, byte[] key, byte[] value) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+
+    ByteBuffer serialize() {
+        int payloadLength = 1 + 4 + key.length + value.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadLength);
+        buffer.putInt(payloadLength);
+        buffer.putInt(0); // Placeholder for crc
+        buffer.put((byte) type.ordinal());
+        buffer.putInt(key.length);
+        buffer.put(key);
+        buffer.put(value);
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.array(), HEADER_SIZE, payloadLength);
+        buffer.putInt(4, (int) crc32.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    static LogRecord deserialize(byte[] payload, int crc) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        checkArgument((int) crc32.getValue() == crc, "Invalid checksum");
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int typeOrdinal = buffer.get();
+        checkArgument(typeOrdinal >= 0 && typeOrdinal < Type.values().length, "Invalid type " + typeOrdinal);
+        int keyLength = buffer.getInt();
+        checkArgument(keyLength >= 0 && keyLength <= buffer.remaining(), "Invalid key length " + keyLength);
+        byte[] key = new byte[keyLength];
+        buffer.get(key);
+        byte[] value = new byte[buffer.remaining()];
+        buffer.get(value);
+        return new LogRecord(Type.values()[typeOrdinal], key, value);
+    }
+}
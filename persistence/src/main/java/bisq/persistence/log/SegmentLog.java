@@ -0,0 +1,200 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence.log;
+
+import bisq.common.file.FileMutatorUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of LogRecords, split into segment files inside a directory.
+ * <p>
+ * We never append to a segment which existed at startup, as its tail might be incomplete after a crash. Records are
+ * protected by a checksum. At reading, an incomplete or corrupted record ends the reading of that segment.
+ * <p>
+ * The caller is responsible to append records in the order of the changes.
+ */
+@Slf4j
+public class SegmentLog {
+    private static final String SEGMENT_FILE_PREFIX = "segment_";
+    // Protects against allocating large arrays in case of a corrupted length field
+    private static final int MAX_RECORD_SIZE = 20 * 1024 * 1024;
+
+    @Getter
+    private final Path dirPath;
+    // Accumulated size of all segments in bytes
+    @Getter
+    private long size;
+    private long currentSegmentIndex;
+    private Optional<FileChannel> currentSegmentChannel = Optional.empty();
+
+    public SegmentLog(Path dirPath) {
+        this.dirPath = dirPath;
+        List<Path> segmentPaths = getSegmentPaths();
+        currentSegmentIndex = segmentPaths.isEmpty() ? 0 : toSegmentIndex(segmentPaths.get(segmentPaths.size() - 1)) + 1;
+        size = segmentPaths.stream().mapToLong(SegmentLog::getFileSize).sum();
+    }
+
+    public synchronized List<LogRecord> readAll() {
+        List<LogRecord> records = new ArrayList<>();
+        getSegmentPaths().forEach(path -> readSegment(path, records));
+        return records;
+    }
+
+    public synchronized void append(LogRecord record) throws IOException {
+        FileChannel channel = getOrCreateCurrentSegmentChannel();
+        ByteBuffer buffer = record.serialize();
+        int numBytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        size += numBytes;
+    }
+
+    /**
+     * Closes the current segment. Following records are written to a new segment.
+     *
+     * @return The index of the new segment.
+     */
+    public synchronized long roll() {
+        closeCurrentSegment();
+        currentSegmentIndex++;
+        return currentSegmentIndex;
+    }
+
+    public synchronized void deleteSegmentsBefore(long segmentIndex) {
+        getSegmentPaths().stream()
+                .filter(path -> toSegmentIndex(path) < segmentIndex)
+                .forEach(path -> {
+                    long fileSize = getFileSize(path);
+                    try {
+                        Files.deleteIfExists(path);
+                        size -= fileSize;
+                    } catch (IOException e) {
+                        log.error("Could not delete segment {}", path, e);
+                    }
+                });
+    }
+
+    public synchronized void close() {
+        closeCurrentSegment();
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private FileChannel getOrCreateCurrentSegmentChannel() throws IOException {
+        if (currentSegmentChannel.isEmpty()) {
+            if (!Files.exists(dirPath)) {
+                FileMutatorUtils.createDirectories(dirPath);
+            }
+            Path path = dirPath.resolve(SEGMENT_FILE_PREFIX + String.format("%010d", currentSegmentIndex));
+            currentSegmentChannel = Optional.of(FileChannel.open(path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND));
+        }
+        return currentSegmentChannel.get();
+    }
+
+    private void closeCurrentSegment() {
+        currentSegmentChannel.ifPresent(channel -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.error("Could not close segment channel", e);
+            }
+        });
+        currentSegmentChannel = Optional.empty();
+    }
+
+    private void readSegment(Path path, List<LogRecord> records) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            while (buffer.hasRemaining()) {
+                if (buffer.remaining() < LogRecord.HEADER_SIZE) {
+                    log.warn("Segment {} ends with an incomplete record header. We ignore the remaining {} bytes.",
+                            path, buffer.remaining());
+                    return;
+                }
+                int payloadLength = buffer.getInt();
+                int crc = buffer.getInt();
+                if (payloadLength < 0 || payloadLength > MAX_RECORD_SIZE || payloadLength > buffer.remaining()) {
+                    log.warn("Segment {} contains an incomplete or corrupted record. We ignore the remaining {} bytes.",
+                            path, buffer.remaining());
+                    return;
+                }
+                byte[] payload = new byte[payloadLength];
+                buffer.get(payload);
+                try {
+                    records.add(LogRecord.deserialize(payload, crc));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Segment {} contains a corrupted record. We ignore the remaining {} bytes. Error: {}",
+                            path, buffer.remaining(), e.getMessage());
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not read segment {}", path, e);
+        }
+    }
+
+    private List<Path> getSegmentPaths() {
+        if (!Files.exists(dirPath)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(dirPath)) {
+            return stream.filter(path -> path.getFileName().toString().startsWith(SEGMENT_FILE_PREFIX))
+                    .filter(path -> toSegmentIndex(path) >= 0)
+                    .sorted((o1, o2) -> Long.compare(toSegmentIndex(o1), toSegmentIndex(o2)))
+                    .toList();
+        } catch (IOException e) {
+            log.error("Could not list segments at {}", dirPath, e);
+            return List.of();
+        }
+    }
+
+    private static long toSegmentIndex(Path path) {
+        try {
+            return Long.parseLong(path.getFileName().toString().substring(SEGMENT_FILE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long getFileSize(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import bisq.persistence.backup.MaxBackupSize;
+import bisq.persistence.backup.RestoreService;
+import bisq.persistence.log.LogRecord;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogStructuredPersistenceTests {
+    @BeforeAll
+    static void addResolver() {
+        PersistableStoreResolver.addResolver(new TimestampStore().getResolver());
+    }
+
+    @Test
+    void replaySnapshotAndLog(@TempDir Path tempDirPath) {
+        LogStructuredPersistence<TimestampStore> persistence = createPersistence(tempDirPath);
+        TimestampStore store = new TimestampStore();
+        store.getTimestampsByProfileId().put("A", 1L);
+        store.getTimestampsByProfileId().put("B", 2L);
+        persistence.persistAsync(store.getClone()).join();
+
+        persistence.appendAsync(toPutRecord("C", 3L));
+        persistence.appendAsync(toPutRecord("A", 10L));
+        persistence.appendAsync(LogRecord.remove(toKey("B")));
+        persistence.shutdown().join();
+
+        TimestampStore replayed = readAndReplay(createPersistence(tempDirPath));
+        assertThat(replayed.getTimestampsByProfileId()).containsExactlyInAnyOrderEntriesOf(Map.of("A", 10L, "C", 3L));
+    }
+
+    @Test
+    void truncatedTailRecordIsIgnoredAtReplay(@TempDir Path tempDirPath) throws IOException {
+        LogStructuredPersistence<TimestampStore> persistence = createPersistence(tempDirPath);
+        TimestampStore store = new TimestampStore();
+        store.getTimestampsByProfileId().put("A", 1L);
+        persistence.persistAsync(store.getClone()).join();
+        persistence.appendAsync(toPutRecord("B", 2L));
+        persistence.shutdown().join();
+
+        // Simulate a crash while writing the last record: The header announces 20 bytes but only 2 have been written
+        Path logDirPath = LogStructuredPersistence.getLogDirPath(persistence.getStorePath());
+        Files.write(getSegmentPaths(logDirPath).get(0), new byte[]{0, 0, 0, 20, 0, 0, 0, 0, 1, 2}, StandardOpenOption.APPEND);
+
+        // After restart, records are appended to a new segment
+        persistence = createPersistence(tempDirPath);
+        persistence.appendAsync(toPutRecord("D", 4L));
+        persistence.shutdown().join();
+
+        TimestampStore replayed = readAndReplay(createPersistence(tempDirPath));
+        assertThat(replayed.getTimestampsByProfileId()).containsExactlyInAnyOrderEntriesOf(Map.of("A", 1L, "B", 2L, "D", 4L));
+        assertThat(getSegmentPaths(logDirPath)).hasSize(2);
+    }
+
+    @Test
+    void compactionWritesSnapshotAndDeletesCoveredSegments(@TempDir Path tempDirPath) throws IOException {
+        LogStructuredPersistence<TimestampStore> persistence = createPersistence(tempDirPath);
+        TimestampStore store = new TimestampStore();
+        for (int i = 0; i < 100; i++) {
+            String key = "key" + i;
+            store.getTimestampsByProfileId().put(key, (long) i);
+            persistence.appendAsync(toPutRecord(key, i));
+        }
+        // The log is below the minimum size for compaction
+        persistence.flushAsync().join();
+        assertThat(persistence.isCompactionRequired()).isFalse();
+
+        assertThat(persistence.compactAsync(store::getClone).join()).isTrue();
+        assertThat(persistence.readLog()).isEmpty();
+        Path logDirPath = LogStructuredPersistence.getLogDirPath(persistence.getStorePath());
+        assertThat(getSegmentPaths(logDirPath)).isEmpty();
+
+        // Records appended after the compaction are kept
+        store.getTimestampsByProfileId().remove("key0");
+        persistence.appendAsync(LogRecord.remove(toKey("key0")));
+        persistence.shutdown().join();
+        assertThat(getSegmentPaths(logDirPath)).hasSize(1);
+
+        TimestampStore replayed = readAndReplay(createPersistence(tempDirPath));
+        assertThat(replayed.getTimestampsByProfileId()).hasSize(99)
+                .containsExactlyInAnyOrderEntriesOf(store.getTimestampsByProfileId());
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private static LogStructuredPersistence<TimestampStore> createPersistence(Path tempDirPath) {
+        return new LogStructuredPersistence<>(tempDirPath, "TimestampStore", MaxBackupSize.ZERO, new RestoreService());
+    }
+
+    private static TimestampStore readAndReplay(LogStructuredPersistence<TimestampStore> persistence) {
+        TimestampStore store = persistence.read().orElseGet(TimestampStore::new);
+        Map<String, Long> map = store.getTimestampsByProfileId();
+        for (LogRecord record : persistence.readLog()) {
+            String key = new String(record.getKey(), StandardCharsets.UTF_8);
+            if (record.getType() == LogRecord.Type.PUT) {
+                map.put(key, ByteBuffer.wrap(record.getValue()).getLong());
+            } else {
+                map.remove(key);
+            }
+        }
+        return store;
+    }
+
+    private static LogRecord toPutRecord(String key, long value) {
+        return LogRecord.put(toKey(key), ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+    }
+
+    private static byte[] toKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> getSegmentPaths(Path logDirPath) throws IOException {
+        if (!Files.exists(logDirPath)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(logDirPath)) {
+            return stream.sorted().toList();
+        }
+    }
+}
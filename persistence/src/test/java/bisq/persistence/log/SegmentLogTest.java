@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence.log;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentLogTest {
+    @Test
+    void appendAndReadAll(@TempDir Path tempDirPath) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDirPath.resolve("log"));
+        segmentLog.append(LogRecord.put(new byte[]{1}, new byte[]{10, 11}));
+        segmentLog.append(LogRecord.remove(new byte[]{2}));
+        segmentLog.close();
+
+        List<LogRecord> records = new SegmentLog(tempDirPath.resolve("log")).readAll();
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getType()).isEqualTo(LogRecord.Type.PUT);
+        assertThat(records.get(0).getKey()).containsExactly(1);
+        assertThat(records.get(0).getValue()).containsExactly(10, 11);
+        assertThat(records.get(1).getType()).isEqualTo(LogRecord.Type.REMOVE);
+        assertThat(records.get(1).getKey()).containsExactly(2);
+    }
+
+    @Test
+    void deleteSegmentsBeforeRoll(@TempDir Path tempDirPath) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDirPath);
+        segmentLog.append(LogRecord.put(new byte[]{1}, new byte[]{1}));
+        long segmentIndex = segmentLog.roll();
+        segmentLog.append(LogRecord.put(new byte[]{2}, new byte[]{2}));
+        segmentLog.deleteSegmentsBefore(segmentIndex);
+
+        List<LogRecord> records = segmentLog.readAll();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getKey()).containsExactly(2);
+        assertThat(segmentLog.getSize()).isEqualTo(Files.size(getSegmentPaths(tempDirPath).get(0)));
+    }
+
+    @Test
+    void incompleteRecordIsIgnored(@TempDir Path tempDirPath) throws IOException {
+        SegmentLog segmentLog = new SegmentLog(tempDirPath);
+        segmentLog.append(LogRecord.put(new byte[]{1}, new byte[]{1}));
+        segmentLog.close();
+        // Simulate a crash while writing a record
+        Files.write(getSegmentPaths(tempDirPath).get(0), new byte[]{0, 0, 0, 20, 1, 2}, StandardOpenOption.APPEND);
+
+        // After a restart we append to a new segment
+        segmentLog = new SegmentLog(tempDirPath);
+        segmentLog.append(LogRecord.remove(new byte[]{1}));
+
+        List<LogRecord> records = segmentLog.readAll();
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getType()).isEqualTo(LogRecord.Type.PUT);
+        assertThat(records.get(1).getType()).isEqualTo(LogRecord.Type.REMOVE);
+        assertThat(getSegmentPaths(tempDirPath)).hasSize(2);
+    }
+
+    private static List<Path> getSegmentPaths(Path dirPath) throws IOException {
+        try (Stream<Path> stream = Files.list(dirPath)) {
+            return stream.sorted().toList();
+        }
+    }
+}
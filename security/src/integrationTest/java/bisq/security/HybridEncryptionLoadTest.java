@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.security.keys.KeyGeneration;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the CPU time per confidential message with and without the cached shared secrets and public keys.
+ * Uses message sizes of trade chat messages and of trade protocol messages.
+ */
+@Slf4j
+public class HybridEncryptionLoadTest {
+    private static final int NUM_MESSAGES = 500;
+    private static final int CHAT_MESSAGE_SIZE = 300;
+    private static final int PROTOCOL_MESSAGE_SIZE = 5000;
+
+    private final KeyPair senderKeyPair = KeyGeneration.generateDefaultEcKeyPair();
+    private final KeyPair receiverKeyPair = KeyGeneration.generateDefaultEcKeyPair();
+    private final Random random = new Random(42);
+
+    @Test
+    void chatMessages() throws GeneralSecurityException {
+        runLoad("Chat messages", CHAT_MESSAGE_SIZE);
+    }
+
+    @Test
+    void protocolMessages() throws GeneralSecurityException {
+        runLoad("Protocol messages", PROTOCOL_MESSAGE_SIZE);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void runLoad(String type, int messageSize) throws GeneralSecurityException {
+        byte[] message = new byte[messageSize];
+        random.nextBytes(message);
+
+        // Warm up the JIT
+        encryptAndDecrypt(message, true);
+        encryptAndDecrypt(message, false);
+
+        long uncachedNanos = encryptAndDecrypt(message, true);
+        long cachedNanos = encryptAndDecrypt(message, false);
+        log.info("{} with {} bytes: {} µs per message without cache, {} µs per message with cache",
+                type, messageSize, uncachedNanos / NUM_MESSAGES / 1000, cachedNanos / NUM_MESSAGES / 1000);
+    }
+
+    private long encryptAndDecrypt(byte[] message, boolean clearCache) throws GeneralSecurityException {
+        HybridEncryption.clearCache();
+        long ts = System.nanoTime();
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            if (clearCache) {
+                HybridEncryption.clearCache();
+            }
+            ConfidentialData confidentialData = HybridEncryption.encryptAndSign(message, receiverKeyPair.getPublic(), senderKeyPair);
+            if (clearCache) {
+                HybridEncryption.clearCache();
+            }
+            byte[] decrypted = HybridEncryption.decryptAndVerify(confidentialData, receiverKeyPair);
+            assertThat(decrypted).isEqualTo(message);
+        }
+        return System.nanoTime() - ts;
+    }
+}
@@ -17,7 +17,6 @@
 
 package bisq.security;
 
-import bisq.security.keys.KeyGeneration;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.SecretKey;
@@ -36,11 +35,12 @@ import static com.google.common.base.Preconditions.checkArgument;
  */
 @Slf4j
 public class HybridEncryption {
+    private static final SharedSecretCache SHARED_SECRET_CACHE = new SharedSecretCache();
 
     public static ConfidentialData encryptAndSign(byte[] message, PublicKey receiverPublicKey, KeyPair senderKeyPair)
             throws GeneralSecurityException {
         // Create shared secret with our private key and receivers public key
-        SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(senderKeyPair.getPrivate(), receiverPublicKey);
+        SecretKey sharedAesSecretKey = SHARED_SECRET_CACHE.getSharedAesSecretKey(senderKeyPair, receiverPublicKey);
 
         byte[] iv = AesGcm.generateIv().getIV();
         byte[] cipherText = AesGcm.encrypt(sharedAesSecretKey, iv, message);
@@ -56,11 +56,15 @@ public class HybridEncryption {
         byte[] cipherText = confidentialData.getCipherText();
         byte[] signature = confidentialData.getSignature();
 
-        PublicKey senderPublicKey = KeyGeneration.generatePublic(encodedSenderPublicKey);
+        PublicKey senderPublicKey = SHARED_SECRET_CACHE.getPublicKey(encodedSenderPublicKey);
         checkArgument(SignatureUtil.verify(cipherText, signature, senderPublicKey), "Invalid signature");
 
         // Create shared secret with our private key and senders public key
-        SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(receiversKeyPair.getPrivate(), senderPublicKey);
+        SecretKey sharedAesSecretKey = SHARED_SECRET_CACHE.getSharedAesSecretKey(receiversKeyPair, senderPublicKey);
         return AesGcm.decrypt(sharedAesSecretKey, iv, cipherText);
     }
+
+    static void clearCache() {
+        SHARED_SECRET_CACHE.invalidateAll();
+    }
 }
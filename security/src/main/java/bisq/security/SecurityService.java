@@ -74,4 +74,11 @@ public class SecurityService implements Service {
         log.info("initialize");
         return keyBundleService.initialize();
     }
+
+    @Override
+    public CompletableFuture<Boolean> shutdown() {
+        log.info("shutdown");
+        hashCashProofOfWorkService.shutdown();
+        return CompletableFuture.completedFuture(true);
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.common.data.ByteArray;
+import bisq.security.keys.KeyGeneration;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.primitives.Bytes;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the ECDH shared secrets and the decoded public keys of the peers we exchange confidential messages with.
+ * Trade peers exchange many messages, and without the cache each message requires the key agreement and the decoding
+ * of the sender's public key.
+ * <p>
+ * The shared secret is keyed by the hash of our public key and the peer's public key. The entries expire if not used
+ * for EXPIRE_AFTER_ACCESS_MINUTES.
+ */
+final class SharedSecretCache {
+    private static final int MAX_SIZE = 1000;
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 30;
+
+    private final Cache<ByteArray, SecretKey> sharedSecretByKeyPairHash = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .build();
+    private final Cache<ByteArray, PublicKey> publicKeyByEncoded = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    SecretKey getSharedAesSecretKey(KeyPair myKeyPair, PublicKey peersPublicKey) throws GeneralSecurityException {
+        // The X.509 encoding is self-delimiting, thus the concatenation is unique
+        byte[] keyPairBytes = Bytes.concat(myKeyPair.getPublic().getEncoded(), peersPublicKey.getEncoded());
+        ByteArray cacheKey = new ByteArray(DigestUtil.hash(keyPairBytes));
+        try {
+            return sharedSecretByKeyPairHash.get(cacheKey,
+                    () -> AesGcm.generateSharedAesSecretKey(myKeyPair.getPrivate(), peersPublicKey));
+        } catch (ExecutionException e) {
+            throw toGeneralSecurityException(e);
+        }
+    }
+
+    PublicKey getPublicKey(byte[] encodedPublicKey) throws GeneralSecurityException {
+        try {
+            return publicKeyByEncoded.get(new ByteArray(encodedPublicKey),
+                    () -> KeyGeneration.generatePublic(encodedPublicKey));
+        } catch (ExecutionException e) {
+            throw toGeneralSecurityException(e);
+        }
+    }
+
+    void invalidateAll() {
+        sharedSecretByKeyPairHash.invalidateAll();
+        publicKeyByEncoded.invalidateAll();
+    }
+
+    private static GeneralSecurityException toGeneralSecurityException(ExecutionException e) {
+        if (e.getCause() instanceof GeneralSecurityException generalSecurityException) {
+            return generalSecurityException;
+        }
+        return new GeneralSecurityException(e.getCause());
+    }
+}
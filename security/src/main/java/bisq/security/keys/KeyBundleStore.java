@@ -99,10 +99,9 @@ public final class KeyBundleStore implements PersistableStore<KeyBundleStore> {
         keyBundleById.putAll(persisted.keyBundleById);
     }
 
+    // Called for each received confidential message. The lookup at the ConcurrentHashMap does not require the lock.
     Optional<KeyBundle> findKeyBundle(String keyId) {
-        synchronized (keyBundleById) {
-            return Optional.ofNullable(keyBundleById.get(keyId));
-        }
+        return Optional.ofNullable(keyBundleById.get(keyId));
     }
 
     boolean hadEmptyI2PKeyPair() {
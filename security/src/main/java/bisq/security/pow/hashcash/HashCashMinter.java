@@ -0,0 +1,139 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security.pow.hashcash;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Searches the counter for a HashCash proof of work.
+ * <p>
+ * The counter space is split into chunks which are taken in ascending order by the workers of a ForkJoinPool.
+ * Each worker restores the digest state of the pre-hashed prefix (payload and challenge) for each attempt, so no
+ * allocation happens per attempt. We always return the lowest valid counter, thus the result is the same as with a
+ * sequential search.
+ */
+@Slf4j
+final class HashCashMinter {
+    private static final int CHUNK_SIZE = 1 << 12;
+    // Below that difficulty the expected work is less than the overhead of parallelization
+    private static final int MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINTING = 12;
+
+    private final SHA256Digest prefixDigest = new SHA256Digest();
+    private final int log2Difficulty;
+    private final BooleanSupplier isCancelled;
+    private final HashCashProofOfWorkService.ProgressListener progressListener;
+    private final long expectedNumHashes;
+    private final AtomicLong nextChunk = new AtomicLong();
+    private final AtomicLong lowestCounter = new AtomicLong(Long.MAX_VALUE);
+    private final LongAdder numHashes = new LongAdder();
+
+    HashCashMinter(byte[] payload,
+                   byte[] challenge,
+                   int log2Difficulty,
+                   BooleanSupplier isCancelled,
+                   HashCashProofOfWorkService.ProgressListener progressListener) {
+        this.log2Difficulty = log2Difficulty;
+        this.isCancelled = isCancelled;
+        this.progressListener = progressListener;
+        // Probability for a hash with more than log2Difficulty leading zeros is 2^-(log2Difficulty+1)
+        expectedNumHashes = (long) Math.min(Long.MAX_VALUE, Math.scalb(1.0, log2Difficulty + 1));
+
+        if (payload != null) {
+            prefixDigest.update(payload, 0, payload.length);
+        }
+        if (challenge != null) {
+            prefixDigest.update(challenge, 0, challenge.length);
+        }
+    }
+
+    /**
+     * @return The lowest counter for which the hash has more than log2Difficulty leading zeros.
+     * @throws CancellationException If minting got cancelled.
+     */
+    long mint(ForkJoinPool pool) {
+        if (log2Difficulty < MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINTING || pool.getParallelism() == 1) {
+            search();
+        } else {
+            List<ForkJoinTask<?>> tasks = IntStream.range(0, pool.getParallelism())
+                    .<ForkJoinTask<?>>mapToObj(i -> pool.submit(this::search))
+                    .toList();
+            tasks.forEach(ForkJoinTask::join);
+        }
+        if (lowestCounter.get() == Long.MAX_VALUE) {
+            throw new CancellationException("Minting got cancelled");
+        }
+        return lowestCounter.get();
+    }
+
+    private void search() {
+        SHA256Digest digest = new SHA256Digest(prefixDigest);
+        byte[] counterBytes = new byte[8];
+        byte[] hash = new byte[digest.getDigestSize()];
+        while (!isCancelled.getAsBoolean()) {
+            long chunk = nextChunk.getAndIncrement();
+            // The sequential search starts with counter 1
+            long start = chunk * CHUNK_SIZE + 1;
+            if (start > lowestCounter.get()) {
+                // All following chunks are above the counter we have found already
+                return;
+            }
+            long end = start + CHUNK_SIZE;
+            for (long counter = start; counter < end; counter++) {
+                digest.reset(prefixDigest);
+                writeLong(counter, counterBytes);
+                digest.update(counterBytes, 0, counterBytes.length);
+                digest.doFinal(hash, 0);
+                if (HashCashProofOfWorkService.numberOfLeadingZeros(hash) > log2Difficulty) {
+                    lowestCounter.accumulateAndGet(counter, Math::min);
+                    onHashesComputed(counter - start + 1);
+                    return;
+                }
+            }
+            onHashesComputed(CHUNK_SIZE);
+        }
+    }
+
+    private void onHashesComputed(long value) {
+        numHashes.add(value);
+        if (progressListener != null) {
+            try {
+                progressListener.onProgress(numHashes.sum(), expectedNumHashes);
+            } catch (Exception e) {
+                log.error("Calling onProgress at progressListener {} failed", progressListener, e);
+            }
+        }
+    }
+
+    // Same as Longs.toByteArray but without allocation
+    private static void writeLong(long value, byte[] bytes) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) (value & 0xFF);
+            value >>= 8;
+        }
+    }
+}
@@ -25,6 +25,16 @@ import com.google.common.primitives.Longs;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 /**
  * HashCash implementation for proof of work
@@ -34,21 +44,100 @@ import java.nio.charset.StandardCharsets;
  */
 @Slf4j
 public class HashCashProofOfWorkService extends ProofOfWorkService {
+    public interface ProgressListener {
+        /**
+         * Called from the minting threads.
+         *
+         * @param numHashes         Number of hashes computed so far
+         * @param expectedNumHashes Expected number of hashes for the given difficulty
+         */
+        void onProgress(long numHashes, long expectedNumHashes);
+    }
+
+    private static final String MINT_POOL_NAME = "HashCashProofOfWorkService.mint";
+
+    // Minting uses all cores, thus we do not run it on the common ForkJoinPool where it would delay other tasks.
+    // The pool does not add compensation threads beyond twice its parallelism.
+    private final ForkJoinPool mintPool;
+    private final Set<CompletableFuture<ProofOfWork>> pendingFutures = new CopyOnWriteArraySet<>();
+
     public HashCashProofOfWorkService() {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        mintPool = new ForkJoinPool(parallelism,
+                createThreadFactory(),
+                null,
+                false,
+                0,
+                2 * parallelism,
+                1,
+                pool -> true,
+                30,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops all minting. Pending futures get cancelled and further mint requests fail.
+     */
+    public void shutdown() {
+        mintPool.shutdownNow();
+        pendingFutures.forEach(future -> future.cancel(true));
+        pendingFutures.clear();
     }
 
     @Override
     public ProofOfWork mint(byte[] payload,
                             byte[] challenge,
                             double difficulty) {
+        return mint(payload, challenge, difficulty, mintPool::isShutdown, null);
+    }
+
+    @Override
+    public CompletableFuture<ProofOfWork> mintAsync(byte[] payload,
+                                                    byte[] challenge,
+                                                    double difficulty) {
+        return mintAsync(payload, challenge, difficulty, null);
+    }
+
+    /**
+     * Mints on the mint pool of that service. Cancelling the returned future stops minting.
+     *
+     * @param progressListener Optional listener. Can be null.
+     */
+    public CompletableFuture<ProofOfWork> mintAsync(byte[] payload,
+                                                    byte[] challenge,
+                                                    double difficulty,
+                                                    ProgressListener progressListener) {
+        CompletableFuture<ProofOfWork> future = new CompletableFuture<>();
+        pendingFutures.add(future);
+        future.whenComplete((result, throwable) -> pendingFutures.remove(future));
+        try {
+            mintPool.execute(() -> {
+                try {
+                    future.complete(mint(payload, challenge, difficulty,
+                            () -> future.isDone() || mintPool.isShutdown(),
+                            progressListener));
+                } catch (CancellationException e) {
+                    // Either the future got cancelled by the caller or we got shut down
+                    future.cancel(true);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private ProofOfWork mint(byte[] payload,
+                             byte[] challenge,
+                             double difficulty,
+                             BooleanSupplier isCancelled,
+                             ProgressListener progressListener) {
         long ts = System.currentTimeMillis();
         int log2Difficulty = toNumLeadingZeros(difficulty);
-        byte[] hash;
-        long counter = 0;
-        do {
-            hash = toSha256Hash(payload, challenge, ++counter);
-        }
-        while (numberOfLeadingZeros(hash) <= log2Difficulty);
+        HashCashMinter minter = new HashCashMinter(payload, challenge, log2Difficulty, isCancelled, progressListener);
+        long counter = minter.mint(mintPool);
         byte[] solution = Longs.toByteArray(counter);
         return new ProofOfWork(payload, counter, challenge, difficulty, solution, System.currentTimeMillis() - ts);
     }
@@ -71,6 +160,15 @@ public class HashCashProofOfWorkService extends ProofOfWorkService {
     // Utils
     /* --------------------------------------------------------------------- */
 
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory createThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(MINT_POOL_NAME + "-" + counter.getAndIncrement());
+            return thread;
+        };
+    }
+
     private static byte[] getBytes(String value) {
         return value.getBytes(StandardCharsets.UTF_8);
     }
@@ -87,10 +185,6 @@ public class HashCashProofOfWorkService extends ProofOfWorkService {
         return numberOfLeadingZeros;
     }
 
-    private static byte[] toSha256Hash(byte[] payload, byte[] challenge, long counter) {
-        return toSha256Hash(payload, challenge, Longs.toByteArray(counter));
-    }
-
     private static byte[] toSha256Hash(byte[] payload, byte[] challenge, byte[] solution) {
         byte[] preImage = org.bouncycastle.util.Arrays.concatenate(payload,
                 challenge,
@@ -19,6 +19,7 @@ package bisq.security.pow.hashcash;
 
 import bisq.security.DigestUtil;
 import bisq.security.pow.ProofOfWork;
+import com.google.common.primitives.Longs;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -28,6 +29,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static bisq.security.pow.hashcash.HashCashProofOfWorkService.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -79,6 +83,60 @@ class HashCashProofOfWorkServiceTest {
 //        Minting 1000 tokens with > 8 leading zeros  took 0.318 ms per token and 526 iterations in average. Verification took 0.001 ms per token.
     }
 
+    @Test
+    public void testParallelMintingFindsLowestCounter() throws Exception {
+        byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+        byte[] challenge = DigestUtil.sha256(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        double difficulty = Math.scalb(1.0, 14);
+        int log2Difficulty = toNumLeadingZeros(difficulty);
+
+        long expectedCounter = 0;
+        byte[] hash;
+        do {
+            expectedCounter++;
+            hash = DigestUtil.sha256(org.bouncycastle.util.Arrays.concatenate(payload, challenge, Longs.toByteArray(expectedCounter)));
+        }
+        while (numberOfLeadingZeros(hash) <= log2Difficulty);
+
+        HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        AtomicLong numHashes = new AtomicLong();
+        ProofOfWork proofOfWork = service.mintAsync(payload, challenge, difficulty, (value, expected) -> numHashes.set(value)).get();
+        assertEquals(expectedCounter, proofOfWork.getCounter());
+        assertTrue(service.verify(proofOfWork));
+        assertTrue(numHashes.get() > 0);
+    }
+
+    @Test
+    public void testCancelMinting() {
+        byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+        CompletableFuture<ProofOfWork> future = new HashCashProofOfWorkService().mintAsync(payload, null, Math.scalb(1.0, 60), null);
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testMintingRunsOnMintPool() throws Exception {
+        byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+        HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        List<String> threadNames = new CopyOnWriteArrayList<>();
+        service.mintAsync(payload, null, Math.scalb(1.0, 14), (value, expected) -> threadNames.add(Thread.currentThread().getName())).get();
+        assertFalse(threadNames.isEmpty());
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("HashCashProofOfWorkService.mint")));
+        service.shutdown();
+    }
+
+    @Test
+    public void testShutdownCancelsMinting() {
+        byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+        HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        CompletableFuture<ProofOfWork> future = service.mintAsync(payload, null, Math.scalb(1.0, 60), null);
+        service.shutdown();
+        assertTrue(future.isCancelled());
+
+        CompletableFuture<ProofOfWork> rejected = service.mintAsync(payload, null, 1, null);
+        assertTrue(rejected.isCompletedExceptionally());
+    }
+
     private void run(int log2Difficulty, StringBuilder stringBuilder) {
         double difficulty = Math.scalb(1.0, log2Difficulty);
         int numTokens = 1000;
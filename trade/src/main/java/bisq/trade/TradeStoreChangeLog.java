@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.trade;
+
+import bisq.common.data.ByteArray;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.PersistableStore;
+import bisq.persistence.log.LogRecord;
+import bisq.security.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Writes the changes of a trade store as records keyed by the entry (e.g. a trade) to the log of a
+ * LogStructuredPersistence. Thus, a state transition of a trade writes only that trade instead of the whole store.
+ * <p>
+ * The services mark the keys of added, closed and removed entries as changed. Only those entries are serialized and
+ * written at the next writeChanges call, so the costs do not depend on the number of closed trades. The store file is
+ * only written as compacted snapshot once the log requires compaction.
+ * <p>
+ * We keep the hash of the last written value of each entry to not write an unchanged trade again at repeated
+ * persist calls of the trade protocol. Values are serialized inside the synchronized methods, so that the order of
+ * the records matches the order of the changes.
+ */
+@Slf4j
+public class TradeStoreChangeLog<T extends PersistableStore<T>> {
+    private final LogStructuredPersistence<T> persistence;
+    private final Set<String> persistedKeys = new HashSet<>();
+    private final Set<String> changedKeys = new HashSet<>();
+    private final Map<String, ByteArray> writtenHashByKey = new HashMap<>();
+
+    public TradeStoreChangeLog(LogStructuredPersistence<T> persistence) {
+        this.persistence = persistence;
+    }
+
+    public List<LogRecord> readLog() {
+        return persistence.readLog();
+    }
+
+    /**
+     * Sets the keys of the entries read from disk. Those are not serialized, as they get only written again once
+     * they are marked as changed.
+     */
+    public synchronized void applyPersisted(Collection<String> keys) {
+        persistedKeys.clear();
+        persistedKeys.addAll(keys);
+        changedKeys.clear();
+        writtenHashByKey.clear();
+    }
+
+    public synchronized void markChanged(Collection<String> keys) {
+        changedKeys.addAll(keys);
+    }
+
+    /**
+     * Appends the value if it has changed since the last write.
+     *
+     * @param valueSupplier Supplies the serialized value, or null if the entry does not exist anymore. In that case
+     *                      nothing is written, the removal is written by writeChanges.
+     */
+    public synchronized void put(String key, Supplier<byte[]> valueSupplier) {
+        byte[] value = serialize(key, valueSupplier);
+        if (value != null) {
+            append(key, value);
+        }
+    }
+
+    /**
+     * Appends the entries marked as changed, or their removal if the valueProvider returns null for the key.
+     */
+    public synchronized void writeChanges(Function<String, byte[]> valueProvider) {
+        changedKeys.forEach(key -> {
+            byte[] value;
+            try {
+                value = valueProvider.apply(key);
+            } catch (Exception e) {
+                // We must not write a removal if serialization failed
+                log.error("Could not serialize value for key {}", key, e);
+                return;
+            }
+            if (value != null) {
+                append(key, value);
+            } else if (persistedKeys.remove(key)) {
+                writtenHashByKey.remove(key);
+                persistence.appendAsync(LogRecord.remove(key.getBytes(StandardCharsets.UTF_8)));
+            }
+        });
+        changedKeys.clear();
+    }
+
+    /**
+     * Compacts the log if required, otherwise waits until all appended records have been written.
+     */
+    public CompletableFuture<Boolean> persist(Supplier<T> snapshotSupplier) {
+        if (persistence.isCompactionRequired()) {
+            return persistence.compactAsync(snapshotSupplier);
+        }
+        return persistence.flushAsync().thenApply(nil -> true);
+    }
+
+    public static String toKey(LogRecord record) {
+        return new String(record.getKey(), StandardCharsets.UTF_8);
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private void append(String key, byte[] value) {
+        ByteArray hash = hash(value);
+        if (!hash.equals(writtenHashByKey.get(key))) {
+            writtenHashByKey.put(key, hash);
+            persistedKeys.add(key);
+            persistence.appendAsync(LogRecord.put(key.getBytes(StandardCharsets.UTF_8), value));
+        }
+    }
+
+    @Nullable
+    private static byte[] serialize(String key, Supplier<byte[]> valueSupplier) {
+        try {
+            return valueSupplier.get();
+        } catch (Exception e) {
+            log.error("Could not serialize value for key {}", key, e);
+            return null;
+        }
+    }
+
+    private static ByteArray hash(byte[] value) {
+        return new ByteArray(DigestUtil.hash(value));
+    }
+}
@@ -43,10 +43,12 @@ import bisq.network.p2p.services.confidential.ConfidentialMessageService;
 import bisq.offer.bisq_easy.BisqEasyOffer;
 import bisq.offer.price.spec.PriceSpec;
 import bisq.persistence.DbSubDirectory;
-import bisq.persistence.Persistence;
-import bisq.persistence.RateLimitedPersistenceClient;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.PersistenceClient;
+import bisq.persistence.log.LogRecord;
 import bisq.settings.SettingsService;
 import bisq.trade.ServiceProvider;
+import bisq.trade.TradeStoreChangeLog;
 import bisq.trade.bisq_easy.protocol.BisqEasyBuyerAsMakerProtocol;
 import bisq.trade.bisq_easy.protocol.BisqEasyBuyerAsTakerProtocol;
 import bisq.trade.bisq_easy.protocol.BisqEasyClosedTrade;
@@ -74,6 +76,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -89,7 +92,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
 @Getter
-public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyTradeStore> implements Service, ConfidentialMessageService.Listener {
+public class BisqEasyTradeService implements PersistenceClient<BisqEasyTradeStore>, Service, ConfidentialMessageService.Listener {
     private final ServiceProvider serviceProvider;
     private final NetworkService networkService;
     private final IdentityService identityService;
@@ -97,7 +100,8 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
     private final BannedUserService bannedUserService;
     private final AlertService alertService;
 
-    private final Persistence<BisqEasyTradeStore> persistence;
+    private final LogStructuredPersistence<BisqEasyTradeStore> persistence;
+    private final TradeStoreChangeLog<BisqEasyTradeStore> changeLog;
     private final AppType appType;
     private final BisqEasyTradeStore persistableStore = new BisqEasyTradeStore();
 
@@ -124,7 +128,8 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
         contactListService = serviceProvider.getUserService().getContactListService();
         userProfileService = serviceProvider.getUserService().getUserProfileService();
 
-        persistence = serviceProvider.getPersistenceService().getOrCreatePersistence(this, DbSubDirectory.PRIVATE, persistableStore);
+        persistence = serviceProvider.getPersistenceService().getOrCreateLogStructuredPersistence(this, DbSubDirectory.PRIVATE, persistableStore);
+        changeLog = new TradeStoreChangeLog<>(persistence);
         this.appType = appType;
     }
 
@@ -203,7 +208,46 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
         }
 
         networkService.removeConfidentialMessageListener(this);
-        return CompletableFuture.completedFuture(true);
+        return persist();
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // PersistenceClient
+    /* --------------------------------------------------------------------- */
+
+    @Override
+    public Optional<BisqEasyTradeStore> readPersisted() {
+        Optional<BisqEasyTradeStore> snapshot = persistence.read();
+        List<LogRecord> records = changeLog.readLog();
+        if (snapshot.isEmpty() && records.isEmpty()) {
+            return Optional.empty();
+        }
+
+        BisqEasyTradeStore persisted = snapshot.orElseGet(BisqEasyTradeStore::new);
+        persisted.applyLogRecords(records);
+        persistableStore.applyPersisted(persisted);
+        changeLog.applyPersisted(persistableStore.getKeys());
+        return Optional.of(persisted);
+    }
+
+    /**
+     * Writes the trades, trade IDs and closed trades which have been marked as changed, or their removal.
+     */
+    @Override
+    public CompletableFuture<Boolean> persist() {
+        changeLog.writeChanges(persistableStore::serializeEntry);
+        return changeLog.persist(persistableStore::getClone);
+    }
+
+    /**
+     * Writes only the given trade, if it has changed and is still an open trade. Used by the trade protocol after
+     * handling an event.
+     */
+    public CompletableFuture<Boolean> persist(BisqEasyTrade trade) {
+        String tradeId = trade.getId();
+        changeLog.put(persistableStore.getTradeKey(tradeId), persistableStore.getTradeValueSupplier(tradeId));
+        return changeLog.persist(persistableStore::getClone);
     }
 
 
@@ -304,6 +348,7 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
 
         checkArgument(!tradeExists(bisqEasyTrade.getId()), "A trade with that ID exists already");
         persistableStore.addTrade(bisqEasyTrade);
+        markChanged(bisqEasyTrade);
         persist();
 
         maybeAddPeerToContactList(makerNetworkId.getId(), takerNetworkId.getId());
@@ -397,6 +442,7 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
         persistableStore.getClosedTrades().add(bisqEasyClosedTrade);
 
         tradeProtocolById.remove(trade.getId());
+        markChanged(trade);
         persist();
     }
 
@@ -407,6 +453,7 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
                 .findFirst();
         if (closedTrade.isPresent()) {
             closedTrades.remove(closedTrade.get());
+            markChanged(trade);
             persist();
         } else {
             log.warn("Could not delete trade {}", trade.getId());
@@ -430,6 +477,7 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
         checkArgument(!tradeExists(tradeId), "A trade with that ID exists already");
 
         persistableStore.addTrade(bisqEasyTrade);
+        markChanged(bisqEasyTrade);
         persist();
 
         maybeAddPeerToContactList(sender.getId(), myIdentity.getId());
@@ -495,6 +543,7 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
                     if (doRedaction) {
 
                         trade.setPaymentAccountData(Optional.of(redactedMarker));
+                        markChanged(trade);
                     }
                     return doRedaction;
                 })
@@ -518,4 +567,9 @@ public class BisqEasyTradeService extends RateLimitedPersistenceClient<BisqEasyT
             }
         }
     }
+
+    // Marks the open trade, the trade ID and the closed trade entries of that trade to get written at the next persist
+    private void markChanged(BisqEasyTrade trade) {
+        changeLog.markChanged(persistableStore.getKeys(trade.getId()));
+    }
 }
@@ -21,6 +21,8 @@ import bisq.common.observable.collection.ObservableSet;
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.persistence.PersistableStore;
+import bisq.persistence.log.LogRecord;
+import bisq.trade.TradeStoreChangeLog;
 import bisq.trade.bisq_easy.protocol.BisqEasyClosedTrade;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.AccessLevel;
@@ -28,16 +30,26 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Getter(AccessLevel.PACKAGE)
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 @Slf4j
 public final class BisqEasyTradeStore implements PersistableStore<BisqEasyTradeStore> {
+    // Prefixes of the keys of the change log records
+    private static final String TRADE_KEY_PREFIX = "trade/";
+    private static final String TRADE_ID_KEY_PREFIX = "tradeId/";
+    private static final String CLOSED_TRADE_KEY_PREFIX = "closedTrade/";
+    private static final byte[] EMPTY = new byte[0];
+
     private final ObservableSet<BisqEasyTrade> trades = new ObservableSet<>();
 
     // We keep track of all trades by storing the trade IDs to avoid that the same trade can be taken again.
@@ -154,4 +166,89 @@ public final class BisqEasyTradeStore implements PersistableStore<BisqEasyTradeS
     boolean tradeExists(String tradeId) {
         return tradeIds.contains(tradeId);
     }
+
+    Set<String> getKeys() {
+        Set<String> keys = new HashSet<>();
+        trades.forEach(trade -> keys.add(TRADE_KEY_PREFIX + trade.getId()));
+        tradeIds.forEach(tradeId -> keys.add(TRADE_ID_KEY_PREFIX + tradeId));
+        closedTrades.forEach(closedTrade -> keys.add(CLOSED_TRADE_KEY_PREFIX + closedTrade.trade().getId()));
+        return keys;
+    }
+
+    // All keys which can hold data of the given trade
+    Set<String> getKeys(String tradeId) {
+        return Set.of(TRADE_KEY_PREFIX + tradeId, TRADE_ID_KEY_PREFIX + tradeId, CLOSED_TRADE_KEY_PREFIX + tradeId);
+    }
+
+    // Returns null if the store does not contain an entry for that key
+    @Nullable
+    byte[] serializeEntry(String key) {
+        if (key.startsWith(TRADE_KEY_PREFIX)) {
+            return findTrade(key.substring(TRADE_KEY_PREFIX.length()))
+                    .map(trade -> trade.toProto(false).toByteArray())
+                    .orElse(null);
+        } else if (key.startsWith(TRADE_ID_KEY_PREFIX)) {
+            return tradeIds.contains(key.substring(TRADE_ID_KEY_PREFIX.length())) ? EMPTY : null;
+        } else if (key.startsWith(CLOSED_TRADE_KEY_PREFIX)) {
+            String tradeId = key.substring(CLOSED_TRADE_KEY_PREFIX.length());
+            return closedTrades.stream()
+                    .filter(closedTrade -> closedTrade.trade().getId().equals(tradeId))
+                    .findAny()
+                    .map(closedTrade -> closedTrade.toProto(false).toByteArray())
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    String getTradeKey(String tradeId) {
+        return TRADE_KEY_PREFIX + tradeId;
+    }
+
+    // Supplies null if the trade is not an open trade anymore
+    Supplier<byte[]> getTradeValueSupplier(String tradeId) {
+        return () -> serializeEntry(getTradeKey(tradeId));
+    }
+
+    void applyLogRecords(List<LogRecord> records) {
+        Map<String, BisqEasyTrade> tradeById = trades.stream()
+                .collect(Collectors.toMap(BisqEasyTrade::getId, trade -> trade, (a, b) -> a));
+        Set<String> allTradeIds = new HashSet<>(tradeIds);
+        Map<String, BisqEasyClosedTrade> closedTradeById = closedTrades.stream()
+                .collect(Collectors.toMap(closedTrade -> closedTrade.trade().getId(), closedTrade -> closedTrade, (a, b) -> a));
+        records.forEach(record -> {
+            String key = TradeStoreChangeLog.toKey(record);
+            boolean isPut = record.getType() == LogRecord.Type.PUT;
+            try {
+                if (key.startsWith(TRADE_KEY_PREFIX)) {
+                    String tradeId = key.substring(TRADE_KEY_PREFIX.length());
+                    if (isPut) {
+                        tradeById.put(tradeId, BisqEasyTrade.fromProto(bisq.trade.protobuf.Trade.parseFrom(record.getValue())));
+                    } else {
+                        tradeById.remove(tradeId);
+                    }
+                } else if (key.startsWith(TRADE_ID_KEY_PREFIX)) {
+                    String tradeId = key.substring(TRADE_ID_KEY_PREFIX.length());
+                    if (isPut) {
+                        allTradeIds.add(tradeId);
+                    } else {
+                        allTradeIds.remove(tradeId);
+                    }
+                } else if (key.startsWith(CLOSED_TRADE_KEY_PREFIX)) {
+                    String tradeId = key.substring(CLOSED_TRADE_KEY_PREFIX.length());
+                    if (isPut) {
+                        closedTradeById.put(tradeId, BisqEasyClosedTrade.fromProto(bisq.trade.protobuf.BisqEasyClosedTrade.parseFrom(record.getValue())));
+                    } else {
+                        closedTradeById.remove(tradeId);
+                    }
+                } else {
+                    log.warn("Unknown key of log record {}", key);
+                }
+            } catch (Exception e) {
+                log.error("Could not apply log record for key {}", key, e);
+            }
+        });
+        trades.setAll(tradeById.values());
+        tradeIds.setAll(allTradeIds);
+        closedTrades.setAll(closedTradeById.values());
+    }
 }
\ No newline at end of file
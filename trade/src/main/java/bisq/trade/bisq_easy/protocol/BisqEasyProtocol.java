@@ -19,15 +19,16 @@ package bisq.trade.bisq_easy.protocol;
 
 import bisq.common.fsm.Event;
 import bisq.common.fsm.EventHandler;
+import bisq.common.fsm.EventHandlerConstructors;
 import bisq.common.fsm.FsmException;
 import bisq.trade.ServiceProvider;
 import bisq.trade.bisq_easy.BisqEasyTrade;
 import bisq.trade.protocol.TradeProtocol;
 
-import java.lang.reflect.InvocationTargetException;
-
 public abstract class BisqEasyProtocol extends TradeProtocol<BisqEasyTrade> {
     public static final String VERSION = "1.0.0";
+    private static final EventHandlerConstructors EVENT_HANDLER_CONSTRUCTORS =
+            new EventHandlerConstructors(ServiceProvider.class, BisqEasyTrade.class);
 
     public BisqEasyProtocol(ServiceProvider serviceProvider, BisqEasyTrade model) {
         super(VERSION, serviceProvider, model);
@@ -36,9 +37,8 @@ public abstract class BisqEasyProtocol extends TradeProtocol<BisqEasyTrade> {
     @Override
     protected <E extends Event> EventHandler<E> newEventHandlerFromClass(Class<? extends EventHandler<E>> handlerClass) {
         try {
-            return handlerClass.getDeclaredConstructor(ServiceProvider.class, BisqEasyTrade.class).newInstance(serviceProvider, model);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                 NoSuchMethodException e) {
+            return EVENT_HANDLER_CONSTRUCTORS.newInstance(handlerClass, serviceProvider, model);
+        } catch (ReflectiveOperationException e) {
             throw new RuntimeException(e);
         }
     }
@@ -55,7 +55,7 @@ public abstract class BisqEasyProtocol extends TradeProtocol<BisqEasyTrade> {
 
     @Override
     protected void persist() {
-        getServiceProvider().getBisqEasyTradeService().persist();
+        getServiceProvider().getBisqEasyTradeService().persist(model);
     }
 
     public BisqEasyTrade getTrade() {
@@ -47,6 +47,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static bisq.trade.MuSigDisputeState.isArbitrationState;
@@ -61,7 +62,7 @@ final class MuSigTradeDisputeService {
     private final MuSigTraderMediationService muSigTraderMediationService;
     private final MuSigTraderArbitrationService muSigTraderArbitrationService;
     private final Function<String, Optional<MuSigTrade>> findTrade;
-    private final Runnable persist;
+    private final Consumer<MuSigTrade> persist;
 
     private final Map<String, Set<EnvelopePayloadMessage>> pendingDisputeMessagesByTradeId = new ConcurrentHashMap<>();
 
@@ -81,7 +82,7 @@ final class MuSigTradeDisputeService {
             MuSigOpenTradeChannel channel = findChannelByTradeId(trade.getId()).orElseThrow();
 
             tradeDispute.setDisputeState(MuSigDisputeState.MEDIATION_REQUESTED);
-            persist.run();
+            persist.accept(trade);
             muSigTraderMediationService.requestMediation(trade.getId(), trade.getMyIdentity(),
                     trade.getPeer(), mediator.get(), contract, channel);
         }
@@ -111,7 +112,7 @@ final class MuSigTradeDisputeService {
             MuSigOpenTradeChannel channel = findChannelByTradeId(trade.getId()).orElseThrow();
 
             tradeDispute.setDisputeState(MuSigDisputeState.ARBITRATION_REQUESTED);
-            persist.run();
+            persist.accept(trade);
             muSigTraderArbitrationService.requestArbitration(
                     trade.getId(), trade.getMyIdentity(), trade.getPeer(),
                     arbitrator.get(), contract,
@@ -154,7 +155,7 @@ final class MuSigTradeDisputeService {
         checkArgument(trade.getTradeDispute().getMuSigMediationResult().isPresent());
         MuSigOpenTradeChannel channel = findChannelByTradeId(trade.getId()).orElseThrow();
         if (trade.getMyself().setMediationResultAccepted(mediationResultAccepted)) {
-            persist.run();
+            persist.accept(trade);
             muSigTraderMediationService.sendMediationResultAcceptanceMessage(
                     trade.getId(), trade.getMyIdentity(), trade.getPeer(), mediationResultAccepted, channel);
         }
@@ -247,7 +248,7 @@ final class MuSigTradeDisputeService {
 
         if (next != current) {
             tradeDispute.setDisputeState(next);
-            persist.run();
+            persist.accept(trade);
             muSigTraderMediationService.applyMediationStateToChannel(trade.getId(), next, current, tradeAndChannel.channel());
 
             if (shouldSendPeerReport) {
@@ -309,7 +310,7 @@ final class MuSigTradeDisputeService {
         }
 
         if (trade.getPeer().setMediationResultAccepted(message.isMediationResultAccepted())) {
-            persist.run();
+            persist.accept(trade);
         }
     }
 
@@ -446,7 +447,7 @@ final class MuSigTradeDisputeService {
 
         if (next != current) {
             tradeDispute.setDisputeState(next);
-            persist.run();
+            persist.accept(trade);
             muSigTraderArbitrationService.applyArbitrationStateToChannel(trade.getId(), next, current, tradeAndChannel.channel());
             maybeProcessPendingDisputeMessages(trade.getId());
         }
@@ -52,14 +52,16 @@ import bisq.offer.options.AccountOption;
 import bisq.offer.options.OfferOptionUtil;
 import bisq.offer.price.spec.PriceSpec;
 import bisq.persistence.DbSubDirectory;
-import bisq.persistence.Persistence;
-import bisq.persistence.RateLimitedPersistenceClient;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.PersistenceClient;
+import bisq.persistence.log.LogRecord;
 import bisq.settings.SettingsService;
 import bisq.support.arbitration.mu_sig.MuSigArbitrationStateChangeMessage;
 import bisq.support.dispute.mu_sig.MuSigDisputeCasePaymentDetailsRequest;
 import bisq.support.mediation.mu_sig.MuSigMediationResultAcceptanceMessage;
 import bisq.support.mediation.mu_sig.MuSigMediationStateChangeMessage;
 import bisq.trade.ServiceProvider;
+import bisq.trade.TradeStoreChangeLog;
 import bisq.trade.mu_sig.arbitration.MuSigTraderArbitrationService;
 import bisq.trade.mu_sig.events.MuSigTradeEvent;
 import bisq.trade.mu_sig.events.blockchain.DepositTxConfirmedEvent;
@@ -89,6 +91,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -104,7 +107,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
 @Getter
-public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigTradeStore> implements Service, ConfidentialMessageService.Listener {
+public final class MuSigTradeService implements PersistenceClient<MuSigTradeStore>, Service, ConfidentialMessageService.Listener {
     @Getter
     public static class Config {
         private final String host;
@@ -139,7 +142,8 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
     @Getter
     private final MuSigTradeStore persistableStore = new MuSigTradeStore();
     @Getter
-    private final Persistence<MuSigTradeStore> persistence;
+    private final LogStructuredPersistence<MuSigTradeStore> persistence;
+    private final TradeStoreChangeLog<MuSigTradeStore> changeLog;
     @Getter
     private final MusigGrpcClient musigGrpcClient;
     private final AppType appType;
@@ -195,8 +199,9 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
                 this::findTrade,
                 this::persist);
 
-        persistence = serviceProvider.getPersistenceService().getOrCreatePersistence(
+        persistence = serviceProvider.getPersistenceService().getOrCreateLogStructuredPersistence(
                 this, DbSubDirectory.PRIVATE, persistableStore);
+        changeLog = new TradeStoreChangeLog<>(persistence);
 
         musigGrpcClient = new MusigGrpcClient(config.getHost(), config.getPort());
         this.appType = appType;
@@ -334,7 +339,44 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
         ExecutorFactory.shutdownAndAwaitTermination(executor, 100);
         executor = null;
 
-        return musigGrpcClient.shutdown();
+        return persist().thenCompose(result -> musigGrpcClient.shutdown());
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // PersistenceClient
+    /* --------------------------------------------------------------------- */
+
+    @Override
+    public Optional<MuSigTradeStore> readPersisted() {
+        Optional<MuSigTradeStore> snapshot = persistence.read();
+        List<LogRecord> records = changeLog.readLog();
+        if (snapshot.isEmpty() && records.isEmpty()) {
+            return Optional.empty();
+        }
+
+        MuSigTradeStore persisted = snapshot.orElseGet(MuSigTradeStore::new);
+        persisted.applyLogRecords(records);
+        persistableStore.applyPersisted(persisted);
+        changeLog.applyPersisted(persistableStore.getKeys());
+        return Optional.of(persisted);
+    }
+
+    /**
+     * Writes the trades which have been marked as changed, or their removal.
+     */
+    @Override
+    public CompletableFuture<Boolean> persist() {
+        changeLog.writeChanges(persistableStore::serializeEntry);
+        return changeLog.persist(persistableStore::getClone);
+    }
+
+    /**
+     * Writes only the given trade, if it has changed. Used by the trade protocol after handling an event.
+     */
+    public CompletableFuture<Boolean> persist(MuSigTrade trade) {
+        changeLog.put(trade.getId(), persistableStore.getTradeValueSupplier(trade.getId()));
+        return changeLog.persist(persistableStore::getClone);
     }
 
 
@@ -464,6 +506,7 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
     public void removeTrade(MuSigTrade trade) {
         persistableStore.removeTrade(trade.getId());
         tradeProtocolById.remove(trade.getId());
+        markChanged(trade);
         persist();
     }
 
@@ -523,6 +566,7 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
 
         checkArgument(!tradeExists(muSigTrade.getId()), "A trade with that ID exists already");
         persistableStore.addTrade(muSigTrade);
+        markChanged(muSigTrade);
         persist();
 
         maybeAddPeerToContactList(makerNetworkId.getId(), takerNetworkId.getId());
@@ -663,6 +707,7 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
         checkArgument(findProtocol(tradeId).isEmpty(), "We received the MuSigTakeOfferRequest for an already existing protocol");
         checkArgument(!tradeExists(tradeId), "A trade with that ID exists already");
         persistableStore.addTrade(trade);
+        markChanged(trade);
         persist();
 
         maybeAddPeerToContactList(sender.getId(), myIdentity.getId());
@@ -722,6 +767,9 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
                     boolean doRedaction = trade.getTradeCompletedDate().map(date -> date < redactDate)
                             .orElseGet(() -> trade.getContract().getTakeOfferDate() < redactDateForNotCompletedTrades);
                     //todo
+                    if (doRedaction) {
+                        markChanged(trade);
+                    }
                     return doRedaction;
                 })
                 .count();
@@ -745,4 +793,9 @@ public final class MuSigTradeService extends RateLimitedPersistenceClient<MuSigT
         }
     }
 
+    // Marks the trade to get written at the next persist
+    private void markChanged(MuSigTrade trade) {
+        changeLog.markChanged(List.of(trade.getId()));
+    }
+
 }
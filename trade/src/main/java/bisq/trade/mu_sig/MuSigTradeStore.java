@@ -21,16 +21,24 @@ import bisq.common.observable.map.ObservableHashMap;
 import bisq.common.proto.ProtoResolver;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.persistence.PersistableStore;
+import bisq.persistence.log.LogRecord;
+import bisq.trade.TradeStoreChangeLog;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
@@ -93,6 +101,40 @@ final class MuSigTradeStore implements PersistableStore<MuSigTradeStore> {
         };
     }
 
+    // The trade ID is used as key of the change log records
+    Set<String> getKeys() {
+        return new HashSet<>(tradeById.keySet());
+    }
+
+    // Returns null if the store does not contain the trade
+    @Nullable
+    byte[] serializeEntry(String tradeId) {
+        return findTrade(tradeId).map(MuSigTradeStore::serialize).orElse(null);
+    }
+
+    Supplier<byte[]> getTradeValueSupplier(String tradeId) {
+        return () -> serializeEntry(tradeId);
+    }
+
+    void applyLogRecords(List<LogRecord> records) {
+        Map<String, MuSigTrade> map = new HashMap<>(tradeById);
+        records.forEach(record -> {
+            String tradeId = TradeStoreChangeLog.toKey(record);
+            switch (record.getType()) {
+                case PUT -> {
+                    try {
+                        map.put(tradeId, MuSigTrade.fromProto(bisq.trade.protobuf.Trade.parseFrom(record.getValue())));
+                    } catch (Exception e) {
+                        log.error("Could not apply log record for trade {}", tradeId, e);
+                    }
+                }
+                case REMOVE -> map.remove(tradeId);
+            }
+        });
+        tradeById.clear();
+        tradeById.putAll(map);
+    }
+
     void addTrade(MuSigTrade trade) {
         String tradeId = trade.getId();
         if (!tradeById.containsKey(tradeId)) {
@@ -115,4 +157,8 @@ final class MuSigTradeStore implements PersistableStore<MuSigTradeStore> {
     public Collection<MuSigTrade> getTrades() {
         return tradeById.values();
     }
-}
\ No newline at end of file
+
+    private static byte[] serialize(MuSigTrade trade) {
+        return trade.toProto(false).toByteArray();
+    }
+}
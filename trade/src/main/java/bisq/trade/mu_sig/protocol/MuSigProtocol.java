@@ -19,17 +19,18 @@ package bisq.trade.mu_sig.protocol;
 
 import bisq.common.fsm.Event;
 import bisq.common.fsm.EventHandler;
+import bisq.common.fsm.EventHandlerConstructors;
 import bisq.common.fsm.FsmException;
 import bisq.trade.ServiceProvider;
 import bisq.trade.mu_sig.MuSigTrade;
 import bisq.trade.protocol.TradeProtocol;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationTargetException;
-
 @Slf4j
 public abstract class MuSigProtocol extends TradeProtocol<MuSigTrade> {
     public static final String VERSION = "1.0.0";
+    private static final EventHandlerConstructors EVENT_HANDLER_CONSTRUCTORS =
+            new EventHandlerConstructors(ServiceProvider.class, MuSigTrade.class);
 
     public MuSigProtocol(ServiceProvider serviceProvider, MuSigTrade model) {
         super(VERSION, serviceProvider, model);
@@ -38,9 +39,8 @@ public abstract class MuSigProtocol extends TradeProtocol<MuSigTrade> {
     @Override
     protected <E extends Event> EventHandler<E> newEventHandlerFromClass(Class<? extends EventHandler<E>> handlerClass) {
         try {
-            return handlerClass.getDeclaredConstructor(ServiceProvider.class, MuSigTrade.class).newInstance(serviceProvider, model);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                 NoSuchMethodException e) {
+            return EVENT_HANDLER_CONSTRUCTORS.newInstance(handlerClass, serviceProvider, model);
+        } catch (ReflectiveOperationException e) {
             throw new MuSigProtocolException(e);
         }
     }
@@ -57,7 +57,7 @@ public abstract class MuSigProtocol extends TradeProtocol<MuSigTrade> {
 
     @Override
     protected void persist() {
-        getServiceProvider().getMuSigTradeService().persist();
+        getServiceProvider().getMuSigTradeService().persist(model);
     }
 
     public MuSigTrade getTrade() {
@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.trade;
+
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.log.LogRecord;
+import bisq.trade.bisq_easy.BisqEasyTradeStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class TradeStoreChangeLogTest {
+    @SuppressWarnings("unchecked")
+    private final LogStructuredPersistence<BisqEasyTradeStore> persistence = mock(LogStructuredPersistence.class);
+    private final TradeStoreChangeLog<BisqEasyTradeStore> changeLog = new TradeStoreChangeLog<>(persistence);
+
+    @Test
+    void writesOnlyChangedEntries() {
+        changeLog.put("trade1", () -> bytes("state1"));
+        changeLog.put("trade1", () -> bytes("state1"));
+        changeLog.put("trade1", () -> bytes("state2"));
+        // Null means the entry does not exist anymore
+        changeLog.put("trade2", () -> null);
+
+        List<LogRecord> records = captureRecords(2);
+        assertThat(records.get(0).getType()).isEqualTo(LogRecord.Type.PUT);
+        assertThat(records.get(0).getValue()).isEqualTo(bytes("state1"));
+        assertThat(records.get(1).getValue()).isEqualTo(bytes("state2"));
+    }
+
+    @Test
+    void writeChangesSerializesOnlyChangedEntries() {
+        changeLog.applyPersisted(Set.of("trade1", "closedTrade2"));
+        List<String> serializedKeys = new ArrayList<>();
+        Map<String, byte[]> valueByKey = Map.of("trade1", bytes("state1"), "closedTrade2", bytes("state2"));
+
+        changeLog.writeChanges(key -> {
+            serializedKeys.add(key);
+            return valueByKey.get(key);
+        });
+        assertThat(serializedKeys).isEmpty();
+        verifyNoInteractions(persistence);
+
+        changeLog.markChanged(List.of("trade1"));
+        changeLog.writeChanges(key -> {
+            serializedKeys.add(key);
+            return valueByKey.get(key);
+        });
+        assertThat(serializedKeys).containsExactly("trade1");
+        List<LogRecord> records = captureRecords(1);
+        assertThat(records.get(0).getKey()).isEqualTo(bytes("trade1"));
+        assertThat(records.get(0).getValue()).isEqualTo(bytes("state1"));
+    }
+
+    @Test
+    void writeChangesRemovesMissingEntries() {
+        changeLog.applyPersisted(Set.of("trade1", "trade2"));
+        changeLog.markChanged(List.of("trade1", "trade2"));
+        changeLog.writeChanges(key -> key.equals("trade2") ? bytes("state3") : null);
+
+        List<LogRecord> records = captureRecords(2);
+        LogRecord remove = records.stream().filter(record -> record.getType() == LogRecord.Type.REMOVE).findAny().orElseThrow();
+        assertThat(remove.getKey()).isEqualTo(bytes("trade1"));
+        LogRecord put = records.stream().filter(record -> record.getType() == LogRecord.Type.PUT).findAny().orElseThrow();
+        assertThat(put.getKey()).isEqualTo(bytes("trade2"));
+        assertThat(put.getValue()).isEqualTo(bytes("state3"));
+    }
+
+    @Test
+    void removalOfNotPersistedEntryIsNotWritten() {
+        changeLog.markChanged(List.of("trade1"));
+        changeLog.writeChanges(key -> null);
+
+        verifyNoInteractions(persistence);
+    }
+
+    @Test
+    void failedSerializationDoesNotWriteRemoval() {
+        changeLog.applyPersisted(Set.of("trade1"));
+        changeLog.markChanged(List.of("trade1"));
+        changeLog.writeChanges(key -> {
+            throw new IllegalStateException("Serialization failed");
+        });
+
+        verifyNoInteractions(persistence);
+    }
+
+    @Test
+    void changedEntryIsWrittenOnlyOnce() {
+        changeLog.markChanged(List.of("trade1"));
+        changeLog.writeChanges(key -> bytes("state1"));
+        changeLog.writeChanges(key -> bytes("state1"));
+        changeLog.put("trade1", () -> bytes("state1"));
+
+        captureRecords(1);
+    }
+
+    private List<LogRecord> captureRecords(int numRecords) {
+        ArgumentCaptor<LogRecord> captor = ArgumentCaptor.forClass(LogRecord.class);
+        verify(persistence, times(numRecords)).appendAsync(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.trade.bisq_easy;
+
+import bisq.account.payment_method.BitcoinPaymentMethod;
+import bisq.account.payment_method.BitcoinPaymentMethodSpec;
+import bisq.account.payment_method.BitcoinPaymentRail;
+import bisq.account.payment_method.fiat.FiatPaymentMethod;
+import bisq.account.payment_method.fiat.FiatPaymentMethodSpec;
+import bisq.account.payment_method.fiat.FiatPaymentRail;
+import bisq.common.market.Market;
+import bisq.common.network.Address;
+import bisq.common.network.AddressByTransportTypeMap;
+import bisq.contract.bisq_easy.BisqEasyContract;
+import bisq.identity.Identity;
+import bisq.network.identity.NetworkId;
+import bisq.offer.Direction;
+import bisq.offer.amount.spec.BaseSideFixedAmountSpec;
+import bisq.offer.bisq_easy.BisqEasyOffer;
+import bisq.offer.price.spec.MarketPriceSpec;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.PersistableStoreResolver;
+import bisq.persistence.backup.MaxBackupSize;
+import bisq.persistence.backup.RestoreService;
+import bisq.security.keys.I2PKeyGeneration;
+import bisq.security.keys.KeyBundle;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import bisq.security.keys.TorKeyGeneration;
+import bisq.security.pow.ProofOfWork;
+import bisq.trade.TradeStoreChangeLog;
+import bisq.trade.bisq_easy.protocol.BisqEasyClosedTrade;
+import bisq.user.profile.UserProfile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BisqEasyTradeStoreTest {
+    private final UserProfile maker = createUserProfile("maker");
+    private final UserProfile taker = createUserProfile("taker");
+    private final Identity identity = createIdentity(taker.getNetworkId());
+
+    @BeforeAll
+    static void addResolver() {
+        PersistableStoreResolver.addResolver(new BisqEasyTradeStore().getResolver());
+    }
+
+    @Test
+    void snapshotAndLogRoundTrip(@TempDir Path tempDirPath) {
+        BisqEasyTrade trade1 = createTrade();
+        BisqEasyTrade trade2 = createTrade();
+        BisqEasyTradeStore store = new BisqEasyTradeStore();
+        store.addTrade(trade1);
+        store.addTrade(trade2);
+        LogStructuredPersistence<BisqEasyTradeStore> persistence = createPersistence(tempDirPath);
+        persistence.persistAsync(store.getClone()).join();
+        TradeStoreChangeLog<BisqEasyTradeStore> changeLog = new TradeStoreChangeLog<>(persistence);
+        changeLog.applyPersisted(store.getKeys());
+
+        // State transition of an open trade as written by the trade protocol
+        trade1.setPaymentAccountData(Optional.of("accountData"));
+        changeLog.put(store.getTradeKey(trade1.getId()), store.getTradeValueSupplier(trade1.getId()));
+
+        // Close trade2 and add trade3
+        store.getTrades().remove(trade2);
+        store.getClosedTrades().add(new BisqEasyClosedTrade(trade2, taker, maker));
+        changeLog.markChanged(store.getKeys(trade2.getId()));
+        BisqEasyTrade trade3 = createTrade();
+        store.addTrade(trade3);
+        changeLog.markChanged(store.getKeys(trade3.getId()));
+        changeLog.writeChanges(store::serializeEntry);
+        persistence.shutdown().join();
+
+        BisqEasyTradeStore replayed = readAndReplay(createPersistence(tempDirPath));
+        assertThat(getIds(replayed.getTrades())).containsExactlyInAnyOrder(trade1.getId(), trade3.getId());
+        assertThat(getClosedTradeIds(replayed)).containsExactly(trade2.getId());
+        assertThat(replayed.getTradeIds()).containsExactlyInAnyOrder(trade1.getId(), trade2.getId(), trade3.getId());
+        assertThat(replayed.findTrade(trade1.getId()).orElseThrow().getPaymentAccountData()).contains("accountData");
+        assertThat(replayed.getKeys()).isEqualTo(store.getKeys());
+    }
+
+    @Test
+    void deletedClosedTradeKeepsTradeId(@TempDir Path tempDirPath) {
+        BisqEasyTrade trade = createTrade();
+        BisqEasyTradeStore store = new BisqEasyTradeStore();
+        store.addTrade(trade);
+        store.getTrades().remove(trade);
+        BisqEasyClosedTrade closedTrade = new BisqEasyClosedTrade(trade, taker, maker);
+        store.getClosedTrades().add(closedTrade);
+        LogStructuredPersistence<BisqEasyTradeStore> persistence = createPersistence(tempDirPath);
+        persistence.persistAsync(store.getClone()).join();
+        TradeStoreChangeLog<BisqEasyTradeStore> changeLog = new TradeStoreChangeLog<>(persistence);
+        changeLog.applyPersisted(store.getKeys());
+
+        store.getClosedTrades().remove(closedTrade);
+        changeLog.markChanged(store.getKeys(trade.getId()));
+        changeLog.writeChanges(store::serializeEntry);
+        persistence.shutdown().join();
+
+        BisqEasyTradeStore replayed = readAndReplay(createPersistence(tempDirPath));
+        assertThat(replayed.getTrades()).isEmpty();
+        assertThat(replayed.getClosedTrades()).isEmpty();
+        assertThat(replayed.getTradeIds()).containsExactly(trade.getId());
+    }
+
+    @Test
+    void applyLogRecordsWithoutSnapshot(@TempDir Path tempDirPath) {
+        BisqEasyTrade trade = createTrade();
+        BisqEasyTradeStore store = new BisqEasyTradeStore();
+        store.addTrade(trade);
+        LogStructuredPersistence<BisqEasyTradeStore> persistence = createPersistence(tempDirPath);
+        TradeStoreChangeLog<BisqEasyTradeStore> changeLog = new TradeStoreChangeLog<>(persistence);
+        changeLog.markChanged(store.getKeys(trade.getId()));
+        changeLog.writeChanges(store::serializeEntry);
+        persistence.shutdown().join();
+
+        persistence = createPersistence(tempDirPath);
+        assertThat(persistence.read()).isEmpty();
+        BisqEasyTradeStore replayed = new BisqEasyTradeStore();
+        replayed.applyLogRecords(persistence.readLog());
+        assertThat(getIds(replayed.getTrades())).containsExactly(trade.getId());
+        assertThat(replayed.getTradeIds()).containsExactly(trade.getId());
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private static LogStructuredPersistence<BisqEasyTradeStore> createPersistence(Path tempDirPath) {
+        return new LogStructuredPersistence<>(tempDirPath, "BisqEasyTradeStore", MaxBackupSize.ZERO, new RestoreService());
+    }
+
+    private static BisqEasyTradeStore readAndReplay(LogStructuredPersistence<BisqEasyTradeStore> persistence) {
+        BisqEasyTradeStore store = persistence.read().orElseGet(BisqEasyTradeStore::new);
+        store.applyLogRecords(persistence.readLog());
+        return store;
+    }
+
+    private static Set<String> getIds(Set<BisqEasyTrade> trades) {
+        return trades.stream().map(BisqEasyTrade::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<String> getClosedTradeIds(BisqEasyTradeStore store) {
+        return store.getClosedTrades().stream().map(closedTrade -> closedTrade.trade().getId()).collect(Collectors.toSet());
+    }
+
+    private BisqEasyTrade createTrade() {
+        BisqEasyOffer offer = new BisqEasyOffer(maker.getNetworkId(),
+                Direction.BUY,
+                new Market("BTC", "EUR", "Bitcoin", "Euro"),
+                new BaseSideFixedAmountSpec(100_000),
+                new MarketPriceSpec(),
+                List.of(BitcoinPaymentMethod.fromPaymentRail(BitcoinPaymentRail.MAIN_CHAIN)),
+                List.of(FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.NATIONAL_BANK)),
+                "",
+                List.of("en"),
+                "1.0.0");
+        BisqEasyContract contract = new BisqEasyContract(System.currentTimeMillis(),
+                offer,
+                taker.getNetworkId(),
+                100_000,
+                3_500_000,
+                new BitcoinPaymentMethodSpec(BitcoinPaymentMethod.fromPaymentRail(BitcoinPaymentRail.MAIN_CHAIN)),
+                new FiatPaymentMethodSpec(FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.NATIONAL_BANK)),
+                Optional.empty(),
+                new MarketPriceSpec(),
+                0);
+        return new BisqEasyTrade(contract, false, true, identity, offer, taker.getNetworkId(), maker.getNetworkId());
+    }
+
+    private static UserProfile createUserProfile(String nickName) {
+        return new UserProfile(0,
+                nickName,
+                new ProofOfWork(new byte[20], 0, null, 1, new byte[72], 0),
+                0,
+                createNetworkId(nickName),
+                "",
+                "",
+                "");
+    }
+
+    private static NetworkId createNetworkId(String keyId) {
+        KeyPair keyPair = KeyGeneration.generateDefaultEcKeyPair();
+        Address address = Address.from("127.0.0.1", 1000);
+        return new NetworkId(new AddressByTransportTypeMap(Map.of(address.getTransportType(), address)),
+                new PubKey(keyPair.getPublic(), keyId));
+    }
+
+    private static Identity createIdentity(NetworkId networkId) {
+        KeyBundle keyBundle = new KeyBundle("taker",
+                KeyGeneration.generateDefaultEcKeyPair(),
+                TorKeyGeneration.generateKeyPair(),
+                I2PKeyGeneration.generateKeyPair());
+        return new Identity("taker", networkId, keyBundle);
+    }
+}
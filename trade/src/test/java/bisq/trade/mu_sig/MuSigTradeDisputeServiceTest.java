@@ -105,7 +105,7 @@ class MuSigTradeDisputeServiceTest {
                 muSigTraderMediationService,
                 muSigTraderArbitrationService,
                 tradeId -> Optional.ofNullable(tradeById.get(tradeId)),
-                persistCalls::incrementAndGet
+                trade -> persistCalls.incrementAndGet()
         );
     }
 
@@ -0,0 +1,217 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.trade.mu_sig;
+
+import bisq.account.accounts.fiat.NationalBankAccountPayload;
+import bisq.account.payment_method.PaymentMethod;
+import bisq.account.payment_method.PaymentMethodSpecUtil;
+import bisq.account.payment_method.fiat.FiatPaymentMethod;
+import bisq.account.payment_method.fiat.FiatPaymentRail;
+import bisq.common.market.Market;
+import bisq.common.network.AddressByTransportTypeMap;
+import bisq.common.network.TransportType;
+import bisq.common.network.clear_net_address_types.LocalHostAddressTypeFacade;
+import bisq.contract.mu_sig.MuSigContract;
+import bisq.identity.Identity;
+import bisq.network.identity.NetworkId;
+import bisq.offer.Direction;
+import bisq.offer.amount.spec.BaseSideFixedAmountSpec;
+import bisq.offer.mu_sig.MuSigOffer;
+import bisq.offer.options.AccountOption;
+import bisq.offer.options.OfferOptionUtil;
+import bisq.offer.price.spec.MarketPriceSpec;
+import bisq.persistence.LogStructuredPersistence;
+import bisq.persistence.PersistableStoreResolver;
+import bisq.persistence.backup.MaxBackupSize;
+import bisq.persistence.backup.RestoreService;
+import bisq.security.keys.I2PKeyGeneration;
+import bisq.security.keys.KeyBundle;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import bisq.security.keys.TorKeyGeneration;
+import bisq.security.pow.ProofOfWork;
+import bisq.trade.MuSigDisputeState;
+import bisq.trade.TradeStoreChangeLog;
+import bisq.user.profile.UserProfile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MuSigTradeStoreTest {
+    private final UserProfile maker = createUserProfile(20_001);
+    private final UserProfile taker = createUserProfile(20_002);
+    private final Identity identity = createIdentity(maker.getNetworkId());
+
+    @BeforeAll
+    static void addResolver() {
+        PersistableStoreResolver.addResolver(new MuSigTradeStore().getResolver());
+    }
+
+    @Test
+    void snapshotAndLogRoundTrip(@TempDir Path tempDirPath) {
+        MuSigTrade trade1 = createTrade();
+        MuSigTrade trade2 = createTrade();
+        MuSigTradeStore store = new MuSigTradeStore();
+        store.addTrade(trade1);
+        store.addTrade(trade2);
+        LogStructuredPersistence<MuSigTradeStore> persistence = createPersistence(tempDirPath);
+        persistence.persistAsync(store.getClone()).join();
+        TradeStoreChangeLog<MuSigTradeStore> changeLog = new TradeStoreChangeLog<>(persistence);
+        changeLog.applyPersisted(store.getKeys());
+
+        // State transition of a trade as written by the trade protocol or the dispute service
+        trade1.getTradeDispute().setDisputeState(MuSigDisputeState.MEDIATION_REQUESTED);
+        changeLog.put(trade1.getId(), store.getTradeValueSupplier(trade1.getId()));
+
+        // Remove trade2 and add trade3
+        store.removeTrade(trade2.getId());
+        changeLog.markChanged(List.of(trade2.getId()));
+        MuSigTrade trade3 = createTrade();
+        store.addTrade(trade3);
+        changeLog.markChanged(List.of(trade3.getId()));
+        changeLog.writeChanges(store::serializeEntry);
+        persistence.shutdown().join();
+
+        MuSigTradeStore replayed = readAndReplay(createPersistence(tempDirPath));
+        assertThat(replayed.getTradeById().keySet()).containsExactlyInAnyOrder(trade1.getId(), trade3.getId());
+        assertThat(replayed.findTrade(trade1.getId()).orElseThrow().getTradeDispute().getDisputeState())
+                .isEqualTo(MuSigDisputeState.MEDIATION_REQUESTED);
+        assertThat(replayed.findTrade(trade3.getId())).isPresent();
+    }
+
+    @Test
+    void applyLogRecordsWithoutSnapshot(@TempDir Path tempDirPath) {
+        MuSigTrade trade = createTrade();
+        MuSigTradeStore store = new MuSigTradeStore();
+        store.addTrade(trade);
+        LogStructuredPersistence<MuSigTradeStore> persistence = createPersistence(tempDirPath);
+        TradeStoreChangeLog<MuSigTradeStore> changeLog = new TradeStoreChangeLog<>(persistence);
+        changeLog.markChanged(List.of(trade.getId()));
+        changeLog.writeChanges(store::serializeEntry);
+
+        store.removeTrade(trade.getId());
+        changeLog.markChanged(List.of(trade.getId()));
+        changeLog.writeChanges(store::serializeEntry);
+        persistence.shutdown().join();
+
+        persistence = createPersistence(tempDirPath);
+        assertThat(persistence.read()).isEmpty();
+        assertThat(persistence.readLog()).hasSize(2);
+        MuSigTradeStore replayed = new MuSigTradeStore();
+        replayed.applyLogRecords(persistence.readLog());
+        assertThat(replayed.getTradeById()).isEmpty();
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private static LogStructuredPersistence<MuSigTradeStore> createPersistence(Path tempDirPath) {
+        return new LogStructuredPersistence<>(tempDirPath, "MuSigTradeStore", MaxBackupSize.ZERO, new RestoreService());
+    }
+
+    private static MuSigTradeStore readAndReplay(LogStructuredPersistence<MuSigTradeStore> persistence) {
+        MuSigTradeStore store = persistence.read().orElseGet(MuSigTradeStore::new);
+        store.applyLogRecords(persistence.readLog());
+        return store;
+    }
+
+    private MuSigTrade createTrade() {
+        String offerId = "offer-" + UUID.randomUUID();
+        PaymentMethod<?> paymentMethod = FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.NATIONAL_BANK);
+        List<AccountOption> accountOptions = List.of(new AccountOption(
+                paymentMethod,
+                "0123456789abcdef0123456789abcdef01234567",
+                Optional.empty(),
+                List.of(),
+                Optional.empty(),
+                List.of(),
+                OfferOptionUtil.createSaltedAccountPayloadHash(createNationalBankPayload("maker"), offerId)
+        ));
+        MuSigOffer offer = new MuSigOffer(
+                offerId,
+                maker.getNetworkId(),
+                Direction.BUY,
+                new Market("BTC", "EUR", "Bitcoin", "Euro"),
+                new BaseSideFixedAmountSpec(100_000L),
+                new MarketPriceSpec(),
+                List.of(paymentMethod),
+                accountOptions,
+                "1.0.0"
+        );
+        MuSigContract contract = new MuSigContract(
+                System.currentTimeMillis(),
+                offer,
+                taker.getNetworkId(),
+                100_000L,
+                3_500_000L,
+                PaymentMethodSpecUtil.createPaymentMethodSpec(paymentMethod, "EUR"),
+                OfferOptionUtil.createSaltedAccountPayloadHash(createNationalBankPayload("taker"), offerId),
+                Optional.empty(),
+                Optional.empty(),
+                new MarketPriceSpec(),
+                0
+        );
+        return new MuSigTrade(contract, true, false, identity, offer, taker.getNetworkId(), maker.getNetworkId());
+    }
+
+    private static NationalBankAccountPayload createNationalBankPayload(String id) {
+        return new NationalBankAccountPayload(
+                id,
+                "DE",
+                "EUR",
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                "DE0001",
+                Optional.empty(),
+                Optional.empty()
+        );
+    }
+
+    private static UserProfile createUserProfile(int port) {
+        KeyPair keyPair = KeyGeneration.generateDefaultEcKeyPair();
+        PubKey pubKey = new PubKey(keyPair.getPublic(), "key-" + port);
+        AddressByTransportTypeMap addresses = new AddressByTransportTypeMap(
+                Map.of(TransportType.CLEAR, LocalHostAddressTypeFacade.toLocalHostAddress(port))
+        );
+        NetworkId networkId = new NetworkId(addresses, pubKey);
+        ProofOfWork proofOfWork = new ProofOfWork(pubKey.getHash(), 0, null, 1.0, new byte[72], 0);
+        return new UserProfile(1, "nick-" + port, proofOfWork, 0, networkId, "", "", "1.0.0");
+    }
+
+    private static Identity createIdentity(NetworkId networkId) {
+        KeyBundle keyBundle = new KeyBundle("maker",
+                KeyGeneration.generateDefaultEcKeyPair(),
+                TorKeyGeneration.generateKeyPair(),
+                I2PKeyGeneration.generateKeyPair());
+        return new Identity("maker", networkId, keyBundle);
+    }
+}
@@ -39,17 +39,20 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Slf4j
 public class UserProfileService extends RateLimitedPersistenceClient<UserProfileStore> implements DataService.Listener, Service {
     private static final String SEPARATOR_START = " [";
     private static final String SEPARATOR_END = "]";
+    private static final int PARALLEL_VERIFICATION_THRESHOLD = 1000;
     @Getter
     private static UserProfileService instance;
 
@@ -83,12 +86,12 @@ public class UserProfileService extends RateLimitedPersistenceClient<UserProfile
         log.info("initialize");
         networkService.addDataServiceListener(this);
         networkService.getDataService().ifPresent(dataService -> {
-            dataService.getAuthenticatedData().forEach(authenticatedData -> {
-                if (authenticatedData.getDistributedData() instanceof UserProfile userProfile) {
-                    processUserProfileAddedOrRefreshed(userProfile, true);
-                }
-            });
-            persist();
+            List<UserProfile> userProfiles = dataService.getAuthenticatedData()
+                    .map(AuthenticatedData::getDistributedData)
+                    .filter(distributedData -> distributedData instanceof UserProfile)
+                    .map(distributedData -> (UserProfile) distributedData)
+                    .toList();
+            processUserProfilesBatch(userProfiles);
         });
 
         numUserProfiles.set(userProfileById.size());
@@ -199,42 +202,86 @@ public class UserProfileService extends RateLimitedPersistenceClient<UserProfile
     }
 
     private void processUserProfileAddedOrRefreshed(UserProfile userProfile) {
-        processUserProfileAddedOrRefreshed(userProfile, false);
-    }
-
-    private void processUserProfileAddedOrRefreshed(UserProfile userProfile, boolean fromBatchProcessing) {
         String userProfileId = userProfile.getId();
         Optional<UserProfile> existingUserProfile = findUserProfile(userProfileId);
-        // ApplicationVersion is excluded in equals check, so we check manually for it.
-        if (existingUserProfile.isEmpty() ||
-                !existingUserProfile.get().equals(userProfile) ||
-                !existingUserProfile.get().getApplicationVersion().equals(userProfile.getApplicationVersion())) {
+        if (isNewOrChanged(existingUserProfile, userProfile)) {
             if (verifyUserProfile(userProfile)) {
                 synchronized (persistableStore) {
                     addNymToNickNameHashMap(userProfile.getNym(), userProfile.getNickName());
                     userProfileById.put(userProfileId, userProfile);
                 }
                 numUserProfiles.set(userProfileById.size());
-                if (!fromBatchProcessing) {
-                    // At initial batch processing we call persist at the end, to avoid many multiple persist calls
-                    persist();
-                }
+                persist();
             } else {
                 log.warn("Invalid user profile {}", userProfile);
             }
         } else {
-            if (userProfile.getPublishDate() > existingUserProfile.get().getPublishDate()) {
-                existingUserProfile.get().setPublishDate(userProfile.getPublishDate());
-                if (!fromBatchProcessing) {
-                    // At initial batch processing we call persist at the end, to avoid many multiple persist calls
-                    persist();
-                }
+            if (maybeUpdatePublishDate(existingUserProfile.get(), userProfile)) {
+                persist();
             } else {
                 log.debug("Ignore added userProfile as we have it already and nothing has changed");
             }
         }
     }
 
+    // At the initial batch processing we verify the new or changed user profiles in parallel, as the network
+    // contains many thousands of them. The valid ones are applied in one update, and we call persist once at the end.
+    private void processUserProfilesBatch(List<UserProfile> userProfiles) {
+        long ts = System.currentTimeMillis();
+        List<UserProfile> candidates = new ArrayList<>();
+        userProfiles.forEach(userProfile -> {
+            Optional<UserProfile> existingUserProfile = findUserProfile(userProfile.getId());
+            if (isNewOrChanged(existingUserProfile, userProfile)) {
+                candidates.add(userProfile);
+            } else {
+                maybeUpdatePublishDate(existingUserProfile.get(), userProfile);
+            }
+        });
+
+        Stream<UserProfile> stream = candidates.size() > PARALLEL_VERIFICATION_THRESHOLD
+                ? candidates.parallelStream()
+                : candidates.stream();
+        // The stream is ordered, so if the same profile ID is contained multiple times the last one is applied, as it
+        // would be at sequential processing.
+        List<UserProfile> verifiedUserProfiles = stream
+                .filter(userProfile -> {
+                    boolean isValid = verifyUserProfile(userProfile);
+                    if (!isValid) {
+                        log.warn("Invalid user profile {}", userProfile);
+                    }
+                    return isValid;
+                })
+                .toList();
+
+        Map<String, UserProfile> verifiedUserProfileById = new LinkedHashMap<>();
+        synchronized (persistableStore) {
+            verifiedUserProfiles.forEach(userProfile -> {
+                addNymToNickNameHashMap(userProfile.getNym(), userProfile.getNickName());
+                verifiedUserProfileById.put(userProfile.getId(), userProfile);
+            });
+            userProfileById.putAll(verifiedUserProfileById);
+        }
+        numUserProfiles.set(userProfileById.size());
+        persist();
+        log.info("Processing {} user profiles took {} ms. {} user profiles have been verified.",
+                userProfiles.size(), System.currentTimeMillis() - ts, candidates.size());
+    }
+
+    private static boolean isNewOrChanged(Optional<UserProfile> existingUserProfile, UserProfile userProfile) {
+        // ApplicationVersion is excluded in equals check, so we check manually for it.
+        return existingUserProfile.isEmpty() ||
+                !existingUserProfile.get().equals(userProfile) ||
+                !existingUserProfile.get().getApplicationVersion().equals(userProfile.getApplicationVersion());
+    }
+
+    private static boolean maybeUpdatePublishDate(UserProfile existingUserProfile, UserProfile userProfile) {
+        if (userProfile.getPublishDate() > existingUserProfile.getPublishDate()) {
+            existingUserProfile.setPublishDate(userProfile.getPublishDate());
+            return true;
+        }
+        return false;
+    }
+
     private void processUserProfileRemoved(UserProfile userProfile) {
         synchronized (persistableStore) {
             removeNymFromNickNameHashMap(userProfile.getNym(), userProfile.getNickName());
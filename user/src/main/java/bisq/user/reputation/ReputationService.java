@@ -30,6 +30,7 @@ import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfile;
 import bisq.user.profile.UserProfileService;
 import com.google.common.annotations.VisibleForTesting;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,6 +46,9 @@ public class ReputationService implements Service {
     private final SignedWitnessService signedWitnessService;
     private final Observable<String> userProfileIdWithScoreChange = new Observable<>();
     private final ObservableHashMap<String, Long> scoreByUserProfileId = new ObservableHashMap<>();
+    // Sorted scores of all user profiles for rank lookups. Updated together with scoreByUserProfileId.
+    @Getter(AccessLevel.NONE)
+    private final ScoreRankIndex scoreRankIndex = new ScoreRankIndex();
     private final ProfileAgeService profileAgeService;
     private final NetworkService networkService;
 
@@ -134,19 +138,41 @@ public class ReputationService implements Service {
     }
 
     public Optional<ReputationScore> findReputationScore(String userProfileId) {
+        synchronized (scoreRankIndex) {
+            return doFindReputationScore(userProfileId);
+        }
+    }
+
+    /**
+     * Batch lookup for lists of user profiles (e.g. all rows of the offerbook). The ranks are based on the same
+     * state of the scores.
+     *
+     * @return The reputation scores by user profile ID. User profiles without a score are not included.
+     */
+    public Map<String, ReputationScore> findReputationScores(Collection<String> userProfileIds) {
+        Map<String, ReputationScore> result = new HashMap<>();
+        synchronized (scoreRankIndex) {
+            userProfileIds.forEach(userProfileId ->
+                    doFindReputationScore(userProfileId).ifPresent(score -> result.put(userProfileId, score)));
+        }
+        return result;
+    }
+
+    private Optional<ReputationScore> doFindReputationScore(String userProfileId) {
         long score;
         if (DevMode.isDevMode() && DevMode.devModeReputationScore() > 0) {
             score = DevMode.devModeReputationScore();
         } else {
-            if (!scoreByUserProfileId.containsKey(userProfileId)) {
+            Long storedScore = scoreByUserProfileId.get(userProfileId);
+            if (storedScore == null) {
                 return Optional.empty();
             }
-            score = scoreByUserProfileId.get(userProfileId);
+            score = storedScore;
         }
 
         double fiveSystemScore = getFiveSystemScore(score);
-        int index = getIndex(score, scoreByUserProfileId.values());
-        int rank = scoreByUserProfileId.size() - index;
+        int index = scoreRankIndex.getIndex(score);
+        int rank = scoreRankIndex.size() - index;
         return Optional.of(new ReputationScore(score, fiveSystemScore, rank));
     }
 
@@ -160,7 +186,13 @@ public class ReputationService implements Service {
                 accountAgeService.getScore(userProfileId) +
                 signedWitnessService.getScore(userProfileId) +
                 profileAgeService.getScore(userProfileId);
-        scoreByUserProfileId.put(userProfileId, score);
+        synchronized (scoreRankIndex) {
+            Long previousScore = scoreByUserProfileId.put(userProfileId, score);
+            if (previousScore != null) {
+                scoreRankIndex.remove(previousScore);
+            }
+            scoreRankIndex.add(score);
+        }
         userProfileIdWithScoreChange.set(userProfileId);
     }
 
@@ -193,8 +225,8 @@ public class ReputationService implements Service {
 
     @VisibleForTesting
     static int getIndex(long candidateScore, Collection<Long> scores) {
-        List<Long> list = new ArrayList<>(scores);
-        Collections.sort(list);
-        return list.indexOf(candidateScore);
+        ScoreRankIndex scoreRankIndex = new ScoreRankIndex();
+        scores.forEach(scoreRankIndex::add);
+        return scoreRankIndex.getIndex(candidateScore);
     }
 }
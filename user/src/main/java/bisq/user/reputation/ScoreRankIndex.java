@@ -0,0 +1,180 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import java.util.Random;
+
+/**
+ * Sorted multiset of scores supporting add, remove and rank queries in O(log n) (expected).
+ * Implemented as treap with subtree sizes. Equal scores share one node with a count.
+ */
+final class ScoreRankIndex {
+    private static final class Node {
+        private final long score;
+        private final int priority;
+        private int count = 1;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long score, int priority) {
+            this.score = score;
+            this.priority = priority;
+        }
+
+        private void updateSize() {
+            size = count + size(left) + size(right);
+        }
+    }
+
+    private final Random random = new Random();
+    private Node root;
+
+    synchronized void add(long score) {
+        root = add(root, score);
+    }
+
+    synchronized void remove(long score) {
+        root = remove(root, score);
+    }
+
+    synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * @return The number of scores lower than the given score, which is the index of the first occurrence of the
+     * score in the ascending sorted list of all scores.
+     */
+    synchronized int getNumLowerScores(long score) {
+        int result = 0;
+        Node node = root;
+        while (node != null) {
+            if (score <= node.score) {
+                node = node.left;
+            } else {
+                result += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The index of the first occurrence of the score in the ascending sorted list of all scores or -1 if the
+     * score is not contained.
+     */
+    synchronized int getIndex(long score) {
+        return contains(score) ? getNumLowerScores(score) : -1;
+    }
+
+    synchronized boolean contains(long score) {
+        Node node = root;
+        while (node != null) {
+            if (score == node.score) {
+                return true;
+            }
+            node = score < node.score ? node.left : node.right;
+        }
+        return false;
+    }
+
+
+    /* --------------------------------------------------------------------- */
+    // Private
+    /* --------------------------------------------------------------------- */
+
+    private Node add(Node node, long score) {
+        if (node == null) {
+            return new Node(score, random.nextInt());
+        }
+        if (score == node.score) {
+            node.count++;
+        } else if (score < node.score) {
+            node.left = add(node.left, score);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = add(node.right, score);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private Node remove(Node node, long score) {
+        if (node == null) {
+            return null;
+        }
+        if (score < node.score) {
+            node.left = remove(node.left, score);
+        } else if (score > node.score) {
+            node.right = remove(node.right, score);
+        } else if (node.count > 1) {
+            node.count--;
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    // All scores in left are lower than all scores in right
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.updateSize();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.updateSize();
+            return right;
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.updateSize();
+        left.updateSize();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.updateSize();
+        right.updateSize();
+        return right;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ScoreRankIndexTest {
+
+    @Test
+    void testAddAndRemove() {
+        ScoreRankIndex scoreRankIndex = new ScoreRankIndex();
+        scoreRankIndex.add(5);
+        scoreRankIndex.add(2);
+        scoreRankIndex.add(2);
+        scoreRankIndex.add(9);
+        assertEquals(4, scoreRankIndex.size());
+        assertEquals(0, scoreRankIndex.getIndex(2));
+        assertEquals(2, scoreRankIndex.getIndex(5));
+        assertEquals(3, scoreRankIndex.getIndex(9));
+        assertEquals(-1, scoreRankIndex.getIndex(3));
+
+        scoreRankIndex.remove(2);
+        assertEquals(3, scoreRankIndex.size());
+        assertEquals(0, scoreRankIndex.getIndex(2));
+        assertEquals(1, scoreRankIndex.getIndex(5));
+
+        scoreRankIndex.remove(2);
+        assertEquals(-1, scoreRankIndex.getIndex(2));
+        assertEquals(0, scoreRankIndex.getIndex(5));
+    }
+
+    @Test
+    void testMatchesSortedList() {
+        Random random = new Random(1);
+        ScoreRankIndex scoreRankIndex = new ScoreRankIndex();
+        List<Long> scores = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (scores.isEmpty() || random.nextInt(3) > 0) {
+                long score = random.nextInt(500);
+                scoreRankIndex.add(score);
+                scores.add(score);
+            } else {
+                scoreRankIndex.remove(scores.remove(random.nextInt(scores.size())));
+            }
+            if (i % 100 == 0) {
+                long candidateScore = random.nextInt(520);
+                List<Long> sorted = new ArrayList<>(scores);
+                Collections.sort(sorted);
+                assertEquals(sorted.indexOf(candidateScore), scoreRankIndex.getIndex(candidateScore));
+                assertEquals(sorted.size(), scoreRankIndex.size());
+            }
+        }
+    }
+}